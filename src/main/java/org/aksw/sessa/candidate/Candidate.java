@@ -1,5 +1,7 @@
 package org.aksw.sessa.candidate;
 
+import java.util.Arrays;
+
 /**
  * This class is used to store a candidate for a n-gram and its energy. The energy approximates the
  * probability that a node should be part of or lead to the solution generated by SESSA.
@@ -9,6 +11,12 @@ public class Candidate {
   private String key;
   private String uri;
   private float energy;
+  /**
+   * Contains the scores of the energy functions applied by a
+   * {@link org.aksw.sessa.importing.dictionary.util.CandidateScoring}, NaN for the functions
+   * which were not applied yet.
+   */
+  private float[] scores;
 
   /**
    * Constructs a Candidate with its content. More formally it contains the URI that was found for a
@@ -84,8 +92,40 @@ public class Candidate {
   }
 
   /**
-   * Compares the specified object with this candidate for equality. More formally, the uri and key
-   * will be compared. If they are the same, the objects are treated as the same
+   * Discards all stored scores and prepares the storage of the scores of the given number of
+   * energy functions.
+   *
+   * @param functionCount number of energy functions whose scores can be stored
+   */
+  public void initScores(int functionCount) {
+    scores = new float[functionCount];
+    Arrays.fill(scores, Float.NaN);
+  }
+
+  /**
+   * Returns the stored score of the energy function with the given number.
+   *
+   * @param function number of the energy function
+   * @return the stored score, NaN if the function was not applied yet
+   */
+  public float getScore(int function) {
+    return scores == null || function >= scores.length ? Float.NaN : scores[function];
+  }
+
+  /**
+   * Stores the score of the energy function with the given number. The storage has to be prepared
+   * with {@link #initScores(int)}.
+   *
+   * @param function number of the energy function
+   * @param score score of the energy function for this candidate
+   */
+  public void setScore(int function, float score) {
+    scores[function] = score;
+  }
+
+  /**
+   * Compares the specified object with this candidate for equality. More formally, the URIs and
+   * keys will be compared. If they are the same, the objects are treated as the same
    *
    * @param other the reference object with which to compare
    * @return {@code true} if this object is the same as the obj argument; {@code false} otherwise.
@@ -93,35 +133,31 @@ public class Candidate {
   @Override
   public boolean equals(Object other) {
     if (other instanceof Candidate) {
-      if (!((Candidate) other).getKey().equals(this.getKey())) {
-        return false;
-      }
       if (!((Candidate) other).getUri().equals(this.getUri())) {
         return false;
       }
-      return true;
+      return ((Candidate) other).getKey().equals(this.getKey());
     } else {
       return false;
     }
   }
 
   /**
-   * Returns a hash code value for the object. More formally, the the uri and the key are united and
-   * the result is the hash code.
+   * Returns a hash code value for the object. More formally, the hash code is combined from the
+   * hash codes of the URI and the key, which are cached by the strings.
    *
    * @return a hash code value for this object.
    */
   @Override
   public int hashCode() {
-    String hashCodeBase = getKey() + getUri();
-    return hashCodeBase.hashCode();
+    return 31 * getKey().hashCode() + getUri().hashCode();
   }
 
   @Override
   public String toString() {
     return "Candidate{" +
         "key='" + key + '\'' +
-        ", uri='" + uri + '\'' +
+        ", uri='" + getUri() + '\'' +
         ", energy=" + energy +
         '}';
   }
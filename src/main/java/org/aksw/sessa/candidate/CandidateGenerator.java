@@ -1,12 +1,18 @@
 package org.aksw.sessa.candidate;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.aksw.sessa.importing.dictionary.DictionaryInterface;
 import org.aksw.sessa.query.models.NGramEntryPosition;
 import org.aksw.sessa.query.models.NGramHierarchy;
+import org.aksw.sessa.query.models.NGramPositionTable;
 
 /**
  * Created by Simon Bordewisch on 08.06.17. Given a mapping of n-grams to URIs, provides a mapping
@@ -15,14 +21,28 @@ import org.aksw.sessa.query.models.NGramHierarchy;
 public class CandidateGenerator {
 
   private DictionaryInterface dictionary;
+  private ExecutorService executor;
 
   /**
-   * Initialize with a mapping of n-grams to URIs.
+   * Initialize with a mapping of n-grams to URIs. All n-grams will be looked up sequentially.
    *
    * @param dictionary mapping of n-grams to URIs
    */
   public CandidateGenerator(DictionaryInterface dictionary) {
+    this(dictionary, null);
+  }
+
+  /**
+   * Initialize with a mapping of n-grams to URIs and an executor. If the executor is given, the
+   * n-grams will be looked up in parallel on it. In this case the dictionary has to be safe for
+   * concurrent use.
+   *
+   * @param dictionary mapping of n-grams to URIs
+   * @param executor executor on which the look ups are made or null for sequential look ups
+   */
+  public CandidateGenerator(DictionaryInterface dictionary, ExecutorService executor) {
     this.dictionary = dictionary;
+    this.executor = executor;
   }
 
   /**
@@ -35,35 +55,81 @@ public class CandidateGenerator {
       NGramHierarchy nGramHierarchy) {
     Map<NGramEntryPosition, Set<Candidate>> candidateMap = new HashMap<>();
 
-    // first iteration: only add to candidateMap
+    // first iteration: look up all n-grams and only add to candidateMap
+    Map<NGramEntryPosition, String> nGrams = new HashMap<>();
     for (NGramEntryPosition nGram : nGramHierarchy.getAllPositions()) {
-      Set<Candidate> nGramMappings;
-      String nGram2 = nGramHierarchy.getNGram(nGram);
-      nGramMappings = dictionary.get(nGram2);
-      if (nGramMappings == null) {
-        nGramMappings = new HashSet<>();
+      nGrams.put(nGram, nGramHierarchy.getNGram(nGram));
+    }
+    Map<String, Set<Candidate>> foundCandidates;
+    if (executor == null) {
+      foundCandidates = dictionary.getAll(nGrams.values());
+    } else {
+      foundCandidates = getAllInParallel(nGrams.values());
+    }
+    for (Entry<NGramEntryPosition, String> nGram : nGrams.entrySet()) {
+      // copy, because the same n-gram could appear on multiple positions and is pruned below
+      Set<Candidate> nGramMappings = new HashSet<>();
+      Set<Candidate> found = foundCandidates.get(nGram.getValue());
+      if (found != null) {
+        nGramMappings.addAll(found);
       }
-      candidateMap.put(nGram, nGramMappings);
+      candidateMap.put(nGram.getKey(), nGramMappings);
     }
 
     // second iteration: prune from children
-    for (NGramEntryPosition parent : candidateMap.keySet()) {
-      for (NGramEntryPosition child : parent.getAllDescendants()) {
-        Set<Candidate> parentCandidates = candidateMap.get(parent);
-        Set<Candidate> childCandidates = candidateMap.get(child);
-        Set<Candidate> tmpPruneSet = new HashSet<>();
-        for (Candidate parentCandidate : parentCandidates) {
-          for (Candidate childCandidate : childCandidates) {
-            if (parentCandidate.getUri().equals(childCandidate.getUri())) {
-              tmpPruneSet.add(childCandidate);
-            }
-          }
-        }
-        childCandidates.removeAll(tmpPruneSet);
-        candidateMap.put(child, childCandidates);
+    NGramPositionTable positionTable = nGramHierarchy.getPositionTable();
+    for (Entry<NGramEntryPosition, Set<Candidate>> parent : candidateMap.entrySet()) {
+      Set<String> parentUris = new HashSet<>();
+      for (Candidate parentCandidate : parent.getValue()) {
+        parentUris.add(parentCandidate.getUri());
+      }
+      if (parentUris.isEmpty()) {
+        continue;
+      }
+      for (NGramEntryPosition child : positionTable.getDescendants(parent.getKey())) {
+        candidateMap.get(child).removeIf(
+            childCandidate -> parentUris.contains(childCandidate.getUri()));
       }
     }
     return candidateMap;
   }
 
+  /**
+   * Looks up every distinct n-gram as its own task on the executor and merges the results. If a
+   * look up fails or the thread is interrupted, the remaining look ups are cancelled.
+   *
+   * @param nGrams n-grams which should be looked up
+   * @return mapping of every n-gram to its candidates
+   * @throws IllegalStateException if a look up failed or the thread was interrupted
+   */
+  private Map<String, Set<Candidate>> getAllInParallel(Collection<String> nGrams) {
+    Map<String, Future<Set<Candidate>>> lookUps = new HashMap<>();
+    Map<String, Set<Candidate>> foundCandidates = new HashMap<>();
+    try {
+      for (String nGram : nGrams) {
+        if (!lookUps.containsKey(nGram)) {
+          lookUps.put(nGram, executor.submit(() -> dictionary.get(nGram)));
+        }
+      }
+      for (Entry<String, Future<Set<Candidate>>> lookUp : lookUps.entrySet()) {
+        try {
+          foundCandidates.put(lookUp.getKey(), lookUp.getValue().get());
+        } catch (ExecutionException eE) {
+          throw new IllegalStateException("Could not look up '" + lookUp.getKey() + "'.",
+              eE.getCause());
+        }
+      }
+    } catch (InterruptedException iE) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while looking up the n-grams.", iE);
+    } finally {
+      if (foundCandidates.size() < lookUps.size()) {
+        for (Future<Set<Candidate>> lookUp : lookUps.values()) {
+          lookUp.cancel(true);
+        }
+      }
+    }
+    return foundCandidates;
+  }
+
 }
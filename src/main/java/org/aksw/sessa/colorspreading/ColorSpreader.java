@@ -1,13 +1,19 @@
 package org.aksw.sessa.colorspreading;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import org.aksw.sessa.helper.collections.UriIndex;
 import org.aksw.sessa.helper.graph.GraphInterface;
 import org.aksw.sessa.helper.graph.Node;
 import org.aksw.sessa.helper.graph.SelfBuildingGraph;
 import org.aksw.sessa.candidate.Candidate;
+import org.aksw.sessa.importing.rdf.SparqlGraphFiller;
+import org.aksw.sessa.importing.rdf.TripleSourceInterface;
 import org.aksw.sessa.query.models.NGramEntryPosition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,11 +28,27 @@ public class ColorSpreader {
 
 
   private static final Logger log = LoggerFactory.getLogger(ColorSpreader.class);
-  private GraphInterface graph;
-  private Set<Node> lastActivatedNodes;
-  private Set<Node> activatedNodes;
-  private Set<Node> resultNodes;
+  private static final byte UNKNOWN = 0;
+  private static final byte COMBINABLE = 1;
+  private static final byte NOT_COMBINABLE = 2;
+  private SelfBuildingGraph graph;
+  /**
+   * Indices of the nodes which were activated in the last step, in the order of their activation.
+   */
+  private int[] lastActivatedNodes;
+  private int lastActivatedCount;
+  private BitSet activatedNodes;
+  private Set<Node<?>> resultNodes;
   private int bestExplanation;
+  /**
+   * Caches, by node index, the neighbors, the number of active neighbors of fact nodes (-1 if not
+   * counted yet) and whether the colors can be combined, for the nodes looked at since the graph
+   * changed the last time.
+   */
+  private int[][] neighborCache = new int[0][];
+  private int[] activeNeighborCounts = new int[0];
+  private byte[] combinableNodes = new byte[0];
+  private int graphModificationCount = -1;
 
   /**
    * Constructs the initial graph in colorspreader with the given candidate mapping.
@@ -34,11 +56,37 @@ public class ColorSpreader {
    * @param nGramMapping provides the mapping (reverse dictionary) of n-grams to candidates
    */
   public ColorSpreader(Map<NGramEntryPosition, Set<Candidate>> nGramMapping) {
-    lastActivatedNodes = new HashSet<>();
-    activatedNodes = new HashSet<>(lastActivatedNodes);
+    this(nGramMapping, new SparqlGraphFiller());
+  }
+
+  /**
+   * Constructs the initial graph in colorspreader with the given candidate mapping. The graph is
+   * expanded with the triples of the given source.
+   *
+   * @param nGramMapping provides the mapping (reverse dictionary) of n-grams to candidates
+   * @param tripleSource source of the triples used to expand the graph
+   */
+  public ColorSpreader(Map<NGramEntryPosition, Set<Candidate>> nGramMapping,
+      TripleSourceInterface tripleSource) {
+    this(nGramMapping, tripleSource, null);
+  }
+
+  /**
+   * Constructs the initial graph in colorspreader with the given candidate mapping. The graph is
+   * expanded with the triples of the given source, whose look ups are run concurrently on the given
+   * executor.
+   *
+   * @param nGramMapping provides the mapping (reverse dictionary) of n-grams to candidates
+   * @param tripleSource source of the triples used to expand the graph
+   * @param expansionExecutor executor for the look ups, null for sequential look ups
+   */
+  public ColorSpreader(Map<NGramEntryPosition, Set<Candidate>> nGramMapping,
+      TripleSourceInterface tripleSource, Executor expansionExecutor) {
+    lastActivatedNodes = new int[0];
+    activatedNodes = new BitSet();
     resultNodes = new HashSet<>();
     bestExplanation = -1;
-    graph = new SelfBuildingGraph();
+    graph = new SelfBuildingGraph(tripleSource, expansionExecutor);
     initializeWithEmptyGraph(nGramMapping);
   }
 
@@ -50,17 +98,18 @@ public class ColorSpreader {
   private void initializeWithEmptyGraph(Map<NGramEntryPosition, Set<Candidate>> nGramMapping) {
     for (Entry<NGramEntryPosition, Set<Candidate>> entry : nGramMapping.entrySet()) {
       for (Candidate candidate : entry.getValue()) {
-        Node<String> node = new Node<>(candidate.getUri());
+        Node<Integer> node = new Node<>(graph.getUriIndex().getId(candidate.getUri()));
         node.addColor(entry.getKey());
         node.setEnergy(candidate.getEnergy());
         if (graph.containsNode(node)) {
           node.newId();
         }
-        lastActivatedNodes.add(node);
         graph.addNode(node);
+        int index = graph.indexOf(node);
+        lastActivatedNodes = append(lastActivatedNodes, lastActivatedCount++, index);
+        activatedNodes.set(index);
       }
     }
-    activatedNodes.addAll(lastActivatedNodes);
     updateResult();
   }
 
@@ -70,8 +119,9 @@ public class ColorSpreader {
    */
   private void updateResult() {
     log.debug("Starting Update process for explanation score. {} nodes to check.",
-        lastActivatedNodes.size());
-    for (Node node : lastActivatedNodes) {
+        lastActivatedCount);
+    for (int i = 0; i < lastActivatedCount; i++) {
+      Node<?> node = graph.getNode(lastActivatedNodes[i]);
       if (!node.isFactNode()) {
         log.debug("Checking explanation of node {}", node);
         if (node.getExplanation() >= bestExplanation) {
@@ -91,102 +141,192 @@ public class ColorSpreader {
   /**
    * Returns result set, containing all nodes with the highest explanation score.
    */
-  public Set<Node> getResult() {
+  public Set<Node<?>> getResult() {
     return resultNodes;
   }
 
+  private static int[] append(int[] indices, int position, int index) {
+    if (position == indices.length) {
+      indices = Arrays.copyOf(indices, Math.max(16, 2 * indices.length));
+    }
+    indices[position] = index;
+    return indices;
+  }
+
+  /**
+   * Returns the neighbors of the node with the given index. The neighbors are cached until the
+   * graph changes.
+   *
+   * @param index index of the node whose neighbors should be returned
+   * @return indices of the neighbors of the given node
+   */
+  private int[] getNeighbors(int index) {
+    discardCachesIfGraphChanged();
+    int[] neighbors = neighborCache[index];
+    if (neighbors == null) {
+      neighbors = graph.getAllNeighborIndices(index);
+      neighborCache[index] = neighbors;
+    }
+    return neighbors;
+  }
+
+  private void discardCachesIfGraphChanged() {
+    int modificationCount = graph.getModificationCount();
+    if (modificationCount != graphModificationCount) {
+      neighborCache = new int[graph.size()][];
+      activeNeighborCounts = new int[graph.size()];
+      Arrays.fill(activeNeighborCounts, -1);
+      combinableNodes = new byte[graph.size()];
+      graphModificationCount = modificationCount;
+    }
+  }
+
+  /**
+   * Returns true if the given node has an explanation and energy, i.e. if it counts for the
+   * minimum activation criterion of its fact nodes.
+   */
+  private static boolean isActive(Node<?> node) {
+    return node.getExplanation() > 0 && node.getEnergy() > 0;
+  }
+
   /**
-   * Updates the scores of a given node based on their neighbours
+   * Returns the number of active neighbors of the given fact node. The number is counted once and
+   * then kept up to date by {@link #updateNode(int)}.
    *
-   * @param node node which should be updated
+   * @param factNode index of the fact node whose active neighbors should be counted
+   * @return number of active neighbors
    */
-  private void updateNode(Node node) {
+  private int countActiveNeighbors(int factNode) {
+    int[] neighbors = getNeighbors(factNode);
+    if (activeNeighborCounts[factNode] < 0) {
+      int count = 0;
+      for (int neighbor : neighbors) {
+        if (isActive(graph.getNode(neighbor))) {
+          count++;
+        }
+      }
+      activeNeighborCounts[factNode] = count;
+    }
+    return activeNeighborCounts[factNode];
+  }
+
+  /**
+   * Updates the scores of a given node based on their neighbours. If the node becomes active or
+   * inactive, the counts of its fact nodes are updated.
+   *
+   * @param index index of the node which should be updated
+   */
+  private void updateNode(int index) {
+    int[] neighbors = getNeighbors(index);
+    Node<?> node = graph.getNode(index);
     int energy = 0;
-    for (Node neighbor : graph.getAllNeighbors(node)) {
-      energy += neighbor.getEnergy();
+    for (int neighbor : neighbors) {
+      energy += graph.getNode(neighbor).getEnergy();
     }
+    boolean wasActive = isActive(node);
     node.setEnergy(energy);
+    if (wasActive != isActive(node)) {
+      for (int neighbor : neighbors) {
+        if (activeNeighborCounts[neighbor] >= 0) {
+          activeNeighborCounts[neighbor] += wasActive ? -1 : 1;
+        }
+      }
+    }
   }
 
   /**
    * Makes one step of the spreading activation algorithm. Mainly checks neighbors of nodes which
    * where activated in the last step for the activation criteria and updates their scores if they
-   * fulfill those.
+   * fulfill those. Only the neighbors of the nodes activated in the last step are checked, so the
+   * work of a step is proportional to the edges of these nodes.
    *
    * @return true if at least one node was updated (i.e. it got a new color)
    */
   private boolean makeActivationStep() {
-    Set<Node> updatedLastActivatedNodes = new HashSet<>();
+    int[] updatedNodes = new int[0];
+    int updatedCount = 0;
+    BitSet isUpdated = new BitSet();
     log.debug("Checking if new nodes can be activated. Number of Candidates: {}",
-        lastActivatedNodes.size());
-    for (Node node : lastActivatedNodes) {
-      Set<Node> neighbors = graph.getAllNeighbors(node);
-      for (Node neighbor : neighbors) {
-        log.debug("Checking if following node can be activated:{}", neighbor);
-        boolean fulfillsMinimumActivationCriterion = true;
-
+        lastActivatedCount);
+    for (int i = 0; i < lastActivatedCount; i++) {
+      for (int neighbor : getNeighbors(lastActivatedNodes[i])) {
+        if (activatedNodes.get(neighbor)) {
+          continue;
+        }
+        log.debug("Checking if following node can be activated:{}", graph.getNode(neighbor));
         /* We are considering neighbors of already activated nodes,
          * therefore only fact nodes could potentially not fulfill the
          * minimum activation criterion.
          */
-        if (neighbor.isFactNode()) {
-          Set<Node> neighborsOfFactNode = graph.getAllNeighbors(neighbor);
-          int countActivated = 0;
-          for (Node factNodeNeighbor : neighborsOfFactNode) {
-            if (factNodeNeighbor.getExplanation() > 0 && factNodeNeighbor.getEnergy() > 0) {
-              countActivated++;
-            }
-          }
-          if (countActivated < 2) {
-            fulfillsMinimumActivationCriterion = false;
-          }
+        if (graph.getNode(neighbor).isFactNode() && countActiveNeighbors(neighbor) < 2) {
+          continue;
         }
-        if (fulfillsMinimumActivationCriterion &&
-            colorsCanBeCombined(neighbor) &&
-            !activatedNodes.contains(neighbor)) {
+        if (colorsCanBeCombined(neighbor)) {
           log.debug("Node can be updated");
           updateNode(neighbor);
-          updatedLastActivatedNodes.add(neighbor);
+          if (!isUpdated.get(neighbor)) {
+            isUpdated.set(neighbor);
+            updatedNodes = append(updatedNodes, updatedCount++, neighbor);
+          }
         }
       }
     }
-    lastActivatedNodes = updatedLastActivatedNodes;
-    activatedNodes.addAll(lastActivatedNodes);
+    lastActivatedNodes = updatedNodes;
+    lastActivatedCount = updatedCount;
+    activatedNodes.or(isUpdated);
     updateResult();
-    return !lastActivatedNodes.isEmpty();
+    return lastActivatedCount > 0;
 
   }
 
   /**
-   * Checks if the given node can combine the colors of the neighbors.
+   * Checks if the given node can combine the colors of the neighbors. The colors only change when
+   * the graph changes, so the result is cached until then.
    *
-   * @param node Node to check the criterion for
+   * @param index index of the node to check the criterion for
    * @return true if the colors can be combined
    */
-  private boolean colorsCanBeCombined(Node node) {
-    Set<Node> neighbors = graph.getAllNeighbors(node);
-    for (Node neighbor : neighbors) {
-      if (!node.colorsAreMergeable(neighbor.getColors())) {
-        log.debug("Nodes {} and {} cannot combine colors.", node, neighbor);
-        return false;
+  private boolean colorsCanBeCombined(int index) {
+    int[] neighbors = getNeighbors(index);
+    if (combinableNodes[index] == UNKNOWN) {
+      Node<?> node = graph.getNode(index);
+      combinableNodes[index] = COMBINABLE;
+      for (int neighbor : neighbors) {
+        if (!node.colorsAreMergeable(graph.getNode(neighbor))) {
+          log.debug("Nodes {} and {} cannot combine colors.", node, graph.getNode(neighbor));
+          combinableNodes[index] = NOT_COMBINABLE;
+          break;
+        }
       }
     }
-    return true;
+    return combinableNodes[index] == COMBINABLE;
+  }
+
+  /**
+   * Expands the graph as far as possible before the colors are spread, so that the spreading only
+   * reads the graph.
+   */
+  private void expandGraph() {
+    long startTime = System.currentTimeMillis();
+    int expansions = graph.expandUntil(SelfBuildingGraph.MAX_EXPANSIONS);
+    log.debug("Expanded graph {} times in {} ms. Number of nodes in graph: {}", expansions,
+        System.currentTimeMillis() - startTime, graph.size());
   }
 
   /**
    * Spreads colors until there are no changes, i.e. it repeats the activation step until no node
-   * was updated.
+   * was updated. The graph is expanded before the first activation step.
    *
    * @return the nodes with the highest explanation score
    */
-  public Set<Node> spreadColors() {
+  public Set<Node<?>> spreadColors() {
+    expandGraph();
     boolean colorsHaveSpread = true;
     int activationSteps = 0;
     while (colorsHaveSpread) {
       activationSteps++;
       log.debug("Starting new activation step (#{}).", activationSteps);
-      log.debug("\tNumber of nodes in graph: {}", graph.getNodes().size());
+      log.debug("\tNumber of nodes in graph: {}", graph.size());
       colorsHaveSpread = makeActivationStep();
     }
     log.debug("Spreading colors completed");
@@ -204,5 +344,14 @@ public class ColorSpreader {
     return graph;
   }
 
+  /**
+   * Returns the index of the URIs of the graph, which gives the contents of its nodes.
+   *
+   * @return index of the URIs of the graph
+   */
+  public UriIndex getUriIndex() {
+    return graph.getUriIndex();
+  }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,224 @@
+package org.aksw.sessa.helper.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+/**
+ * This class provides a bounded in-memory cache. If the cache is full, the least recently used
+ * entry is evicted. Additionally, entries expire after a given time to live. All methods are
+ * synchronized, so the cache can be shared between threads.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the cached values
+ */
+public class LruCache<K, V> {
+
+  private final int maximumSize;
+  private final long timeToLive;
+  private final LinkedHashMap<K, CacheEntry<V>> entries;
+  private long hitCount;
+  private long missCount;
+
+  /**
+   * Constructs an empty cache with the given bounds.
+   *
+   * @param maximumSize maximum number of entries in the cache
+   * @param timeToLive time (in milliseconds) after which an entry expires; 0 means that entries
+   * never expire
+   */
+  public LruCache(int maximumSize, long timeToLive) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("The maximum size has to be positive.");
+    }
+    if (timeToLive < 0) {
+      throw new IllegalArgumentException("The time to live must not be negative.");
+    }
+    this.maximumSize = maximumSize;
+    this.timeToLive = timeToLive;
+    // access-ordered, so the eldest entry is the least recently used one
+    this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Entry<K, CacheEntry<V>> eldest) {
+        return size() > LruCache.this.maximumSize;
+      }
+    };
+    hitCount = 0;
+    missCount = 0;
+  }
+
+  /**
+   * Returns the value cached for the given key or null if there is none or it has expired.
+   *
+   * @param key key whose associated value is to be returned
+   * @return the cached value or null
+   */
+  public synchronized V get(K key) {
+    CacheEntry<V> entry = entries.get(key);
+    if (entry != null && isExpired(entry)) {
+      entries.remove(key);
+      entry = null;
+    }
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    return entry.value;
+  }
+
+  /**
+   * Caches the given value for the given key. If the cache is full, the least recently used entry
+   * is evicted.
+   *
+   * @param key key with which the value should be associated
+   * @param value value to be cached
+   */
+  public synchronized void put(K key, V value) {
+    put(key, value, currentTime());
+  }
+
+  /**
+   * Caches the given value for the given key as if it was cached at the given time, e.g. when the
+   * entry is restored from a previous run. The time to live counts from the given time.
+   *
+   * @param key key with which the value should be associated
+   * @param value value to be cached
+   * @param creationTime time (in milliseconds) at which the value was cached
+   */
+  protected synchronized void put(K key, V value, long creationTime) {
+    entries.put(key, new CacheEntry<>(value, creationTime));
+  }
+
+  /**
+   * Passes every entry which has not expired to the given consumer, from the least to the most
+   * recently used entry. The order of the entries is not changed.
+   *
+   * @param consumer consumer of the entries
+   */
+  protected synchronized void forEachEntry(EntryConsumer<K, V> consumer) {
+    for (Entry<K, CacheEntry<V>> entry : entries.entrySet()) {
+      if (!isExpired(entry.getValue())) {
+        consumer.accept(entry.getKey(), entry.getValue().value, entry.getValue().creationTime);
+      }
+    }
+  }
+
+  /**
+   * Removes all entries from the cache. The hit and miss counters stay as they are.
+   */
+  public synchronized void invalidateAll() {
+    entries.clear();
+  }
+
+  /**
+   * Removes all expired entries from the cache.
+   */
+  public synchronized void removeExpired() {
+    Iterator<CacheEntry<V>> it = entries.values().iterator();
+    while (it.hasNext()) {
+      if (isExpired(it.next())) {
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Returns the number of entries in the cache, including entries which have expired but were not
+   * yet removed.
+   *
+   * @return number of entries in the cache
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the maximum number of entries in the cache.
+   *
+   * @return maximum number of entries in the cache
+   */
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Returns how often a value was found in the cache.
+   *
+   * @return number of cache hits
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns how often no value was found in the cache.
+   *
+   * @return number of cache misses
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  private boolean isExpired(CacheEntry<V> entry) {
+    return isExpired(entry.creationTime);
+  }
+
+  /**
+   * Returns true if an entry cached at the given time has expired.
+   *
+   * @param creationTime time (in milliseconds) at which the entry was cached
+   * @return true if the entry has expired
+   */
+  protected boolean isExpired(long creationTime) {
+    return timeToLive > 0 && currentTime() - creationTime > timeToLive;
+  }
+
+  /**
+   * Returns the current time in milliseconds.
+   *
+   * @return current time in milliseconds
+   */
+  protected long currentTime() {
+    return System.currentTimeMillis();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "LruCache{" +
+        "size=" + entries.size() +
+        ", maximumSize=" + maximumSize +
+        ", hitCount=" + hitCount +
+        ", missCount=" + missCount +
+        '}';
+  }
+
+  /**
+   * Consumer of the entries in the cache, see {@link #forEachEntry(EntryConsumer)}.
+   *
+   * @param <K> type of the keys
+   * @param <V> type of the cached values
+   */
+  protected interface EntryConsumer<K, V> {
+
+    /**
+     * Consumes one entry of the cache.
+     *
+     * @param key key of the entry
+     * @param value cached value
+     * @param creationTime time (in milliseconds) at which the value was cached
+     */
+    void accept(K key, V value, long creationTime);
+  }
+
+  private static class CacheEntry<V> {
+
+    private final V value;
+    private final long creationTime;
+
+    private CacheEntry(V value, long creationTime) {
+      this.value = value;
+      this.creationTime = creationTime;
+    }
+  }
+}
@@ -0,0 +1,244 @@
+package org.aksw.sessa.helper.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class provides a cache for the results of queries, which is kept in a file, so that the
+ * results survive a restart. Like the {@link LruCache} it is bounded, evicts the least recently
+ * used entry and lets entries expire after a time to live.
+ *
+ * <p>Every new entry is appended to the file. On construction, the cache is warmed with all
+ * entries of the file which have not expired. Whenever the file contains as many superfluous
+ * entries (i.e. overwritten, evicted or expired ones) as the cache can hold, it is rewritten with
+ * the current entries only. An incomplete last entry, e.g. after a crash, is ignored.
+ *
+ * <p>Every entry is stored as one record, which starts with its length. The strings of the record
+ * are stored as UTF-8 bytes prefixed with their length, so they may have any length. A record is
+ * serialized in memory and appended with a single write. The file is guarded by its own lock, so
+ * look ups never wait for the file.
+ */
+public class PersistentQueryCache extends LruCache<String, Set<String>> implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(PersistentQueryCache.class);
+  private static final int MAGIC_NUMBER = 0x53455332;
+
+  private final Path file;
+  /**
+   * Guards the cache file, the stream appending to it and the number of entries in it. It is
+   * always acquired before the lock of the in-memory cache.
+   */
+  private final Object fileLock = new Object();
+  private OutputStream out;
+  private int entriesInFile;
+
+  /**
+   * Constructs a cache with the given bounds, which is kept in the given file. The cache is warmed
+   * with the entries in the file, if it already exists.
+   *
+   * @param file location of the cache file
+   * @param maximumSize maximum number of entries in the cache
+   * @param timeToLive time (in milliseconds) after which an entry expires; 0 means that entries
+   * never expire
+   * @throws IOException If an I/O error occurs
+   */
+  public PersistentQueryCache(Path file, int maximumSize, long timeToLive) throws IOException {
+    super(maximumSize, timeToLive);
+    this.file = file;
+    synchronized (fileLock) {
+      if (Files.exists(file)) {
+        warm();
+      }
+      compact();
+    }
+  }
+
+  /**
+   * Normalizes the given query, so that queries which only differ in their whitespace have the
+   * same key.
+   *
+   * @param query query to be normalized
+   * @return normalized query
+   */
+  public static String normalize(String query) {
+    return query.trim().replaceAll("\\s+", " ");
+  }
+
+  /**
+   * Caches the given results for the given key and appends them to the cache file.
+   *
+   * @param key key with which the results should be associated
+   * @param results results to be cached
+   */
+  @Override
+  public void put(String key, Set<String> results) {
+    Record record = new Record(key, results, currentTime());
+    byte[] bytes = record.toBytes();
+    // the file lock keeps the order of the records in the file the same as in the cache
+    synchronized (fileLock) {
+      super.put(key, results, record.creationTime);
+      if (out == null) {
+        return;
+      }
+      try {
+        out.write(bytes);
+        entriesInFile++;
+        if (entriesInFile - size() >= getMaximumSize()) {
+          compact();
+        }
+      } catch (IOException ioE) {
+        log.error("Could not write cache file '{}': {}", file, ioE.getLocalizedMessage());
+      }
+    }
+  }
+
+  /**
+   * Closes the cache file. Entries can still be read, but new entries are not persisted anymore.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (fileLock) {
+      if (out != null) {
+        out.close();
+        out = null;
+      }
+    }
+  }
+
+  /**
+   * Reads all entries of the cache file, which have not expired.
+   */
+  private void warm() {
+    int entries = 0;
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC_NUMBER) {
+        log.warn("'{}' is not a cache file. Starting with an empty cache.", file);
+        return;
+      }
+      while (true) {
+        int length = in.readInt();
+        if (length < 0) {
+          throw new IOException("Negative record length " + length + ".");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        Record record = Record.fromBytes(bytes);
+        if (!isExpired(record.creationTime)) {
+          super.put(record.key, record.results, record.creationTime);
+        }
+        entries++;
+      }
+    } catch (EOFException eofE) {
+      log.info("Warmed cache with {} of {} entries in '{}'.", size(), entries, file);
+    } catch (IOException | BufferUnderflowException e) {
+      log.warn("Cache file '{}' is damaged after {} entries: {}", file, entries,
+          e.getLocalizedMessage());
+    }
+  }
+
+  /**
+   * Rewrites the cache file with the current entries and opens it for appending. Only the entries
+   * are copied while the cache is locked, they are serialized and written afterwards.
+   */
+  private void compact() throws IOException {
+    close();
+    removeExpired();
+    List<Record> records = new ArrayList<>(size());
+    // from the least to the most recently used, so that warming restores the order
+    forEachEntry((key, results, creationTime) ->
+        records.add(new Record(key, results, creationTime)));
+    Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try (OutputStream tmpOut = new BufferedOutputStream(Files.newOutputStream(tmpFile))) {
+      tmpOut.write(ByteBuffer.allocate(Integer.BYTES).putInt(MAGIC_NUMBER).array());
+      for (Record record : records) {
+        tmpOut.write(record.toBytes());
+      }
+    }
+    Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    entriesInFile = records.size();
+    out = Files.newOutputStream(file, StandardOpenOption.APPEND);
+  }
+
+  /**
+   * Entry of the cache as it is stored in the cache file.
+   */
+  private static final class Record {
+
+    private final String key;
+    private final Set<String> results;
+    private final long creationTime;
+
+    private Record(String key, Set<String> results, long creationTime) {
+      this.key = key;
+      this.results = results;
+      this.creationTime = creationTime;
+    }
+
+    /**
+     * Returns the record prefixed with its length.
+     */
+    private byte[] toBytes() {
+      byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+      List<byte[]> resultBytes = new ArrayList<>(results.size());
+      int length = Integer.BYTES + keyBytes.length + Long.BYTES + Integer.BYTES;
+      for (String result : results) {
+        byte[] bytes = result.getBytes(StandardCharsets.UTF_8);
+        resultBytes.add(bytes);
+        length += Integer.BYTES + bytes.length;
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + length);
+      buffer.putInt(length);
+      buffer.putInt(keyBytes.length).put(keyBytes);
+      buffer.putLong(creationTime);
+      buffer.putInt(resultBytes.size());
+      for (byte[] bytes : resultBytes) {
+        buffer.putInt(bytes.length).put(bytes);
+      }
+      return buffer.array();
+    }
+
+    /**
+     * Reads a record without its length prefix.
+     */
+    private static Record fromBytes(byte[] bytes) {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      String key = getString(buffer);
+      long creationTime = buffer.getLong();
+      int resultCount = buffer.getInt();
+      Set<String> results = new HashSet<>();
+      for (int i = 0; i < resultCount; i++) {
+        results.add(getString(buffer));
+      }
+      return new Record(key, results, creationTime);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+      int length = buffer.getInt();
+      if (length < 0 || length > buffer.remaining()) {
+        throw new BufferUnderflowException();
+      }
+      byte[] bytes = new byte[length];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+}
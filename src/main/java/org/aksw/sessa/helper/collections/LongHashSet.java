@@ -0,0 +1,121 @@
+package org.aksw.sessa.helper.collections;
+
+/**
+ * This class provides a compact set of primitive long values. It uses open addressing with linear
+ * probing on a single long array, so every element needs only about 16 to 32 bytes. This makes it
+ * usable for sets with many millions of elements, for which a {@code HashSet<Long>} would need
+ * several times the memory. Elements cannot be removed.
+ */
+public class LongHashSet {
+
+  private static final float LOAD_FACTOR = 0.5f;
+  /**
+   * The value 0 marks free slots in the table. Therefore 0 itself is stored separately.
+   */
+  private static final long FREE = 0L;
+
+  private long[] table;
+  private int mask;
+  private int size;
+  private boolean containsFree;
+
+  /**
+   * Constructs an empty set.
+   */
+  public LongHashSet() {
+    this(16);
+  }
+
+  /**
+   * Constructs an empty set which can hold the given number of elements without resizing.
+   *
+   * @param expectedSize number of elements which are expected to be added
+   */
+  public LongHashSet(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    table = new long[capacity];
+    mask = capacity - 1;
+    size = 0;
+    containsFree = false;
+  }
+
+  /**
+   * Adds the given value to the set if it is not already present.
+   *
+   * @param value value to be added
+   * @return true if the set did not already contain the value
+   */
+  public boolean add(long value) {
+    if (value == FREE) {
+      if (containsFree) {
+        return false;
+      }
+      containsFree = true;
+      size++;
+      return true;
+    }
+    int slot = slot(value);
+    while (table[slot] != FREE) {
+      if (table[slot] == value) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    table[slot] = value;
+    size++;
+    if (size > table.length * LOAD_FACTOR) {
+      resize();
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if the set contains the given value.
+   *
+   * @param value value whose presence should be tested
+   * @return true if the set contains the value
+   */
+  public boolean contains(long value) {
+    if (value == FREE) {
+      return containsFree;
+    }
+    int slot = slot(value);
+    while (table[slot] != FREE) {
+      if (table[slot] == value) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the number of elements in this set.
+   *
+   * @return number of elements in this set
+   */
+  public int size() {
+    return size;
+  }
+
+  private int slot(long value) {
+    // spread the bits, so that similar values do not end up in neighbouring slots
+    long hash = value * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  private void resize() {
+    long[] oldTable = table;
+    table = new long[oldTable.length * 2];
+    mask = table.length - 1;
+    for (long value : oldTable) {
+      if (value != FREE) {
+        int slot = slot(value);
+        while (table[slot] != FREE) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+      }
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package org.aksw.sessa.helper.collections;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps URIs to dense, non-negative int IDs and back. Nodes carry these IDs instead of the URI
+ * strings, so that comparing and hashing them does not touch the strings. A URI gets its ID the
+ * first time it is seen by the index.
+ *
+ * <p>The IDs are only valid for the index which assigned them. Every owner has its own index,
+ * which is discarded together with its owner, e.g. the graph of one question (see {@link
+ * org.aksw.sessa.helper.graph.SelfBuildingGraph}) or a dictionary, whose index is built when the
+ * entries are imported. So no index grows over the lifetime of the application. All methods are
+ * safe for concurrent use.
+ */
+public final class UriIndex {
+
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+  private volatile String[] uris = new String[16];
+  private int size;
+
+  /**
+   * Returns the ID of the given URI. If the URI has no ID yet, the next free ID is assigned.
+   *
+   * @param uri URI whose ID should be returned
+   * @return ID of the URI
+   */
+  public int getId(String uri) {
+    Integer id = ids.get(uri);
+    if (id == null) {
+      id = add(uri);
+    }
+    return id;
+  }
+
+  /**
+   * Returns the ID of the given URI without assigning one.
+   *
+   * @param uri URI whose ID should be returned
+   * @return ID of the URI, -1 if the URI has no ID
+   */
+  public int findId(String uri) {
+    Integer id = ids.get(uri);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Returns the URI with the given ID.
+   *
+   * @param id ID returned by {@link #getId(String)}
+   * @return URI with the given ID
+   */
+  public String getUri(int id) {
+    return uris[id];
+  }
+
+  /**
+   * Returns the stored instance of the given URI, so that equal URIs share one string.
+   *
+   * @param uri URI which should be interned
+   * @return URI equal to the given one, which is stored in the index
+   */
+  public String intern(String uri) {
+    return getUri(getId(uri));
+  }
+
+  /**
+   * Returns the number of URIs which have an ID.
+   *
+   * @return number of URIs which have an ID
+   */
+  public int size() {
+    return ids.size();
+  }
+
+  private synchronized int add(String uri) {
+    Integer id = ids.get(uri);
+    if (id != null) {
+      return id;
+    }
+    String[] current = uris;
+    if (size == current.length) {
+      current = Arrays.copyOf(current, 2 * size);
+    }
+    current[size] = uri;
+    // the volatile write publishes the URI before its ID becomes visible
+    uris = current;
+    ids.put(uri, size);
+    return size++;
+  }
+}
@@ -0,0 +1,273 @@
+package org.aksw.sessa.helper.files;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts more records than fit on the heap. The records are collected in runs of a fixed size;
+ * every full run is sorted and written to a temporary file. When the sorted records are read, the
+ * runs are merged, so the heap only holds one run and one record per run file. Equal records (with
+ * respect to the comparator) are returned only once.
+ *
+ * <p>The temporary files are deleted when the sorter is closed.
+ *
+ * @param <T> type of the records
+ */
+public final class ExternalSorter<T> implements AutoCloseable {
+
+  /**
+   * Contains the maximum number of run files which are merged at once. If there are more run
+   * files, they are merged in several passes.
+   */
+  private static final int MAX_MERGED_RUNS = 64;
+
+  private final Comparator<? super T> comparator;
+  private final Codec<T> codec;
+  private final int runSize;
+  private final Path directory;
+  private final List<T> run;
+  private final List<Run> runs = new ArrayList<>();
+  private final List<DataInputStream> openStreams = new ArrayList<>();
+
+  /**
+   * Creates an empty sorter.
+   *
+   * @param comparator order of the records
+   * @param codec codec with which the records are written to the run files
+   * @param runSize maximum number of records which are kept on the heap
+   * @param directory directory of the temporary run files
+   */
+  public ExternalSorter(Comparator<? super T> comparator, Codec<T> codec, int runSize,
+      Path directory) {
+    if (runSize <= 0) {
+      throw new IllegalArgumentException("The run size has to be positive.");
+    }
+    this.comparator = comparator;
+    this.codec = codec;
+    this.runSize = runSize;
+    this.directory = directory;
+    run = new ArrayList<>(Math.min(runSize, 1024));
+  }
+
+  /**
+   * Adds the given record. If the current run is full, it is sorted and written to a run file.
+   *
+   * @param record record to add
+   * @throws IOException If the run file could not be written
+   */
+  public void add(T record) throws IOException {
+    run.add(record);
+    if (run.size() >= runSize) {
+      spill();
+    }
+  }
+
+  /**
+   * Returns a cursor over the distinct records in sorted order. No records may be added while the
+   * cursor is used.
+   *
+   * @return cursor over the sorted records
+   * @throws IOException If a run file could not be read or written
+   */
+  public Cursor<T> sorted() throws IOException {
+    if (runs.isEmpty()) {
+      // all records fit into one run, so they are not written to a file
+      run.sort(comparator);
+      int[] position = {0};
+      return distinct(() -> position[0] < run.size() ? run.get(position[0]++) : null);
+    }
+    spill();
+    while (runs.size() > MAX_MERGED_RUNS) {
+      List<Run> merged = new ArrayList<>(runs.subList(0, MAX_MERGED_RUNS));
+      runs.subList(0, MAX_MERGED_RUNS).clear();
+      runs.add(writeRun(merge(merged)));
+      for (Run mergedRun : merged) {
+        Files.delete(mergedRun.file);
+      }
+    }
+    return merge(runs);
+  }
+
+  /**
+   * Deletes all run files.
+   */
+  @Override
+  public void close() throws IOException {
+    run.clear();
+    for (DataInputStream in : openStreams) {
+      in.close();
+    }
+    openStreams.clear();
+    for (Run existingRun : runs) {
+      Files.deleteIfExists(existingRun.file);
+    }
+    runs.clear();
+  }
+
+  private void spill() throws IOException {
+    if (run.isEmpty()) {
+      return;
+    }
+    run.sort(comparator);
+    int[] position = {0};
+    runs.add(writeRun(distinct(() -> position[0] < run.size() ? run.get(position[0]++) : null)));
+    run.clear();
+  }
+
+  private Run writeRun(Cursor<T> records) throws IOException {
+    Path file = Files.createTempFile(directory, "sort", ".run");
+    long count = 0;
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      for (T record; (record = records.next()) != null; count++) {
+        codec.write(out, record);
+      }
+    }
+    return new Run(file, count);
+  }
+
+  /**
+   * Returns a cursor which merges the given sorted runs.
+   */
+  private Cursor<T> merge(List<Run> mergedRuns) throws IOException {
+    PriorityQueue<RunReader> readers =
+        new PriorityQueue<>(mergedRuns.size(), (r1, r2) -> comparator.compare(r1.head, r2.head));
+    for (Run mergedRun : mergedRuns) {
+      DataInputStream in =
+          new DataInputStream(new BufferedInputStream(Files.newInputStream(mergedRun.file)));
+      openStreams.add(in);
+      RunReader reader = new RunReader(in, mergedRun.count);
+      if (reader.advance()) {
+        readers.add(reader);
+      }
+    }
+    return distinct(() -> {
+      RunReader reader = readers.poll();
+      if (reader == null) {
+        return null;
+      }
+      T record = reader.head;
+      if (reader.advance()) {
+        readers.add(reader);
+      } else {
+        reader.in.close();
+        openStreams.remove(reader.in);
+      }
+      return record;
+    });
+  }
+
+  /**
+   * Returns a cursor which skips the records of the given sorted cursor which are equal to their
+   * predecessor.
+   */
+  private Cursor<T> distinct(Cursor<T> records) {
+    return new Cursor<T>() {
+      private T previous;
+
+      @Override
+      public T next() throws IOException {
+        T record;
+        do {
+          record = records.next();
+        } while (record != null && previous != null && comparator.compare(record, previous) == 0);
+        previous = record;
+        return record;
+      }
+    };
+  }
+
+  /**
+   * Writes records to and reads records from the run files.
+   *
+   * @param <T> type of the records
+   */
+  public interface Codec<T> {
+
+    /**
+     * Writes the given record.
+     *
+     * @param out output to write to
+     * @param record record to write
+     * @throws IOException If an I/O error occurs
+     */
+    void write(DataOutput out, T record) throws IOException;
+
+    /**
+     * Reads a record, which was written with {@link #write(DataOutput, Object)}.
+     *
+     * @param in input to read from
+     * @return record which was read
+     * @throws IOException If an I/O error occurs
+     */
+    T read(DataInput in) throws IOException;
+  }
+
+  /**
+   * Provides records one after the other.
+   *
+   * @param <T> type of the records
+   */
+  public interface Cursor<T> {
+
+    /**
+     * Returns the next record.
+     *
+     * @return next record, null if there are no more records
+     * @throws IOException If a run file could not be read
+     */
+    T next() throws IOException;
+  }
+
+  /**
+   * Contains the file of a sorted run and the number of its records.
+   */
+  private static final class Run {
+
+    private final Path file;
+    private final long count;
+
+    private Run(Path file, long count) {
+      this.file = file;
+      this.count = count;
+    }
+  }
+
+  /**
+   * Reads the records of a run file one after the other.
+   */
+  private final class RunReader {
+
+    private final DataInputStream in;
+    private long remaining;
+    private T head;
+
+    private RunReader(DataInputStream in, long count) {
+      this.in = in;
+      this.remaining = count;
+    }
+
+    /**
+     * Reads the next record into the head, returns false if the run has no more records.
+     */
+    private boolean advance() throws IOException {
+      if (remaining == 0) {
+        return false;
+      }
+      remaining--;
+      head = codec.read(in);
+      return true;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package org.aksw.sessa.helper.files;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Provides methods for strings which are stored UTF-8 encoded in (memory-mapped) byte buffers, as
+ * in the files of {@link org.aksw.sessa.importing.dictionary.implementation.MappedDictionary}.
+ */
+public final class Utf8Buffers {
+
+  /**
+   * Contains the reusable buffer for decoding the strings of each thread.
+   */
+  private static final ThreadLocal<byte[]> DECODE_BUFFER =
+      ThreadLocal.withInitial(() -> new byte[256]);
+
+  private Utf8Buffers() {
+  }
+
+  /**
+   * Compares the given query with the UTF-8 encoded string between start (inclusive) and end
+   * (exclusive) by their code points. This is the same order as the order of the encoded bytes.
+   *
+   * @param query string to compare
+   * @param bytes buffer with the encoded string
+   * @param start first byte of the encoded string
+   * @param end first byte after the encoded string
+   * @return negative number, zero or positive number if the query is less than, equal to or
+   * greater than the encoded string
+   */
+  public static int compare(String query, ByteBuffer bytes, int start, int end) {
+    int i = 0;
+    int position = start;
+    while (i < query.length() && position < end) {
+      int queryCodePoint = query.codePointAt(i);
+      i += Character.charCount(queryCodePoint);
+      int first = bytes.get(position) & 0xff;
+      int codePoint;
+      if (first < 0x80) {
+        codePoint = first;
+        position += 1;
+      } else if (first < 0xe0) {
+        codePoint = (first & 0x1f) << 6 | bytes.get(position + 1) & 0x3f;
+        position += 2;
+      } else if (first < 0xf0) {
+        codePoint = (first & 0x0f) << 12 | (bytes.get(position + 1) & 0x3f) << 6
+            | bytes.get(position + 2) & 0x3f;
+        position += 3;
+      } else {
+        codePoint = (first & 0x07) << 18 | (bytes.get(position + 1) & 0x3f) << 12
+            | (bytes.get(position + 2) & 0x3f) << 6 | bytes.get(position + 3) & 0x3f;
+        position += 4;
+      }
+      if (queryCodePoint != codePoint) {
+        return Integer.compare(queryCodePoint, codePoint);
+      }
+    }
+    return Boolean.compare(i < query.length(), position < end);
+  }
+
+  /**
+   * Decodes the UTF-8 encoded string between start (inclusive) and end (exclusive).
+   *
+   * @param bytes buffer with the encoded string
+   * @param start first byte of the encoded string
+   * @param end first byte after the encoded string
+   * @return decoded string
+   */
+  public static String decode(ByteBuffer bytes, int start, int end) {
+    int length = end - start;
+    byte[] buffer = DECODE_BUFFER.get();
+    if (buffer.length < length) {
+      buffer = Arrays.copyOf(buffer, Math.max(length, buffer.length * 2));
+      DECODE_BUFFER.set(buffer);
+    }
+    for (int i = 0; i < length; i++) {
+      buffer[i] = bytes.get(start + i);
+    }
+    return new String(buffer, 0, length, StandardCharsets.UTF_8);
+  }
+}
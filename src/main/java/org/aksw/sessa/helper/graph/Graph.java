@@ -21,9 +21,11 @@ public class Graph implements GraphInterface {
   /**
    * Node set which maps on itself to be easily searchable and gettable.
    */
-  protected Map<Node, Node> nodes;
-  protected Map<Node, Set<Node>> edgeMap;
-  protected Map<Node, Set<Node>> reversedEdgeMap; // we need both ways (besides for fact-nodes)
+  protected Map<Node<?>, Node<?>> nodes;
+  protected Map<Node<?>, Set<Node<?>>> edgeMap;
+  // we need both ways (besides for fact-nodes)
+  protected Map<Node<?>, Set<Node<?>>> reversedEdgeMap;
+  private int modificationCount;
 
   /**
    * Initialized empty graph.
@@ -40,36 +42,38 @@ public class Graph implements GraphInterface {
    * @param nodes nodes in the graph
    * @param edgeMap represents oriented edges between nodes
    */
-  public Graph(HashSet<Node> nodes, HashMap<Node, Set<Node>> edgeMap) {
+  public Graph(HashSet<Node<?>> nodes, HashMap<Node<?>, Set<Node<?>>> edgeMap) {
     this.nodes = new HashMap<>();
     this.addNodes(nodes);
     this.edgeMap = edgeMap;
-    for (Entry<Node, Set<Node>> entry : edgeMap.entrySet()) {
-      for (Node to : entry.getValue()) {
+    for (Entry<Node<?>, Set<Node<?>>> entry : edgeMap.entrySet()) {
+      for (Node<?> to : entry.getValue()) {
         addEdge(to, entry.getKey(), reversedEdgeMap);
       }
     }
   }
 
   @Override
-  public void addNode(Node node) {
-    nodes.put(node, node);
+  public void addNode(Node<?> node) {
+    if (nodes.put(node, node) == null) {
+      modificationCount++;
+    }
   }
 
   @Override
-  public void addNodes(Set<Node> nodes) {
-    for (Node node : nodes) {
+  public void addNodes(Set<Node<?>> nodes) {
+    for (Node<?> node : nodes) {
       addNode(node);
     }
   }
 
   @Override
-  public boolean containsNode(Node node) {
+  public boolean containsNode(Node<?> node) {
     return nodes.containsKey(node);
   }
 
   @Override
-  public void addEdge(Node from, Node to) {
+  public void addEdge(Node<?> from, Node<?> to) {
     try {
       if (!containsNode(from)) {
         throw new NodeNotFoundException(
@@ -79,7 +83,9 @@ public class Graph implements GraphInterface {
         throw new NodeNotFoundException(
             "Edge cannot be added, because the given node is not in the graph.", to, this);
       }
-      addEdge(from, to, edgeMap);
+      if (addEdge(from, to, edgeMap)) {
+        modificationCount++;
+      }
       addEdge(to, from, reversedEdgeMap);
     } catch (NodeNotFoundException ex) {
       log.error(ex.getLocalizedMessage());
@@ -87,44 +93,41 @@ public class Graph implements GraphInterface {
     }
   }
 
-  private void addEdge(Node from, Node to, Map<Node, Set<Node>> toMap) {
-    if (toMap.containsKey(from)) {
-      Set<Node> neighbors = toMap.get(from);
-      neighbors.add(to);
-      toMap.put(from, neighbors);
-    } else {
-      Set<Node> neighbors = new HashSet<>();
-      neighbors.add(to);
+  private boolean addEdge(Node<?> from, Node<?> to, Map<Node<?>, Set<Node<?>>> toMap) {
+    Set<Node<?>> neighbors = toMap.get(from);
+    if (neighbors == null) {
+      neighbors = new HashSet<>();
       toMap.put(from, neighbors);
     }
+    return neighbors.add(to);
   }
 
   @Override
-  public void addEdges(Map<Node, Set<Node>> edges) {
-    for (Entry<Node, Set<Node>> edgesFromNode : edges.entrySet()) {
+  public void addEdges(Map<Node<?>, Set<Node<?>>> edges) {
+    for (Entry<Node<?>, Set<Node<?>>> edgesFromNode : edges.entrySet()) {
       addEdges(edgesFromNode);
     }
   }
 
   @Override
-  public void addEdges(Entry<Node, Set<Node>> edgesFromNode) {
-    for (Node toNode : edgesFromNode.getValue()) {
+  public void addEdges(Entry<Node<?>, Set<Node<?>>> edgesFromNode) {
+    for (Node<?> toNode : edgesFromNode.getValue()) {
       addEdge(edgesFromNode.getKey(), toNode);
     }
   }
 
   @Override
-  public Set<Node> getNodes() {
+  public Set<Node<?>> getNodes() {
     return nodes.keySet();
   }
 
-  public Map<Node, Set<Node>> getEdges() {
+  public Map<Node<?>, Set<Node<?>>> getEdges() {
     return edgeMap;
   }
 
   @Override
-  public Set<Node> getNeighborsLeadingFrom(Node neighborsOf) {
-    Set<Node> neighbors = edgeMap.get(neighborsOf);
+  public Set<Node<?>> getNeighborsLeadingFrom(Node<?> neighborsOf) {
+    Set<Node<?>> neighbors = edgeMap.get(neighborsOf);
     if (neighbors != null) {
       return neighbors;
     } else {
@@ -133,8 +136,8 @@ public class Graph implements GraphInterface {
   }
 
   @Override
-  public Set<Node> getNeighborsLeadingTo(Node neighborsOf) {
-    Set<Node> neighbors = reversedEdgeMap.get(neighborsOf);
+  public Set<Node<?>> getNeighborsLeadingTo(Node<?> neighborsOf) {
+    Set<Node<?>> neighbors = reversedEdgeMap.get(neighborsOf);
     if (neighbors != null) {
       return neighbors;
     } else {
@@ -143,24 +146,29 @@ public class Graph implements GraphInterface {
   }
 
   @Override
-  public Set<Node> getAllNeighbors(Node neighborsOf) {
-    Set<Node> allNeighbors = getNeighborsLeadingFrom(neighborsOf);
+  public Set<Node<?>> getAllNeighbors(Node<?> neighborsOf) {
+    Set<Node<?>> allNeighbors = new HashSet<>(getNeighborsLeadingFrom(neighborsOf));
     allNeighbors.addAll(getNeighborsLeadingTo(neighborsOf));
     return allNeighbors;
   }
 
   @Override
-  public Graph findPathsToNodes(Set<Node> nodes) {
+  public int getModificationCount() {
+    return modificationCount;
+  }
+
+  @Override
+  public Graph findPathsToNodes(Set<Node<?>> nodes) {
     Graph pathsGraph = new Graph();
-    for (Node node : nodes) {
+    for (Node<?> node : nodes) {
       try {
         if (!this.containsNode(node)) {
           throw new NodeNotFoundException(
               "Given node '" + node.getContent().toString() + "' is not in graph.");
         }
         pathsGraph.addNode(node);
-        Set<Node> neighbors = this.getNeighborsLeadingTo(node);
-        for (Node neighbor : neighbors) {
+        Set<Node<?>> neighbors = this.getNeighborsLeadingTo(node);
+        for (Node<?> neighbor : neighbors) {
           pathsGraph.addNode(neighbor);
           pathsGraph.addEdge(neighbor, node);
         }
@@ -181,8 +189,8 @@ public class Graph implements GraphInterface {
    * @return all paths from the root to the given node
    */
   @Override
-  public Graph findPathsToNode(Node node) {
-    Set<Node> nodes = new HashSet<>();
+  public Graph findPathsToNode(Node<?> node) {
+    Set<Node<?>> nodes = new HashSet<>();
     nodes.add(node);
     return findPathsToNodes(nodes);
   }
@@ -206,14 +214,14 @@ public class Graph implements GraphInterface {
   public String toString() {
     StringBuilder sb = new StringBuilder();
     sb.append("Nodes:\n");
-    for (Node node : nodes.keySet()) {
+    for (Node<?> node : nodes.keySet()) {
       sb.append("\t");
       sb.append(node.toString());
       sb.append("\n");
     }
     sb.append("Edges:\n");
-    for (Entry<Node, Set<Node>> entry : edgeMap.entrySet()) {
-      for (Node node : entry.getValue()) {
+    for (Entry<Node<?>, Set<Node<?>>> entry : edgeMap.entrySet()) {
+      for (Node<?> node : entry.getValue()) {
         sb.append("\t");
         sb.append(entry.getKey().getContent().toString());
         sb.append(" -> ");
@@ -254,8 +262,8 @@ public class Graph implements GraphInterface {
     sb.append("digraph ");
     sb.append(graphName);
     sb.append("\n{");
-    for (Entry<Node, Set<Node>> entry : edgeMap.entrySet()) {
-      for (Node node : entry.getValue()) {
+    for (Entry<Node<?>, Set<Node<?>>> entry : edgeMap.entrySet()) {
+      for (Node<?> node : entry.getValue()) {
         sb.append("\t\"");
         sb.append(entry.getKey().getContent().toString());
         sb.append("\" -> \"");
@@ -14,21 +14,21 @@ public interface GraphInterface {
    *
    * @param node node which should be added to the graph
    */
-  void addNode(Node node);
+  void addNode(Node<?> node);
 
   /**
    * Adds all given nodes to the graph if it is not already present.
    *
    * @param nodes set of nodes which should be added to the graph
    */
-  void addNodes(Set<Node> nodes);
+  void addNodes(Set<Node<?>> nodes);
 
   /**
    * Returns all nodes of the graph as a set.
    *
    * @return set of all nodes in this graph
    */
-  Set<Node> getNodes();
+  Set<Node<?>> getNodes();
 
   /**
    * Checks if the given node is in the graph.
@@ -36,7 +36,7 @@ public interface GraphInterface {
    * @param node node which should be checked for existance in the graph
    * @return true if node is in the graph, false otherwise
    */
-  boolean containsNode(Node node);
+  boolean containsNode(Node<?> node);
 
   /**
    * Add oriented edge between two nodes.
@@ -44,14 +44,14 @@ public interface GraphInterface {
    * @param from node from which the edge originates
    * @param to node to which the edge leads to
    */
-  void addEdge(Node from, Node to);
+  void addEdge(Node<?> from, Node<?> to);
 
   /**
    * Give a map of all edges, adds all edges to the graph.
    *
    * @param edges edges which should be added to the graph
    */
-  void addEdges(Map<Node, Set<Node>> edges);
+  void addEdges(Map<Node<?>, Set<Node<?>>> edges);
 
   /**
    * Give one entry of a edge map, i.e. a representation of one node and all its edges, where it is
@@ -59,14 +59,14 @@ public interface GraphInterface {
    *
    * @param edgesFromNode edges leading from one node, which should be added to the graph
    */
-  void addEdges(Entry<Node, Set<Node>> edgesFromNode);
+  void addEdges(Entry<Node<?>, Set<Node<?>>> edgesFromNode);
 
   /**
    * Returns all edges of the graph as a map.
    *
    * @return all edges of the graph as a map
    */
-  Map<Node, Set<Node>> getEdges();
+  Map<Node<?>, Set<Node<?>>> getEdges();
 
   /**
    * Adds a given subgraph to the graph. More precisely, it adds all nodes and edges to the graph.
@@ -82,7 +82,7 @@ public interface GraphInterface {
    * @param neighborsOf node from which the neighbours should be found for
    * @return neighbors of given node.
    */
-  Set<Node> getNeighborsLeadingFrom(Node neighborsOf);
+  Set<Node<?>> getNeighborsLeadingFrom(Node<?> neighborsOf);
 
   /**
    * Returns neighbors of a node, i.e. all nodes, which share an edge with the given node and the
@@ -91,14 +91,22 @@ public interface GraphInterface {
    * @param neighborsOf node from which the neighbours should be found for
    * @return neighbors of given node.
    */
-  Set<Node> getNeighborsLeadingTo(Node neighborsOf);
+  Set<Node<?>> getNeighborsLeadingTo(Node<?> neighborsOf);
 
   /**
    * Returns neighbors of a given node, i.e. all nodes for which an edge either leads to or
    * originates from the given node. Equivallent to the neighbors of a unoriented version of the
    * graph.
    */
-  Set<Node> getAllNeighbors(Node neighborsOf);
+  Set<Node<?>> getAllNeighbors(Node<?> neighborsOf);
+
+  /**
+   * Returns the number of changes of the graph so far, i.e. of added nodes and edges. Information
+   * derived from the graph is up to date as long as this number does not change.
+   *
+   * @return number of changes of the graph
+   */
+  int getModificationCount();
 
   /**
    * Finds all paths from the root to the given nodes and returns them as a graph.
@@ -106,7 +114,7 @@ public interface GraphInterface {
    * @param nodes nodes for which the paths should be found
    * @return all paths from the root to the given node
    */
-  Graph findPathsToNodes(Set<Node> nodes);
+  Graph findPathsToNodes(Set<Node<?>> nodes);
 
   /**
    * Finds all paths from the root to the given node and returns them as a graph.
@@ -114,7 +122,7 @@ public interface GraphInterface {
    * @param node node for which the paths should be found
    * @return all paths from the root to the given node
    */
-  Graph findPathsToNode(Node node);
+  Graph findPathsToNode(Node<?> node);
 
   /**
    * Returns a string representation of this class. The string representation consists of a list of
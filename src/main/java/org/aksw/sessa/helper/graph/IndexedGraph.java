@@ -0,0 +1,522 @@
+package org.aksw.sessa.helper.graph;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.aksw.sessa.helper.graph.exception.NodeNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class represents a graph with nodes and edges, in which every node is identified by its
+ * index, i.e. by the number of nodes which were added before it. The edges leading from and to a
+ * node are stored as growable arrays of node indices. The nodes are found by an open addressing
+ * table of indices, whose hash takes the id of a node into account, so nodes with the same content
+ * but different ids (see {@link Node#newId()}) do not collide. Unlike {@link Graph}, this graph
+ * needs no map entries or sets per node and edge.
+ *
+ * <p>Besides the methods of {@link GraphInterface}, the graph can be read by indices (see
+ * {@link #indexOf(Node)}, {@link #getNode(int)} and {@link #getAllNeighborIndices(int)}). Nodes
+ * and edges cannot be removed.
+ */
+public class IndexedGraph implements GraphInterface {
+
+  private static final Logger log = LoggerFactory.getLogger(IndexedGraph.class);
+  private static final int INITIAL_CAPACITY = 16;
+  /**
+   * Out-degree from which the out-neighbors are sorted to find the in-neighbors among them.
+   */
+  private static final int SORTED_LOOK_UP_DEGREE = 16;
+  private static final int[] NO_EDGES = new int[0];
+
+  private Node<?>[] nodes;
+  private int size;
+  /**
+   * Open addressing table with the index of a node plus one in its slot, 0 marks free slots.
+   */
+  private int[] slots;
+  private int[][] outEdges;
+  private int[] outDegrees;
+  private int[][] inEdges;
+  private int[] inDegrees;
+  private int edgeCount;
+  private int modificationCount;
+  private final Set<Node<?>> nodeView = new NodeView();
+
+  /**
+   * Initializes empty graph.
+   */
+  public IndexedGraph() {
+    nodes = new Node<?>[INITIAL_CAPACITY];
+    slots = new int[2 * INITIAL_CAPACITY];
+    outEdges = new int[INITIAL_CAPACITY][];
+    outDegrees = new int[INITIAL_CAPACITY];
+    inEdges = new int[INITIAL_CAPACITY][];
+    inDegrees = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Returns the number of nodes in this graph.
+   *
+   * @return number of nodes
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of edges in this graph.
+   *
+   * @return number of edges
+   */
+  public int getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Returns the index of the given node, i.e. of the node in this graph which is equal to it.
+   *
+   * @param node node whose index should be returned
+   * @return index of the node, -1 if the node is not in the graph
+   */
+  public int indexOf(Node<?> node) {
+    int mask = slots.length - 1;
+    for (int slot = hash(node) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+      if (nodes[slots[slot] - 1].equals(node)) {
+        return slots[slot] - 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the node with the given index.
+   *
+   * @param index index of the node
+   * @return node with the given index
+   */
+  public Node<?> getNode(int index) {
+    checkIndex(index);
+    return nodes[index];
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  private static int hash(Node<?> node) {
+    int hash = (31 * node.hashCode() + Long.hashCode(node.getId())) * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  @Override
+  public void addNode(Node<?> node) {
+    if (size == nodes.length) {
+      grow();
+    }
+    int mask = slots.length - 1;
+    int slot = hash(node) & mask;
+    while (slots[slot] != 0) {
+      if (nodes[slots[slot] - 1].equals(node)) {
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    nodes[size] = node;
+    outEdges[size] = NO_EDGES;
+    inEdges[size] = NO_EDGES;
+    slots[slot] = ++size;
+    modificationCount++;
+  }
+
+  private void grow() {
+    int capacity = 2 * nodes.length;
+    nodes = Arrays.copyOf(nodes, capacity);
+    outEdges = Arrays.copyOf(outEdges, capacity);
+    outDegrees = Arrays.copyOf(outDegrees, capacity);
+    inEdges = Arrays.copyOf(inEdges, capacity);
+    inDegrees = Arrays.copyOf(inDegrees, capacity);
+    slots = new int[2 * capacity];
+    int mask = slots.length - 1;
+    for (int index = 0; index < size; index++) {
+      int slot = hash(nodes[index]) & mask;
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = index + 1;
+    }
+  }
+
+  @Override
+  public void addNodes(Set<Node<?>> nodes) {
+    for (Node<?> node : nodes) {
+      addNode(node);
+    }
+  }
+
+  /**
+   * Returns all nodes of the graph as a set, in the order of their indices. The set is an
+   * unmodifiable view of the graph.
+   *
+   * @return set of all nodes in this graph
+   */
+  @Override
+  public Set<Node<?>> getNodes() {
+    return nodeView;
+  }
+
+  @Override
+  public boolean containsNode(Node<?> node) {
+    return indexOf(node) >= 0;
+  }
+
+  @Override
+  public void addEdge(Node<?> from, Node<?> to) {
+    try {
+      int fromIndex = indexOf(from);
+      if (fromIndex < 0) {
+        throw new NodeNotFoundException(
+            "Edge cannot be added, because the given node '" + from + "' is not in the graph.",
+            from, this);
+      }
+      int toIndex = indexOf(to);
+      if (toIndex < 0) {
+        throw new NodeNotFoundException(
+            "Edge cannot be added, because the given node is not in the graph.", to, this);
+      }
+      addEdge(fromIndex, toIndex);
+    } catch (NodeNotFoundException ex) {
+      log.error(ex.getLocalizedMessage());
+      log.error(ex.getGraph().toString());
+    }
+  }
+
+  private void addEdge(int from, int to) {
+    // the edge is searched for in the shorter of both lists
+    if (outDegrees[from] <= inDegrees[to]) {
+      if (contains(outEdges[from], outDegrees[from], to)) {
+        return;
+      }
+    } else if (contains(inEdges[to], inDegrees[to], from)) {
+      return;
+    }
+    outEdges[from] = append(outEdges[from], outDegrees[from]++, to);
+    inEdges[to] = append(inEdges[to], inDegrees[to]++, from);
+    edgeCount++;
+    modificationCount++;
+  }
+
+  private static boolean contains(int[] edges, int degree, int node) {
+    for (int i = 0; i < degree; i++) {
+      if (edges[i] == node) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int[] append(int[] edges, int position, int node) {
+    if (position == edges.length) {
+      edges = Arrays.copyOf(edges, Math.max(2, 2 * edges.length));
+    }
+    edges[position] = node;
+    return edges;
+  }
+
+  @Override
+  public void addEdges(Map<Node<?>, Set<Node<?>>> edges) {
+    for (Entry<Node<?>, Set<Node<?>>> edgesFromNode : edges.entrySet()) {
+      addEdges(edgesFromNode);
+    }
+  }
+
+  @Override
+  public void addEdges(Entry<Node<?>, Set<Node<?>>> edgesFromNode) {
+    for (Node<?> toNode : edgesFromNode.getValue()) {
+      addEdge(edgesFromNode.getKey(), toNode);
+    }
+  }
+
+  /**
+   * Returns all edges of the graph as a map. The map is a copy, which contains only the nodes from
+   * which at least one edge originates.
+   *
+   * @return all edges of the graph as a map
+   */
+  @Override
+  public Map<Node<?>, Set<Node<?>>> getEdges() {
+    Map<Node<?>, Set<Node<?>>> edges = new HashMap<>();
+    for (int index = 0; index < size; index++) {
+      if (outDegrees[index] > 0) {
+        edges.put(nodes[index], toNodes(outEdges[index], outDegrees[index]));
+      }
+    }
+    return edges;
+  }
+
+  private Set<Node<?>> toNodes(int[] indices, int count) {
+    Set<Node<?>> nodeSet = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      nodeSet.add(nodes[indices[i]]);
+    }
+    return nodeSet;
+  }
+
+  @Override
+  public void addSubGraph(GraphInterface subGraph) {
+    this.addNodes(subGraph.getNodes());
+    this.addEdges(subGraph.getEdges());
+  }
+
+  /**
+   * Returns the indices of the nodes to which an edge leads from the node with the given index.
+   *
+   * @param index index of the node
+   * @return indices of the neighbors, in the order in which the edges were added
+   */
+  public int[] getNeighborIndicesLeadingFrom(int index) {
+    checkIndex(index);
+    return Arrays.copyOf(outEdges[index], outDegrees[index]);
+  }
+
+  /**
+   * Returns the indices of the nodes from which an edge leads to the node with the given index.
+   *
+   * @param index index of the node
+   * @return indices of the neighbors, in the order in which the edges were added
+   */
+  public int[] getNeighborIndicesLeadingTo(int index) {
+    checkIndex(index);
+    return Arrays.copyOf(inEdges[index], inDegrees[index]);
+  }
+
+  /**
+   * Returns the indices of all nodes for which an edge either leads to or originates from the node
+   * with the given index. Each neighbor is contained once.
+   *
+   * @param index index of the node
+   * @return indices of the neighbors, first those to which an edge leads
+   */
+  public int[] getAllNeighborIndices(int index) {
+    checkIndex(index);
+    int outDegree = outDegrees[index];
+    int inDegree = inDegrees[index];
+    int[] neighbors = Arrays.copyOf(outEdges[index], outDegree + inDegree);
+    int[] sortedOutEdges = null;
+    if (outDegree >= SORTED_LOOK_UP_DEGREE) {
+      sortedOutEdges = Arrays.copyOf(neighbors, outDegree);
+      Arrays.sort(sortedOutEdges);
+    }
+    int count = outDegree;
+    for (int i = 0; i < inDegree; i++) {
+      int neighbor = inEdges[index][i];
+      boolean isOutNeighbor = sortedOutEdges == null
+          ? contains(neighbors, outDegree, neighbor)
+          : Arrays.binarySearch(sortedOutEdges, neighbor) >= 0;
+      if (!isOutNeighbor) {
+        neighbors[count++] = neighbor;
+      }
+    }
+    return count == neighbors.length ? neighbors : Arrays.copyOf(neighbors, count);
+  }
+
+  @Override
+  public Set<Node<?>> getNeighborsLeadingFrom(Node<?> neighborsOf) {
+    int index = indexOf(neighborsOf);
+    return index < 0 ? new HashSet<>() : toNodes(outEdges[index], outDegrees[index]);
+  }
+
+  @Override
+  public Set<Node<?>> getNeighborsLeadingTo(Node<?> neighborsOf) {
+    int index = indexOf(neighborsOf);
+    return index < 0 ? new HashSet<>() : toNodes(inEdges[index], inDegrees[index]);
+  }
+
+  @Override
+  public Set<Node<?>> getAllNeighbors(Node<?> neighborsOf) {
+    int index = indexOf(neighborsOf);
+    if (index < 0) {
+      return new HashSet<>();
+    }
+    Set<Node<?>> allNeighbors = toNodes(outEdges[index], outDegrees[index]);
+    for (int i = 0; i < inDegrees[index]; i++) {
+      allNeighbors.add(nodes[inEdges[index][i]]);
+    }
+    return allNeighbors;
+  }
+
+  @Override
+  public int getModificationCount() {
+    return modificationCount;
+  }
+
+  /**
+   * Finds all paths from the root to the given nodes and returns them as a graph. The nodes from
+   * which the given nodes can be reached are searched breadth-first, so every node is visited
+   * once.
+   *
+   * @param nodes nodes for which the paths should be found
+   * @return all paths from the root to the given nodes
+   */
+  @Override
+  public Graph findPathsToNodes(Set<Node<?>> nodes) {
+    BitSet visited = new BitSet(size);
+    int[] queue = new int[size];
+    int queueEnd = 0;
+    for (Node<?> node : nodes) {
+      int index = indexOf(node);
+      if (index < 0) {
+        log.error("Given node '{}' is not in graph.", node.getContent());
+        log.error("Skipping node.");
+      } else if (!visited.get(index)) {
+        visited.set(index);
+        queue[queueEnd++] = index;
+      }
+    }
+    for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+      int index = queue[queueStart];
+      for (int i = 0; i < inDegrees[index]; i++) {
+        int neighbor = inEdges[index][i];
+        if (!visited.get(neighbor)) {
+          visited.set(neighbor);
+          queue[queueEnd++] = neighbor;
+        }
+      }
+    }
+    Graph pathsGraph = new Graph();
+    for (int i = 0; i < queueEnd; i++) {
+      pathsGraph.addNode(this.nodes[queue[i]]);
+    }
+    for (int i = 0; i < queueEnd; i++) {
+      int index = queue[i];
+      for (int j = 0; j < inDegrees[index]; j++) {
+        pathsGraph.addEdge(this.nodes[inEdges[index][j]], this.nodes[index]);
+      }
+    }
+    return pathsGraph;
+  }
+
+  @Override
+  public Graph findPathsToNode(Node<?> node) {
+    Set<Node<?>> nodes = new HashSet<>();
+    nodes.add(node);
+    return findPathsToNodes(nodes);
+  }
+
+  /**
+   * Returns a string representation of this class. The string representation consists of a list of
+   * nodes and edges. Nodes are lead by the word 'Nodes:' followed by one node per line. The nodes
+   * are represented by their string representation. The edges are introduced by 'Edges:' followed
+   * by one edge per line. One edge consists of the content of the first node, followed by an arrow
+   * '->' followed by the content of the second node.
+   *
+   * @return a string representation of this graph class
+   */
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("Nodes:\n");
+    for (int index = 0; index < size; index++) {
+      sb.append("\t");
+      sb.append(nodes[index].toString());
+      sb.append("\n");
+    }
+    sb.append("Edges:\n");
+    for (int index = 0; index < size; index++) {
+      for (int i = 0; i < outDegrees[index]; i++) {
+        sb.append("\t");
+        sb.append(nodes[index].getContent().toString());
+        sb.append(" -> ");
+        sb.append(nodes[outEdges[index][i]].getContent().toString());
+        sb.append("\n");
+      }
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof IndexedGraph)) {
+      return false;
+    }
+    IndexedGraph graph = (IndexedGraph) o;
+    return getNodes().equals(graph.getNodes()) && getEdges().equals(graph.getEdges());
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * getNodes().hashCode() + getEdges().hashCode();
+  }
+
+  @Override
+  public String asDOTFormat(String graphName) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("digraph ");
+    sb.append(graphName);
+    sb.append("\n{");
+    for (int index = 0; index < size; index++) {
+      for (int i = 0; i < outDegrees[index]; i++) {
+        sb.append("\t\"");
+        sb.append(nodes[index].getContent().toString());
+        sb.append("\" -> \"");
+        sb.append(nodes[outEdges[index][i]].getContent().toString());
+        sb.append("\";\n");
+      }
+    }
+    sb.append("}");
+    return sb.toString();
+  }
+
+  @Override
+  public String asDOTFormat() {
+    return asDOTFormat("graph");
+  }
+
+  /**
+   * Unmodifiable view of the nodes of the graph.
+   */
+  private class NodeView extends AbstractSet<Node<?>> {
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Node && indexOf((Node<?>) o) >= 0;
+    }
+
+    @Override
+    public Iterator<Node<?>> iterator() {
+      return new Iterator<Node<?>>() {
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+          return index < size;
+        }
+
+        @Override
+        public Node<?> next() {
+          if (index >= size) {
+            throw new NoSuchElementException();
+          }
+          return nodes[index++];
+        }
+      };
+    }
+  }
+}
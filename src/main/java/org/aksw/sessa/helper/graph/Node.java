@@ -1,21 +1,28 @@
 package org.aksw.sessa.helper.graph;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.Set;
+import org.aksw.sessa.query.models.ColorMasks;
 import org.aksw.sessa.query.models.NGramEntryPosition;
 
 /**
  * This class represents a node in graph with given information of class T. Furthermore it holds the
- * scores and the colors, which are needed for the colors-spreading algorithm.
+ * scores and the colors, which are needed for the colors-spreading algorithm. The colors are stored
+ * as bit set of their indices (see {@link ColorMasks}), so they can be compared without
+ * allocating memory.
  */
 public class Node<T> {
 
   private T nodeContent;
   private long id;
 
+  private static final long[] NO_COLORS = new long[0];
+
   private float energy;
-  private Set<NGramEntryPosition> colors;
+  private long[] colors;
+  private int explanation;
   private boolean isFactNode;
 
   /**
@@ -33,13 +40,18 @@ public class Node<T> {
    *
    * @param nodeContent content to be stored in the node.
    * @param energy energy score of the node
-   * @param colors represents colors for the node
+   * @param colors represents colors for the node, may be null for no colors
    * @param isFactNode is the given node a fact-node?
    */
   public Node(T nodeContent, float energy, Set<NGramEntryPosition> colors, boolean isFactNode) {
     this.nodeContent = nodeContent;
     this.energy = energy;
-    this.colors = colors;
+    this.colors = NO_COLORS;
+    if (colors != null) {
+      for (NGramEntryPosition color : colors) {
+        setColor(color.getIndex());
+      }
+    }
     this.isFactNode = isFactNode;
     this.id = 0;
   }
@@ -55,10 +67,6 @@ public class Node<T> {
    * Returns the explanation score of this node.
    */
   public int getExplanation() {
-    int explanation = 0;
-    for (NGramEntryPosition color : colors) {
-      explanation += color.getLength();
-    }
     return explanation;
   }
 
@@ -82,32 +90,63 @@ public class Node<T> {
   }
 
   /**
-   * Returns the colors of this node as set.
+   * Returns the colors of this node as set. The set is a copy, which cannot be modified.
    *
    * @return set of colors of this node
    */
   public Set<NGramEntryPosition> getColors() {
-    return colors;
+    Set<NGramEntryPosition> colorSet = new HashSet<>();
+    for (int index = ColorMasks.nextSetBit(colors, 0); index >= 0;
+        index = ColorMasks.nextSetBit(colors, index + 1)) {
+      colorSet.add(NGramEntryPosition.fromIndex(index));
+    }
+    return Collections.unmodifiableSet(colorSet);
+  }
+
+  /**
+   * Returns true if this node has at least one color.
+   *
+   * @return true if this node has colors
+   */
+  public boolean hasColors() {
+    return ColorMasks.nextSetBit(colors, 0) >= 0;
   }
 
   /**
    * Adds a color to this node. Colors are represented by n-gram-positions in the n-gram hierarchy.
-   * They show which n-grams were used to explain the content of this node.
+   * They show which n-grams were used to explain the content of this node. Shorter colors which
+   * overlap with the given color are removed.
    *
    * @param otherColor position of the n-gram in the n-gram hierarchy
    * @see NGramEntryPosition
    */
   public void addColor(NGramEntryPosition otherColor) {
-    Set<NGramEntryPosition> removeColors = new HashSet<>();
-    for (NGramEntryPosition color : colors) {
-      if (color.isOverlappingWith(otherColor)) {
-        if (otherColor.getLength() > color.getLength()) {
-          removeColors.add(color);
-        }
+    addColor(otherColor.getIndex());
+  }
+
+  private void addColor(int index) {
+    long wordMask = ColorMasks.getWordMask(index);
+    int length = Long.bitCount(wordMask);
+    for (int other = ColorMasks.nextSetBit(colors, 0); other >= 0;
+        other = ColorMasks.nextSetBit(colors, other + 1)) {
+      long otherWordMask = ColorMasks.getWordMask(other);
+      int otherLength = Long.bitCount(otherWordMask);
+      if ((wordMask & otherWordMask) != 0 && otherLength < length) {
+        colors[other / Long.SIZE] &= ~(1L << other);
+        explanation -= otherLength;
       }
     }
-    colors.removeAll(removeColors);
-    this.colors.add(otherColor);
+    setColor(index);
+  }
+
+  private void setColor(int index) {
+    int length = ColorMasks.getLength(index);
+    colors = ColorMasks.ensureCapacity(colors, index);
+    long bit = 1L << index;
+    if ((colors[index / Long.SIZE] & bit) == 0) {
+      colors[index / Long.SIZE] |= bit;
+      explanation += length;
+    }
   }
 
   /**
@@ -122,6 +161,20 @@ public class Node<T> {
     }
   }
 
+  /**
+   * Adds the colors of the given node to this node, in the order of their indices.
+   *
+   * @param other node whose colors should be added
+   * @see #addColor(NGramEntryPosition)
+   */
+  public void addColors(Node<?> other) {
+    long[] otherColors = other == this ? colors.clone() : other.colors;
+    for (int index = ColorMasks.nextSetBit(otherColors, 0); index >= 0;
+        index = ColorMasks.nextSetBit(otherColors, index + 1)) {
+      addColor(index);
+    }
+  }
+
   /**
    * Sets the node type, i.e. if the node is a fact node (true) or not (false). Fact nodes are nodes
    * which link normal nodes with each other, showing that they belong together.
@@ -163,14 +216,7 @@ public class Node<T> {
    * @return true if they are related
    */
   public boolean isOverlappingWith(Node<?> other) {
-    for (NGramEntryPosition thisColor : this.getColors()) {
-      for (NGramEntryPosition otherColor : other.getColors()) {
-        if (thisColor.isOverlappingWith(otherColor)) {
-          return true;
-        }
-      }
-    }
-    return false;
+    return (ColorMasks.getWordMask(colors) & ColorMasks.getWordMask(other.colors)) != 0;
   }
 
   /**
@@ -181,8 +227,45 @@ public class Node<T> {
    * @return true if colors are mergeable, false if they aren't
    */
   public boolean colorsAreMergeable(Set<NGramEntryPosition> otherColors) {
-    for (NGramEntryPosition color : this.colors) {
-      if (!color.isMergeable(otherColors)) {
+    for (NGramEntryPosition color : otherColors) {
+      if (!isMergeableWith(ColorMasks.getWordMask(color.getIndex()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if colors of this node are mergeable with the colors of the given node.
+   *
+   * @param other node whose colors should be checked for mergeability
+   * @return true if colors are mergeable, false if they aren't
+   * @see #colorsAreMergeable(Set)
+   */
+  public boolean colorsAreMergeable(Node<?> other) {
+    return colorsAreMergeable(other.colors);
+  }
+
+  private boolean colorsAreMergeable(long[] otherColors) {
+    if ((ColorMasks.getWordMask(colors) & ColorMasks.getWordMask(otherColors)) == 0) {
+      return true;
+    }
+    for (int index = ColorMasks.nextSetBit(otherColors, 0); index >= 0;
+        index = ColorMasks.nextSetBit(otherColors, index + 1)) {
+      if (!isMergeableWith(ColorMasks.getWordMask(index))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if no color of this node conflicts with the color with the given word mask.
+   */
+  private boolean isMergeableWith(long otherWordMask) {
+    for (int index = ColorMasks.nextSetBit(colors, 0); index >= 0;
+        index = ColorMasks.nextSetBit(colors, index + 1)) {
+      if (ColorMasks.isConflicting(ColorMasks.getWordMask(index), otherWordMask)) {
         return false;
       }
     }
@@ -229,6 +312,6 @@ public class Node<T> {
     return "Node{" + "nodeContent=" + nodeContent + ", id=" + getId() + ", explanation="
         + getExplanation()
         + ", energy="
-        + energy + ", colors=" + colors + ", isFactNode=" + isFactNode + '}';
+        + energy + ", colors=" + getColors() + ", isFactNode=" + isFactNode + '}';
   }
 }
\ No newline at end of file
@@ -1,22 +1,39 @@
 package org.aksw.sessa.helper.graph;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.aksw.sessa.helper.collections.UriIndex;
 import org.aksw.sessa.importing.rdf.SparqlGraphFiller;
+import org.aksw.sessa.importing.rdf.TripleSourceInterface;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This class implements a graph, that builds itself using its node content to find new nodes. This
- * is currently realized using {@link org.aksw.sessa.importing.rdf.SparqlGraphFiller}. The class
- * only searches for new nodes if every node has an explanation score.
+ * is realized using a {@link TripleSourceInterface}, by default the remote
+ * {@link org.aksw.sessa.importing.rdf.SparqlGraphFiller}. The graph
+ * only searches for new nodes when it is told to (see {@link #expandOnce()} and
+ * {@link #expandUntil(int)}), neighbor look ups only read the graph. The contents of the nodes are
+ * the IDs of their URIs in the {@link UriIndex} of the graph (see {@link #getUriIndex()}), which is
+ * discarded together with the graph. Fact nodes have negative contents, so that they are never
+ * equal to a node of a URI.
+ *
+ * <p>The pairs of one expansion are looked up in batches of the size given by the triple source
+ * (see {@link TripleSourceInterface#getBatchSize()}), e.g. with one SPARQL query per batch. If an
+ * executor is given, the batches are looked up concurrently. At most as many batches are in flight
+ * as the executor has threads. The results are integrated in the same order as without executor,
+ * so the resulting graph does not depend on the order in which the look ups finish.
  *
  * @author Simon Bordewisch
  */
-public class SelfBuildingGraph extends Graph {
+public class SelfBuildingGraph extends IndexedGraph {
 
   /**
    * This variable is used to define how many expansions can be made before the graph should not be
@@ -24,16 +41,20 @@ public class SelfBuildingGraph extends Graph {
    */
   public static final int MAX_EXPANSIONS = 3;
   private static final Logger log = LoggerFactory.getLogger(SelfBuildingGraph.class);
-  private static int factIterator = 0;
   private int currentExpansion;
 
   /**
    * We only want to update the graph with new information. Therefore we store the nodes that got
    * added after the last update
    */
-  private Map<Node, Node> lastNewNodes;
+  private Map<Node<?>, Node<?>> lastNewNodes;
   // Stores already compared key pairs so they don't get compared again
-  private Map<Node, Set<Node>> comparedNodes;
+  private Map<Node<?>, Set<Node<?>>> comparedNodes;
+  private TripleSourceInterface tripleSource;
+  private Executor expansionExecutor;
+  private final UriIndex uriIndex = new UriIndex();
+  // IDs of the fact nodes are negative, so they never collide with the URI IDs of this graph
+  private int nextFactId = -1;
 
 
   /**
@@ -43,121 +64,222 @@ public class SelfBuildingGraph extends Graph {
     this(new HashSet<>());
   }
 
+  /**
+   * Constructs a graph with no nodes, which is expanded with the triples of the given source.
+   *
+   * @param tripleSource source of the triples used to find new nodes
+   */
+  public SelfBuildingGraph(TripleSourceInterface tripleSource) {
+    this(new HashSet<>(), tripleSource, null);
+  }
+
+  /**
+   * Constructs a graph with no nodes, which is expanded with the triples of the given source. The
+   * look ups of one expansion are run concurrently on the given executor.
+   *
+   * @param tripleSource source of the triples used to find new nodes, has to be safe for
+   * concurrent use if an executor is given
+   * @param expansionExecutor executor for the look ups, null for sequential look ups
+   */
+  public SelfBuildingGraph(TripleSourceInterface tripleSource, Executor expansionExecutor) {
+    this(new HashSet<>(), tripleSource, expansionExecutor);
+  }
+
   /**
    * Constructs a graph with given nodes.
    */
-  public SelfBuildingGraph(Set<Node> nodes) {
+  public SelfBuildingGraph(Set<Node<?>> nodes) {
+    this(nodes, new SparqlGraphFiller(), null);
+  }
+
+  /**
+   * Constructs a graph with given nodes, which is expanded with the triples of the given source.
+   *
+   * @param nodes initial nodes of the graph
+   * @param tripleSource source of the triples used to find new nodes, has to be safe for
+   * concurrent use if an executor is given
+   * @param expansionExecutor executor for the look ups, null for sequential look ups
+   */
+  public SelfBuildingGraph(Set<Node<?>> nodes, TripleSourceInterface tripleSource,
+      Executor expansionExecutor) {
     super();
-    this.nodes = new HashMap<>();
+    this.tripleSource = tripleSource;
+    this.expansionExecutor = expansionExecutor;
     this.lastNewNodes = new HashMap<>();
-    for (Node node : nodes) {
-      this.nodes.put(node, node);
-      this.lastNewNodes.put(node, node);
-    }
     this.comparedNodes = new HashMap<>();
+    addNodes(nodes);
     this.currentExpansion = 1;
   }
 
+  /**
+   * Returns the index of the URIs of this graph, which gives the contents of the nodes.
+   *
+   * @return index of the URIs of this graph
+   */
+  public UriIndex getUriIndex() {
+    return uriIndex;
+  }
+
   @Override
-  public void addNode(Node node) {
+  public void addNode(Node<?> node) {
     super.addNode(node);
     lastNewNodes.put(node, node);
   }
 
-  @Override
-  public Set<Node> getAllNeighbors(Node neighborsOf) {
-    //TODO: For now expanding graph in here should be enough, but maybe search for better solution
-    if (everyNodeHasColor()) {
-      expandGraph();
+  /**
+   * Expands the graph until it was expanded the given number of times in total or it cannot be
+   * expanded any further (see {@link #expandOnce()}).
+   *
+   * @param maxExpansions number of expansions after which the graph should not be expanded
+   * @return number of expansions made by this call
+   */
+  public int expandUntil(int maxExpansions) {
+    int expansions = 0;
+    while (currentExpansion <= maxExpansions && expandOnce()) {
+      expansions++;
     }
-    Set<Node> allNeighbors = new HashSet<>();
-    allNeighbors.addAll(getNeighborsLeadingFrom(neighborsOf));
-    allNeighbors.addAll(getNeighborsLeadingTo(neighborsOf));
-    return allNeighbors;
+    return expansions;
   }
 
   /**
-   * Searches the graph to find a node that that has no colors. If it finds one, it returns false,
-   * else true.
+   * Returns the number of expansions made so far.
    *
-   * @return true if all nodes have colors.
+   * @return number of expansions made so far
    */
-  private boolean everyNodeHasColor() {
-    boolean everyNodeHasColor = true;
-    for (Node node : nodes.keySet()) {
-      if (node.getColors().isEmpty()) {
-        everyNodeHasColor = false;
-        break;
-      }
-    }
-    return everyNodeHasColor;
+  public int getExpansionCount() {
+    return currentExpansion - 1;
   }
 
   /**
    * This method tries to expand the graph by finding new nodes. It tries to find a pair of nodes
-   * whose content will be used in a SPARQL-query to find a complementing content, which will be
-   * used to construct the new node.
+   * whose content will be used in a look up in the triple source to find a complementing content,
+   * which will be used to construct the new node. First all pairs are collected, then their look
+   * ups are done (concurrently, if there is an executor) and then the results are integrated pair
+   * by pair. The graph is expanded at most {@link #MAX_EXPANSIONS} times.
    *
-   * @see SparqlGraphFiller
+   * @return true if the graph was expanded, false if it was already expanded the maximum number of
+   *     times
+   * @see TripleSourceInterface
    */
-  protected void expandGraph() {
-    if (currentExpansion <= MAX_EXPANSIONS) {
-      SparqlGraphFiller filler = new SparqlGraphFiller();
-      Map<Node, Node> newNodes = new HashMap<>();
-
-      // Copies of the node-sets so we can add nodes to the original ones
-      Map<Node, Node> nodes = new HashMap<>(this.nodes);
-      Map<Node, Node> lastNewNodes = new HashMap<>(this.lastNewNodes);
-
-      for (Node lastNewNode : lastNewNodes.keySet()) {
-        for (Node node : nodes.keySet()) {
-          if ((!comparedNodes.containsKey(lastNewNode) ||
-              !comparedNodes.get(lastNewNode).contains(node)) &&
-              !node.isFactNode()) {
-
-            updateComparedNodes(lastNewNode, node);
-
-            if (!node.getColors().isEmpty() &&
-                !lastNewNode.getColors().isEmpty() &&
-                !node.isOverlappingWith(lastNewNode)) {
-              Set<String> newContent = filler.findMissingTripleElement(
-                  node.getContent().toString(),
-                  lastNewNode.getContent().toString());
-
-              for (String content : newContent) {
-                Node<String> foundNode = new Node<>(content);
-                log.debug("SPARQL found new node {} with nodes {} and {}.", foundNode.getContent(),
-                    node.getContent(), lastNewNode.getContent());
-                if (newNodes.containsKey(foundNode) || nodes.containsKey(foundNode)) {
-                  if (newNodes.containsKey(foundNode)) {
-                    foundNode = newNodes.get(foundNode);
-                    log.debug("Node was already found this round with colors {}.",
-                        foundNode.getColors());
-                  }
-                  if (nodes.containsKey(foundNode)) {
-                    foundNode = nodes.get(foundNode);
-                    log.debug("It's already in the node set.");
-                  }
-                  if (foundNode.colorsAreMergeable(lastNewNode.getColors()) &&
-                      foundNode.colorsAreMergeable(node.getColors())) {
-                    log.debug("Colors are mergeable.");
-                  } else {
-                    log.debug("Colors are not mergeable. Creating new node in graph");
-                    foundNode = new Node<>(content);
-                    foundNode.newId();
-                  }
-                }
-                foundNode.addColors(lastNewNode.getColors());
-                foundNode.addColors(node.getColors());
-                newNodes.put(foundNode, foundNode);
-                integrateNewNode(node, lastNewNode, foundNode);
-              }
-            }
+  public boolean expandOnce() {
+    if (currentExpansion > MAX_EXPANSIONS) {
+      return false;
+    }
+    Map<Node<?>, Node<?>> newNodes = new HashMap<>();
+
+    // The nodes added by this expansion get indices from nodeCount on
+    int nodeCount = size();
+    Map<Node<?>, Node<?>> lastNewNodes = new HashMap<>(this.lastNewNodes);
+
+    List<Node<?>[]> pairs = new ArrayList<>();
+    for (Node<?> lastNewNode : lastNewNodes.keySet()) {
+      for (int index = 0; index < nodeCount; index++) {
+        Node<?> node = getNode(index);
+        if ((!comparedNodes.containsKey(lastNewNode) ||
+            !comparedNodes.get(lastNewNode).contains(node)) &&
+            !node.isFactNode() && !lastNewNode.isFactNode()) {
+
+          updateComparedNodes(lastNewNode, node);
+
+          if (isExpandable(node, lastNewNode)) {
+            pairs.add(new Node<?>[]{node, lastNewNode});
           }
         }
       }
-      this.lastNewNodes = newNodes;
-      currentExpansion++;
+    }
+
+    List<Set<String>> newContents = findMissingTripleElements(pairs);
+    for (int i = 0; i < pairs.size(); i++) {
+      Node<?> node = pairs.get(i)[0];
+      Node<?> lastNewNode = pairs.get(i)[1];
+      // integrating the previous pairs may have added colors to these nodes
+      if (isExpandable(node, lastNewNode)) {
+        integrateNewContent(newContents.get(i), node, lastNewNode, nodeCount, newNodes);
+      }
+    }
+    this.lastNewNodes = newNodes;
+    currentExpansion++;
+    return true;
+  }
+
+  private boolean isExpandable(Node<?> node, Node<?> lastNewNode) {
+    return node.hasColors() &&
+        lastNewNode.hasColors() &&
+        !node.isOverlappingWith(lastNewNode);
+  }
+
+  /**
+   * Looks up the missing triple elements of the given pairs in batches. The results are in the
+   * same order as the pairs.
+   *
+   * @param pairs pairs of nodes whose missing triple elements should be looked up
+   * @return list of the missing triple elements of each pair
+   */
+  private List<Set<String>> findMissingTripleElements(List<Node<?>[]> pairs) {
+    List<String[]> uriPairs = new ArrayList<>(pairs.size());
+    for (Node<?>[] pair : pairs) {
+      uriPairs.add(new String[]{uriIndex.getUri((Integer) pair[0].getContent()),
+          uriIndex.getUri((Integer) pair[1].getContent())});
+    }
+    int batchSize = tripleSource.getBatchSize();
+    List<List<String[]>> batches = new ArrayList<>();
+    for (int start = 0; start < uriPairs.size(); start += batchSize) {
+      batches.add(uriPairs.subList(start, Math.min(start + batchSize, uriPairs.size())));
+    }
+    List<Set<String>> newContents = new ArrayList<>(pairs.size());
+    if (expansionExecutor == null) {
+      for (List<String[]> batch : batches) {
+        newContents.addAll(tripleSource.findMissingTripleElements(batch));
+      }
+    } else {
+      List<CompletableFuture<List<Set<String>>>> futures = new ArrayList<>(batches.size());
+      for (List<String[]> batch : batches) {
+        futures.add(CompletableFuture.supplyAsync(
+            () -> tripleSource.findMissingTripleElements(batch), expansionExecutor));
+      }
+      for (CompletableFuture<List<Set<String>>> future : futures) {
+        newContents.addAll(future.join());
+      }
+    }
+    return newContents;
+  }
+
+  /**
+   * Creates or finds the nodes for the given contents and integrates them with the two nodes they
+   * were found with. Only the nodes below the given node count and the nodes found in this
+   * expansion are reused.
+   */
+  private void integrateNewContent(Set<String> newContent, Node<?> node, Node<?> lastNewNode,
+      int nodeCount, Map<Node<?>, Node<?>> newNodes) {
+    for (String uri : newContent) {
+      int content = uriIndex.getId(uri);
+      Node<?> foundNode = new Node<>(content);
+      log.debug("Triple source found new node {} with nodes {} and {}.", uri,
+          node.getContent(), lastNewNode.getContent());
+      int index = indexOf(foundNode);
+      boolean isKnownNode = index >= 0 && index < nodeCount;
+      if (newNodes.containsKey(foundNode) || isKnownNode) {
+        if (newNodes.containsKey(foundNode)) {
+          foundNode = newNodes.get(foundNode);
+          log.debug("Node was already found this round: {}.", foundNode);
+        }
+        if (isKnownNode) {
+          foundNode = getNode(index);
+          log.debug("It's already in the node set.");
+        }
+        if (foundNode.colorsAreMergeable(lastNewNode) &&
+            foundNode.colorsAreMergeable(node)) {
+          log.debug("Colors are mergeable.");
+        } else {
+          log.debug("Colors are not mergeable. Creating new node in graph");
+          foundNode = new Node<>(content);
+          foundNode.newId();
+        }
+      }
+      foundNode.addColors(lastNewNode);
+      foundNode.addColors(node);
+      newNodes.put(foundNode, foundNode);
+      integrateNewNode(node, lastNewNode, foundNode);
     }
   }
 
@@ -168,12 +290,12 @@ public class SelfBuildingGraph extends Graph {
    * @param newCompared1 first node used to find a new node
    * @param newCompared2 second node used to find a new node
    */
-  private void updateComparedNodes(Node newCompared1, Node newCompared2) {
+  private void updateComparedNodes(Node<?> newCompared1, Node<?> newCompared2) {
     if (!comparedNodes.containsKey(newCompared1)) {
       comparedNodes.put(newCompared1, new HashSet<>());
     }
     // Get old values and update them
-    Set<Node> tmp = comparedNodes.get(newCompared1);
+    Set<Node<?>> tmp = comparedNodes.get(newCompared1);
     tmp.add(newCompared2);
     comparedNodes.put(newCompared1, tmp);
 
@@ -194,12 +316,11 @@ public class SelfBuildingGraph extends Graph {
    * @param node2 second node used to find the new node
    * @param newNode new node found by using the other two nodes
    */
-  private void integrateNewNode(Node node1, Node node2, Node newNode) {
-    Node<Integer> factNode = new Node<>(factIterator);
-    factIterator++;
+  private void integrateNewNode(Node<?> node1, Node<?> node2, Node<?> newNode) {
+    Node<Integer> factNode = new Node<>(nextFactId--);
     factNode.setNodeType(true);
-    factNode.addColors(node1.getColors());
-    factNode.addColors(node2.getColors());
+    factNode.addColors(node1);
+    factNode.addColors(node2);
     addNode(factNode);
     addNode(newNode);
     addEdge(node1, factNode);
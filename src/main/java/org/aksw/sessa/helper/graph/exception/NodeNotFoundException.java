@@ -8,7 +8,7 @@ import org.aksw.sessa.helper.graph.Node;
  */
 public class NodeNotFoundException extends Exception {
 
-  private Node node;
+  private Node<?> node;
   private GraphInterface graph;
 
   public NodeNotFoundException() {
@@ -19,17 +19,17 @@ public class NodeNotFoundException extends Exception {
     this(message, null);
   }
 
-  public NodeNotFoundException(String message, Node node) {
+  public NodeNotFoundException(String message, Node<?> node) {
     this(message, node, null);
   }
 
-  public NodeNotFoundException(String message, Node node, GraphInterface graph) {
+  public NodeNotFoundException(String message, Node<?> node, GraphInterface graph) {
     super(message);
     this.node = node;
     this.graph = graph;
   }
 
-  public Node getNode() {
+  public Node<?> getNode() {
     return node;
   }
 
@@ -1,5 +1,7 @@
 package org.aksw.sessa.importing.dictionary;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import org.aksw.sessa.importing.dictionary.energy.EnergyFunctionInterface;
 import org.aksw.sessa.importing.dictionary.util.Filter;
@@ -23,6 +25,16 @@ public interface DictionaryInterface {
    */
   Set<Candidate> get(String nGram);
 
+  /**
+   * Given a collection of n-grams, returns a mapping of every n-gram to its set of candidate URIs.
+   * The result for each n-gram is the same as the result of {@link #get(String) get}, but the
+   * dictionary is able to share work between the lookups, e.g. by using only one search pass.
+   *
+   * @param nGrams n-grams whose associated values are to be returned
+   * @return mapping of every given n-gram to its set of candidate URIs
+   */
+  Map<String, Set<Candidate>> getAll(Collection<String> nGrams);
+
   /**
    * Adds filter to the results in the {@link #get(String) get}-method.
    *
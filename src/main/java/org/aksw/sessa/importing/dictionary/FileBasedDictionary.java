@@ -1,24 +1,35 @@
 package org.aksw.sessa.importing.dictionary;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.PriorityBlockingQueue;
 import org.aksw.sessa.candidate.Candidate;
 import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
 import org.aksw.sessa.importing.dictionary.energy.EnergyFunctionInterface;
+import org.aksw.sessa.importing.dictionary.util.CandidateScoring;
 import org.aksw.sessa.importing.dictionary.util.Filter;
 import org.slf4j.LoggerFactory;
 
 /**
  * Abstract class which acts as a entry-point for every dictionary that uses dictionary files to
- * fill itself.
+ * fill itself. Filtering and energy calculation are safe for concurrent use, so that
+ * implementations can be queried by multiple threads.
  */
 public abstract class FileBasedDictionary implements DictionaryInterface {
 
-  protected PriorityQueue<Filter> filterQue;
-  protected EnergyFunctionInterface energyFunction;
+  protected PriorityBlockingQueue<Filter> filterQue;
+  protected volatile EnergyFunctionInterface energyFunction;
+  /**
+   * Contains the scoring of the current filters and energy function, null if it has to be built.
+   * It is built and invalidated while holding the scoring lock, so a scoring of replaced filters
+   * or a replaced energy function cannot be stored.
+   */
+  private volatile CandidateScoring scoring;
+  private final Object scoringLock = new Object();
 
   protected org.slf4j.Logger log = LoggerFactory.getLogger(FileBasedDictionary.class);
 
@@ -26,7 +37,7 @@ public abstract class FileBasedDictionary implements DictionaryInterface {
    * Constructs the dictionary with the given energy function.
    */
   public FileBasedDictionary() {
-    filterQue = new PriorityQueue<>(10,
+    filterQue = new PriorityBlockingQueue<>(10,
         Collections.reverseOrder(Comparator.comparing(Filter::getNumberOfResults)));
     energyFunction = (a, b, c) -> 1;
   }
@@ -39,35 +50,55 @@ public abstract class FileBasedDictionary implements DictionaryInterface {
   public abstract void putAll(FileHandlerInterface handler);
 
   /**
-   * Adds filter to the filter-queue. The filters added here are applied, order depending on their
-   * given number of results (descending), after the dictionary found all candidates.
+   * Adds the entries of all given files to the dictionary. Every file is read by its own handler,
+   * which is closed afterwards. Dictionaries may use the given number of threads for the import.
+   * The default implementation imports the files one after another.
    *
-   * @param filter filter to be added to the queue
+   * @param handlers mapping of file names to the handlers which should read them
+   * @param threads number of threads which may be used for the import
    */
-  @Override
-  public void addFilter(Filter filter) {
-    filterQue.add(filter);
+  public void putAll(Map<String, FileHandlerInterface> handlers, int threads) {
+    for (Entry<String, FileHandlerInterface> file : handlers.entrySet()) {
+      try (FileHandlerInterface handler = file.getValue()) {
+        log.info("Loading file '{}' to dictionary via {}.",
+            file.getKey(),
+            handler.getClass().getSimpleName());
+        handler.loadFile(file.getKey());
+        putAll(handler);
+      } catch (IOException ioE) {
+        log.error(ioE.getLocalizedMessage());
+      }
+    }
+  }
+
+  /**
+   * Signals that a large number of entries will be added with {@link
+   * #putAll(FileHandlerInterface)}, e.g. when the dictionary is built from scratch. Dictionaries
+   * can use this to speed up the import. The entries may not be available until {@link
+   * #finishBulkLoad()} is called. The default implementation does nothing.
+   */
+  public void startBulkLoad() {
   }
 
   /**
-   * Allows the dictionary to filter based on the added filters.
+   * Signals that the import started with {@link #startBulkLoad()} is finished. Afterwards all
+   * added entries are available. The default implementation does nothing.
+   */
+  public void finishBulkLoad() {
+  }
+
+  /**
+   * Adds filter to the filter-queue. The filters added here are applied, order depending on their
+   * given number of results (descending), after the dictionary found all candidates.
    *
-   * @param keyword the initial keyword for the search in the dictionary
-   * @param candidateSet found set of candidates for the keyword
-   * @return filtered set of candidates
+   * @param filter filter to be added to the queue
    */
-  protected Set<Candidate> filter(String keyword, Set<Candidate> candidateSet) {
-    Set<Candidate> filteredCandidateSet = new HashSet<>();
-    filteredCandidateSet.addAll(candidateSet);
-    for (Filter filter : filterQue) {
-      filteredCandidateSet = filter.filter(keyword, filteredCandidateSet);
-      log.debug("Used filter for keyword {} with {} with result limit of {}. Got list: {}",
-          keyword,
-          filter.getEnergyFunction().getClass().getSimpleName(),
-          filter.getNumberOfResults(),
-          filteredCandidateSet);
+  @Override
+  public void addFilter(Filter filter) {
+    synchronized (scoringLock) {
+      filterQue.add(filter);
+      scoring = null;
     }
-    return filteredCandidateSet;
   }
 
   /**
@@ -77,24 +108,35 @@ public abstract class FileBasedDictionary implements DictionaryInterface {
    */
   @Override
   public void setEnergyFunction(EnergyFunctionInterface energyFunction) {
-    this.energyFunction = energyFunction;
+    synchronized (scoringLock) {
+      this.energyFunction = energyFunction;
+      scoring = null;
+    }
   }
 
   /**
-   * Calculates the energy of all candidates based on all information in the candidate and the query
-   * string.
+   * Filters the given candidates with the added filters and calculates the energy of the
+   * remaining candidates. Every energy function is applied at most once per candidate (see
+   * {@link CandidateScoring}).
    *
-   * @param candidateSet candidate set, in which all candidates should get their energy calculated
-   * @param query query string, i.e. the string with which the candidate was found in the
-   * dictionary
-   * @return updated candidate set with energy function applied
+   * @param nGram the initial n-gram for the search in the dictionary
+   * @param candidateSet found set of candidates for the n-gram
+   * @return filtered set of candidates with their energy
    */
-  protected Set<Candidate> calculateEnergy(Set<Candidate> candidateSet, String query) {
-    for (Candidate candidate : candidateSet) {
-      float energy = energyFunction
-          .calculateEnergyScore(query, candidate.getUri(), candidate.getKey());
-      candidate.setEnergy(energy);
+  protected Set<Candidate> score(String nGram, Set<Candidate> candidateSet) {
+    CandidateScoring currentScoring = scoring;
+    if (currentScoring == null) {
+      synchronized (scoringLock) {
+        currentScoring = scoring;
+        if (currentScoring == null) {
+          currentScoring = new CandidateScoring(filterQue, energyFunction);
+          scoring = currentScoring;
+        }
+      }
     }
-    return candidateSet;
+    Set<Candidate> filteredCandidateSet = currentScoring.score(nGram, candidateSet);
+    log.debug("Scored {} candidates for n-gram {}. Got list: {}", candidateSet.size(), nGram,
+        filteredCandidateSet);
+    return filteredCandidateSet;
   }
 }
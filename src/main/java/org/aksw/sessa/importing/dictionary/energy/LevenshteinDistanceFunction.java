@@ -1,13 +1,42 @@
 package org.aksw.sessa.importing.dictionary.energy;
 
-import org.apache.lucene.search.spell.LuceneLevenshteinDistance;
-
 /**
  * Provides function to calculate the energy score based on Levenshtein distance. This class is an
  * implementation of the interface {@link EnergyFunctionInterface}.
+ *
+ * <p>The scores are the same as those of Lucene's {@code LuceneLevenshteinDistance} for the
+ * lower-cased strings, i.e. a transposition of two neighboring code points counts as one edit and
+ * the distance is normalized by the length of the shorter string. The code points are lower-cased
+ * one by one while they are compared, and the rows of the distance matrix are kept per thread, so
+ * that a calculation does not allocate memory. One instance can be used by several threads.
  */
 public class LevenshteinDistanceFunction implements EnergyFunctionInterface {
 
+  private static final ThreadLocal<Workspace> WORKSPACES = ThreadLocal.withInitial(Workspace::new);
+
+  private final float minScore;
+
+  /**
+   * Constructs the function, which calculates every score exactly.
+   */
+  public LevenshteinDistanceFunction() {
+    this(Float.NEGATIVE_INFINITY);
+  }
+
+  /**
+   * Constructs the function, which stops the calculation of a score as soon as it is clear that
+   * the score is below the given minimum score. In this case an (inexact) score below the minimum
+   * score is returned.
+   *
+   * @param minScore minimum score which is calculated exactly, at most 1
+   */
+  public LevenshteinDistanceFunction(float minScore) {
+    if (minScore > 1) {
+      throw new IllegalArgumentException("The minimum score must not be greater than 1.");
+    }
+    this.minScore = minScore;
+  }
+
   /**
    * Returns the energy score of an URI with the given data. More precisely it calculates a score
    * between 0 and 1 based on the levenshtein distance based on the initial keyword and the n-gram
@@ -21,7 +50,124 @@ public class LevenshteinDistanceFunction implements EnergyFunctionInterface {
    */
   @Override
   public float calculateEnergyScore(String nGram, String foundURI, String foundKey) {
-    LuceneLevenshteinDistance levenshtein = new LuceneLevenshteinDistance();
-    return levenshtein.getDistance(nGram.toLowerCase(), foundKey.toLowerCase());
+    Workspace workspace = WORKSPACES.get();
+    int length1 = workspace.load(nGram, true);
+    int length2 = workspace.load(foundKey, false);
+    if (length1 == 0 || length2 == 0) {
+      // same as LuceneLevenshteinDistance, which returns the distance for an empty string
+      return length1 == length2 ? 0 : Math.max(length1, length2);
+    }
+    int shorterLength = Math.min(length1, length2);
+    int maxDistance = minScore == Float.NEGATIVE_INFINITY ? Integer.MAX_VALUE - 1
+        : (int) Math.min(Integer.MAX_VALUE - 1, Math.floor((1 - minScore) * shorterLength));
+    int distance = workspace.distance(length1, length2, maxDistance);
+    return 1.0f - ((float) distance / shorterLength);
+  }
+
+  /**
+   * Returns the case-insensitive edit distance of the given strings, in which a transposition of
+   * two neighboring code points counts as one edit.
+   *
+   * @param string1 first string
+   * @param string2 second string
+   * @param maxDistance distance at which the calculation stops
+   * @return the distance of the strings, or {@code maxDistance + 1} if the distance is greater
+   *     than maxDistance
+   */
+  public static int getDistance(CharSequence string1, CharSequence string2, int maxDistance) {
+    Workspace workspace = WORKSPACES.get();
+    int length1 = workspace.load(string1, true);
+    int length2 = workspace.load(string2, false);
+    return workspace.distance(length1, length2, Math.min(maxDistance, Integer.MAX_VALUE - 1));
+  }
+
+  /**
+   * Lower-cased code points of both strings and the last three rows of the distance matrix, which
+   * are reused by all calculations of a thread.
+   */
+  private static class Workspace {
+
+    private static final int INITIAL_CAPACITY = 32;
+    private int[] codePoints1 = new int[INITIAL_CAPACITY];
+    private int[] codePoints2 = new int[INITIAL_CAPACITY];
+    private int[] rowBeforePrevious = new int[INITIAL_CAPACITY + 1];
+    private int[] previousRow = new int[INITIAL_CAPACITY + 1];
+    private int[] currentRow = new int[INITIAL_CAPACITY + 1];
+
+    /**
+     * Stores the lower-cased code points of the given string as first or second string and
+     * returns their number.
+     */
+    private int load(CharSequence string, boolean first) {
+      int[] codePoints = first ? codePoints1 : codePoints2;
+      if (codePoints.length < string.length()) {
+        codePoints = new int[Math.max(string.length(), 2 * codePoints.length)];
+        if (first) {
+          codePoints1 = codePoints;
+        } else {
+          codePoints2 = codePoints;
+        }
+      }
+      int length = 0;
+      for (int i = 0; i < string.length(); i++) {
+        char high = string.charAt(i);
+        int codePoint = high;
+        if (Character.isHighSurrogate(high) && i + 1 < string.length()
+            && Character.isLowSurrogate(string.charAt(i + 1))) {
+          codePoint = Character.toCodePoint(high, string.charAt(++i));
+        }
+        codePoints[length++] = Character.toLowerCase(codePoint);
+      }
+      return length;
+    }
+
+    /**
+     * Calculates the distance of the loaded strings row by row. Since the minimum of a row is never
+     * less than the minimum of the row before, the calculation stops as soon as a row exceeds the
+     * maximum distance.
+     */
+    private int distance(int length1, int length2, int maxDistance) {
+      if (Math.abs(length1 - length2) > maxDistance) {
+        return maxDistance + 1;
+      }
+      if (previousRow.length <= length2) {
+        int capacity = Math.max(length2 + 1, 2 * previousRow.length);
+        rowBeforePrevious = new int[capacity];
+        previousRow = new int[capacity];
+        currentRow = new int[capacity];
+      }
+      int[] codePoints1 = this.codePoints1;
+      int[] codePoints2 = this.codePoints2;
+      int[] before = rowBeforePrevious;
+      int[] previous = previousRow;
+      int[] current = currentRow;
+      for (int j = 0; j <= length2; j++) {
+        previous[j] = j;
+      }
+      for (int i = 1; i <= length1; i++) {
+        int codePoint1 = codePoints1[i - 1];
+        current[0] = i;
+        int rowMinimum = i;
+        for (int j = 1; j <= length2; j++) {
+          int cost = codePoint1 == codePoints2[j - 1] ? 0 : 1;
+          int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1),
+              previous[j - 1] + cost);
+          if (i > 1 && j > 1 && codePoint1 == codePoints2[j - 2]
+              && codePoints1[i - 2] == codePoints2[j - 1]) {
+            distance = Math.min(distance, before[j - 2] + cost);
+          }
+          current[j] = distance;
+          rowMinimum = Math.min(rowMinimum, distance);
+        }
+        if (rowMinimum > maxDistance) {
+          return maxDistance + 1;
+        }
+        int[] reused = before;
+        before = previous;
+        previous = current;
+        current = reused;
+      }
+      return Math.min(previous[length2], maxDistance + 1);
+    }
   }
 }
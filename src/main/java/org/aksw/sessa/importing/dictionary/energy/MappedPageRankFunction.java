@@ -0,0 +1,35 @@
+package org.aksw.sessa.importing.dictionary.energy;
+
+import org.aksw.sessa.importing.rank.PageRankTable;
+
+/**
+ * Provides function to calculate the energy score based on the page rank of given URI, which is
+ * read from a precomputed {@link PageRankTable} instead of being queried from DBpedia. This class
+ * is an implementation of the interface {@link EnergyFunctionInterface}.
+ */
+public class MappedPageRankFunction implements EnergyFunctionInterface {
+
+  private final PageRankTable table;
+
+  /**
+   * Constructs the function, which reads the page ranks from the given table.
+   *
+   * @param table table with the page ranks
+   */
+  public MappedPageRankFunction(PageRankTable table) {
+    this.table = table;
+  }
+
+  /**
+   * Returns the page rank of given URI.
+   *
+   * @param nGram original n-gram with which the uri was found
+   * @param foundURI found URI for which the energy score should be calculated
+   * @param foundKey key of the dictionary for which the URI is the value
+   * @return the energy score of an URI with the given data, 0 if the URI has no rank
+   */
+  @Override
+  public float calculateEnergyScore(String nGram, String foundURI, String foundKey) {
+    return table.getRank(foundURI);
+  }
+}
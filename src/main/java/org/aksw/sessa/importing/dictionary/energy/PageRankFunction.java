@@ -4,13 +4,9 @@ import java.util.Formatter;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
-import org.apache.jena.query.Query;
-import org.apache.jena.query.QueryExecution;
-import org.apache.jena.query.QueryExecutionFactory;
-import org.apache.jena.query.QueryFactory;
+import org.aksw.sessa.importing.rdf.SparqlClient;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.query.ResultSet;
-import org.apache.jena.sparql.engine.http.QueryEngineHTTP;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -20,6 +16,23 @@ import org.slf4j.LoggerFactory;
 public class PageRankFunction implements EnergyFunctionInterface {
 
   private org.slf4j.Logger log = LoggerFactory.getLogger(EnergyFunctionInterface.class);
+  private final SparqlClient client;
+
+  /**
+   * Constructs the function, which queries the page ranks with the shared SPARQL client.
+   */
+  public PageRankFunction() {
+    this(SparqlClient.getSharedClient());
+  }
+
+  /**
+   * Constructs the function, which queries the page ranks with the given SPARQL client.
+   *
+   * @param client client which sends the queries
+   */
+  public PageRankFunction(SparqlClient client) {
+    this.client = client;
+  }
 
   /**
    * Returns the wikipedia page rank of given URI.
@@ -53,25 +66,23 @@ public class PageRankFunction implements EnergyFunctionInterface {
   }
 
   private Set<Float> executeQuery(String queryString) {
-    Query query = QueryFactory.create(queryString);
-
-    ResultSet rs;
     Set<Float> finalSet = new HashSet<>();
 
-    try (QueryExecution qexec = QueryExecutionFactory
-        .sparqlService("http://dbpedia.org/sparql", query)) {
-      // Set the DBpedia specific timeout.
-      ((QueryEngineHTTP) qexec).addParam("timeout", "10000");
-      // Execute.
-      rs = qexec.execSelect();
-      String resultVar = rs.getResultVars().get(0);
-      while (rs.hasNext()) {
-        QuerySolution qs = rs.next();
-        finalSet.add(qs.getLiteral(resultVar).getFloat());
-      }
+    // the graphs are given in the query
+    try {
+      finalSet = client.execute(SparqlClient.DBPEDIA_ENDPOINT, null, queryString, qexec -> {
+        // built anew for every try, so a failed try leaves no partial results
+        Set<Float> ranks = new HashSet<>();
+        ResultSet rs = qexec.execSelect();
+        String resultVar = rs.getResultVars().get(0);
+        while (rs.hasNext()) {
+          QuerySolution qs = rs.next();
+          ranks.add(qs.getLiteral(resultVar).getFloat());
+        }
+        return ranks;
+      });
     } catch (Exception e) {
       log.error("Error with query {}", queryString);
-      log.error("Answer set until this point is: {}", finalSet);
       log.error(e.getLocalizedMessage());
     }
     log.trace("Query: '{}'. Found: {}", queryString, finalSet);
@@ -0,0 +1,205 @@
+package org.aksw.sessa.importing.dictionary.implementation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import org.aksw.sessa.candidate.Candidate;
+import org.aksw.sessa.helper.cache.LruCache;
+import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
+import org.aksw.sessa.importing.dictionary.FileBasedDictionary;
+import org.aksw.sessa.importing.dictionary.energy.EnergyFunctionInterface;
+import org.aksw.sessa.importing.dictionary.util.Filter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorates a {@link FileBasedDictionary} with a cache for the filtered and scored candidates of
+ * every n-gram. The cache is bounded and evicts the least recently used n-grams. It is invalidated
+ * whenever entries are added to the dictionary or its filters or energy function change.
+ */
+public class CachingDictionary extends FileBasedDictionary {
+
+  private static final Logger log = LoggerFactory.getLogger(CachingDictionary.class);
+
+  private final FileBasedDictionary dictionary;
+  private final LruCache<String, Set<Candidate>> cache;
+  /**
+   * Is incremented on every invalidation. Results which were computed before an invalidation are
+   * not cached.
+   */
+  private long generation;
+
+  /**
+   * Constructs the cache for the given dictionary.
+   *
+   * @param dictionary dictionary whose results should be cached
+   * @param maximumSize maximum number of n-grams in the cache
+   */
+  public CachingDictionary(FileBasedDictionary dictionary, int maximumSize) {
+    this.dictionary = dictionary;
+    this.cache = new LruCache<>(maximumSize, 0);
+    this.generation = 0;
+  }
+
+  /**
+   * Given a n-gram, returns a set of URIs related to it. The result is taken from the cache if
+   * possible.
+   *
+   * @param nGram n-gram whose associated value is to be returned
+   * @return mapping of n-grams to set of URIs
+   */
+  @Override
+  public Set<Candidate> get(String nGram) {
+    Set<Candidate> candidateSet = cache.get(nGram);
+    if (candidateSet == null) {
+      long startGeneration = getGeneration();
+      candidateSet = dictionary.get(nGram);
+      cacheResult(startGeneration, nGram, candidateSet);
+    } else {
+      log.trace("Found candidates for '{}' in cache.", nGram);
+    }
+    return new HashSet<>(candidateSet);
+  }
+
+  /**
+   * Given a collection of n-grams, returns a mapping of every n-gram to its set of candidate URIs.
+   * Only the n-grams which are not in the cache are looked up in the dictionary (in one batch).
+   *
+   * @param nGrams n-grams whose associated values are to be returned
+   * @return mapping of every given n-gram to its set of candidate URIs
+   */
+  @Override
+  public Map<String, Set<Candidate>> getAll(Collection<String> nGrams) {
+    Map<String, Set<Candidate>> candidateMapping = new HashMap<>();
+    List<String> missingNGrams = new ArrayList<>();
+    for (String nGram : nGrams) {
+      if (!candidateMapping.containsKey(nGram)) {
+        Set<Candidate> candidateSet = cache.get(nGram);
+        if (candidateSet == null) {
+          missingNGrams.add(nGram);
+        } else {
+          candidateMapping.put(nGram, new HashSet<>(candidateSet));
+        }
+      }
+    }
+    if (!missingNGrams.isEmpty()) {
+      long startGeneration = getGeneration();
+      Map<String, Set<Candidate>> foundCandidates = dictionary.getAll(missingNGrams);
+      for (Entry<String, Set<Candidate>> entry : foundCandidates.entrySet()) {
+        cacheResult(startGeneration, entry.getKey(), entry.getValue());
+        candidateMapping.put(entry.getKey(), new HashSet<>(entry.getValue()));
+      }
+    }
+    return candidateMapping;
+  }
+
+  /**
+   * Adds the entries in the give handler to the dictionary and invalidates the cache.
+   *
+   * @param handler handler with file information
+   */
+  @Override
+  public void putAll(FileHandlerInterface handler) {
+    dictionary.putAll(handler);
+    invalidate();
+  }
+
+  /**
+   * Adds the entries of all given files to the dictionary and invalidates the cache.
+   *
+   * @param handlers mapping of file names to the handlers which should read them
+   * @param threads number of threads which may be used for the import
+   */
+  @Override
+  public void putAll(Map<String, FileHandlerInterface> handlers, int threads) {
+    dictionary.putAll(handlers, threads);
+    invalidate();
+  }
+
+  @Override
+  public void startBulkLoad() {
+    dictionary.startBulkLoad();
+  }
+
+  /**
+   * Finishes the bulk load of the dictionary and invalidates the cache.
+   */
+  @Override
+  public void finishBulkLoad() {
+    dictionary.finishBulkLoad();
+    invalidate();
+  }
+
+  /**
+   * Adds filter to the filter-queue of the dictionary and invalidates the cache.
+   *
+   * @param filter filter to be added to the queue
+   */
+  @Override
+  public void addFilter(Filter filter) {
+    dictionary.addFilter(filter);
+    invalidate();
+  }
+
+  /**
+   * Sets the energy function of the dictionary and invalidates the cache.
+   *
+   * @param energyFunction energy function used to calculate the energy score for the nodes
+   */
+  @Override
+  public void setEnergyFunction(EnergyFunctionInterface energyFunction) {
+    dictionary.setEnergyFunction(energyFunction);
+    invalidate();
+  }
+
+  /**
+   * Returns the size of the underlying dictionary, i.e. how many pairs of keys and values.
+   */
+  @Override
+  public int size() {
+    return dictionary.size();
+  }
+
+  /**
+   * Returns the used cache, e.g. to read its hit and miss counters.
+   *
+   * @return the used cache
+   */
+  public LruCache<String, Set<Candidate>> getCache() {
+    return cache;
+  }
+
+  /**
+   * Returns the decorated dictionary.
+   *
+   * @return the decorated dictionary
+   */
+  public FileBasedDictionary getDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * Removes all entries from the cache.
+   */
+  public synchronized void invalidate() {
+    generation++;
+    cache.invalidateAll();
+    log.debug("Invalidated n-gram cache.");
+  }
+
+  private synchronized long getGeneration() {
+    return generation;
+  }
+
+  private synchronized void cacheResult(long startGeneration, String nGram,
+      Set<Candidate> candidateSet) {
+    if (startGeneration == generation) {
+      cache.put(nGram, new HashSet<>(candidateSet));
+    }
+  }
+}
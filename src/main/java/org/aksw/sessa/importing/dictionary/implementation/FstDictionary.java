@@ -0,0 +1,420 @@
+package org.aksw.sessa.importing.dictionary.implementation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.aksw.sessa.candidate.Candidate;
+import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
+import org.aksw.sessa.importing.dictionary.DictionaryInterface;
+import org.aksw.sessa.importing.dictionary.FileBasedDictionary;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.IntsRef;
+import org.apache.lucene.util.automaton.Automaton;
+import org.apache.lucene.util.automaton.BasicAutomata;
+import org.apache.lucene.util.automaton.BasicOperations;
+import org.apache.lucene.util.automaton.ByteRunAutomaton;
+import org.apache.lucene.util.automaton.LevenshteinAutomata;
+import org.apache.lucene.util.fst.Builder;
+import org.apache.lucene.util.fst.BytesRefFSTEnum;
+import org.apache.lucene.util.fst.BytesRefFSTEnum.InputOutput;
+import org.apache.lucene.util.fst.FST;
+import org.apache.lucene.util.fst.PositiveIntOutputs;
+import org.apache.lucene.util.fst.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides a dictionary based on a finite state transducer (FST) of Lucene. This class is an
+ * implementation of the interface {@link DictionaryInterface}. The FST maps every key to its
+ * number, which points to the sorted list of URI numbers of this key. The URIs are stored once in
+ * a packed byte array.
+ *
+ * <p>The same FST supports exact look ups ({@link #getExact(String)}), prefix look ups ({@link
+ * #getByPrefix(String)}) and look ups with a Levenshtein automaton ({@link #getFuzzy(String,
+ * int)}). {@link #get(String)} allows one edit for n-grams with at least {@link
+ * #MIN_FUZZY_LENGTH} characters and otherwise only finds exact matches. Look ups are safe for
+ * concurrent use, also while entries are added.
+ *
+ * <p>The FST can not be changed after it was built, so adding entries rebuilds it. To build the
+ * dictionary from many files, the entries should be added between {@link #startBulkLoad()} and
+ * {@link #finishBulkLoad()}, which builds the FST only once.
+ */
+public class FstDictionary extends FileBasedDictionary {
+
+  /**
+   * Contains the minimal length of an n-gram for which {@link #get(String)} allows one edit.
+   */
+  public static final int MIN_FUZZY_LENGTH = 4;
+  /**
+   * Contains the maximal number of keys which are matched by a single prefix or fuzzy look up.
+   */
+  public static final int MAX_MATCHED_KEYS = 100;
+  private static final Logger log = LoggerFactory.getLogger(FstDictionary.class);
+
+  private volatile Table table;
+  /**
+   * Contains the entries of a running bulk load or null if no bulk load is running.
+   */
+  private Map<String, Set<String>> bulkLoadedEntries;
+
+  /**
+   * Initializes an empty dictionary.
+   */
+  public FstDictionary() {
+    this(null);
+  }
+
+  /**
+   * Initializes the dictionary with the given file handler. The file will be parsed into the
+   * dictionary.
+   *
+   * @param handler handler to be used for filling the dictionary
+   */
+  public FstDictionary(FileHandlerInterface handler) {
+    table = Table.EMPTY;
+    if (handler != null) {
+      putAll(handler);
+    }
+  }
+
+  /**
+   * Given a n-gram, returns a set of URIs related to it. N-grams with at least {@link
+   * #MIN_FUZZY_LENGTH} characters also match keys with an edit distance of one.
+   *
+   * @param nGram n-gram whose associated value is to be returned
+   * @return set of candidates for the URIs related to the n-gram
+   */
+  @Override
+  public Set<Candidate> get(String nGram) {
+    return getFuzzy(nGram, nGram.length() < MIN_FUZZY_LENGTH ? 0 : 1);
+  }
+
+  /**
+   * Returns the candidates for all keys which are exactly the same as the given n-gram.
+   *
+   * @param nGram n-gram whose associated value is to be returned
+   * @return set of candidates for the URIs related to the n-gram
+   */
+  public Set<Candidate> getExact(String nGram) {
+    Table current = table;
+    Set<Candidate> candidateSet = new HashSet<>();
+    try {
+      Long key = current.fst == null ? null : Util.get(current.fst, new BytesRef(nGram));
+      if (key != null) {
+        current.addCandidates(key.intValue(), nGram, candidateSet);
+      }
+    } catch (IOException ioE) {
+      log.error(ioE.getLocalizedMessage() + " -> " + nGram, ioE);
+    }
+    return score(nGram, candidateSet);
+  }
+
+  /**
+   * Returns the candidates for the first {@link #MAX_MATCHED_KEYS} keys starting with the given
+   * prefix.
+   *
+   * @param prefix prefix of the keys
+   * @return set of candidates for the URIs related to the found keys
+   */
+  public Set<Candidate> getByPrefix(String prefix) {
+    Automaton automaton = BasicOperations
+        .concatenate(BasicAutomata.makeString(prefix), BasicAutomata.makeAnyString());
+    return score(prefix, table.intersect(new ByteRunAutomaton(automaton)));
+  }
+
+  /**
+   * Returns the candidates for the first {@link #MAX_MATCHED_KEYS} keys with at most the given
+   * edit distance to the given n-gram. Transpositions count as one edit.
+   *
+   * @param nGram n-gram whose associated value is to be returned
+   * @param maxEdits maximal edit distance, at most {@link
+   * LevenshteinAutomata#MAXIMUM_SUPPORTED_DISTANCE}
+   * @return set of candidates for the URIs related to the found keys
+   */
+  public Set<Candidate> getFuzzy(String nGram, int maxEdits) {
+    if (maxEdits == 0) {
+      return getExact(nGram);
+    }
+    Automaton automaton = new LevenshteinAutomata(nGram, true).toAutomaton(maxEdits);
+    return score(nGram, table.intersect(new ByteRunAutomaton(automaton)));
+  }
+
+  /**
+   * Given a collection of n-grams, returns a mapping of every n-gram to its set of candidate URIs.
+   * Every distinct n-gram is only looked up once.
+   *
+   * @param nGrams n-grams whose associated values are to be returned
+   * @return mapping of every given n-gram to its set of candidate URIs
+   */
+  @Override
+  public Map<String, Set<Candidate>> getAll(Collection<String> nGrams) {
+    Map<String, Set<Candidate>> candidateMapping = new HashMap<>();
+    for (String nGram : nGrams) {
+      if (!candidateMapping.containsKey(nGram)) {
+        candidateMapping.put(nGram, get(nGram));
+      }
+    }
+    return candidateMapping;
+  }
+
+  /**
+   * Adds the entries in the given handler to the dictionary. Outside of a bulk load this rebuilds
+   * the FST.
+   *
+   * @param handler handler with file information
+   */
+  @Override
+  public void putAll(FileHandlerInterface handler) {
+    boolean ownBulkLoad = bulkLoadedEntries == null;
+    if (ownBulkLoad) {
+      startBulkLoad();
+    }
+    try {
+      log.debug("Reading entries of file '{}'", handler.getFileName());
+      for (Entry<String, String> entry; (entry = handler.nextEntry()) != null; ) {
+        bulkLoadedEntries.computeIfAbsent(entry.getKey(), key -> new HashSet<>())
+            .add(entry.getValue());
+      }
+    } catch (IOException ioE) {
+      log.error(ioE.getLocalizedMessage());
+    }
+    if (ownBulkLoad) {
+      finishBulkLoad();
+    }
+  }
+
+  /**
+   * Starts the bulk load mode. In this mode, all entries added with {@link
+   * #putAll(FileHandlerInterface)} are collected and the FST is only built once in {@link
+   * #finishBulkLoad()}.
+   */
+  @Override
+  public void startBulkLoad() {
+    if (bulkLoadedEntries != null) {
+      return;
+    }
+    bulkLoadedEntries = new HashMap<>();
+    try {
+      table.copyTo(bulkLoadedEntries);
+    } catch (IOException ioE) {
+      log.error(ioE.getLocalizedMessage());
+    }
+  }
+
+  /**
+   * Finishes the bulk load mode and builds the FST of all entries.
+   */
+  @Override
+  public void finishBulkLoad() {
+    if (bulkLoadedEntries == null) {
+      return;
+    }
+    try {
+      table = Table.build(bulkLoadedEntries);
+      log.debug("Built FST of {} keys with {} bytes. Total number of entries: {}",
+          table.keyCount, table.fst == null ? 0 : table.fst.sizeInBytes(), size());
+    } catch (IOException ioE) {
+      log.error(ioE.getLocalizedMessage());
+    } finally {
+      bulkLoadedEntries = null;
+    }
+  }
+
+  /**
+   * Returns the size of the dictionary, i.e. how many pairs of keys and values.
+   */
+  @Override
+  public int size() {
+    return table.postings.length;
+  }
+
+  /**
+   * Returns the approximate number of bytes used by the FST, the URI lists and the URIs.
+   *
+   * @return approximate number of bytes used by the dictionary
+   */
+  public long sizeInBytes() {
+    Table current = table;
+    return (current.fst == null ? 0 : current.fst.sizeInBytes())
+        + (long) Integer.BYTES * (current.postingOffsets.length + current.postings.length
+        + current.uriOffsets.length)
+        + current.uriBytes.length;
+  }
+
+  /**
+   * Contains one built FST together with the URI lists. A table is never changed after it was
+   * built.
+   */
+  private static final class Table {
+
+    private static final Table EMPTY =
+        new Table(null, 0, new int[1], new int[0], new int[1], new byte[0]);
+
+    private final FST<Long> fst;
+    private final int keyCount;
+    private final int[] postingOffsets;
+    private final int[] postings;
+    private final int[] uriOffsets;
+    private final byte[] uriBytes;
+
+    private Table(FST<Long> fst, int keyCount, int[] postingOffsets, int[] postings,
+        int[] uriOffsets, byte[] uriBytes) {
+      this.fst = fst;
+      this.keyCount = keyCount;
+      this.postingOffsets = postingOffsets;
+      this.postings = postings;
+      this.uriOffsets = uriOffsets;
+      this.uriBytes = uriBytes;
+    }
+
+    /**
+     * Builds the FST and the URI lists of the given entries.
+     *
+     * @param entries mapping of keys to their URIs
+     * @return table of the given entries
+     * @throws IOException If the FST could not be built
+     */
+    private static Table build(Map<String, Set<String>> entries) throws IOException {
+      TreeMap<BytesRef, Set<String>> sortedEntries = new TreeMap<>();
+      int entryCount = 0;
+      for (Entry<String, Set<String>> entry : entries.entrySet()) {
+        if (!entry.getKey().isEmpty()) {
+          sortedEntries.put(new BytesRef(entry.getKey()), entry.getValue());
+          entryCount += entry.getValue().size();
+        }
+      }
+      Builder<Long> builder = new Builder<>(FST.INPUT_TYPE.BYTE1,
+          PositiveIntOutputs.getSingleton());
+      Map<String, Integer> uriIds = new HashMap<>();
+      List<byte[]> uris = new ArrayList<>();
+      int[] postingOffsets = new int[sortedEntries.size() + 1];
+      int[] postings = new int[entryCount];
+      IntsRef scratch = new IntsRef();
+      int key = 0;
+      int posting = 0;
+      for (Entry<BytesRef, Set<String>> entry : sortedEntries.entrySet()) {
+        builder.add(Util.toIntsRef(entry.getKey(), scratch), (long) key);
+        Set<Integer> ids = new TreeSet<>();
+        for (String uri : entry.getValue()) {
+          Integer id = uriIds.get(uri);
+          if (id == null) {
+            id = uris.size();
+            uriIds.put(uri, id);
+            uris.add(uri.getBytes(StandardCharsets.UTF_8));
+          }
+          ids.add(id);
+        }
+        postingOffsets[key] = posting;
+        for (int id : ids) {
+          postings[posting++] = id;
+        }
+        key++;
+      }
+      postingOffsets[key] = posting;
+      int[] uriOffsets = new int[uris.size() + 1];
+      int length = 0;
+      for (int i = 0; i < uris.size(); i++) {
+        uriOffsets[i] = length;
+        length += uris.get(i).length;
+      }
+      uriOffsets[uris.size()] = length;
+      byte[] uriBytes = new byte[length];
+      for (int i = 0; i < uris.size(); i++) {
+        System.arraycopy(uris.get(i), 0, uriBytes, uriOffsets[i], uris.get(i).length);
+      }
+      return new Table(builder.finish(), key, postingOffsets, postings, uriOffsets, uriBytes);
+    }
+
+    /**
+     * Adds a candidate for every URI of the key with the given number.
+     */
+    private void addCandidates(int key, String keyString, Set<Candidate> candidateSet) {
+      for (int i = postingOffsets[key]; i < postingOffsets[key + 1]; i++) {
+        candidateSet.add(new Candidate(uri(postings[i]), keyString));
+      }
+    }
+
+    private String uri(int id) {
+      return new String(uriBytes, uriOffsets[id], uriOffsets[id + 1] - uriOffsets[id],
+          StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the candidates for the first {@link #MAX_MATCHED_KEYS} keys accepted by the given
+     * automaton. The FST and the automaton are traversed together, so only the paths which are
+     * possible in both are visited.
+     */
+    private Set<Candidate> intersect(ByteRunAutomaton automaton) {
+      Set<Candidate> candidateSet = new HashSet<>();
+      if (fst == null) {
+        return candidateSet;
+      }
+      try {
+        FST.Arc<Long> root = fst.getFirstArc(new FST.Arc<>());
+        intersect(fst.getBytesReader(), root, 0, automaton.getInitialState(), automaton,
+            new BytesRef(), new int[1], candidateSet);
+      } catch (IOException ioE) {
+        log.error(ioE.getLocalizedMessage(), ioE);
+      }
+      return candidateSet;
+    }
+
+    private void intersect(FST.BytesReader reader, FST.Arc<Long> node, long output, int state,
+        ByteRunAutomaton automaton, BytesRef path, int[] matchedKeys, Set<Candidate> candidateSet)
+        throws IOException {
+      if (!FST.targetHasArcs(node)) {
+        return;
+      }
+      FST.Arc<Long> arc = fst.readFirstTargetArc(node, new FST.Arc<>(), reader);
+      while (matchedKeys[0] < MAX_MATCHED_KEYS) {
+        if (arc.label != FST.END_LABEL) {
+          int nextState = automaton.step(state, arc.label);
+          if (nextState != -1) {
+            path.grow(path.length + 1);
+            path.bytes[path.length++] = (byte) arc.label;
+            long nextOutput = output + arc.output;
+            if (arc.isFinal() && automaton.isAccept(nextState)) {
+              addCandidates((int) (nextOutput + arc.nextFinalOutput), path.utf8ToString(),
+                  candidateSet);
+              matchedKeys[0]++;
+            }
+            intersect(reader, arc, nextOutput, nextState, automaton, path, matchedKeys,
+                candidateSet);
+            path.length--;
+          }
+        }
+        if (arc.isLast()) {
+          break;
+        }
+        fst.readNextArc(arc, reader);
+      }
+    }
+
+    /**
+     * Copies all entries of the table into the given map.
+     */
+    private void copyTo(Map<String, Set<String>> entries) throws IOException {
+      if (fst == null) {
+        return;
+      }
+      BytesRefFSTEnum<Long> fstEnum = new BytesRefFSTEnum<>(fst);
+      for (InputOutput<Long> entry; (entry = fstEnum.next()) != null; ) {
+        int key = entry.output.intValue();
+        Set<String> uris = entries
+            .computeIfAbsent(entry.input.utf8ToString(), k -> new HashSet<>());
+        for (int i = postingOffsets[key]; i < postingOffsets[key + 1]; i++) {
+          uris.add(uri(postings[i]));
+        }
+      }
+    }
+  }
+}
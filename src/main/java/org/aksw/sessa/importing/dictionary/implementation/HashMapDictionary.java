@@ -1,12 +1,14 @@
 package org.aksw.sessa.importing.dictionary.implementation;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import org.aksw.sessa.candidate.Candidate;
+import org.aksw.sessa.helper.collections.UriIndex;
 import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
 import org.aksw.sessa.importing.dictionary.DictionaryInterface;
 import org.aksw.sessa.importing.dictionary.FileBasedDictionary;
@@ -15,7 +17,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Provides a HashMap-based dictionary given a file handler. This class is an implementation of the
- * interface {@link DictionaryInterface}.
+ * interface {@link DictionaryInterface}. The URIs are interned with an own {@link UriIndex} while
+ * the entries are imported, so that a URI which belongs to several keys is stored only once and
+ * its candidates share one string. Look ups are safe for concurrent use, as long as no entries are
+ * added at the same time.
  *
  * @author Simon Bordewisch
  */
@@ -23,6 +28,7 @@ public class HashMapDictionary extends FileBasedDictionary {
 
   private static final Logger log = LoggerFactory.getLogger(HashMapDictionary.class);
   private Map<String, Set<String>> dictionary;
+  private final UriIndex uris = new UriIndex();
   private int dictionarySize;
 
   /**
@@ -59,7 +65,9 @@ public class HashMapDictionary extends FileBasedDictionary {
         if (values == null) {
           values = new HashSet<>();
         }
-        values.add(entry.getValue());
+        if (values.add(uris.intern(entry.getValue()))) {
+          dictionarySize++;
+        }
         log.trace("Adding to dictionary: {} - {}", key, values);
         dictionary.put(key, values);
       }
@@ -83,14 +91,30 @@ public class HashMapDictionary extends FileBasedDictionary {
       for (String uri : foundUris) {
         Candidate candidate = new Candidate(uri, nGram);
         candidateSet.add(candidate);
-        dictionarySize++;
       }
     }
-    Set<Candidate> filteredCandidateSet = this.filter(nGram, candidateSet);
-    filteredCandidateSet = this.calculateEnergy(filteredCandidateSet, nGram);
+    Set<Candidate> filteredCandidateSet = this.score(nGram, candidateSet);
     return filteredCandidateSet;
   }
 
+  /**
+   * Given a collection of n-grams, returns a mapping of every n-gram to its set of candidate URIs.
+   * Every distinct n-gram is only looked up once in the underlying map.
+   *
+   * @param nGrams n-grams whose associated values are to be returned
+   * @return mapping of every given n-gram to its set of candidate URIs
+   */
+  @Override
+  public Map<String, Set<Candidate>> getAll(Collection<String> nGrams) {
+    Map<String, Set<Candidate>> candidateMapping = new HashMap<>();
+    for (String nGram : nGrams) {
+      if (!candidateMapping.containsKey(nGram)) {
+        candidateMapping.put(nGram, get(nGram));
+      }
+    }
+    return candidateMapping;
+  }
+
   /**
    * Adds the entries in the give file to the dictionary.
    *
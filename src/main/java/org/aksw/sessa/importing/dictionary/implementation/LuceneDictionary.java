@@ -4,13 +4,27 @@ import com.google.common.collect.ImmutableList;
 import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.aksw.sessa.candidate.Candidate;
+import org.aksw.sessa.helper.collections.LongHashSet;
 import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
 import org.aksw.sessa.importing.config.ConfigurationInitializer;
 import org.aksw.sessa.importing.dictionary.DictionaryInterface;
@@ -22,17 +36,23 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
-import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.AtomicReaderContext;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.FuzzyQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopScoreDocCollector;
 import org.apache.lucene.search.similarities.Similarity;
@@ -45,7 +65,9 @@ import org.apache.lucene.util.Version;
 /**
  * Provides a Lucene-based dictionary given a file handler. The path to the index is stored in the
  * variable DEFAULT_PATH_TO_INDEX. This class is an implementation of the interface {@link
- * DictionaryInterface}.
+ * DictionaryInterface}. Look ups are safe for concurrent use. Searchers are provided by a
+ * near-real-time {@link SearcherManager}, so entries can be added while look ups are served and
+ * readers of older index versions are closed once the last look up using them is finished.
  *
  * @author Simon Bordewisch
  */
@@ -70,6 +92,29 @@ public class LuceneDictionary extends FileBasedDictionary implements AutoCloseab
    */
   private static final String FIELD_NAME_VALUE = "URI";
   private static final Version LUCENE_VERSION = Version.LUCENE_46;
+  /**
+   * Contains the size of the RAM buffer (in MB) of the index writer during a bulk load. Lucene
+   * flushes a new segment every time the buffer is full.
+   */
+  private static final double BULK_LOAD_RAM_BUFFER_SIZE_MB = 256;
+  /**
+   * Contains the number of entries which are passed from the reading to the indexing threads at
+   * once during a parallel import.
+   */
+  private static final int IMPORT_BATCH_SIZE = 1000;
+  /**
+   * Contains the maximum number of batches waiting to be indexed during a parallel import.
+   */
+  private static final int IMPORT_QUEUE_CAPACITY = 64;
+  /**
+   * Contains the time in milliseconds after which the threads of a parallel import check again
+   * whether they can pass on a batch or whether the import is finished.
+   */
+  private static final long IMPORT_POLL_TIMEOUT_MS = 100;
+  /**
+   * Contains the time in seconds which the threads of a failed parallel import are given to stop.
+   */
+  private static final long IMPORT_CANCEL_TIMEOUT_S = 60;
   /**
    * Contais the buffer size, i.e. the number of entries in the bufferSize-hashmap before the
    * changes are committed to the Lucene dictionary. Smaller numbers will lead to performance loss
@@ -78,10 +123,18 @@ public class LuceneDictionary extends FileBasedDictionary implements AutoCloseab
   private int bufferSize = 1000000;
   private Directory directory;
   private Similarity similarity;
-  private IndexSearcher iSearcher;
-  private DirectoryReader iReader;
   private IndexWriter iWriter;
+  /**
+   * Provides the searchers for all look ups. Every searcher has to be released after use.
+   */
+  private SearcherManager searcherManager;
   private int maxResultSize;
+  /**
+   * Contains fingerprints of all entries added during a bulk load or null if no bulk load is
+   * running.
+   */
+  private LongHashSet bulkLoadedEntries;
+  private double defaultRamBufferSize;
 
   /**
    * Calls {@link #LuceneDictionary(FileHandlerInterface, String) LuceneDictionary(null,
@@ -134,12 +187,19 @@ public class LuceneDictionary extends FileBasedDictionary implements AutoCloseab
       similarity = new DictionaryEntrySimilarity();
       config.setSimilarity(similarity);
       iWriter = new IndexWriter(directory, config);
-      commitAndUpdate(); // ones to set the iReader
+      iWriter.commit(); // creates the index if it does not exist yet
+      searcherManager = new SearcherManager(iWriter, true, new SearcherFactory() {
+        @Override
+        public IndexSearcher newSearcher(IndexReader reader) {
+          IndexSearcher searcher = new IndexSearcher(reader);
+          searcher.setSimilarity(similarity);
+          return searcher;
+        }
+      });
       if (handler != null) {
         putAll(handler);
       }
-      log.debug("Loaded LuceneDictionary. Total number of entries in dictionary: {}",
-          iReader.numDocs());
+      log.debug("Loaded LuceneDictionary. Total number of entries in dictionary: {}", size());
     } catch (Exception e) {
       log.error(e.getLocalizedMessage());
     }
@@ -168,45 +228,171 @@ public class LuceneDictionary extends FileBasedDictionary implements AutoCloseab
     }
     Set<Candidate> foundCandidateSet = new HashSet<>();
     try {
-      String[] uniGrams = nGram.split(" ");
-      BooleanQuery queryTerms = new BooleanQuery();
-      for (String uniGram : uniGrams) {
-        Query query;
-        if (uniGram.length() < 4) {
-          query = new TermQuery(new Term(FIELD_NAME_KEY, uniGram));
-        } else {
-          query = new FuzzyQuery(new Term(FIELD_NAME_KEY, uniGram), 1);
-        }
-        queryTerms.add(query, BooleanClause.Occur.MUST);
-      }
-      log.trace("{}", queryTerms.toString());
-
-      TopScoreDocCollector collector = TopScoreDocCollector
-          .create(maxResultSize, true);
-      iSearcher.search(queryTerms, collector);
-      ScoreDoc[] hits = collector.topDocs().scoreDocs;
-      log.trace("{}", hits);
-      for (ScoreDoc hit : hits) {
-        Document hitDoc = iSearcher.doc(hit.doc);
-        String key = hitDoc.get(FIELD_NAME_KEY);
-        String uri = hitDoc.get(FIELD_NAME_VALUE);
-        Candidate candidate = new Candidate(uri, key);
-        foundCandidateSet.add(candidate);
+      IndexSearcher searcher = searcherManager.acquire();
+      try {
+        foundCandidateSet = search(searcher, nGram);
+      } finally {
+        searcherManager.release(searcher);
       }
     } catch (Exception e) {
       log.error(e.getLocalizedMessage() + " -> " + nGram, e);
     }
-    foundCandidateSet = this.filter(nGram, foundCandidateSet);
-    foundCandidateSet = this.calculateEnergy(foundCandidateSet, nGram);
+    foundCandidateSet = this.score(nGram, foundCandidateSet);
+    return foundCandidateSet;
+  }
+
+  /**
+   * Given a collection of n-grams, returns a mapping of every n-gram to its set of candidate URIs.
+   * All n-grams are answered by the same searcher. The query of every distinct unigram is only
+   * rewritten once, i.e. its fuzzy terms are only enumerated once, and then combined for each
+   * n-gram, so that the postings of the unigrams are intersected by Lucene. The matches are only
+   * collected up to {@link #NUMBER_OF_DOCS_RECEIVED_FROM_INDEX}; only if an n-gram has more matches
+   * a scored search is needed to find the best ones.
+   *
+   * @param nGrams n-grams whose associated values are to be returned
+   * @return mapping of every given n-gram to its set of candidate URIs
+   */
+  @Override
+  public Map<String, Set<Candidate>> getAll(Collection<String> nGrams) {
+    try {
+      IndexSearcher searcher = searcherManager.acquire();
+      try {
+        return getAll(searcher, nGrams);
+      } finally {
+        searcherManager.release(searcher);
+      }
+    } catch (IOException ioE) {
+      log.error(ioE.getLocalizedMessage(), ioE);
+      Map<String, Set<Candidate>> candidateMapping = new HashMap<>();
+      for (String nGram : nGrams) {
+        candidateMapping.put(nGram, new HashSet<>());
+      }
+      return candidateMapping;
+    }
+  }
+
+  private Map<String, Set<Candidate>> getAll(IndexSearcher searcher, Collection<String> nGrams) {
+    Map<String, Set<Candidate>> candidateMapping = new HashMap<>();
+    Map<String, Query> uniGramQueries = new HashMap<>();
+    Map<Integer, Document> loadedDocuments = new HashMap<>();
+    for (String nGram : nGrams) {
+      if (candidateMapping.containsKey(nGram)) {
+        continue;
+      }
+      Set<Candidate> foundCandidateSet = new HashSet<>();
+      if (!STOP_WORDS.contains(nGram.toLowerCase())) {
+        try {
+          BooleanQuery queryTerms = new BooleanQuery();
+          for (String uniGram : nGram.split(" ")) {
+            Query uniGramQuery = uniGramQueries.get(uniGram);
+            if (uniGramQuery == null) {
+              uniGramQuery = searcher.rewrite(buildUniGramQuery(uniGram));
+              uniGramQueries.put(uniGram, uniGramQuery);
+            }
+            queryTerms.add(uniGramQuery, Occur.MUST);
+          }
+          LimitedCollector matches = new LimitedCollector(maxResultSize);
+          searcher.search(queryTerms, matches);
+          if (!matches.isLimitExceeded()) {
+            for (int i = 0; i < matches.getCount(); i++) {
+              int doc = matches.getDoc(i);
+              Document hitDoc = loadedDocuments.get(doc);
+              if (hitDoc == null) {
+                hitDoc = searcher.doc(doc);
+                loadedDocuments.put(doc, hitDoc);
+              }
+              foundCandidateSet.add(
+                  new Candidate(hitDoc.get(FIELD_NAME_VALUE), hitDoc.get(FIELD_NAME_KEY)));
+            }
+          } else {
+            log.trace("Too many matches for '{}', using scored search.", nGram);
+            foundCandidateSet = search(searcher, queryTerms);
+          }
+        } catch (Exception e) {
+          log.error(e.getLocalizedMessage() + " -> " + nGram, e);
+        }
+        foundCandidateSet = this.score(nGram, foundCandidateSet);
+      }
+      candidateMapping.put(nGram, foundCandidateSet);
+    }
+    return candidateMapping;
+  }
+
+  /**
+   * Searches the index for the best matching entries of the given n-gram. Every unigram of the
+   * n-gram has to match.
+   *
+   * @param searcher searcher to be used for the search
+   * @param nGram n-gram for which the entries should be found
+   * @return candidates for the best matching entries
+   * @throws IOException If an I/O error occurs
+   */
+  private Set<Candidate> search(IndexSearcher searcher, String nGram) throws IOException {
+    BooleanQuery queryTerms = new BooleanQuery();
+    for (String uniGram : nGram.split(" ")) {
+      queryTerms.add(buildUniGramQuery(uniGram), BooleanClause.Occur.MUST);
+    }
+    return search(searcher, queryTerms);
+  }
+
+  /**
+   * Searches the index for the best matching entries of the given query.
+   *
+   * @param searcher searcher to be used for the search
+   * @param queryTerms query for which the entries should be found
+   * @return candidates for the best matching entries
+   * @throws IOException If an I/O error occurs
+   */
+  private Set<Candidate> search(IndexSearcher searcher, Query queryTerms) throws IOException {
+    Set<Candidate> foundCandidateSet = new HashSet<>();
+    log.trace("{}", queryTerms.toString());
+
+    TopScoreDocCollector collector = TopScoreDocCollector
+        .create(maxResultSize, true);
+    searcher.search(queryTerms, collector);
+    ScoreDoc[] hits = collector.topDocs().scoreDocs;
+    log.trace("{}", hits);
+    for (ScoreDoc hit : hits) {
+      Document hitDoc = searcher.doc(hit.doc);
+      String key = hitDoc.get(FIELD_NAME_KEY);
+      String uri = hitDoc.get(FIELD_NAME_VALUE);
+      Candidate candidate = new Candidate(uri, key);
+      foundCandidateSet.add(candidate);
+    }
     return foundCandidateSet;
   }
 
+  /**
+   * Builds the query for a single unigram. Short unigrams have to match exactly, longer ones are
+   * allowed to have an edit distance of one.
+   *
+   * @param uniGram unigram for which the query should be build
+   * @return query for the given unigram
+   */
+  private Query buildUniGramQuery(String uniGram) {
+    if (uniGram.length() < 4) {
+      return new TermQuery(new Term(FIELD_NAME_KEY, uniGram));
+    } else {
+      return new FuzzyQuery(new Term(FIELD_NAME_KEY, uniGram), 1);
+    }
+  }
+
   /**
    * Returns the size of the dictionary, i.e. how many pairs of keys and values.
    */
   @Override
   public int size() {
-    return iReader.numDocs();
+    try {
+      IndexSearcher searcher = searcherManager.acquire();
+      try {
+        return searcher.getIndexReader().numDocs();
+      } finally {
+        searcherManager.release(searcher);
+      }
+    } catch (IOException ioE) {
+      log.error(ioE.getLocalizedMessage());
+      return 0;
+    }
   }
 
   /**
@@ -215,7 +401,7 @@ public class LuceneDictionary extends FileBasedDictionary implements AutoCloseab
   @Override
   public void close() {
     try {
-      iReader.close();
+      searcherManager.close();
       iWriter.close();
       directory.close();
     } catch (IOException e) {
@@ -235,6 +421,47 @@ public class LuceneDictionary extends FileBasedDictionary implements AutoCloseab
     }
   }
 
+  /**
+   * Starts the bulk load mode. This mode is only available for an empty index. In this mode,
+   * {@link #putAll(FileHandlerInterface)} does not search the index for already existing entries.
+   * Instead duplicates are detected with a compact set of fingerprints of the added entries. The
+   * index writer uses a bigger RAM buffer and the changes are only committed once in {@link
+   * #finishBulkLoad()}.
+   */
+  @Override
+  public void startBulkLoad() {
+    if (bulkLoadedEntries != null) {
+      return;
+    }
+    if (size() > 0) {
+      log.warn("Index is not empty. Using normal import instead of bulk load.");
+      return;
+    }
+    log.debug("Starting bulk load.");
+    bulkLoadedEntries = new LongHashSet();
+    defaultRamBufferSize = iWriter.getConfig().getRAMBufferSizeMB();
+    iWriter.getConfig().setRAMBufferSizeMB(BULK_LOAD_RAM_BUFFER_SIZE_MB);
+  }
+
+  /**
+   * Finishes the bulk load mode and commits all added entries.
+   */
+  @Override
+  public void finishBulkLoad() {
+    if (bulkLoadedEntries == null) {
+      return;
+    }
+    try {
+      iWriter.getConfig().setRAMBufferSizeMB(defaultRamBufferSize);
+      commitAndUpdate();
+      log.debug("Finished bulk load. Total number of entries in index: {}", size());
+    } catch (IOException e) {
+      log.error(e.getLocalizedMessage());
+    } finally {
+      bulkLoadedEntries = null;
+    }
+  }
+
   /**
    * Adds the entries in the give handler to the dictionary.
    *
@@ -242,6 +469,10 @@ public class LuceneDictionary extends FileBasedDictionary implements AutoCloseab
    */
   @Override
   public void putAll(FileHandlerInterface handler) {
+    if (bulkLoadedEntries != null) {
+      putAllInBulk(handler);
+      return;
+    }
     try {
       log.debug("Starting indexing for file '{}'", handler.getFileName());
       int count = 0;
@@ -273,17 +504,227 @@ public class LuceneDictionary extends FileBasedDictionary implements AutoCloseab
         }
         if (count % bufferSize == 0) {
           candidateEntries.clear();
-          commitAndUpdate();
+          searcherManager.maybeRefreshBlocking();
         }
       }
       commitAndUpdate();
       log.debug("Number of entries added: {}", count);
-      log.debug("Total number of entries in index: {}", iReader.numDocs());
+      log.debug("Total number of entries in index: {}", size());
     } catch (IOException e) {
       log.error(e.getLocalizedMessage());
     }
   }
 
+  /**
+   * Adds the entries of all given files to the dictionary using multiple threads. Every file is
+   * read by its own thread. The read entries are passed in batches over a bounded queue to the
+   * given number of indexing threads, which build the documents and add them to the shared index
+   * writer. The parallel import is only possible for an empty index or during a bulk load,
+   * otherwise the files are imported one after another.
+   *
+   * <p>The parallel import fails as soon as one file cannot be read or one entry cannot be
+   * indexed. In this case all other threads are cancelled. If the bulk load was started by this
+   * method, the already added entries are discarded, so the index stays empty.
+   *
+   * @param handlers mapping of file names to the handlers which should read them
+   * @param threads number of indexing threads
+   * @throws IllegalStateException if the parallel import failed or was interrupted
+   */
+  @Override
+  public void putAll(Map<String, FileHandlerInterface> handlers, int threads) {
+    boolean ownBulkLoad = false;
+    if (bulkLoadedEntries == null) {
+      startBulkLoad();
+      ownBulkLoad = bulkLoadedEntries != null;
+    }
+    boolean imported = false;
+    try {
+      if (bulkLoadedEntries == null || threads <= 1 || handlers.isEmpty()) {
+        super.putAll(handlers, threads);
+      } else {
+        putAllInParallel(handlers, threads);
+      }
+      imported = true;
+    } finally {
+      if (ownBulkLoad) {
+        if (!imported) {
+          log.warn("Discarding the entries of the failed import.");
+          clearIndex();
+        }
+        finishBulkLoad();
+      }
+    }
+  }
+
+  private void putAllInParallel(Map<String, FileHandlerInterface> handlers, int threads) {
+    log.debug("Starting parallel import of {} files with {} indexing threads.",
+        handlers.size(), threads);
+    BlockingQueue<List<Entry<String, String>>> queue =
+        new ArrayBlockingQueue<>(IMPORT_QUEUE_CAPACITY);
+    AtomicInteger count = new AtomicInteger();
+    AtomicInteger runningReaders = new AtomicInteger(handlers.size());
+    ExecutorService executor =
+        Executors.newFixedThreadPool(threads + Math.min(threads, handlers.size()));
+    CompletionService<Void> tasks = new ExecutorCompletionService<>(executor);
+    List<Future<Void>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < threads; i++) {
+        futures.add(tasks.submit(() -> indexBatches(queue, runningReaders, count)));
+      }
+      for (Entry<String, FileHandlerInterface> file : handlers.entrySet()) {
+        futures.add(tasks.submit(
+            () -> readBatches(file.getKey(), file.getValue(), queue, runningReaders)));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        tasks.take().get();
+      }
+    } catch (ExecutionException eE) {
+      throw new IllegalStateException("Parallel import failed.", eE.getCause());
+    } catch (InterruptedException iE) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted during parallel import.", iE);
+    } finally {
+      for (Future<Void> future : futures) {
+        future.cancel(true);
+      }
+      executor.shutdownNow();
+      awaitTermination(executor);
+    }
+    log.debug("Number of entries added: {}", count.get());
+  }
+
+  private void awaitTermination(ExecutorService executor) {
+    try {
+      if (!executor.awaitTermination(IMPORT_CANCEL_TIMEOUT_S, TimeUnit.SECONDS)) {
+        log.error("Threads of the parallel import did not stop.");
+      }
+    } catch (InterruptedException iE) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Reads all entries of the given file and puts them in batches into the queue. Used by the
+   * reading threads of a parallel import.
+   */
+  private Void readBatches(String fileName, FileHandlerInterface fileHandler,
+      BlockingQueue<List<Entry<String, String>>> queue, AtomicInteger runningReaders)
+      throws IOException, InterruptedException {
+    try (FileHandlerInterface handler = fileHandler) {
+      log.info("Loading file '{}' to dictionary via {}.",
+          fileName,
+          handler.getClass().getSimpleName());
+      handler.loadFile(fileName);
+      List<Entry<String, String>> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+      for (Entry<String, String> entry; (entry = handler.nextEntry()) != null; ) {
+        batch.add(new SimpleEntry<>(entry.getKey().toLowerCase(), entry.getValue()));
+        if (batch.size() == IMPORT_BATCH_SIZE) {
+          offer(queue, batch);
+          batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        }
+      }
+      if (!batch.isEmpty()) {
+        offer(queue, batch);
+      }
+    } finally {
+      runningReaders.decrementAndGet();
+    }
+    return null;
+  }
+
+  /**
+   * Puts the given batch into the queue. While the queue is full, the thread checks regularly
+   * whether the import was cancelled.
+   */
+  private static void offer(BlockingQueue<List<Entry<String, String>>> queue,
+      List<Entry<String, String>> batch) throws InterruptedException {
+    while (!queue.offer(batch, IMPORT_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
+  /**
+   * Takes batches of entries from the queue and adds new entries to the index until all reading
+   * threads are finished and the queue is empty. Used by the indexing threads of a parallel
+   * import.
+   */
+  private Void indexBatches(BlockingQueue<List<Entry<String, String>>> queue,
+      AtomicInteger runningReaders, AtomicInteger count)
+      throws IOException, InterruptedException {
+    while (true) {
+      // the readers are checked first, so no batch can be put in after the queue was found empty
+      boolean readersFinished = runningReaders.get() == 0;
+      List<Entry<String, String>> batch =
+          queue.poll(IMPORT_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      if (batch == null) {
+        if (readersFinished) {
+          return null;
+        }
+        continue;
+      }
+      List<Entry<String, String>> newEntries = new ArrayList<>(batch.size());
+      synchronized (bulkLoadedEntries) {
+        for (Entry<String, String> entry : batch) {
+          if (bulkLoadedEntries
+              .add(fingerprint(entry.getKey(), entry.getValue().toLowerCase()))) {
+            newEntries.add(entry);
+          }
+        }
+      }
+      for (Entry<String, String> entry : newEntries) {
+        addDocumentToIndex(entry.getKey(), entry.getValue());
+      }
+      count.addAndGet(newEntries.size());
+    }
+  }
+
+  /**
+   * Adds the entries in the given handler to the index without searching it. Used during a bulk
+   * load.
+   *
+   * @param handler handler with file information
+   */
+  private void putAllInBulk(FileHandlerInterface handler) {
+    try {
+      log.debug("Starting bulk indexing for file '{}'", handler.getFileName());
+      int count = 0;
+      for (Entry<String, String> entry; (entry = handler.nextEntry()) != null; ) {
+        String key = entry.getKey().toLowerCase();
+        String value = entry.getValue();
+        if (bulkLoadedEntries.add(fingerprint(key, value.toLowerCase()))) {
+          addDocumentToIndex(key, value);
+          count++;
+        }
+      }
+      log.debug("Number of entries added: {}", count);
+    } catch (IOException e) {
+      log.error(e.getLocalizedMessage());
+    }
+  }
+
+  /**
+   * Returns a 64-bit FNV-1a hash of the given key and value. It is used to detect duplicate
+   * entries during a bulk load. The chance of a collision is negligible even for the DBpedia label
+   * dumps.
+   *
+   * @param key key of the entry
+   * @param value value of the entry
+   * @return fingerprint of the entry
+   */
+  private static long fingerprint(String key, String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+    }
+    hash = (hash ^ '\t') * 0x100000001b3L;
+    for (int i = 0; i < value.length(); i++) {
+      hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+    }
+    return hash;
+  }
+
   private void addDocumentToIndex(String key, String value) throws IOException {
     Document doc = new Document();
     doc.add(new TextField(FIELD_NAME_KEY, key, Store.YES));
@@ -299,13 +740,18 @@ public class LuceneDictionary extends FileBasedDictionary implements AutoCloseab
         .create(5, true);
     Map<String, String> foundEntries = new HashMap<>();
     try {
-      iSearcher.search(queryTerms, collector);
-      ScoreDoc[] hits = collector.topDocs().scoreDocs;
-      for (ScoreDoc hit : hits) {
-        Document hitDoc = iSearcher.doc(hit.doc);
-        String key = hitDoc.get(FIELD_NAME_KEY);
-        String uri = hitDoc.get(FIELD_NAME_VALUE);
-        foundEntries.put(key.toLowerCase(), uri.toLowerCase());
+      IndexSearcher searcher = searcherManager.acquire();
+      try {
+        searcher.search(queryTerms, collector);
+        ScoreDoc[] hits = collector.topDocs().scoreDocs;
+        for (ScoreDoc hit : hits) {
+          Document hitDoc = searcher.doc(hit.doc);
+          String key = hitDoc.get(FIELD_NAME_KEY);
+          String uri = hitDoc.get(FIELD_NAME_VALUE);
+          foundEntries.put(key.toLowerCase(), uri.toLowerCase());
+        }
+      } finally {
+        searcherManager.release(searcher);
       }
     } catch (IOException ioE) {
       log.error(ioE.getLocalizedMessage());
@@ -322,13 +768,64 @@ public class LuceneDictionary extends FileBasedDictionary implements AutoCloseab
 
 
   /**
-   * Commits all pending write operations and updates iReader and iSearcher
+   * Commits all pending write operations and refreshes the searcher manager, so that subsequent
+   * look ups see the changes.
    */
   private void commitAndUpdate() throws IOException {
     iWriter.commit();
-    iReader = DirectoryReader.open(directory);
-    iSearcher = new IndexSearcher(iReader);
-    iSearcher.setSimilarity(similarity);
+    searcherManager.maybeRefreshBlocking();
   }
-}
 
+  /**
+   * Collects the documents matching a query without scoring them, as long as there are at most the
+   * given number of them. Once the limit is exceeded, the collection is terminated.
+   */
+  private static class LimitedCollector extends Collector {
+
+    private final int[] docs;
+    private int count;
+    private int docBase;
+
+    LimitedCollector(int limit) {
+      docs = new int[limit];
+    }
+
+    boolean isLimitExceeded() {
+      return count > docs.length;
+    }
+
+    int getCount() {
+      return count;
+    }
+
+    int getDoc(int index) {
+      return docs[index];
+    }
+
+    @Override
+    public void setScorer(Scorer scorer) {
+    }
+
+    @Override
+    public void collect(int doc) {
+      if (count == docs.length) {
+        count++;
+        throw new CollectionTerminatedException();
+      }
+      docs[count++] = docBase + doc;
+    }
+
+    @Override
+    public void setNextReader(AtomicReaderContext context) {
+      if (isLimitExceeded()) {
+        throw new CollectionTerminatedException();
+      }
+      docBase = context.docBase;
+    }
+
+    @Override
+    public boolean acceptsDocsOutOfOrder() {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,566 @@
+package org.aksw.sessa.importing.dictionary.implementation;
+
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.UnsignedBytes;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import org.aksw.sessa.candidate.Candidate;
+import org.aksw.sessa.helper.files.ExternalSorter;
+import org.aksw.sessa.helper.files.Utf8Buffers;
+import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
+import org.aksw.sessa.importing.config.ConfigurationInitializer;
+import org.aksw.sessa.importing.dictionary.DictionaryInterface;
+import org.aksw.sessa.importing.dictionary.FileBasedDictionary;
+import org.apache.commons.configuration2.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides an exact-match dictionary which is stored off-heap in an immutable, memory-mapped file.
+ * This class is an implementation of the interface {@link DictionaryInterface}. Like the {@link
+ * HashMapDictionary} it only finds n-grams which are exactly the same as a key, but the entries do
+ * not occupy the Java heap and an already built file is available right after opening it.
+ *
+ * <p>The file contains a table of the UTF-8 encoded keys, sorted by their bytes, and a packed table
+ * of all distinct URIs. Every key points to a sorted list of URI numbers. Look ups do a binary
+ * search over the key table without decoding the keys. Look ups are safe for concurrent use, also
+ * while entries are added.
+ *
+ * <p>As the file is immutable, adding entries rewrites the whole file. To build the dictionary
+ * from many files, the entries should be added between {@link #startBulkLoad()} and {@link
+ * #finishBulkLoad()}, which writes the file only once. The entries are sorted with an {@link
+ * ExternalSorter} in temporary files next to the dictionary file, so building the file does not
+ * need to keep the entries or the URIs on the heap.
+ */
+public class MappedDictionary extends FileBasedDictionary implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(MappedDictionary.class);
+  private static final String MAPPED_LOCATION_KEY = "dictionary.mapped.location";
+  private static final int MAGIC_NUMBER = 0x53455353;
+  private static final int FORMAT_VERSION = 1;
+  /**
+   * Contains the size of the header in bytes, i.e. the magic number, the format version and the
+   * number of keys, URIs and entries.
+   */
+  private static final int HEADER_SIZE = 5 * Integer.BYTES;
+  /**
+   * Contains the maximum number of records which are sorted on the heap while the file is built.
+   */
+  private static final int SORT_RUN_SIZE = 1 << 18;
+  private static final ExternalSorter.Codec<Long> POSTING_CODEC =
+      new ExternalSorter.Codec<Long>() {
+        @Override
+        public void write(DataOutput out, Long record) throws IOException {
+          out.writeLong(record);
+        }
+
+        @Override
+        public Long read(DataInput in) throws IOException {
+          return in.readLong();
+        }
+      };
+
+  private final Path location;
+  private volatile Table table;
+  /**
+   * Contains the entries of a running bulk load as pairs of the encoded key and URI or null if no
+   * bulk load is running.
+   */
+  private ExternalSorter<BytesPair> bulkLoadedEntries;
+
+  /**
+   * Opens the dictionary at the location given in the configuration.
+   */
+  public MappedDictionary() {
+    this(null, null);
+  }
+
+  /**
+   * Opens the dictionary at the given location. If the file does not exist yet, the dictionary is
+   * empty and the file will be created as soon as entries are added.
+   *
+   * @param location location of the dictionary file
+   */
+  public MappedDictionary(String location) {
+    this(null, location);
+  }
+
+  /**
+   * Opens the dictionary at the given location and adds the entries of the given handler.
+   *
+   * @param handler handler to be used for filling the dictionary, may be null
+   * @param location location of the dictionary file, if null the location in the configuration is
+   * used
+   */
+  public MappedDictionary(FileHandlerInterface handler, String location) {
+    if (location == null) {
+      Configuration configuration = ConfigurationInitializer.getConfiguration();
+      location = configuration.getString(MAPPED_LOCATION_KEY);
+    }
+    this.location = Paths.get(location);
+    table = Table.EMPTY;
+    try {
+      if (Files.exists(this.location)) {
+        table = Table.map(this.location);
+      }
+    } catch (IOException ioE) {
+      log.error("Could not open dictionary file '{}': {}", location, ioE.getLocalizedMessage());
+    }
+    if (handler != null) {
+      putAll(handler);
+    }
+    log.debug("Loaded MappedDictionary. Total number of entries in dictionary: {}", size());
+  }
+
+  /**
+   * Given a n-gram, returns a set of URIs related to it.
+   *
+   * @param nGram n-gram whose associated value is to be returned
+   * @return set of candidates for the URIs related to the n-gram
+   */
+  @Override
+  public Set<Candidate> get(String nGram) {
+    Table current = table;
+    Set<Candidate> candidateSet = new HashSet<>();
+    int key = current.find(nGram);
+    if (key >= 0) {
+      for (int i = current.postingOffsets.get(key); i < current.postingOffsets.get(key + 1);
+          i++) {
+        candidateSet.add(new Candidate(current.uri(current.postings.get(i)), nGram));
+      }
+    }
+    Set<Candidate> filteredCandidateSet = this.score(nGram, candidateSet);
+    return filteredCandidateSet;
+  }
+
+  /**
+   * Given a collection of n-grams, returns a mapping of every n-gram to its set of candidate URIs.
+   * Every distinct n-gram is only looked up once.
+   *
+   * @param nGrams n-grams whose associated values are to be returned
+   * @return mapping of every given n-gram to its set of candidate URIs
+   */
+  @Override
+  public Map<String, Set<Candidate>> getAll(Collection<String> nGrams) {
+    Map<String, Set<Candidate>> candidateMapping = new HashMap<>();
+    for (String nGram : nGrams) {
+      if (!candidateMapping.containsKey(nGram)) {
+        candidateMapping.put(nGram, get(nGram));
+      }
+    }
+    return candidateMapping;
+  }
+
+  /**
+   * Adds the entries in the given handler to the dictionary. Outside of a bulk load this rewrites
+   * the dictionary file.
+   *
+   * @param handler handler with file information
+   */
+  @Override
+  public void putAll(FileHandlerInterface handler) {
+    boolean ownBulkLoad = bulkLoadedEntries == null;
+    if (ownBulkLoad) {
+      startBulkLoad();
+      if (bulkLoadedEntries == null) {
+        return;
+      }
+    }
+    try {
+      log.debug("Reading entries of file '{}'", handler.getFileName());
+      for (Entry<String, String> entry; (entry = handler.nextEntry()) != null; ) {
+        bulkLoadedEntries.add(new BytesPair(entry.getKey().getBytes(StandardCharsets.UTF_8),
+            entry.getValue().getBytes(StandardCharsets.UTF_8)));
+      }
+    } catch (IOException ioE) {
+      log.error(ioE.getLocalizedMessage());
+    }
+    if (ownBulkLoad) {
+      finishBulkLoad();
+    }
+  }
+
+  /**
+   * Starts the bulk load mode. In this mode, all entries added with {@link
+   * #putAll(FileHandlerInterface)} are collected in sorted temporary files and the dictionary file
+   * is only written once in {@link #finishBulkLoad()}.
+   */
+  @Override
+  public void startBulkLoad() {
+    if (bulkLoadedEntries != null) {
+      return;
+    }
+    ExternalSorter<BytesPair> entries = new ExternalSorter<>(BytesPair.ORDER, BytesPair.CODEC,
+        SORT_RUN_SIZE, getSortDirectory());
+    try {
+      table.copyTo(entries);
+      bulkLoadedEntries = entries;
+    } catch (IOException ioE) {
+      log.error("Could not start the bulk load: {}", ioE.getLocalizedMessage());
+      try {
+        entries.close();
+      } catch (IOException closeE) {
+        log.error(closeE.getLocalizedMessage());
+      }
+    }
+  }
+
+  /**
+   * Finishes the bulk load mode, writes all entries to the dictionary file and maps the new file.
+   */
+  @Override
+  public void finishBulkLoad() {
+    if (bulkLoadedEntries == null) {
+      return;
+    }
+    try (ExternalSorter<BytesPair> entries = bulkLoadedEntries) {
+      write(location, entries, getSortDirectory());
+      table = Table.map(location);
+      log.debug("Finished writing dictionary file. Total number of entries: {}", size());
+    } catch (IOException ioE) {
+      log.error("Could not write dictionary file '{}': {}", location, ioE.getLocalizedMessage());
+    } finally {
+      bulkLoadedEntries = null;
+    }
+  }
+
+  /**
+   * Deletes all entries of the dictionary, i.e. the dictionary file.
+   */
+  public void clear() {
+    table = Table.EMPTY;
+    try {
+      Files.deleteIfExists(location);
+    } catch (IOException ioE) {
+      log.error(ioE.getLocalizedMessage());
+    }
+  }
+
+  /**
+   * Returns the size of the dictionary, i.e. how many pairs of keys and values.
+   */
+  @Override
+  public int size() {
+    return table.entryCount;
+  }
+
+  /**
+   * Releases the mapped dictionary file. The memory mapping itself is released by the garbage
+   * collector.
+   */
+  @Override
+  public void close() {
+    table = Table.EMPTY;
+  }
+
+  /**
+   * Returns the directory of the temporary files of a bulk load, i.e. the directory of the
+   * dictionary file.
+   */
+  private Path getSortDirectory() {
+    return location.toAbsolutePath().getParent();
+  }
+
+  /**
+   * Writes the given entries into a new dictionary file. The sections of the file are written one
+   * after the other into temporary files, which are then concatenated into a temporary file, which
+   * replaces the given file. The keys are numbered in their sorted order; the URIs are numbered in
+   * their sorted order after sorting the pairs of URI and key number, and the pairs of key number
+   * and URI number are sorted to get the postings.
+   *
+   * @param file location of the dictionary file
+   * @param entries pairs of the encoded keys and URIs
+   * @param directory directory of the temporary files
+   * @throws IOException If an I/O error occurs
+   */
+  private static void write(Path file, ExternalSorter<BytesPair> entries, Path directory)
+      throws IOException {
+    List<Path> sections = new ArrayList<>();
+    try (ExternalSorter<BytesPair> uriEntries = new ExternalSorter<>(BytesPair.ORDER,
+        BytesPair.CODEC, SORT_RUN_SIZE, directory);
+        ExternalSorter<Long> postingEntries = new ExternalSorter<>(Comparator.naturalOrder(),
+            POSTING_CODEC, SORT_RUN_SIZE, directory)) {
+      Path keyOffsetsFile = newSection(directory, sections);
+      Path postingOffsetsFile = newSection(directory, sections);
+      Path postingsFile = newSection(directory, sections);
+      Path uriOffsetsFile = newSection(directory, sections);
+      Path keyBytesFile = newSection(directory, sections);
+      Path uriBytesFile = newSection(directory, sections);
+
+      int keyCount = 0;
+      int entryCount = 0;
+      try (DataOutputStream keyOffsets = openSection(keyOffsetsFile);
+          DataOutputStream postingOffsets = openSection(postingOffsetsFile);
+          DataOutputStream keyBytes = openSection(keyBytesFile)) {
+        long keyBytesLength = 0;
+        byte[] previousKey = null;
+        ExternalSorter.Cursor<BytesPair> cursor = entries.sorted();
+        for (BytesPair entry; (entry = cursor.next()) != null; entryCount++) {
+          if (!Arrays.equals(entry.first, previousKey)) {
+            keyOffsets.writeInt(toOffset(keyBytesLength));
+            postingOffsets.writeInt(entryCount);
+            keyBytes.write(entry.first);
+            keyBytesLength += entry.first.length;
+            previousKey = entry.first;
+            keyCount++;
+          }
+          uriEntries.add(new BytesPair(entry.second, Ints.toByteArray(keyCount - 1)));
+        }
+        keyOffsets.writeInt(toOffset(keyBytesLength));
+        postingOffsets.writeInt(entryCount);
+      }
+
+      int uriCount = 0;
+      try (DataOutputStream uriOffsets = openSection(uriOffsetsFile);
+          DataOutputStream uriBytes = openSection(uriBytesFile)) {
+        long uriBytesLength = 0;
+        byte[] previousUri = null;
+        ExternalSorter.Cursor<BytesPair> cursor = uriEntries.sorted();
+        for (BytesPair entry; (entry = cursor.next()) != null; ) {
+          if (!Arrays.equals(entry.first, previousUri)) {
+            uriOffsets.writeInt(toOffset(uriBytesLength));
+            uriBytes.write(entry.first);
+            uriBytesLength += entry.first.length;
+            previousUri = entry.first;
+            uriCount++;
+          }
+          postingEntries.add((long) Ints.fromByteArray(entry.second) << Integer.SIZE
+              | (uriCount - 1));
+        }
+        uriOffsets.writeInt(toOffset(uriBytesLength));
+      }
+
+      try (DataOutputStream postings = openSection(postingsFile)) {
+        ExternalSorter.Cursor<Long> cursor = postingEntries.sorted();
+        for (Long posting; (posting = cursor.next()) != null; ) {
+          postings.writeInt(posting.intValue());
+        }
+      }
+
+      Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+      try (DataOutputStream out = openSection(tmpFile)) {
+        out.writeInt(MAGIC_NUMBER);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(keyCount);
+        out.writeInt(uriCount);
+        out.writeInt(entryCount);
+        for (Path section : Arrays.asList(keyOffsetsFile, postingOffsetsFile, postingsFile,
+            uriOffsetsFile, keyBytesFile, uriBytesFile)) {
+          Files.copy(section, out);
+        }
+      }
+      Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      for (Path section : sections) {
+        Files.deleteIfExists(section);
+      }
+    }
+  }
+
+  private static Path newSection(Path directory, List<Path> sections) throws IOException {
+    Path section = Files.createTempFile(directory, "section", ".tmp");
+    sections.add(section);
+    return section;
+  }
+
+  private static DataOutputStream openSection(Path section) throws IOException {
+    return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(section)));
+  }
+
+  /**
+   * Returns the given length of a byte section as offset into the section.
+   *
+   * @throws IOException If the section is too large for a single dictionary file
+   */
+  private static int toOffset(long length) throws IOException {
+    if (length > Integer.MAX_VALUE) {
+      throw new IOException("Dictionary too large for a single dictionary file.");
+    }
+    return (int) length;
+  }
+
+  /**
+   * Contains the mapped sections of one dictionary file. A table is never changed after it was
+   * mapped.
+   */
+  private static final class Table {
+
+    private static final Table EMPTY = new Table();
+
+    private final int keyCount;
+    private final int entryCount;
+    private final IntBuffer keyOffsets;
+    private final IntBuffer postingOffsets;
+    private final IntBuffer postings;
+    private final IntBuffer uriOffsets;
+    private final ByteBuffer keyBytes;
+    private final ByteBuffer uriBytes;
+
+    private Table() {
+      keyCount = 0;
+      entryCount = 0;
+      keyOffsets = IntBuffer.allocate(1);
+      postingOffsets = IntBuffer.allocate(1);
+      postings = IntBuffer.allocate(0);
+      uriOffsets = IntBuffer.allocate(1);
+      keyBytes = ByteBuffer.allocate(0);
+      uriBytes = ByteBuffer.allocate(0);
+    }
+
+    private Table(FileChannel channel, int keyCount, int uriCount, int entryCount)
+        throws IOException {
+      this.keyCount = keyCount;
+      this.entryCount = entryCount;
+      long position = HEADER_SIZE;
+      keyOffsets = mapInts(channel, position, keyCount + 1);
+      position += (keyCount + 1L) * Integer.BYTES;
+      postingOffsets = mapInts(channel, position, keyCount + 1);
+      position += (keyCount + 1L) * Integer.BYTES;
+      postings = mapInts(channel, position, entryCount);
+      position += (long) entryCount * Integer.BYTES;
+      uriOffsets = mapInts(channel, position, uriCount + 1);
+      position += (uriCount + 1L) * Integer.BYTES;
+      keyBytes = channel.map(MapMode.READ_ONLY, position, keyOffsets.get(keyCount));
+      position += keyOffsets.get(keyCount);
+      uriBytes = channel.map(MapMode.READ_ONLY, position, uriOffsets.get(uriCount));
+    }
+
+    /**
+     * Maps the given dictionary file.
+     *
+     * @param file location of the dictionary file
+     * @return table of the dictionary file
+     * @throws IOException If an I/O error occurs or the file is no dictionary file
+     */
+    private static Table map(Path file) throws IOException {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        if (channel.size() < HEADER_SIZE) {
+          throw new IOException("Not a dictionary file: " + file);
+        }
+        IntBuffer header = mapInts(channel, 0, HEADER_SIZE / Integer.BYTES);
+        if (header.get(0) != MAGIC_NUMBER || header.get(1) != FORMAT_VERSION) {
+          throw new IOException("Not a dictionary file: " + file);
+        }
+        return new Table(channel, header.get(2), header.get(3), header.get(4));
+      }
+    }
+
+    private static IntBuffer mapInts(FileChannel channel, long position, int count)
+        throws IOException {
+      return channel.map(MapMode.READ_ONLY, position, (long) count * Integer.BYTES)
+          .asIntBuffer();
+    }
+
+    /**
+     * Returns the number of the given key or a negative number if the key is not in the table.
+     */
+    private int find(String key) {
+      int low = 0;
+      int high = keyCount - 1;
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        int comparison = Utf8Buffers.compare(key, keyBytes, keyOffsets.get(middle),
+            keyOffsets.get(middle + 1));
+        if (comparison > 0) {
+          low = middle + 1;
+        } else if (comparison < 0) {
+          high = middle - 1;
+        } else {
+          return middle;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Decodes the URI with the given number.
+     */
+    private String uri(int id) {
+      return Utf8Buffers.decode(uriBytes, uriOffsets.get(id), uriOffsets.get(id + 1));
+    }
+
+    /**
+     * Adds all entries of the table to the given sorter.
+     */
+    private void copyTo(ExternalSorter<BytesPair> entries) throws IOException {
+      for (int key = 0; key < keyCount; key++) {
+        byte[] keyBytes = copy(this.keyBytes, keyOffsets.get(key), keyOffsets.get(key + 1));
+        for (int i = postingOffsets.get(key); i < postingOffsets.get(key + 1); i++) {
+          int uri = postings.get(i);
+          entries.add(new BytesPair(keyBytes,
+              copy(uriBytes, uriOffsets.get(uri), uriOffsets.get(uri + 1))));
+        }
+      }
+    }
+
+    private static byte[] copy(ByteBuffer buffer, int start, int end) {
+      byte[] bytes = new byte[end - start];
+      for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = buffer.get(start + i);
+      }
+      return bytes;
+    }
+  }
+
+  /**
+   * Contains a pair of byte arrays, e.g. an encoded key and an encoded URI. Pairs are ordered by
+   * the unsigned bytes of their first and then of their second array.
+   */
+  private static final class BytesPair {
+
+    private static final Comparator<BytesPair> ORDER = Comparator
+        .comparing((BytesPair pair) -> pair.first, UnsignedBytes.lexicographicalComparator())
+        .thenComparing(pair -> pair.second, UnsignedBytes.lexicographicalComparator());
+    private static final ExternalSorter.Codec<BytesPair> CODEC =
+        new ExternalSorter.Codec<BytesPair>() {
+          @Override
+          public void write(DataOutput out, BytesPair record) throws IOException {
+            out.writeInt(record.first.length);
+            out.write(record.first);
+            out.writeInt(record.second.length);
+            out.write(record.second);
+          }
+
+          @Override
+          public BytesPair read(DataInput in) throws IOException {
+            byte[] first = new byte[in.readInt()];
+            in.readFully(first);
+            byte[] second = new byte[in.readInt()];
+            in.readFully(second);
+            return new BytesPair(first, second);
+          }
+        };
+
+    private final byte[] first;
+    private final byte[] second;
+
+    private BytesPair(byte[] first, byte[] second) {
+      this.first = first;
+      this.second = second;
+    }
+  }
+}
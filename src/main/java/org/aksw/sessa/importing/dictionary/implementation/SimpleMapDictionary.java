@@ -1,5 +1,6 @@
 package org.aksw.sessa.importing.dictionary.implementation;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -59,6 +60,24 @@ public class SimpleMapDictionary implements DictionaryInterface {
     return filter(nGram, candidateSet);
   }
 
+  /**
+   * Given a collection of n-grams, returns a mapping of every n-gram to its set of candidate URIs.
+   * Every distinct n-gram is only looked up once in the underlying map.
+   *
+   * @param nGrams n-grams whose associated values are to be returned
+   * @return mapping of every given n-gram to its set of candidate URIs
+   */
+  @Override
+  public Map<String, Set<Candidate>> getAll(Collection<String> nGrams) {
+    Map<String, Set<Candidate>> candidateMapping = new HashMap<>();
+    for (String nGram : nGrams) {
+      if (!candidateMapping.containsKey(nGram)) {
+        candidateMapping.put(nGram, get(nGram));
+      }
+    }
+    return candidateMapping;
+  }
+
   /**
    * Allows the dictionary to filter based on the added filters.
    *
@@ -0,0 +1,181 @@
+package org.aksw.sessa.importing.dictionary.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.aksw.sessa.candidate.Candidate;
+import org.aksw.sessa.importing.dictionary.energy.EnergyFunctionInterface;
+
+/**
+ * Scores the candidates of an n-gram in a single pass. Every energy function of the filters and
+ * the energy function of the candidates is applied at most once per candidate, even if it is used
+ * by several filters and as energy function. Its score is stored on the candidate (see
+ * {@link Candidate#getScore(int)}).
+ *
+ * <p>The filters are applied in the order of their number of results (descending). Each filter
+ * keeps its best candidates by a bounded top-k selection over the stored scores, consecutive
+ * filters with the same energy function and order are merged into one selection. Instances are
+ * immutable and can be used by several threads.
+ */
+public class CandidateScoring {
+
+  private final EnergyFunctionInterface[] functions;
+  private final int[] stageFunctions;
+  private final int[] stageLimits;
+  private final boolean[] stageDescending;
+  private final int energyFunction;
+
+  /**
+   * Constructs the scoring with the given filters and energy function. Energy functions are the
+   * same if they are the same instance.
+   *
+   * @param filters filters which should be applied
+   * @param energyFunction energy function which sets the energy of the remaining candidates
+   */
+  public CandidateScoring(Collection<Filter> filters, EnergyFunctionInterface energyFunction) {
+    List<Filter> sortedFilters = new ArrayList<>(filters);
+    sortedFilters.sort((filter1, filter2) ->
+        Integer.compare(filter2.getNumberOfResults(), filter1.getNumberOfResults()));
+    List<EnergyFunctionInterface> distinctFunctions = new ArrayList<>();
+    List<int[]> stages = new ArrayList<>();
+    for (Filter filter : sortedFilters) {
+      int function = indexOf(distinctFunctions, filter.getEnergyFunction());
+      int descending = filter.isDescendingOrder() ? 1 : 0;
+      int[] lastStage = stages.isEmpty() ? null : stages.get(stages.size() - 1);
+      if (lastStage != null && lastStage[0] == function && lastStage[2] == descending) {
+        // the filters are sorted, so the later filter has the smaller limit
+        lastStage[1] = filter.getNumberOfResults();
+      } else {
+        stages.add(new int[]{function, filter.getNumberOfResults(), descending});
+      }
+    }
+    this.energyFunction = indexOf(distinctFunctions, energyFunction);
+    functions = distinctFunctions.toArray(new EnergyFunctionInterface[0]);
+    stageFunctions = new int[stages.size()];
+    stageLimits = new int[stages.size()];
+    stageDescending = new boolean[stages.size()];
+    for (int stage = 0; stage < stages.size(); stage++) {
+      stageFunctions[stage] = stages.get(stage)[0];
+      stageLimits[stage] = stages.get(stage)[1];
+      stageDescending[stage] = stages.get(stage)[2] == 1;
+    }
+  }
+
+  private static int indexOf(List<EnergyFunctionInterface> functions,
+      EnergyFunctionInterface function) {
+    for (int i = 0; i < functions.size(); i++) {
+      if (functions.get(i) == function) {
+        return i;
+      }
+    }
+    functions.add(function);
+    return functions.size() - 1;
+  }
+
+  /**
+   * Returns the number of distinct energy functions, i.e. the number of scores which are stored
+   * per candidate.
+   *
+   * @return number of distinct energy functions
+   */
+  public int getFunctionCount() {
+    return functions.length;
+  }
+
+  /**
+   * Filters the given candidates and sets the energy of the remaining candidates.
+   *
+   * @param nGram n-gram with which the candidates were found
+   * @param candidateSet found candidates for the n-gram
+   * @return filtered set of candidates with their energy
+   */
+  public Set<Candidate> score(String nGram, Collection<Candidate> candidateSet) {
+    Candidate[] candidates = candidateSet.toArray(new Candidate[0]);
+    int[] remaining = new int[candidates.length];
+    for (int i = 0; i < candidates.length; i++) {
+      candidates[i].initScores(functions.length);
+      remaining[i] = i;
+    }
+    int remainingCount = candidates.length;
+    float[] keys = new float[candidates.length];
+    for (int stage = 0; stage < stageFunctions.length; stage++) {
+      if (remainingCount <= stageLimits[stage]) {
+        continue;
+      }
+      for (int i = 0; i < remainingCount; i++) {
+        float score = getScore(nGram, candidates[remaining[i]], stageFunctions[stage]);
+        keys[remaining[i]] = stageDescending[stage] ? score : -score;
+      }
+      remainingCount = selectTop(keys, remaining, remainingCount, stageLimits[stage]);
+    }
+    Set<Candidate> filteredCandidateSet = new HashSet<>();
+    for (int i = 0; i < remainingCount; i++) {
+      Candidate candidate = candidates[remaining[i]];
+      candidate.setEnergy(getScore(nGram, candidate, energyFunction));
+      filteredCandidateSet.add(candidate);
+    }
+    return filteredCandidateSet;
+  }
+
+  private float getScore(String nGram, Candidate candidate, int function) {
+    float score = candidate.getScore(function);
+    if (Float.isNaN(score)) {
+      score = functions[function]
+          .calculateEnergyScore(nGram, candidate.getUri(), candidate.getKey());
+      candidate.setScore(function, score);
+    }
+    return score;
+  }
+
+  /**
+   * Selects the given number of indices with the highest keys. A bounded min-heap holds the best
+   * indices seen so far, so that the selection takes O(n log limit) time. Of indices with the same
+   * key, the earlier ones are kept.
+   *
+   * @param keys key of every index
+   * @param indices indices from which should be selected, the selected indices are written to the
+   *     beginning of this array
+   * @param size number of indices from which should be selected
+   * @param limit number of indices which should be selected
+   * @return number of selected indices
+   */
+  static int selectTop(float[] keys, int[] indices, int size, int limit) {
+    if (size <= limit) {
+      return size;
+    }
+    if (limit <= 0) {
+      return 0;
+    }
+    int[] heap = new int[limit];
+    System.arraycopy(indices, 0, heap, 0, limit);
+    for (int i = limit / 2 - 1; i >= 0; i--) {
+      siftDown(keys, heap, i);
+    }
+    for (int i = limit; i < size; i++) {
+      if (keys[indices[i]] > keys[heap[0]]) {
+        heap[0] = indices[i];
+        siftDown(keys, heap, 0);
+      }
+    }
+    System.arraycopy(heap, 0, indices, 0, limit);
+    return limit;
+  }
+
+  private static void siftDown(float[] keys, int[] heap, int position) {
+    int index = heap[position];
+    while (2 * position + 1 < heap.length) {
+      int child = 2 * position + 1;
+      if (child + 1 < heap.length && keys[heap[child + 1]] < keys[heap[child]]) {
+        child++;
+      }
+      if (keys[heap[child]] >= keys[index]) {
+        break;
+      }
+      heap[position] = heap[child];
+      position = child;
+    }
+    heap[position] = index;
+  }
+}
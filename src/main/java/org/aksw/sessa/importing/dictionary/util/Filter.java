@@ -1,11 +1,6 @@
 package org.aksw.sessa.importing.dictionary.util;
 
-import java.util.AbstractMap.SimpleEntry;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashSet;
-import java.util.Map.Entry;
-import java.util.PriorityQueue;
 import java.util.Set;
 import org.aksw.sessa.importing.dictionary.energy.EnergyFunctionInterface;
 import org.aksw.sessa.candidate.Candidate;
@@ -59,24 +54,18 @@ public class Filter {
    * @return filtered set of candidates
    */
   public Set<Candidate> filter(String keyword, Set<Candidate> candidateSet) {
-
-    PriorityQueue<Entry<Candidate, Float>> sortedResults;
-    if (descendingOrder) {
-      sortedResults = new PriorityQueue<>(100,
-          Collections.reverseOrder(Comparator.comparing(Entry::getValue)));
-    } else {
-      sortedResults = new PriorityQueue<>(100, Comparator.comparing(Entry::getValue));
-    }
-
-    for (Candidate candidate : candidateSet) {
-      float rank = getRank(keyword, candidate.getUri(), candidate.getKey());
-      sortedResults.add(new SimpleEntry<>(candidate, rank));
+    Candidate[] candidates = candidateSet.toArray(new Candidate[0]);
+    float[] keys = new float[candidates.length];
+    int[] indices = new int[candidates.length];
+    for (int i = 0; i < candidates.length; i++) {
+      float rank = getRank(keyword, candidates[i].getUri(), candidates[i].getKey());
+      keys[i] = descendingOrder ? rank : -rank;
+      indices[i] = i;
     }
+    int resultSize = CandidateScoring.selectTop(keys, indices, candidates.length, numberOfResults);
     Set<Candidate> finalResultSet = new HashSet<>();
-    for (int resultSize = 0;
-        resultSize < numberOfResults && !sortedResults.isEmpty();
-        resultSize++) {
-      finalResultSet.add(sortedResults.poll().getKey());
+    for (int i = 0; i < resultSize; i++) {
+      finalResultSet.add(candidates[indices[i]]);
     }
     return finalResultSet;
   }
@@ -103,6 +92,15 @@ public class Filter {
     return numberOfResults;
   }
 
+  /**
+   * Returns whether the lowest scores are filtered out.
+   *
+   * @return true if the lowest scores are filtered out, false if the highest are
+   */
+  public boolean isDescendingOrder() {
+    return descendingOrder;
+  }
+
   /**
    * Returns the used energy function.
    * @return the used energy function
@@ -0,0 +1,346 @@
+package org.aksw.sessa.importing.rank;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.aksw.sessa.importing.config.ConfigurationInitializer;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes the PageRank of all resources of an N-Triples dump locally and writes it to a
+ * {@link PageRankTable}, so that the ranks do not have to be queried from a SPARQL endpoint. Every
+ * triple whose object is a URI is an edge from its subject to its object.
+ *
+ * <p>The graph is kept as compressed sparse rows of the incoming edges of every resource. The
+ * ranks are computed with the power iteration, in which the resources are split into ranges that
+ * are computed by several threads. Every thread only writes the ranks of its own range, so no
+ * synchronization is needed within an iteration. The rank of resources without outgoing edges is
+ * distributed evenly. Like the vrank dataset, the ranks are scaled by the number of resources, so
+ * their average is 1.
+ */
+public class PageRankComputation {
+
+  /**
+   * Probability with which a random surfer follows an edge instead of jumping.
+   */
+  public static final double DAMPING_FACTOR = 0.85;
+  /**
+   * Maximum number of iterations, if not given otherwise.
+   */
+  public static final int DEFAULT_MAX_ITERATIONS = 50;
+  /**
+   * Sum of the changes of all (unscaled) ranks at which the iteration stops, if not given
+   * otherwise.
+   */
+  public static final double DEFAULT_EPSILON = 1e-6;
+  private static final Logger log = LoggerFactory.getLogger(PageRankComputation.class);
+  private static final String LOCATION_KEY = "dictionary.pagerank_table.location";
+  private static final String THREADS_KEY = "dictionary.pagerank_table.threads";
+  /**
+   * Number of ranges per thread, so that threads which finish early can take over ranges.
+   */
+  private static final int RANGES_PER_THREAD = 4;
+
+  private final int threads;
+  private final int maxIterations;
+  private final double epsilon;
+
+  /**
+   * Constructs a computation with the given number of threads and the default stopping criteria.
+   *
+   * @param threads number of threads, 0 for as many threads as there are processors available
+   */
+  public PageRankComputation(int threads) {
+    this(threads, DEFAULT_MAX_ITERATIONS, DEFAULT_EPSILON);
+  }
+
+  /**
+   * Constructs a computation with the given number of threads and stopping criteria.
+   *
+   * @param threads number of threads, 0 for as many threads as there are processors available
+   * @param maxIterations maximum number of iterations
+   * @param epsilon sum of the changes of all (unscaled) ranks at which the iteration stops
+   */
+  public PageRankComputation(int threads, int maxIterations, double epsilon) {
+    if (threads < 0 || maxIterations <= 0 || epsilon < 0) {
+      throw new IllegalArgumentException(
+          "The number of threads and epsilon must not be negative, the maximum number of"
+              + " iterations has to be positive.");
+    }
+    this.threads = threads == 0 ? Runtime.getRuntime().availableProcessors() : threads;
+    this.maxIterations = maxIterations;
+    this.epsilon = epsilon;
+  }
+
+  /**
+   * Computes the ranks of the resources in the given dump and writes them to the given table
+   * file.
+   *
+   * @param ntFile file with the triples, e.g. in N-Triples format
+   * @param tableFile location of the table file
+   * @throws IOException If an I/O error occurs or the ranks are too many for one table file
+   */
+  public void compute(String ntFile, Path tableFile) throws IOException {
+    log.info("Computing PageRank of '{}' with {} threads. This could take some time!", ntFile,
+        threads);
+    long startTime = System.nanoTime();
+    Graph graph = Graph.parse(ntFile);
+    log.info("Built graph with {} resources and {} edges (in {}sec). Graph arrays: {}MB, used"
+            + " heap: {}MB.", graph.size(), graph.edgeCount(),
+        (System.nanoTime() - startTime) / (1000 * 1000 * 1000), graph.bytes() / (1024 * 1024),
+        usedHeap() / (1024 * 1024));
+    float[] ranks = rank(graph);
+    PageRankTable.write(graph.uris, ranks, tableFile);
+    log.info("Finished computing PageRank of {} resources (in {}sec).", graph.size(),
+        (System.nanoTime() - startTime) / (1000 * 1000 * 1000));
+  }
+
+  /**
+   * Computes the ranks of the resources of the given graph.
+   *
+   * @param graph graph whose resources should be ranked
+   * @return scaled rank of every resource
+   */
+  float[] rank(Graph graph) {
+    int size = graph.size();
+    float[] ranks = new float[size];
+    float[] nextRanks = new float[size];
+    float[] contributions = new float[size];
+    if (size == 0) {
+      return ranks;
+    }
+    Arrays.fill(ranks, 1f / size);
+    log.info("Iteration arrays: {}MB.", 3L * size * Float.BYTES / (1024 * 1024));
+    int rangeCount = Math.min(size, threads * RANGES_PER_THREAD);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (int iteration = 1; iteration <= maxIterations; iteration++) {
+        long startTime = System.nanoTime();
+        // first the rank of every resource is split between its outgoing edges
+        double danglingRank = sum(run(executor, rangeCount, size, (start, end) -> {
+          double dangling = 0;
+          for (int resource = start; resource < end; resource++) {
+            int outDegree = graph.outDegrees[resource];
+            if (outDegree == 0) {
+              dangling += ranks[resource];
+              contributions[resource] = 0;
+            } else {
+              contributions[resource] = ranks[resource] / outDegree;
+            }
+          }
+          return dangling;
+        }));
+        // then every resource collects the shares of its incoming edges
+        double base = (1 - DAMPING_FACTOR) / size + DAMPING_FACTOR * danglingRank / size;
+        double change = sum(run(executor, rangeCount, size, (start, end) -> {
+          double rangeChange = 0;
+          for (int resource = start; resource < end; resource++) {
+            double incoming = 0;
+            for (int i = graph.inOffsets[resource]; i < graph.inOffsets[resource + 1]; i++) {
+              incoming += contributions[graph.inSources[i]];
+            }
+            nextRanks[resource] = (float) (base + DAMPING_FACTOR * incoming);
+            rangeChange += Math.abs(nextRanks[resource] - ranks[resource]);
+          }
+          return rangeChange;
+        }));
+        System.arraycopy(nextRanks, 0, ranks, 0, size);
+        log.info("Iteration {}: change {} (in {}ms, used heap: {}MB).", iteration, change,
+            (System.nanoTime() - startTime) / (1000 * 1000), usedHeap() / (1024 * 1024));
+        if (change <= epsilon) {
+          break;
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+    for (int resource = 0; resource < size; resource++) {
+      ranks[resource] *= size;
+    }
+    return ranks;
+  }
+
+  /**
+   * Runs the given task for consecutive ranges of all resources and returns the results of the
+   * ranges.
+   */
+  private static List<Double> run(ExecutorService executor, int rangeCount, int size,
+      RangeTask task) {
+    List<Callable<Double>> ranges = new ArrayList<>(rangeCount);
+    for (int range = 0; range < rangeCount; range++) {
+      int start = (int) ((long) size * range / rangeCount);
+      int end = (int) ((long) size * (range + 1) / rangeCount);
+      ranges.add(() -> task.run(start, end));
+    }
+    List<Double> results = new ArrayList<>(rangeCount);
+    try {
+      for (Future<Double> result : executor.invokeAll(ranges)) {
+        results.add(result.get());
+      }
+    } catch (InterruptedException iE) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while computing PageRank.", iE);
+    } catch (ExecutionException eE) {
+      throw new IllegalStateException("Could not compute PageRank.", eE.getCause());
+    }
+    return results;
+  }
+
+  private static double sum(List<Double> values) {
+    double sum = 0;
+    for (double value : values) {
+      sum += value;
+    }
+    return sum;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  /**
+   * Computation for the resources between start (inclusive) and end (exclusive).
+   */
+  private interface RangeTask {
+
+    double run(int start, int end);
+  }
+
+  /**
+   * Graph of the resources of a dump, in which the incoming edges of every resource are stored as
+   * compressed sparse rows.
+   */
+  static class Graph {
+
+    private final String[] uris;
+    private final int[] outDegrees;
+    private final int[] inOffsets;
+    private final int[] inSources;
+
+    /**
+     * Constructs a graph from the given edges.
+     *
+     * @param uris URI of every resource
+     * @param sources source resource of every edge
+     * @param targets target resource of every edge
+     * @param edgeCount number of edges
+     */
+    Graph(String[] uris, int[] sources, int[] targets, int edgeCount) {
+      this.uris = uris;
+      outDegrees = new int[uris.length];
+      inOffsets = new int[uris.length + 1];
+      for (int edge = 0; edge < edgeCount; edge++) {
+        outDegrees[sources[edge]]++;
+        inOffsets[targets[edge] + 1]++;
+      }
+      for (int resource = 0; resource < uris.length; resource++) {
+        inOffsets[resource + 1] += inOffsets[resource];
+      }
+      inSources = new int[edgeCount];
+      int[] positions = Arrays.copyOf(inOffsets, uris.length);
+      for (int edge = 0; edge < edgeCount; edge++) {
+        inSources[positions[targets[edge]]++] = sources[edge];
+      }
+    }
+
+    /**
+     * Reads the graph from the given dump.
+     */
+    static Graph parse(String ntFile) {
+      EdgeCollector collector = new EdgeCollector();
+      RDFDataMgr.parse(collector, ntFile);
+      return new Graph(collector.uris.toArray(new String[0]), collector.sources,
+          collector.targets, collector.edgeCount);
+    }
+
+    int size() {
+      return uris.length;
+    }
+
+    int edgeCount() {
+      return inSources.length;
+    }
+
+    String getUri(int resource) {
+      return uris[resource];
+    }
+
+    /**
+     * Returns the size of the arrays of the graph in bytes, without the URIs.
+     */
+    long bytes() {
+      return (long) Integer.BYTES * (outDegrees.length + inOffsets.length + inSources.length);
+    }
+  }
+
+  /**
+   * Collects the edges of a dump as numbers of their resources.
+   */
+  private static class EdgeCollector extends StreamRDFBase {
+
+    private final Map<String, Integer> numbers = new HashMap<>();
+    private final List<String> uris = new ArrayList<>();
+    private int[] sources = new int[1024];
+    private int[] targets = new int[1024];
+    private int edgeCount = 0;
+
+    @Override
+    public void triple(Triple triple) {
+      if (!triple.getSubject().isURI() || !triple.getObject().isURI()) {
+        return;
+      }
+      if (edgeCount == sources.length) {
+        sources = Arrays.copyOf(sources, 2 * edgeCount);
+        targets = Arrays.copyOf(targets, 2 * edgeCount);
+      }
+      sources[edgeCount] = number(triple.getSubject());
+      targets[edgeCount] = number(triple.getObject());
+      edgeCount++;
+    }
+
+    private int number(Node node) {
+      Integer number = numbers.get(node.getURI());
+      if (number == null) {
+        number = uris.size();
+        numbers.put(node.getURI(), number);
+        uris.add(node.getURI());
+      }
+      return number;
+    }
+  }
+
+  /**
+   * Computes the PageRank of an N-Triples dump and writes it to a table file.
+   *
+   * <p>Usage: {@code PageRankComputation <nt-file> [table-file] [threads]}. If no table file or
+   * number of threads is given, the values in the configuration are used.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      log.error("Usage: PageRankComputation <nt-file> [table-file] [threads]");
+      return;
+    }
+    Configuration configuration = ConfigurationInitializer.getConfiguration();
+    String location = args.length > 1 ? args[1] : configuration.getString(LOCATION_KEY);
+    int threads = args.length > 2 ? Integer.parseInt(args[2])
+        : configuration.getInt(THREADS_KEY, 0);
+    new PageRankComputation(threads).compute(args[0], Paths.get(location));
+  }
+}
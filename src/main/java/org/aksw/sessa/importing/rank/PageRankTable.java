@@ -0,0 +1,294 @@
+package org.aksw.sessa.importing.rank;
+
+import com.google.common.primitives.UnsignedBytes;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.aksw.sessa.helper.files.Utf8Buffers;
+import org.aksw.sessa.importing.config.ConfigurationInitializer;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides the PageRank of URIs from a precomputed table in a memory-mapped file. The table is
+ * built once from a vrank dump (e.g. the DBpedia PageRank dataset) with
+ * {@link #build(String, Path)} or from the command line with {@link #main(String[])}, or written
+ * from ranks which were computed otherwise (e.g. by {@link PageRankComputation}) with
+ * {@link #write(Map, Path)}.
+ *
+ * <p>The URIs are sorted by their UTF-8 bytes, so that the rank of a URI is found by binary
+ * search without decoding the URIs of the table. The position of a URI in the table serves as its
+ * ID, which is assigned when the table is built, so the table needs no index of the URIs on the
+ * heap. URIs without rank have the rank 0. Look ups are safe for concurrent use. The memory
+ * mapping is released by the garbage collector.
+ */
+public class PageRankTable {
+
+  /**
+   * Predicate which links a resource to its rank in a vrank dump.
+   */
+  public static final String HAS_RANK = "http://purl.org/voc/vrank#hasRank";
+  /**
+   * Predicate which links a rank to its value in a vrank dump.
+   */
+  public static final String RANK_VALUE = "http://purl.org/voc/vrank#rankValue";
+  private static final Logger log = LoggerFactory.getLogger(PageRankTable.class);
+  private static final String LOCATION_KEY = "dictionary.pagerank_table.location";
+  private static final int MAGIC_NUMBER = 0x53455352;
+  private static final int FORMAT_VERSION = 1;
+  /**
+   * Contains the size of the header in bytes, i.e. the magic number, the format version and the
+   * number of URIs.
+   */
+  private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+  private final int uriCount;
+  private final IntBuffer uriOffsets;
+  private final FloatBuffer ranks;
+  private final ByteBuffer uriBytes;
+
+  /**
+   * Opens the table at the location given in the configuration.
+   *
+   * @throws IOException If an I/O error occurs or the file is no PageRank table
+   */
+  public PageRankTable() throws IOException {
+    this(null);
+  }
+
+  /**
+   * Opens the table at the given location.
+   *
+   * @param location location of the table file, if null the location in the configuration is used
+   * @throws IOException If an I/O error occurs or the file is no PageRank table
+   */
+  public PageRankTable(String location) throws IOException {
+    if (location == null) {
+      Configuration configuration = ConfigurationInitializer.getConfiguration();
+      location = configuration.getString(LOCATION_KEY);
+    }
+    Path file = Paths.get(location);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_SIZE) {
+        throw new IOException("Not a PageRank table: " + file);
+      }
+      IntBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE).asIntBuffer();
+      if (header.get(0) != MAGIC_NUMBER || header.get(1) != FORMAT_VERSION) {
+        throw new IOException("Not a PageRank table: " + file);
+      }
+      uriCount = header.get(2);
+      long position = HEADER_SIZE;
+      uriOffsets = channel.map(MapMode.READ_ONLY, position, (uriCount + 1L) * Integer.BYTES)
+          .asIntBuffer();
+      position += (uriCount + 1L) * Integer.BYTES;
+      ranks = channel.map(MapMode.READ_ONLY, position, (long) uriCount * Float.BYTES)
+          .asFloatBuffer();
+      position += (long) uriCount * Float.BYTES;
+      uriBytes = channel.map(MapMode.READ_ONLY, position, uriOffsets.get(uriCount));
+    }
+    log.debug("Opened PageRank table '{}' with {} URIs.", location, uriCount);
+  }
+
+  /**
+   * Returns the number of URIs with a rank in the table.
+   *
+   * @return number of URIs with a rank
+   */
+  public int size() {
+    return uriCount;
+  }
+
+  /**
+   * Returns the rank of the given URI by searching the table.
+   *
+   * @param uri URI whose rank should be returned
+   * @return rank of the URI, 0 if it has no rank
+   */
+  public float getRank(String uri) {
+    int low = 0;
+    int high = uriCount - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = Utf8Buffers.compare(uri, uriBytes, uriOffsets.get(middle),
+          uriOffsets.get(middle + 1));
+      if (comparison > 0) {
+        low = middle + 1;
+      } else if (comparison < 0) {
+        high = middle - 1;
+      } else {
+        return ranks.get(middle);
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Builds the table file from the given vrank dump, in which every resource is linked to a rank
+   * node (predicate {@value #HAS_RANK}) which is linked to the value of the rank (predicate
+   * {@value #RANK_VALUE}). Ranks which are linked directly to the resource are read, too.
+   *
+   * @param vrankFile file with the ranks in an RDF format, e.g. Turtle or N-Triples
+   * @param tableFile location of the table file
+   * @throws IOException If an I/O error occurs or the dump is too large for one table file
+   */
+  public static void build(String vrankFile, Path tableFile) throws IOException {
+    log.info("Building PageRank table from '{}'. This could take some time!", vrankFile);
+    long startTime = System.nanoTime();
+    RankCollector collector = new RankCollector();
+    RDFDataMgr.parse(collector, vrankFile);
+    Map<String, Float> ranks = collector.getRanks();
+    write(ranks, tableFile);
+    log.info("Finished building PageRank table with {} URIs (in {}sec).", ranks.size(),
+        (System.nanoTime() - startTime) / (1000 * 1000 * 1000));
+  }
+
+  /**
+   * Writes the given ranks to a table file. The table is first written to a temporary file, which
+   * then replaces the given file.
+   *
+   * @param ranks rank of every URI
+   * @param tableFile location of the table file
+   * @throws IOException If an I/O error occurs or the ranks are too many for one table file
+   */
+  public static void write(Map<String, Float> ranks, Path tableFile) throws IOException {
+    String[] uris = new String[ranks.size()];
+    float[] values = new float[ranks.size()];
+    int i = 0;
+    for (Entry<String, Float> entry : ranks.entrySet()) {
+      uris[i] = entry.getKey();
+      values[i] = entry.getValue();
+      i++;
+    }
+    write(uris, values, tableFile);
+  }
+
+  /**
+   * Writes the given ranks to a table file. The table is first written to a temporary file, which
+   * then replaces the given file.
+   *
+   * @param uris URIs with a rank, without duplicates
+   * @param values rank of the URI at the same index
+   * @param tableFile location of the table file
+   * @throws IOException If an I/O error occurs or the ranks are too many for one table file
+   */
+  public static void write(String[] uris, float[] values, Path tableFile) throws IOException {
+    byte[][] uriBytes = new byte[uris.length][];
+    long uriBytesLength = 0;
+    for (int i = 0; i < uris.length; i++) {
+      uriBytes[i] = uris[i].getBytes(StandardCharsets.UTF_8);
+      uriBytesLength += uriBytes[i].length;
+    }
+    if (uriBytesLength > Integer.MAX_VALUE) {
+      throw new IOException("Too many ranks for a single PageRank table.");
+    }
+    // sorts the URIs by their bytes, so that they can be searched binary
+    Integer[] order = new Integer[uriBytes.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Comparator<byte[]> byteOrder = UnsignedBytes.lexicographicalComparator();
+    Arrays.sort(order, (uri1, uri2) -> byteOrder.compare(uriBytes[uri1], uriBytes[uri2]));
+
+    Path tmpFile = tableFile.resolveSibling(tableFile.getFileName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+      out.writeInt(MAGIC_NUMBER);
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(order.length);
+      int offset = 0;
+      for (Integer uri : order) {
+        out.writeInt(offset);
+        offset += uriBytes[uri].length;
+      }
+      out.writeInt(offset);
+      for (Integer uri : order) {
+        out.writeFloat(values[uri]);
+      }
+      for (Integer uri : order) {
+        out.write(uriBytes[uri]);
+      }
+    }
+    Files.move(tmpFile, tableFile, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Collects the ranks of a vrank dump. The rank nodes and their values may appear in any order.
+   */
+  private static class RankCollector extends StreamRDFBase {
+
+    private static final String BLANK_NODE_PREFIX = "_:";
+    private final Map<String, String> resourcesByRankNode = new HashMap<>();
+    private final Map<String, Float> valuesByRankNode = new HashMap<>();
+
+    @Override
+    public void triple(Triple triple) {
+      String predicate = triple.getPredicate().getURI();
+      Node subject = triple.getSubject();
+      Node object = triple.getObject();
+      if (HAS_RANK.equals(predicate) && subject.isURI() && !object.isLiteral()) {
+        resourcesByRankNode.put(label(object), subject.getURI());
+      } else if (RANK_VALUE.equals(predicate) && object.isLiteral()) {
+        valuesByRankNode.put(label(subject), Float.parseFloat(object.getLiteralLexicalForm()));
+      }
+    }
+
+    private static String label(Node node) {
+      return node.isBlank() ? BLANK_NODE_PREFIX + node.getBlankNodeLabel() : node.getURI();
+    }
+
+    /**
+     * Returns the rank of every resource. A value whose node is not the rank node of a resource
+     * is the rank of the node itself, if the node is a URI.
+     */
+    private Map<String, Float> getRanks() {
+      Map<String, Float> ranks = new HashMap<>();
+      for (Entry<String, Float> entry : valuesByRankNode.entrySet()) {
+        String resource = resourcesByRankNode.get(entry.getKey());
+        if (resource != null) {
+          ranks.put(resource, entry.getValue());
+        } else if (!entry.getKey().startsWith(BLANK_NODE_PREFIX)) {
+          ranks.put(entry.getKey(), entry.getValue());
+        }
+      }
+      return ranks;
+    }
+  }
+
+  /**
+   * Builds the table file from a vrank dump.
+   *
+   * <p>Usage: {@code PageRankTable <vrank-file> [table-file]}. If no table file is given, the
+   * location in the configuration is used.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      log.error("Usage: PageRankTable <vrank-file> [table-file]");
+      return;
+    }
+    String location = args.length > 1 ? args[1]
+        : ConfigurationInitializer.getConfiguration().getString(LOCATION_KEY);
+    build(args[0], Paths.get(location));
+  }
+}
@@ -1,28 +1,77 @@
 package org.aksw.sessa.importing.rdf;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Formatter;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
-import org.aksw.jena_sparql_api.http.QueryExecutionFactoryHttp;
-import org.aksw.jena_sparql_api.pagination.core.QueryExecutionFactoryPaginated;
-import org.aksw.jena_sparql_api.retry.core.QueryExecutionFactoryRetry;
+import org.aksw.sessa.helper.cache.LruCache;
+import org.aksw.sessa.helper.cache.PersistentQueryCache;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.RDFNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 /**
- * This class uses the DBpedia-SPARQL interface to provide a query interface for this project.
+ * This class uses the DBpedia-SPARQL interface to provide a query interface for this project. The
+ * queries are sent with a {@link SparqlClient}, by default the shared one. Instances of this class
+ * are safe for concurrent use.
  */
 public class DbpediaSparqlQuery {
 
   private static final Logger log = LoggerFactory.getLogger(DbpediaSparqlQuery.class);
-  public final String DBPEDIA_URI = "http://dbpedia.org/sparql";
-  // one day for now
-  private final long TIME_TO_LIVE = 24L * 60L * 60L * 1000L;
+  public final String DBPEDIA_URI = SparqlClient.DBPEDIA_ENDPOINT;
+  private final String DEFAULT_GRAPH = "http://dbpedia.org";
+  private final String endpoint;
+  private final LruCache<String, Set<String>> cache;
+  private final SparqlClient client;
+
+  /**
+   * Constructs a query interface for the DBpedia-SPARQL endpoint.
+   */
+  public DbpediaSparqlQuery() {
+    this(null, null);
+  }
+
+  /**
+   * Constructs a query interface for the given SPARQL endpoint, e.g. a local mirror of DBpedia.
+   *
+   * @param endpoint URL of the SPARQL endpoint
+   */
+  public DbpediaSparqlQuery(String endpoint) {
+    this(endpoint, null);
+  }
+
+  /**
+   * Constructs a query interface for the given SPARQL endpoint, which caches the results of
+   * successful queries in the given cache. The results of ASK-queries are cached as a set which
+   * is empty for false and contains "true" for true.
+   *
+   * @param endpoint URL of the SPARQL endpoint, if null the DBpedia-SPARQL endpoint is used
+   * @param cache cache for the query results (e.g. a {@link PersistentQueryCache}), may be null
+   */
+  public DbpediaSparqlQuery(String endpoint, LruCache<String, Set<String>> cache) {
+    this(endpoint, cache, SparqlClient.getSharedClient());
+  }
+
+  /**
+   * Constructs a query interface for the given SPARQL endpoint, which sends the queries with the
+   * given client and caches the results of successful queries in the given cache.
+   *
+   * @param endpoint URL of the SPARQL endpoint, if null the DBpedia-SPARQL endpoint is used
+   * @param cache cache for the query results (e.g. a {@link PersistentQueryCache}), may be null
+   * @param client client which sends the queries
+   */
+  public DbpediaSparqlQuery(String endpoint, LruCache<String, Set<String>> cache,
+      SparqlClient client) {
+    this.endpoint = endpoint == null ? DBPEDIA_URI : endpoint;
+    this.cache = cache;
+    this.client = client;
+  }
 
   /**
    * Returns a set of results for the given query.
@@ -31,23 +80,25 @@ public class DbpediaSparqlQuery {
    * @return set of triple elements
    */
   public Set<String> executeQuery(String queryString) {
+    Set<String> cachedResults = getCachedResults(queryString);
+    if (cachedResults != null) {
+      return cachedResults;
+    }
 
-    QueryExecutionFactory qef = new QueryExecutionFactoryHttp(DBPEDIA_URI, "http://dbpedia.org");
-    qef = new QueryExecutionFactoryRetry(qef, 5, 5000);
-
-    ResultSet rs;
     Set<String> finalSet = new HashSet<>();
 
     try {
-      // Add pagination
-      qef = new QueryExecutionFactoryPaginated(qef, 900);
-      QueryExecution qe = qef.createQueryExecution(queryString);
-      rs = qe.execSelect();
-      String varName = rs.getResultVars().get(0);
-      while (rs.hasNext()) {
-        QuerySolution qs = rs.next();
-        finalSet.add(qs.get(varName).toString());
-      }
+      finalSet = client.execute(endpoint, DEFAULT_GRAPH, queryString, qe -> {
+        Set<String> results = new HashSet<>();
+        ResultSet rs = qe.execSelect();
+        String varName = rs.getResultVars().get(0);
+        while (rs.hasNext()) {
+          QuerySolution qs = rs.next();
+          results.add(qs.get(varName).toString());
+        }
+        return results;
+      });
+      cacheResults(queryString, finalSet);
 
     } catch (Exception e) {
       log.error("Error with query {}", queryString);
@@ -57,6 +108,69 @@ public class DbpediaSparqlQuery {
     return finalSet;
   }
 
+  /**
+   * Returns all rows of the results of the given query. Each row contains the values of the result
+   * variables in their order, unbound values are null. The results are not cached.
+   *
+   * @param queryString valid SPARQL query
+   * @return rows of the results or null if the query failed
+   */
+  public List<String[]> executeRowQuery(String queryString) {
+    try {
+      return client.execute(endpoint, DEFAULT_GRAPH, queryString, qe -> {
+        List<String[]> rows = new ArrayList<>();
+        ResultSet rs = qe.execSelect();
+        List<String> varNames = rs.getResultVars();
+        while (rs.hasNext()) {
+          QuerySolution qs = rs.next();
+          String[] row = new String[varNames.size()];
+          for (int i = 0; i < row.length; i++) {
+            RDFNode value = qs.get(varNames.get(i));
+            row[i] = value == null ? null : value.toString();
+          }
+          rows.add(row);
+        }
+        return rows;
+      });
+    } catch (Exception e) {
+      log.error("Error with query {}", queryString);
+      log.error(e.getLocalizedMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Returns the cached results of the given query.
+   *
+   * @param queryString valid SPARQL query
+   * @return copy of the cached results or null if the results are not cached
+   */
+  public Set<String> getCachedResults(String queryString) {
+    String cacheKey = getCacheKey(queryString);
+    if (cacheKey == null) {
+      return null;
+    }
+    Set<String> cachedResults = cache.get(cacheKey);
+    if (cachedResults == null) {
+      return null;
+    }
+    log.trace("Query: '{}'. Found in cache: {}", queryString, cachedResults);
+    return new HashSet<>(cachedResults);
+  }
+
+  /**
+   * Caches the given results of the given query, e.g. if they were found with another query.
+   *
+   * @param queryString valid SPARQL query
+   * @param results results of the query
+   */
+  public void cacheResults(String queryString, Set<String> results) {
+    String cacheKey = getCacheKey(queryString);
+    if (cacheKey != null) {
+      cache.put(cacheKey, new HashSet<>(results));
+    }
+  }
+
   /**
    * Queries an ASK-query to DBpedia with given valid SPARQL ask-query
    *
@@ -64,27 +178,43 @@ public class DbpediaSparqlQuery {
    * @return true if ASK-query true, false otherwise
    */
   public boolean askQuery(String queryString) {
-
-    QueryExecutionFactory qef = new QueryExecutionFactoryHttp(DBPEDIA_URI, "http://dbpedia.org");
-    qef = new QueryExecutionFactoryRetry(qef, 5, 5000);
+    String cacheKey = getCacheKey(queryString);
+    if (cacheKey != null) {
+      Set<String> cachedResult = cache.get(cacheKey);
+      if (cachedResult != null) {
+        log.trace("Query: '{}'. Found in cache: {}", queryString, cachedResult);
+        return !cachedResult.isEmpty();
+      }
+    }
 
     boolean answer = false;
-    Set<String> finalSet = new HashSet<>();
 
     try {
-      // Add pagination
-      qef = new QueryExecutionFactoryPaginated(qef, 900);
-      QueryExecution qe = qef.createQueryExecution(queryString);
-      answer = qe.execAsk();
+      answer = client.execute(endpoint, DEFAULT_GRAPH, queryString, QueryExecution::execAsk);
+      if (cacheKey != null) {
+        cache.put(cacheKey,
+            answer ? Collections.singleton(Boolean.TRUE.toString()) : Collections.emptySet());
+      }
 
     } catch (Exception e) {
       log.error("Error with query {}", queryString);
       log.error(e.getLocalizedMessage());
     }
-    log.trace("Query: '{}'. Found: {}", queryString, finalSet);
+    log.trace("Query: '{}'. Found: {}", queryString, answer);
     return answer;
   }
 
+  /**
+   * Returns the key of the given query in the cache, which consists of the endpoint and the
+   * normalized query, or null if there is no cache.
+   */
+  private String getCacheKey(String queryString) {
+    if (cache == null) {
+      return null;
+    }
+    return endpoint + " " + PersistentQueryCache.normalize(queryString);
+  }
+
   /**
    * Queries an ASK-query to DBpedia with given triple.
    *
@@ -0,0 +1,227 @@
+package org.aksw.sessa.importing.rdf;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
+import org.aksw.jena_sparql_api.http.QueryExecutionFactoryHttp;
+import org.aksw.sessa.importing.config.ConfigurationInitializer;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.http.client.HttpClient;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.sparql.core.DatasetDescription;
+import org.apache.jena.sparql.engine.http.QueryEngineHTTP;
+import org.apache.jena.sparql.engine.http.QueryExceptionHTTP;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class provides a long-lived client for SPARQL endpoints, which is shared by all classes
+ * sending SPARQL queries. The HTTP connections are kept alive in a pool and reused, the number of
+ * concurrent connections is bounded and queries which failed for a transient reason are retried
+ * with exponentially growing delays. The query execution factory of every endpoint is built only
+ * once. The client is safe for concurrent use.
+ *
+ * <p>The results of a query have to be consumed within {@link #execute(String, String, String,
+ * Function)}, because the connection is returned to the pool afterwards.
+ *
+ * <p>The client does not send the DBpedia-specific query timeout, because DBpedia answers a query
+ * which hits it with partial results and without an error. Such results could not be told apart
+ * from complete ones and would end up in the caches. Instead, a query which takes too long fails
+ * with the read timeout.
+ */
+public class SparqlClient implements AutoCloseable {
+
+  /**
+   * URL of the DBpedia-SPARQL endpoint.
+   */
+  public static final String DBPEDIA_ENDPOINT = "http://dbpedia.org/sparql";
+  private static final Logger log = LoggerFactory.getLogger(SparqlClient.class);
+  private static final String MAX_CONNECTIONS_KEY = "sessa.sparql.max_connections";
+  private static final String TIMEOUT_KEY = "sessa.sparql.timeout";
+  private static final String RETRIES_KEY = "sessa.sparql.retries";
+  private static final String RETRY_DELAY_KEY = "sessa.sparql.retry_delay";
+  private static volatile SparqlClient sharedClient;
+
+  private final PoolingHttpClientConnectionManager connectionManager;
+  private final HttpClient httpClient;
+  private final int timeout;
+  private final int retries;
+  private final long retryDelay;
+  private final Map<String, QueryExecutionFactory> factories;
+
+  /**
+   * Constructs a client with the given settings.
+   *
+   * @param maxConnections maximum number of concurrent connections
+   * @param timeout timeout (in milliseconds) for connecting and for reading the answer
+   * @param retries number of retries of a failed query
+   * @param retryDelay delay (in milliseconds) before the first retry, which doubles with every
+   * further retry
+   */
+  public SparqlClient(int maxConnections, int timeout, int retries, long retryDelay) {
+    if (maxConnections <= 0 || timeout < 0 || retries < 0 || retryDelay < 0) {
+      throw new IllegalArgumentException(
+          "The maximum number of connections has to be positive, the other values must not be"
+              + " negative.");
+    }
+    connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(maxConnections);
+    connectionManager.setDefaultMaxPerRoute(maxConnections);
+    // Jena replaces the default request configuration of the client, so that the read timeout
+    // has to be set on the sockets
+    connectionManager.setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(timeout).build());
+    httpClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+    this.timeout = timeout;
+    this.retries = retries;
+    this.retryDelay = retryDelay;
+    factories = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the client which is shared by the whole application. It is created with the settings
+   * in the configuration on first use.
+   *
+   * @return the shared client
+   */
+  public static SparqlClient getSharedClient() {
+    SparqlClient client = sharedClient;
+    if (client == null) {
+      synchronized (SparqlClient.class) {
+        client = sharedClient;
+        if (client == null) {
+          client = fromConfiguration(ConfigurationInitializer.getConfiguration());
+          log.info("Created shared SPARQL client.");
+          sharedClient = client;
+        }
+      }
+    }
+    return client;
+  }
+
+  /**
+   * Creates a client with the settings in the given configuration. The caller owns the client and
+   * has to close it.
+   *
+   * @param configuration configuration with the settings of the client
+   * @return new client
+   */
+  public static SparqlClient fromConfiguration(Configuration configuration) {
+    return new SparqlClient(
+        configuration.getInt(MAX_CONNECTIONS_KEY, 16),
+        configuration.getInt(TIMEOUT_KEY, 10000),
+        configuration.getInt(RETRIES_KEY, 5),
+        configuration.getLong(RETRY_DELAY_KEY, 1000));
+  }
+
+  /**
+   * Executes the given query and applies the given function to its execution, e.g. to consume
+   * the result set. If the function fails for a transient reason (see {@link
+   * #isTransient(RuntimeException)}), the query is executed again after a delay, until the number
+   * of retries is exhausted. Other failures, e.g. malformed queries, are not retried.
+   *
+   * @param endpoint URL of the SPARQL endpoint
+   * @param defaultGraph URI of the default graph, may be null
+   * @param queryString valid SPARQL query
+   * @param function function which executes the query and consumes its results
+   * @param <T> type of the result of the function
+   * @return result of the function
+   * @throws RuntimeException the exception of the last try, if it failed for a reason which is
+   * not transient or all tries failed
+   */
+  public <T> T execute(String endpoint, String defaultGraph, String queryString,
+      Function<QueryExecution, T> function) {
+    String key = defaultGraph == null ? endpoint : endpoint + " " + defaultGraph;
+    QueryExecutionFactory factory =
+        factories.computeIfAbsent(key, k -> createFactory(endpoint, defaultGraph));
+    long delay = retryDelay;
+    for (int attempt = 0; ; attempt++) {
+      try (QueryExecution qe = factory.createQueryExecution(queryString)) {
+        return function.apply(qe);
+      } catch (RuntimeException e) {
+        if (attempt >= retries || !isTransient(e)) {
+          throw e;
+        }
+        log.debug("Query failed ({}), retrying in {}ms.", e.getLocalizedMessage(), delay);
+      }
+      try {
+        Thread.sleep(delay);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting to retry the query.", e);
+      }
+      delay *= 2;
+    }
+  }
+
+  /**
+   * Returns true if the given failure of a query is transient, i.e. if the query may succeed when
+   * it is sent again. This is the case for server errors (HTTP status 5xx, e.g. 503 for an
+   * overloaded endpoint) and for I/O errors without a response, e.g. read timeouts. Client errors
+   * (HTTP status 4xx), errors while parsing the results and endpoints which cannot be reached at
+   * all (unknown host, refused connection) are not transient.
+   *
+   * @param e failure of a query
+   * @return true if the failure is transient
+   */
+  static boolean isTransient(RuntimeException e) {
+    // the query executions of the factory wrap the exceptions of Jena
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      int responseCode = -1;
+      if (cause instanceof QueryExceptionHTTP) {
+        responseCode = ((QueryExceptionHTTP) cause).getResponseCode();
+      } else if (cause instanceof HttpException) {
+        responseCode = ((HttpException) cause).getResponseCode();
+      }
+      if (responseCode > 0) {
+        return responseCode >= 500;
+      }
+      if (cause instanceof UnknownHostException || cause instanceof ConnectException
+          || cause instanceof NoRouteToHostException) {
+        return false;
+      }
+      if (cause instanceof IOException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private QueryExecutionFactory createFactory(String endpoint, String defaultGraph) {
+    DatasetDescription datasetDescription = new DatasetDescription(
+        defaultGraph == null ? Collections.emptyList() : Collections.singletonList(defaultGraph),
+        Collections.emptyList());
+    return new QueryExecutionFactoryHttp(endpoint, datasetDescription, httpClient) {
+      @Override
+      public QueryExecution postProcesss(QueryEngineHTTP qe) {
+        qe.setTimeout(timeout, timeout);
+        return super.postProcesss(qe);
+      }
+    };
+  }
+
+  /**
+   * Closes all connections of this client.
+   */
+  @Override
+  public void close() {
+    for (QueryExecutionFactory factory : factories.values()) {
+      try {
+        factory.close();
+      } catch (Exception e) {
+        log.warn(e.getLocalizedMessage());
+      }
+    }
+    factories.clear();
+    connectionManager.close();
+  }
+}
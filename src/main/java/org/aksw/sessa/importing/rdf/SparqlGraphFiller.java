@@ -1,20 +1,45 @@
 package org.aksw.sessa.importing.rdf;
 
 
+import java.util.ArrayList;
 import java.util.Formatter;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
+import org.aksw.sessa.helper.cache.LruCache;
+import org.aksw.sessa.helper.cache.PersistentQueryCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 /**
  * This class uses the DBPedia-SPARQL interface to provide information about the missing triple
- * elements.
+ * elements. It is the remote {@link TripleSourceInterface}.
+ *
+ * <p>Several pairs of URIs are looked up with one query, which binds the pairs in a VALUES-block.
+ * Like the query for a single pair, it finds at most 100 elements per pair. Since SPARQL can only
+ * limit the number of all results, pairs with less than 100 results are looked up again, if the
+ * limit of the batch query was reached. Only pairs of IRIs are looked up, because other terms (e.g.
+ * literals found by earlier look ups) would make the whole query invalid.
  */
 //FIXME hard coded DBpedia
-public class SparqlGraphFiller {
+public class SparqlGraphFiller implements TripleSourceInterface {
 
+  /**
+   * Maximum number of elements which are found for one pair.
+   */
+  public static final int LIMIT_PER_PAIR = 100;
+  /**
+   * Number of pairs which are looked up with one query, if not given otherwise.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 50;
   private static final Logger log = LoggerFactory.getLogger(SparqlGraphFiller.class);
+  private static final Pattern IRI_PATTERN =
+      Pattern.compile("[A-Za-z][A-Za-z0-9+.\\-]*:[^\\x00-\\x20<>\"{}|^`\\\\]*");
   private final String QUERY_STRING =
       "SELECT DISTINCT ?o WHERE {" +
           "{ <%1$s> <%2$s> ?o. } UNION" +
@@ -24,8 +49,76 @@ public class SparqlGraphFiller {
           "{ <%2$s> ?o <%1$s>. } UNION" +
           "{ ?o <%2$s> <%1$s>. }" +
           "} LIMIT 100";
-  // one day for now
-  private final long TIME_TO_LIVE = 24L * 60L * 60L * 1000L;
+  private final String BATCH_QUERY_STRING =
+      "SELECT DISTINCT ?a ?b ?o WHERE {" +
+          "VALUES (?a ?b) { %1$s}" +
+          "{ ?a ?b ?o. } UNION" +
+          "{ ?a ?o ?b. } UNION" +
+          "{ ?o ?a ?b. } UNION" +
+          "{ ?b ?a ?o. } UNION" +
+          "{ ?b ?o ?a. } UNION" +
+          "{ ?o ?b ?a. }" +
+          "} LIMIT %2$d";
+  private final DbpediaSparqlQuery query;
+  private final int batchSize;
+
+  /**
+   * Constructs a filler which uses the DBpedia-SPARQL endpoint.
+   */
+  public SparqlGraphFiller() {
+    this(null);
+  }
+
+  /**
+   * Constructs a filler which uses the given SPARQL endpoint, e.g. a local mirror of DBpedia.
+   *
+   * @param endpoint URL of the SPARQL endpoint, if null the DBpedia-SPARQL endpoint is used
+   */
+  public SparqlGraphFiller(String endpoint) {
+    this(endpoint, null);
+  }
+
+  /**
+   * Constructs a filler which uses the given SPARQL endpoint and caches the query results in the
+   * given cache.
+   *
+   * @param endpoint URL of the SPARQL endpoint, if null the DBpedia-SPARQL endpoint is used
+   * @param cache cache for the query results (e.g. a {@link PersistentQueryCache}), may be null
+   */
+  public SparqlGraphFiller(String endpoint, LruCache<String, Set<String>> cache) {
+    this(endpoint, cache, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Constructs a filler which uses the given SPARQL endpoint, caches the query results in the
+   * given cache and looks up the given number of pairs with one query.
+   *
+   * @param endpoint URL of the SPARQL endpoint, if null the DBpedia-SPARQL endpoint is used
+   * @param cache cache for the query results (e.g. a {@link PersistentQueryCache}), may be null
+   * @param batchSize maximum number of pairs which are looked up with one query
+   */
+  public SparqlGraphFiller(String endpoint, LruCache<String, Set<String>> cache, int batchSize) {
+    this(endpoint, cache, batchSize, SparqlClient.getSharedClient());
+  }
+
+  /**
+   * Constructs a filler which uses the given SPARQL endpoint, sends the queries with the given
+   * client, caches the query results in the given cache and looks up the given number of pairs
+   * with one query.
+   *
+   * @param endpoint URL of the SPARQL endpoint, if null the DBpedia-SPARQL endpoint is used
+   * @param cache cache for the query results (e.g. a {@link PersistentQueryCache}), may be null
+   * @param batchSize maximum number of pairs which are looked up with one query
+   * @param client client which sends the queries
+   */
+  public SparqlGraphFiller(String endpoint, LruCache<String, Set<String>> cache, int batchSize,
+      SparqlClient client) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("The batch size has to be positive.");
+    }
+    this.query = new DbpediaSparqlQuery(endpoint, cache, client);
+    this.batchSize = batchSize;
+  }
 
   /**
    * Builds query with given URIs to find the missing triple.
@@ -47,9 +140,148 @@ public class SparqlGraphFiller {
    * @param uri2 second URI to be used for the SPARQL-query
    * @return set of triple elements which ca be used to complement the two given URIs
    */
+  @Override
   public Set<String> findMissingTripleElement(String uri1, String uri2) {
     String queryString = buildQuery(uri1, uri2);
-    DbpediaSparqlQuery dbpQ = new DbpediaSparqlQuery();
-    return dbpQ.executeQuery(queryString);
+    return query.executeQuery(queryString);
+  }
+
+  /**
+   * Looks up the missing triple elements of the given pairs with as few queries as possible. Pairs
+   * whose results are cached are not queried again; the results of the other pairs are cached as
+   * if they were looked up on their own.
+   *
+   * @param pairs pairs of URIs, each given as array of length two
+   * @return list with the set of triple elements of each pair, in the same order as the pairs
+   */
+  @Override
+  public List<Set<String>> findMissingTripleElements(List<String[]> pairs) {
+    Map<String, Set<String>> foundElements = new HashMap<>();
+    Map<String, String[]> uncachedPairs = new LinkedHashMap<>();
+    for (String[] pair : pairs) {
+      String key = getKey(pair[0], pair[1]);
+      if (!foundElements.containsKey(key) && !uncachedPairs.containsKey(key)) {
+        Set<String> cachedElements = query.getCachedResults(buildQuery(pair[0], pair[1]));
+        if (cachedElements != null) {
+          foundElements.put(key, cachedElements);
+        } else {
+          uncachedPairs.put(key, pair);
+        }
+      }
+    }
+    List<String[]> batch = new ArrayList<>(uncachedPairs.values());
+    for (int start = 0; start < batch.size(); start += batchSize) {
+      foundElements.putAll(
+          findBatch(batch.subList(start, Math.min(start + batchSize, batch.size()))));
+    }
+    List<Set<String>> results = new ArrayList<>(pairs.size());
+    for (String[] pair : pairs) {
+      results.add(new HashSet<>(foundElements.get(getKey(pair[0], pair[1]))));
+    }
+    return results;
+  }
+
+  @Override
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Looks up the given pairs, which are not cached, with as few queries as possible. Pairs with a
+   * term which is not an IRI (e.g. a literal) can not be part of a query, so they are not looked
+   * up and have no elements. The other pairs are looked up with one query. If it fails, they are
+   * looked up on their own. If it reaches its limit, the pairs with less than {@link
+   * #LIMIT_PER_PAIR} elements are looked up again with a smaller batch, because the results of
+   * other pairs may have crowded out their results.
+   *
+   * @param batch pairs of URIs, which are looked up together
+   * @return map from the key of each pair (see {@link #getKey(String, String)}) to its elements
+   */
+  private Map<String, Set<String>> findBatch(List<String[]> batch) {
+    Map<String, Set<String>> foundElements = new HashMap<>();
+    List<String[]> iriPairs = new ArrayList<>(batch.size());
+    for (String[] pair : batch) {
+      foundElements.put(getKey(pair[0], pair[1]), new HashSet<>());
+      if (isIri(pair[0]) && isIri(pair[1])) {
+        iriPairs.add(pair);
+      } else {
+        log.debug("Skipped the pair ({}, {}), which is not a pair of IRIs.", pair[0], pair[1]);
+      }
+    }
+    if (iriPairs.size() == 1) {
+      String[] pair = iriPairs.get(0);
+      foundElements.put(getKey(pair[0], pair[1]), findMissingTripleElement(pair[0], pair[1]));
+      return foundElements;
+    } else if (iriPairs.isEmpty()) {
+      return foundElements;
+    }
+    StringBuilder values = new StringBuilder();
+    for (String[] pair : iriPairs) {
+      values.append("(<").append(pair[0]).append("> <").append(pair[1]).append(">) ");
+    }
+    int limit = iriPairs.size() * LIMIT_PER_PAIR;
+    List<String[]> rows = query.executeRowQuery(
+        new Formatter().format(BATCH_QUERY_STRING, values, limit).toString());
+    if (rows == null) {
+      log.debug("Looking up {} pairs on their own, because their query failed.", iriPairs.size());
+      for (String[] pair : iriPairs) {
+        foundElements.put(getKey(pair[0], pair[1]), findMissingTripleElement(pair[0], pair[1]));
+      }
+      return foundElements;
+    }
+    for (String[] row : rows) {
+      Set<String> elements = foundElements.get(getKey(row[0], row[1]));
+      if (elements != null && elements.size() < LIMIT_PER_PAIR) {
+        elements.add(row[2]);
+      }
+    }
+    log.debug("Looked up {} pairs with one query, which found {} results.", iriPairs.size(),
+        rows.size());
+    List<String[]> incompletePairs = new ArrayList<>();
+    for (String[] pair : iriPairs) {
+      String key = getKey(pair[0], pair[1]);
+      if (rows.size() >= limit && foundElements.get(key).size() < LIMIT_PER_PAIR) {
+        incompletePairs.add(pair);
+      } else {
+        query.cacheResults(buildQuery(pair[0], pair[1]), foundElements.get(key));
+      }
+    }
+    if (incompletePairs.size() < iriPairs.size()) {
+      // at least one pair is complete if the limit was reached, so this terminates
+      foundElements.putAll(findBatch(incompletePairs));
+    } else {
+      for (String[] pair : incompletePairs) {
+        foundElements.put(getKey(pair[0], pair[1]), findMissingTripleElement(pair[0], pair[1]));
+      }
+    }
+    return foundElements;
+  }
+
+  /**
+   * Returns true if the given term can be written as IRI in a query, i.e. if it has a scheme and
+   * contains none of the characters which are not allowed in an IRI reference.
+   *
+   * @param term term of a pair, e.g. a URI or a literal
+   * @return true if the term is an IRI
+   */
+  static boolean isIri(String term) {
+    return IRI_PATTERN.matcher(term).matches();
+  }
+
+  private static String getKey(String uri1, String uri2) {
+    return uri1 + " " + uri2;
+  }
+
+  /**
+   * Checks with an ASK-query whether DBpedia contains the given triple.
+   *
+   * @param subject subject of the triple
+   * @param predicate predicate of the triple
+   * @param object object of the triple
+   * @return true if the triple is contained in DBpedia, false otherwise
+   */
+  @Override
+  public boolean containsTriple(String subject, String predicate, String object) {
+    return query.askQuery(subject, predicate, object);
   }
 }
@@ -0,0 +1,61 @@
+package org.aksw.sessa.importing.rdf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementations of this interface provide the triples which are used to expand the graph, e.g.
+ * a remote SPARQL endpoint or a local triple store.
+ */
+public interface TripleSourceInterface {
+
+  /**
+   * Given two URIs, returns the elements which complement them to a triple. Example (URIs
+   * shortened): Given dbr:Bill_Gates and dbo:birthPlace this method should at least provide
+   * dbr:Seattle, because 'dbr:Bill_Gates dbo:birthPlace dbr:Seattle.' is a triple in the source.
+   * The two URIs may appear in any position and order in the triple.
+   *
+   * @param uri1 first URI of the triple
+   * @param uri2 second URI of the triple
+   * @return set of triple elements which can be used to complement the two given URIs
+   */
+  Set<String> findMissingTripleElement(String uri1, String uri2);
+
+  /**
+   * Returns the elements which complement each of the given pairs of URIs to a triple (see
+   * {@link #findMissingTripleElement(String, String)}). Sources which can look up several pairs at
+   * once (e.g. with one query) should override this method; by default, the pairs are looked up
+   * one after the other.
+   *
+   * @param pairs pairs of URIs, each given as array of length two
+   * @return list with the set of triple elements of each pair, in the same order as the pairs
+   */
+  default List<Set<String>> findMissingTripleElements(List<String[]> pairs) {
+    List<Set<String>> results = new ArrayList<>(pairs.size());
+    for (String[] pair : pairs) {
+      results.add(findMissingTripleElement(pair[0], pair[1]));
+    }
+    return results;
+  }
+
+  /**
+   * Returns the number of pairs which should be passed to
+   * {@link #findMissingTripleElements(List)} at once.
+   *
+   * @return number of pairs which are looked up together, 1 if every pair is looked up on its own
+   */
+  default int getBatchSize() {
+    return 1;
+  }
+
+  /**
+   * Checks whether the given triple is contained in the source.
+   *
+   * @param subject subject of the triple
+   * @param predicate predicate of the triple
+   * @param object object of the triple
+   * @return true if the triple is contained in the source, false otherwise
+   */
+  boolean containsTriple(String subject, String predicate, String object);
+}
@@ -0,0 +1,466 @@
+package org.aksw.sessa.importing.rdf.implementation;
+
+import com.google.common.primitives.UnsignedBytes;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import org.aksw.sessa.helper.files.Utf8Buffers;
+import org.aksw.sessa.importing.config.ConfigurationInitializer;
+import org.aksw.sessa.importing.rdf.TripleSourceInterface;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides the missing triple elements from a compressed adjacency index in a memory-mapped file.
+ * The index is built once from an N-Triples dump with {@link #build(String, Path)} or from the
+ * command line with {@link #main(String[])}.
+ *
+ * <p>Every term (URI or literal) of the dump is encoded as a number, which is its position in the
+ * table of all terms sorted by their UTF-8 bytes. The triples are stored as three term numbers each.
+ * In CSR style, every term points to the sorted list of the triples it occurs in. The triples which
+ * contain two given terms are therefore found by intersecting their two lists, and the third
+ * element of each of these triples is a missing triple element. The intersection iterates over
+ * the shorter list and skips through the longer list with exponential search, so that frequent
+ * terms like rdf:type do not slow down the look up. Look ups are safe for concurrent use. The
+ * memory mapping is released by the garbage collector.
+ *
+ * <p>Only the finished index is memory-mapped. Building it keeps all terms and triples of the dump
+ * on the heap: roughly 150 bytes plus twice the UTF-8 length per distinct term (the term string,
+ * its number in a hash map, its bytes and its place in the sort order) and 40 bytes per triple.
+ * A full DBpedia dump therefore needs tens of gigabytes of heap to build the index. At most
+ * {@link #MAX_TRIPLES} triples fit into one index.
+ */
+public class AdjacencyIndex implements TripleSourceInterface {
+
+  private static final Logger log = LoggerFactory.getLogger(AdjacencyIndex.class);
+  private static final String LOCATION_KEY = "sessa.triple_source.adjacency.location";
+  private static final int MAGIC_NUMBER = 0x53455347;
+  private static final int FORMAT_VERSION = 1;
+  /**
+   * Contains the size of the header in bytes, i.e. the magic number, the format version and the
+   * number of terms and triples.
+   */
+  private static final int HEADER_SIZE = 4 * Integer.BYTES;
+  /**
+   * Same limit as in the query of {@link org.aksw.sessa.importing.rdf.SparqlGraphFiller}.
+   */
+  private static final int MAX_RESULTS = 100;
+  /**
+   * Contains the maximum number of triples of an index, so that the triples fit into an int array
+   * and their bytes into a memory-mapped buffer.
+   */
+  public static final int MAX_TRIPLES = Integer.MAX_VALUE / 12;
+
+  private final int termCount;
+  private final int tripleCount;
+  private final IntBuffer termOffsets;
+  private final IntBuffer incidenceOffsets;
+  private final IntBuffer incidence;
+  private final IntBuffer triples;
+  private final ByteBuffer termBytes;
+
+  /**
+   * Opens the index at the location given in the configuration.
+   *
+   * @throws IOException If an I/O error occurs or the file is no index file
+   */
+  public AdjacencyIndex() throws IOException {
+    this(null);
+  }
+
+  /**
+   * Opens the index at the given location.
+   *
+   * @param location location of the index file, if null the location in the configuration is used
+   * @throws IOException If an I/O error occurs or the file is no index file
+   */
+  public AdjacencyIndex(String location) throws IOException {
+    if (location == null) {
+      Configuration configuration = ConfigurationInitializer.getConfiguration();
+      location = configuration.getString(LOCATION_KEY);
+    }
+    Path file = Paths.get(location);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_SIZE) {
+        throw new IOException("Not an adjacency index: " + file);
+      }
+      IntBuffer header = mapInts(channel, 0, HEADER_SIZE / Integer.BYTES);
+      if (header.get(0) != MAGIC_NUMBER || header.get(1) != FORMAT_VERSION) {
+        throw new IOException("Not an adjacency index: " + file);
+      }
+      termCount = header.get(2);
+      tripleCount = header.get(3);
+      long position = HEADER_SIZE;
+      termOffsets = mapInts(channel, position, termCount + 1);
+      position += (termCount + 1L) * Integer.BYTES;
+      incidenceOffsets = mapInts(channel, position, termCount + 1);
+      position += (termCount + 1L) * Integer.BYTES;
+      incidence = mapInts(channel, position, incidenceOffsets.get(termCount));
+      position += (long) incidenceOffsets.get(termCount) * Integer.BYTES;
+      triples = mapInts(channel, position, 3 * tripleCount);
+      position += 3L * tripleCount * Integer.BYTES;
+      termBytes = channel.map(MapMode.READ_ONLY, position, termOffsets.get(termCount));
+    }
+    log.debug("Opened adjacency index '{}' with {} terms and {} triples.", location, termCount,
+        tripleCount);
+  }
+
+  private static IntBuffer mapInts(FileChannel channel, long position, int count)
+      throws IOException {
+    return channel.map(MapMode.READ_ONLY, position, (long) count * Integer.BYTES).asIntBuffer();
+  }
+
+  /**
+   * Returns the number of triples in the index.
+   *
+   * @return number of triples in the index
+   */
+  public int size() {
+    return tripleCount;
+  }
+
+  @Override
+  public Set<String> findMissingTripleElement(String uri1, String uri2) {
+    Set<String> results = new HashSet<>();
+    int term1 = find(uri1);
+    int term2 = find(uri2);
+    if (term1 < 0 || term2 < 0) {
+      return results;
+    }
+    intersect(term1, term2, triple -> {
+      int missing = missingElement(triple, term1, term2);
+      if (missing >= 0) {
+        results.add(term(missing));
+      }
+      return results.size() < MAX_RESULTS;
+    });
+    log.trace("Found for {} and {}: {}", uri1, uri2, results);
+    return results;
+  }
+
+  @Override
+  public boolean containsTriple(String subject, String predicate, String object) {
+    int subjectTerm = find(subject);
+    int predicateTerm = find(predicate);
+    int objectTerm = find(object);
+    if (subjectTerm < 0 || predicateTerm < 0 || objectTerm < 0) {
+      return false;
+    }
+    boolean[] found = new boolean[1];
+    intersect(subjectTerm, predicateTerm, triple -> {
+      found[0] = triples.get(3 * triple) == subjectTerm
+          && triples.get(3 * triple + 1) == predicateTerm
+          && triples.get(3 * triple + 2) == objectTerm;
+      return !found[0];
+    });
+    return found[0];
+  }
+
+  /**
+   * Returns the number of the given term or a negative number if the term is not in the index.
+   */
+  private int find(String term) {
+    int low = 0;
+    int high = termCount - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = Utf8Buffers.compare(term, termBytes, termOffsets.get(middle),
+          termOffsets.get(middle + 1));
+      if (comparison > 0) {
+        low = middle + 1;
+      } else if (comparison < 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Decodes the term with the given number.
+   */
+  private String term(int term) {
+    return Utf8Buffers.decode(termBytes, termOffsets.get(term), termOffsets.get(term + 1));
+  }
+
+  /**
+   * Calls the given action for every triple which contains both terms, in ascending order, until
+   * the action returns false.
+   */
+  private void intersect(int term1, int term2, IntPredicate action) {
+    int start1 = incidenceOffsets.get(term1);
+    int end1 = incidenceOffsets.get(term1 + 1);
+    int start2 = incidenceOffsets.get(term2);
+    int end2 = incidenceOffsets.get(term2 + 1);
+    if (end1 - start1 > end2 - start2) {
+      int tmp = start1;
+      start1 = start2;
+      start2 = tmp;
+      tmp = end1;
+      end1 = end2;
+      end2 = tmp;
+    }
+    int position = start2;
+    for (int i = start1; i < end1 && position < end2; i++) {
+      int triple = incidence.get(i);
+      position = lowerBound(triple, position, end2);
+      if (position < end2 && incidence.get(position) == triple) {
+        if (!action.test(triple)) {
+          return;
+        }
+        position++;
+      }
+    }
+  }
+
+  /**
+   * Returns the first position between from (inclusive) and to (exclusive) whose triple is not
+   * less than the given triple, or to if there is none. First the range is narrowed down with
+   * steps of doubling size, then it is searched binary.
+   */
+  private int lowerBound(int triple, int from, int to) {
+    int low = from;
+    int high = from;
+    long step = 1;
+    while (high < to && incidence.get(high) < triple) {
+      low = high + 1;
+      high = (int) Math.min(to, from + step);
+      step <<= 1;
+    }
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (incidence.get(middle) < triple) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns the element of the triple which is left after removing both given terms, or a
+   * negative number if the triple does not contain both terms (i.e. the terms are the same and
+   * occur only once in the triple).
+   */
+  private int missingElement(int triple, int term1, int term2) {
+    boolean found1 = false;
+    boolean found2 = false;
+    int missing = -1;
+    for (int i = 3 * triple; i < 3 * triple + 3; i++) {
+      int element = triples.get(i);
+      if (!found1 && element == term1) {
+        found1 = true;
+      } else if (!found2 && element == term2) {
+        found2 = true;
+      } else {
+        missing = element;
+      }
+    }
+    return found1 && found2 ? missing : -1;
+  }
+
+  /**
+   * Builds the index file from the given N-Triples dump. The index is first written to a temporary
+   * file, which then replaces the given file.
+   *
+   * @param ntFile file with the triples, e.g. in N-Triples format
+   * @param indexFile location of the index file
+   * @throws IOException If an I/O error occurs or the dump is too large for one index file
+   */
+  public static void build(String ntFile, Path indexFile) throws IOException {
+    log.info("Building adjacency index from '{}'. This could take some time!", ntFile);
+    long startTime = System.nanoTime();
+    TripleCollector collector = new TripleCollector();
+    try {
+      RDFDataMgr.parse(collector, ntFile);
+    } catch (DumpTooLargeException e) {
+      throw new IOException("Dump too large for a single adjacency index.", e);
+    }
+
+    // numbers the terms in the order of their bytes, so that they can be searched binary
+    List<byte[]> termBytes = new ArrayList<>(collector.terms.size());
+    for (String term : collector.terms) {
+      termBytes.add(term.getBytes(StandardCharsets.UTF_8));
+    }
+    Integer[] order = new Integer[termBytes.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Comparator<byte[]> byteOrder = UnsignedBytes.lexicographicalComparator();
+    Arrays.sort(order, (term1, term2) -> byteOrder.compare(termBytes.get(term1),
+        termBytes.get(term2)));
+    int termCount = order.length;
+    int[] termNumbers = new int[termCount];
+    for (int i = 0; i < termCount; i++) {
+      termNumbers[order[i]] = i;
+    }
+    int tripleCount = collector.tripleCount;
+    int[] triples = collector.triples;
+    for (int i = 0; i < 3 * tripleCount; i++) {
+      triples[i] = termNumbers[triples[i]];
+    }
+
+    // every triple is listed once for each of its distinct terms
+    long[] offsets = new long[termCount + 1];
+    for (int triple = 0; triple < tripleCount; triple++) {
+      forEachDistinctTerm(triples, triple, term -> offsets[term + 1]++);
+    }
+    for (int term = 0; term < termCount; term++) {
+      offsets[term + 1] += offsets[term];
+    }
+    long termBytesLength = termBytes.stream().mapToLong(bytes -> bytes.length).sum();
+    if (termBytesLength > Integer.MAX_VALUE || offsets[termCount] > Integer.MAX_VALUE / 4) {
+      throw new IOException("Dump too large for a single adjacency index.");
+    }
+    int[] incidence = new int[(int) offsets[termCount]];
+    int[] positions = new int[termCount];
+    for (int term = 0; term < termCount; term++) {
+      positions[term] = (int) offsets[term];
+    }
+    for (int triple = 0; triple < tripleCount; triple++) {
+      int current = triple;
+      forEachDistinctTerm(triples, triple, term -> incidence[positions[term]++] = current);
+    }
+
+    Path tmpFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+      out.writeInt(MAGIC_NUMBER);
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(termCount);
+      out.writeInt(tripleCount);
+      int offset = 0;
+      for (Integer term : order) {
+        out.writeInt(offset);
+        offset += termBytes.get(term).length;
+      }
+      out.writeInt(offset);
+      for (long incidenceOffset : offsets) {
+        out.writeInt((int) incidenceOffset);
+      }
+      for (int triple : incidence) {
+        out.writeInt(triple);
+      }
+      for (int i = 0; i < 3 * tripleCount; i++) {
+        out.writeInt(triples[i]);
+      }
+      for (Integer term : order) {
+        out.write(termBytes.get(term));
+      }
+    }
+    Files.move(tmpFile, indexFile, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    log.info("Finished building adjacency index with {} terms and {} triples (in {}sec).",
+        termCount, tripleCount, (System.nanoTime() - startTime) / (1000 * 1000 * 1000));
+  }
+
+  private static void forEachDistinctTerm(int[] triples, int triple, IntConsumer consumer) {
+    int subject = triples[3 * triple];
+    int predicate = triples[3 * triple + 1];
+    int object = triples[3 * triple + 2];
+    consumer.accept(subject);
+    if (predicate != subject) {
+      consumer.accept(predicate);
+    }
+    if (object != subject && object != predicate) {
+      consumer.accept(object);
+    }
+  }
+
+  /**
+   * Collects the triples of a dump as numbers of their terms, in the order of their appearance.
+   */
+  private static class TripleCollector extends StreamRDFBase {
+
+    // same string representation as the results of the SPARQL-query
+    private final Model model = ModelFactory.createDefaultModel();
+    private final Map<String, Integer> termNumbers = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private int[] triples = new int[3 * 1024];
+    private int tripleCount = 0;
+
+    @Override
+    public void triple(Triple triple) {
+      if (3 * tripleCount == triples.length) {
+        // the limit is checked before growing, so that the length cannot overflow
+        if (tripleCount == MAX_TRIPLES) {
+          throw new DumpTooLargeException();
+        }
+        triples = Arrays.copyOf(triples, (int) Math.min(2L * triples.length, 3L * MAX_TRIPLES));
+      }
+      triples[3 * tripleCount] = number(triple.getSubject());
+      triples[3 * tripleCount + 1] = number(triple.getPredicate());
+      triples[3 * tripleCount + 2] = number(triple.getObject());
+      tripleCount++;
+    }
+
+    private int number(Node node) {
+      String term = node.isURI() ? node.getURI() : model.asRDFNode(node).toString();
+      Integer number = termNumbers.get(term);
+      if (number == null) {
+        number = terms.size();
+        termNumbers.put(term, number);
+        terms.add(term);
+      }
+      return number;
+    }
+  }
+
+  /**
+   * Signals that a dump has more than {@link #MAX_TRIPLES} triples. The parser only passes
+   * unchecked exceptions on, so it is translated to an IOException by the builder.
+   */
+  private static class DumpTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private DumpTooLargeException() {
+      super("More than " + MAX_TRIPLES + " triples.");
+    }
+  }
+
+  /**
+   * Builds the index file from an N-Triples dump.
+   *
+   * <p>Usage: {@code AdjacencyIndex <nt-file> [index-file]}. If no index file is given, the
+   * location in the configuration is used.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      log.error("Usage: AdjacencyIndex <nt-file> [index-file]");
+      return;
+    }
+    String location = args.length > 1 ? args[1]
+        : ConfigurationInitializer.getConfiguration().getString(LOCATION_KEY);
+    build(args[0], Paths.get(location));
+  }
+}
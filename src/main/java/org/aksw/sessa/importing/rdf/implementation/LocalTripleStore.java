@@ -0,0 +1,155 @@
+package org.aksw.sessa.importing.rdf.implementation;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+import org.aksw.sessa.importing.config.ConfigurationInitializer;
+import org.aksw.sessa.importing.rdf.TripleSourceInterface;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.tdb.TDB;
+import org.apache.jena.tdb.TDBFactory;
+import org.apache.jena.tdb.TDBLoader;
+import org.apache.jena.tdb.sys.TDBInternal;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class provides the missing triple elements from an embedded triple store instead of the
+ * DBpedia-SPARQL endpoint. The store is a Jena TDB database on disk, which holds the triples in
+ * B+tree indexes for the permutations SPO, POS and OSP. Each of the patterns used for expanding the
+ * graph binds two positions of the triple and is therefore answered by a range scan in one of these
+ * indexes, without any network access.
+ *
+ * <p>The store is filled once from an N-Triples dump (e.g. dbpedia_2016-10.nt), either with
+ * {@link #load(String)} or from the command line with {@link #main(String[])}. After that the
+ * store is only read, which is safe for concurrent use.
+ */
+public class LocalTripleStore implements TripleSourceInterface, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(LocalTripleStore.class);
+  private static final String LOCATION_KEY = "sessa.triple_source.local.location";
+  /**
+   * Same limit as in the query of {@link org.aksw.sessa.importing.rdf.SparqlGraphFiller}.
+   */
+  private static final int MAX_RESULTS = 100;
+
+  private final Dataset dataset;
+  private final Graph graph;
+  private final Model model;
+
+  /**
+   * Opens the triple store at the location given in the configuration.
+   */
+  public LocalTripleStore() {
+    this(null);
+  }
+
+  /**
+   * Opens the triple store at the given location. If there is no store yet, an empty one is
+   * created.
+   *
+   * @param location directory of the triple store, if null the location in the configuration is
+   * used
+   */
+  public LocalTripleStore(String location) {
+    if (location == null) {
+      Configuration configuration = ConfigurationInitializer.getConfiguration();
+      location = configuration.getString(LOCATION_KEY);
+    }
+    dataset = TDBFactory.createDataset(location);
+    graph = dataset.asDatasetGraph().getDefaultGraph();
+    model = ModelFactory.createModelForGraph(graph);
+    log.debug("Opened local triple store at '{}'.", location);
+  }
+
+  /**
+   * Loads the triples of the given file into the store. Loading is much faster if the store is
+   * still empty, because the indexes are then built in bulk.
+   *
+   * @param file file with the triples, e.g. in N-Triples format
+   */
+  public void load(String file) {
+    log.info("Loading '{}' into local triple store. This could take some time!", file);
+    long startTime = System.nanoTime();
+    TDBLoader.load(TDBInternal.getDatasetGraphTDB(dataset.asDatasetGraph()), file, false);
+    TDB.sync(dataset);
+    log.info("Finished loading local triple store (in {}sec).",
+        (System.nanoTime() - startTime) / (1000 * 1000 * 1000));
+  }
+
+  /**
+   * Returns true if the store does not contain any triples.
+   *
+   * @return true if the store does not contain any triples
+   */
+  public boolean isEmpty() {
+    return graph.isEmpty();
+  }
+
+  @Override
+  public Set<String> findMissingTripleElement(String uri1, String uri2) {
+    Node node1 = NodeFactory.createURI(uri1);
+    Node node2 = NodeFactory.createURI(uri2);
+    Set<String> results = new LinkedHashSet<>();
+    // same patterns and order as the union in the SPARQL-query of the remote source
+    collect(results, node1, node2, Node.ANY, Triple::getObject);
+    collect(results, node1, Node.ANY, node2, Triple::getPredicate);
+    collect(results, Node.ANY, node1, node2, Triple::getSubject);
+    collect(results, node2, node1, Node.ANY, Triple::getObject);
+    collect(results, node2, Node.ANY, node1, Triple::getPredicate);
+    collect(results, Node.ANY, node2, node1, Triple::getSubject);
+    log.trace("Found for {} and {}: {}", uri1, uri2, results);
+    return results;
+  }
+
+  private void collect(Set<String> results, Node subject, Node predicate, Node object,
+      Function<Triple, Node> missingElement) {
+    if (results.size() >= MAX_RESULTS) {
+      return;
+    }
+    ExtendedIterator<Triple> triples = graph.find(subject, predicate, object);
+    try {
+      while (triples.hasNext() && results.size() < MAX_RESULTS) {
+        // same string representation as the results of the SPARQL-query
+        results.add(model.asRDFNode(missingElement.apply(triples.next())).toString());
+      }
+    } finally {
+      triples.close();
+    }
+  }
+
+  @Override
+  public boolean containsTriple(String subject, String predicate, String object) {
+    return graph.contains(NodeFactory.createURI(subject), NodeFactory.createURI(predicate),
+        NodeFactory.createURI(object));
+  }
+
+  @Override
+  public void close() {
+    dataset.close();
+  }
+
+  /**
+   * Builds the triple store from an N-Triples dump.
+   *
+   * <p>Usage: {@code LocalTripleStore <nt-file> [store-location]}. If no location is given, the
+   * location in the configuration is used.
+   */
+  public static void main(String[] args) {
+    if (args.length == 0) {
+      log.error("Usage: LocalTripleStore <nt-file> [store-location]");
+      return;
+    }
+    try (LocalTripleStore store = new LocalTripleStore(args.length > 1 ? args[1] : null)) {
+      store.load(args[0]);
+    }
+  }
+}
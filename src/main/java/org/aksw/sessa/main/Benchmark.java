@@ -0,0 +1,123 @@
+package org.aksw.sessa.main;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides the parts which are shared by the benchmarks of this package: the n-grams of typical
+ * QALD questions and a timing loop, which runs some warm-up rounds before it measures the time and
+ * the allocated memory of the measured rounds.
+ */
+final class Benchmark {
+
+  private static final Logger log = LoggerFactory.getLogger(Benchmark.class);
+  private static final List<String> DEFAULT_N_GRAMS = Arrays.asList("bill gates", "barack obama",
+      "wife", "birthplace", "berlin", "mayor", "john f. kennedy", "apollo 14", "doesnotexist");
+  private static final int WARM_UP_ROUNDS = 5;
+  private static final int MEASUREMENT_ROUNDS = 20;
+  /**
+   * Sum of the results of all rounds, which keeps the rounds from being optimized away.
+   */
+  private static double resultSum;
+
+  private Benchmark() {
+  }
+
+  /**
+   * Returns the n-grams given after the first argument, or the n-grams of typical QALD questions
+   * if there are none.
+   *
+   * @param args arguments of the benchmark, the first one is not an n-gram
+   * @return n-grams for the benchmark
+   */
+  static List<String> getNGrams(String[] args) {
+    return args.length > 1
+        ? Arrays.asList(Arrays.copyOfRange(args, 1, args.length))
+        : DEFAULT_N_GRAMS;
+  }
+
+  /**
+   * Runs the given round some times to warm up and then measures it.
+   *
+   * @param round round which should be measured, returns a result which depends on its work
+   * @return measurement of one round
+   */
+  static Measurement measure(DoubleSupplier round) {
+    for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+      resultSum += round.getAsDouble();
+    }
+    long allocatedBefore = allocatedBytes();
+    long startTime = System.nanoTime();
+    double result = 0;
+    for (int i = 0; i < MEASUREMENT_ROUNDS; i++) {
+      result = round.getAsDouble();
+      resultSum += result;
+    }
+    long time = (System.nanoTime() - startTime) / MEASUREMENT_ROUNDS;
+    long allocatedAfter = allocatedBytes();
+    log.trace("Sum of all results: {}", resultSum);
+    return new Measurement(time,
+        allocatedBefore < 0 ? -1 : (allocatedAfter - allocatedBefore) / MEASUREMENT_ROUNDS,
+        result);
+  }
+
+  /**
+   * Returns the bytes allocated by the current thread, or -1 if the JVM does not measure them.
+   */
+  private static long allocatedBytes() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threads)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return -1;
+  }
+
+  /**
+   * Contains the averages of the measured rounds.
+   */
+  static final class Measurement {
+
+    private final long time;
+    private final long allocatedBytes;
+    private final double result;
+
+    private Measurement(long time, long allocatedBytes, double result) {
+      this.time = time;
+      this.allocatedBytes = allocatedBytes;
+      this.result = result;
+    }
+
+    /**
+     * Returns the average time of a round.
+     *
+     * @return time of a round in nanoseconds
+     */
+    long getTime() {
+      return time;
+    }
+
+    /**
+     * Returns the average number of bytes allocated by a round.
+     *
+     * @return allocated bytes of a round, -1 if the JVM does not measure them
+     */
+    long getAllocatedBytes() {
+      return allocatedBytes;
+    }
+
+    /**
+     * Returns the result of the last round.
+     *
+     * @return result of the last round
+     */
+    double getResult() {
+      return result;
+    }
+  }
+}
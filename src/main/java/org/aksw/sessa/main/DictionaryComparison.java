@@ -0,0 +1,114 @@
+package org.aksw.sessa.main;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.aksw.sessa.candidate.Candidate;
+import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
+import org.aksw.sessa.helper.files.handler.TsvFileHandler;
+import org.aksw.sessa.importing.dictionary.FileBasedDictionary;
+import org.aksw.sessa.importing.dictionary.implementation.FstDictionary;
+import org.aksw.sessa.importing.dictionary.implementation.HashMapDictionary;
+import org.aksw.sessa.importing.dictionary.implementation.LuceneDictionary;
+import org.aksw.sessa.importing.dictionary.implementation.MappedDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is for benchmarking purposes of the dictionaries. It builds every dictionary
+ * implementation from the same tsv-file and compares their build time, the used heap and the
+ * average latency of a look up. Because the FST-based dictionary also matches keys with small edit
+ * distances, its exact look ups are measured as well, so that it can be compared with the other
+ * dictionaries on the same candidates.
+ *
+ * <p>Usage: {@code DictionaryComparison <tsv-file> [n-gram ...]}. If no n-grams are given, some
+ * n-grams of typical QALD questions are used. The Lucene index and the file of the memory-mapped
+ * dictionary are held by the page cache of the operating system and are not part of the used
+ * heap.
+ */
+public class DictionaryComparison {
+
+  private static final Logger log = LoggerFactory.getLogger(DictionaryComparison.class);
+
+  /**
+   * Starts the comparison with the given tsv-file and n-grams.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      log.error("Usage: DictionaryComparison <tsv-file> [n-gram ...]");
+      return;
+    }
+    String file = args[0];
+    List<String> nGrams = Benchmark.getNGrams(args);
+    Path directory = Files.createTempDirectory("sessa-dictionaries");
+    try {
+      compare("hashmap", file, nGrams, HashMapDictionary::new);
+      compare("lucene", file, nGrams,
+          () -> new LuceneDictionary(directory.resolve("lucene").toString()));
+      compare("mapped", file, nGrams,
+          () -> new MappedDictionary(directory.resolve("mapped").toString()));
+      compare("fst", file, nGrams, FstDictionary::new);
+    } finally {
+      try (Stream<Path> files = Files.walk(directory)) {
+        files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+      }
+    }
+  }
+
+  private static void compare(String name, String file, List<String> nGrams,
+      Supplier<FileBasedDictionary> dictionaryFactory) throws IOException {
+    long heapBefore = usedHeap();
+    long startTime = System.nanoTime();
+    FileBasedDictionary dictionary = dictionaryFactory.get();
+    try (FileHandlerInterface handler = new TsvFileHandler(file)) {
+      dictionary.startBulkLoad();
+      dictionary.putAll(handler);
+      dictionary.finishBulkLoad();
+    }
+    long buildTime = System.nanoTime() - startTime;
+    long heap = Math.max(0, usedHeap() - heapBefore);
+    log.info("{}: {} entries, built in {}ms, {}KB heap.", name, dictionary.size(),
+        buildTime / (1000 * 1000), heap / 1024);
+
+    measureLookUps(name, nGrams, dictionary::get);
+    if (dictionary instanceof FstDictionary) {
+      measureLookUps(name + " (exact)", nGrams, ((FstDictionary) dictionary)::getExact);
+    }
+    if (dictionary instanceof AutoCloseable) {
+      try {
+        ((AutoCloseable) dictionary).close();
+      } catch (Exception e) {
+        log.error(e.getLocalizedMessage());
+      }
+    }
+  }
+
+  private static void measureLookUps(String name, List<String> nGrams,
+      Function<String, Set<Candidate>> lookUp) {
+    Benchmark.Measurement measurement = Benchmark.measure(() -> lookUpAll(lookUp, nGrams));
+    log.info("{}: {}us per look up, {} candidates found.", name,
+        measurement.getTime() / nGrams.size() / 1000, (int) measurement.getResult());
+  }
+
+  private static int lookUpAll(Function<String, Set<Candidate>> lookUp, List<String> nGrams) {
+    int candidates = 0;
+    for (String nGram : nGrams) {
+      candidates += lookUp.apply(nGram).size();
+    }
+    return candidates;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,94 @@
+package org.aksw.sessa.main;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
+import org.aksw.sessa.helper.files.handler.TsvFileHandler;
+import org.aksw.sessa.importing.dictionary.energy.EnergyFunctionInterface;
+import org.aksw.sessa.importing.dictionary.energy.LevenshteinDistanceFunction;
+import org.apache.lucene.search.spell.LuceneLevenshteinDistance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is for benchmarking purposes of the Levenshtein energy function. It scores the keys of
+ * a tsv-file against some n-grams with the former implementation of
+ * {@link LevenshteinDistanceFunction} (a new {@link LuceneLevenshteinDistance} and two lower-cased
+ * strings per score) and with the current implementation, with and without a minimum score. It
+ * compares the average time and the allocated memory per score and checks that the exact scores
+ * are the same.
+ *
+ * <p>Usage: {@code LevenshteinComparison <tsv-file> [n-gram ...]}. If no n-grams are given, some
+ * n-grams of typical QALD questions are used.
+ */
+public class LevenshteinComparison {
+
+  private static final Logger log = LoggerFactory.getLogger(LevenshteinComparison.class);
+  private static final int MAX_KEYS = 10000;
+  private static final float MIN_SCORE = 0.5f;
+
+  /**
+   * Starts the comparison with the given tsv-file and n-grams.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      log.error("Usage: LevenshteinComparison <tsv-file> [n-gram ...]");
+      return;
+    }
+    List<String> nGrams = Benchmark.getNGrams(args);
+    List<String> keys = readKeys(args[0]);
+
+    EnergyFunctionInterface former = (nGram, foundURI, foundKey) ->
+        new LuceneLevenshteinDistance().getDistance(nGram.toLowerCase(), foundKey.toLowerCase());
+    EnergyFunctionInterface exact = new LevenshteinDistanceFunction();
+    EnergyFunctionInterface bounded = new LevenshteinDistanceFunction(MIN_SCORE);
+
+    int differences = 0;
+    for (String nGram : nGrams) {
+      for (String key : keys) {
+        if (former.calculateEnergyScore(nGram, null, key)
+            != exact.calculateEnergyScore(nGram, null, key)) {
+          differences++;
+        }
+      }
+    }
+    log.info("{} n-grams, {} keys, {} different scores.", nGrams.size(), keys.size(),
+        differences);
+    compare("lucene", former, nGrams, keys);
+    compare("levenshtein", exact, nGrams, keys);
+    compare("levenshtein (min score " + MIN_SCORE + ")", bounded, nGrams, keys);
+  }
+
+  private static List<String> readKeys(String file) throws IOException {
+    List<String> keys = new ArrayList<>();
+    try (FileHandlerInterface handler = new TsvFileHandler(file)) {
+      for (Entry<String, String> entry = handler.nextEntry();
+          entry != null && keys.size() < MAX_KEYS; entry = handler.nextEntry()) {
+        keys.add(entry.getKey());
+      }
+    }
+    return keys;
+  }
+
+  private static void compare(String name, EnergyFunctionInterface function, List<String> nGrams,
+      List<String> keys) {
+    Benchmark.Measurement measurement = Benchmark.measure(() -> scoreAll(function, nGrams, keys));
+    long scores = (long) nGrams.size() * keys.size();
+    long allocatedBytes = measurement.getAllocatedBytes();
+    log.info("{}: {}ns per score, {} bytes allocated per score.", name,
+        measurement.getTime() / scores, allocatedBytes < 0 ? "unknown" : allocatedBytes / scores);
+  }
+
+  private static float scoreAll(EnergyFunctionInterface function, List<String> nGrams,
+      List<String> keys) {
+    float sum = 0;
+    for (String nGram : nGrams) {
+      for (String key : keys) {
+        sum += function.calculateEnergyScore(nGram, null, key);
+      }
+    }
+    return sum;
+  }
+}
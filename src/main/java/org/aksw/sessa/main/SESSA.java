@@ -5,14 +5,21 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.aksw.sessa.candidate.Candidate;
 import org.aksw.sessa.candidate.CandidateGenerator;
 import org.aksw.sessa.colorspreading.ColorSpreader;
+import org.aksw.sessa.helper.cache.LruCache;
+import org.aksw.sessa.helper.cache.PersistentQueryCache;
 import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
 import org.aksw.sessa.helper.files.handler.RdfFileHandler;
 import org.aksw.sessa.helper.files.handler.ReverseTsvFileHandler;
@@ -24,10 +31,21 @@ import org.aksw.sessa.importing.config.exception.MalformedConfigurationException
 import org.aksw.sessa.importing.dictionary.FileBasedDictionary;
 import org.aksw.sessa.importing.dictionary.energy.EnergyFunctionInterface;
 import org.aksw.sessa.importing.dictionary.energy.LevenshteinDistanceFunction;
+import org.aksw.sessa.importing.dictionary.energy.MappedPageRankFunction;
 import org.aksw.sessa.importing.dictionary.energy.PageRankFunction;
+import org.aksw.sessa.importing.dictionary.implementation.CachingDictionary;
+import org.aksw.sessa.importing.dictionary.implementation.FstDictionary;
 import org.aksw.sessa.importing.dictionary.implementation.HashMapDictionary;
 import org.aksw.sessa.importing.dictionary.implementation.LuceneDictionary;
+import org.aksw.sessa.importing.dictionary.implementation.MappedDictionary;
 import org.aksw.sessa.importing.dictionary.util.Filter;
+import org.aksw.sessa.importing.rank.PageRankComputation;
+import org.aksw.sessa.importing.rank.PageRankTable;
+import org.aksw.sessa.importing.rdf.SparqlClient;
+import org.aksw.sessa.importing.rdf.SparqlGraphFiller;
+import org.aksw.sessa.importing.rdf.TripleSourceInterface;
+import org.aksw.sessa.importing.rdf.implementation.AdjacencyIndex;
+import org.aksw.sessa.importing.rdf.implementation.LocalTripleStore;
 import org.aksw.sessa.query.models.NGramEntryPosition;
 import org.aksw.sessa.query.models.NGramHierarchy;
 import org.aksw.sessa.query.models.QAModel;
@@ -41,21 +59,53 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Main class of project SESSA, which returns answers to asked questions.
+ * Main class of project SESSA, which returns answers to asked questions. An instance owns thread
+ * pools, a SPARQL client and the file of the SPARQL cache, so it has to be closed when it is not
+ * used anymore.
  */
-public class SESSA {
+public class SESSA implements AutoCloseable {
 
   private static final Logger log = LoggerFactory.getLogger(SESSA.class);
 
   private static final String DICTIONARY_TYPE = "dictionary.type";
+  private static final String DICTIONARY_CACHE_SIZE_KEY = "dictionary.cache.size";
+  private static final String IMPORT_THREADS_KEY = "dictionary.import.threads";
   private static final String ENERGY_FUNCTION_KEY = "dictionary.energy_function";
   private static final String FILES_KEY = "dictionary.files.location";
   private static final String FILTER_LIMITS_KEY = "dictionary.filter.limits";
   private static final String FILTER_NAMES_KEY = "dictionary.filter.names";
   private static final String LUCENE_LOCATION_KEY = "dictionary.lucene.location";
   private static final String LUCENE_OVERRIDE_KEY = "dictionary.lucene.override_on_start";
+  private static final String PAGERANK_TABLE_LOCATION_KEY = "dictionary.pagerank_table.location";
+  private static final String PAGERANK_TABLE_FILE_KEY = "dictionary.pagerank_table.file";
+  private static final String PAGERANK_TABLE_SOURCE_KEY = "dictionary.pagerank_table.source";
+  private static final String PAGERANK_TABLE_THREADS_KEY = "dictionary.pagerank_table.threads";
+  private static final String CANDIDATE_THREADS_KEY = "sessa.candidate_generation.threads";
+  private static final String EXPANSION_THREADS_KEY = "sessa.expansion.threads";
+  private static final String ANSWER_CACHE_SIZE_KEY = "sessa.answer_cache.size";
+  private static final String ANSWER_CACHE_TTL_KEY = "sessa.answer_cache.ttl";
+  private static final String SPARQL_CACHE_SIZE_KEY = "sessa.sparql_cache.size";
+  private static final String SPARQL_CACHE_TTL_KEY = "sessa.sparql_cache.ttl";
+  private static final String SPARQL_CACHE_LOCATION_KEY = "sessa.sparql_cache.location";
+  private static final String TRIPLE_SOURCE_KEY = "sessa.triple_source";
+  private static final String TRIPLE_SOURCE_FILE_KEY = "sessa.triple_source.file";
+  private static final String ADJACENCY_LOCATION_KEY = "sessa.triple_source.adjacency.location";
+  private static final String REMOTE_BATCH_SIZE_KEY = "sessa.triple_source.remote.batch_size";
 
   private FileBasedDictionary dictionary;
+  private ExecutorService candidateExecutor;
+  private ExecutorService expansionExecutor;
+  private LruCache<String, Set<String>> answerCache;
+  private TripleSourceInterface tripleSource;
+  private SparqlClient sparqlClient;
+  private PersistentQueryCache sparqlCache;
+  private PageRankTable pageRankTable;
+  private final Map<String, EnergyFunctionInterface> energyFunctions = new HashMap<>();
+  /**
+   * Is incremented every time the content, the filters or the energy function of the dictionary
+   * change. It is part of the key of the answer cache, so that old answers are not reused.
+   */
+  private volatile int dictionaryVersion;
   private QueryProcessingInterface queryProcess;
 
   private Configuration configuration;
@@ -80,20 +130,32 @@ public class SESSA {
     long startTime = System.nanoTime();
     queryProcess = new SimpleQueryProcessing();
     this.configuration = configuration;
-    dictionary = initDictionary();
+    answerCache = initAnswerCache(configuration);
+    dictionaryVersion = 0;
+    dictionary = initDictionaryCache(initDictionary());
 
     if (!configuration.getBoolean(LUCENE_OVERRIDE_KEY) &&
         dictionary.size() > 0) {
       log.info("Skipping building dictionary.");
     } else {
       log.info("Building dictionary from files. This could take some time!");
+      dictionary.startBulkLoad();
       loadDictionaries(configuration);
+      dictionary.finishBulkLoad();
       long endTime = System.nanoTime();
       log.info("Finished importing dictionary (in {}sec).",
           (endTime - startTime) / (1000 * 1000 * 1000));
     }
     addFilters(configuration);
     applyEnergyFunction(configuration);
+    try {
+      candidateExecutor = initCandidateExecutor(configuration);
+      tripleSource = initTripleSource(configuration);
+      expansionExecutor = initExpansionExecutor(configuration);
+    } catch (MalformedConfigurationException | RuntimeException e) {
+      close();
+      throw e;
+    }
   }
 
   /**
@@ -103,6 +165,7 @@ public class SESSA {
    */
   public void loadFileToDictionary(FileHandlerInterface handler) {
     dictionary.putAll(handler);
+    dictionaryVersion++;
   }
 
 
@@ -114,6 +177,7 @@ public class SESSA {
    */
   public void addFilter(Filter filter) {
     dictionary.addFilter(filter);
+    dictionaryVersion++;
   }
 
   /**
@@ -123,13 +187,26 @@ public class SESSA {
    */
   public void setEnergyFunction(EnergyFunctionInterface function) {
     dictionary.setEnergyFunction(function);
+    dictionaryVersion++;
+  }
+
+  /**
+   * Returns the cache for the answers of {@link #answer(String)}, e.g. to read its hit and miss
+   * counters.
+   *
+   * @return the answer cache or null if caching is disabled
+   */
+  public LruCache<String, Set<String>> getAnswerCache() {
+    return answerCache;
   }
 
   /**
    * This method tries to answer the given question using the method described in the <a href=
    * "https://docs.google.com/viewer?a=v&pid=sites&srcid=ZGVmYXVsdGRvbWFpbnxubGl3b2QyMDE0fGd4Ojc5NjU1YjhhMzNhMDczNWI"
    * >corresponding paper</a>. The answer is a set of strings containing the URIs with the highest
-   * likelihood to be the answer (i.e. with the highest explanation score).
+   * likelihood to be the answer (i.e. with the highest explanation score). Answers are cached for
+   * the processed question, if the answer cache is enabled. Questions with more than {@link
+   * NGramHierarchy#MAX_WORDS} words cannot be answered, so their answer is empty.
    *
    * @param question the question that should be answered (for now keyword based, i.e. 'birthplace
    * bill gates wife' instead of "Where was Bill Gates' wife born")
@@ -139,11 +216,25 @@ public class SESSA {
     if (question.equals("")) {
       return null;
     } else {
+      NGramHierarchy nGramHierarchy;
+      try {
+        nGramHierarchy = queryProcess.processQuery(question);
+      } catch (IllegalArgumentException e) {
+        log.warn("Cannot answer question '{}': {}", question, e.getMessage());
+        return new HashSet<>();
+      }
+      String cacheKey = dictionaryVersion + "|" + nGramHierarchy.toString();
+      if (answerCache != null) {
+        Set<String> cachedResults = answerCache.get(cacheKey);
+        if (cachedResults != null) {
+          log.debug("Found answer for '{}' in cache.", question);
+          return new HashSet<>(cachedResults);
+        }
+      }
       QAModel qaModel = new QAModel();
       qaModel.setQuestion(question);
-      NGramHierarchy nGramHierarchy = queryProcess.processQuery(question);
       qaModel.setNGramHierarchy(nGramHierarchy);
-      CandidateGenerator canGen = new CandidateGenerator(dictionary);
+      CandidateGenerator canGen = new CandidateGenerator(dictionary, candidateExecutor);
       Map<NGramEntryPosition, Set<Candidate>> canMap = canGen.getCandidateMapping(nGramHierarchy);
       qaModel.setCandidateMap(canMap);
       log.debug("Candidate map content:");
@@ -154,15 +245,19 @@ public class SESSA {
             nGramHierarchy.getNGram(pos.getLength(), pos.getPosition()),
             entry.getValue());
       }
-      ColorSpreader colorSpreader = new ColorSpreader(canMap);
+      ColorSpreader colorSpreader = new ColorSpreader(canMap, tripleSource, expansionExecutor);
       colorSpreader.spreadColors();
       log.debug("{}", colorSpreader.getGraph());
+      qaModel.setUriIndex(colorSpreader.getUriIndex());
       qaModel.setResults(colorSpreader.getResult());
-      PostProcessing postProc = new PostProcessing();
+      PostProcessing postProc = new PostProcessing(tripleSource);
       qaModel = postProc.process(qaModel);
       Set<String> stringResults = new HashSet<>();
       for (Node result : qaModel.getResults()) {
-        stringResults.add(result.getContent().toString());
+        stringResults.add(qaModel.getUriIndex().getUri((Integer) result.getContent()));
+      }
+      if (answerCache != null) {
+        answerCache.put(cacheKey, new HashSet<>(stringResults));
       }
       return stringResults;
     }
@@ -176,7 +271,7 @@ public class SESSA {
    */
   GraphInterface getGraphFor(String question) {
     NGramHierarchy nGramHierarchy = queryProcess.processQuery(question);
-    CandidateGenerator canGen = new CandidateGenerator(dictionary);
+    CandidateGenerator canGen = new CandidateGenerator(dictionary, candidateExecutor);
     Map<NGramEntryPosition, Set<Candidate>> canMap = canGen.getCandidateMapping(nGramHierarchy);
     log.debug("Candidate map content:");
     for (Entry<NGramEntryPosition, Set<Candidate>> entry : canMap.entrySet()) {
@@ -186,7 +281,7 @@ public class SESSA {
           nGramHierarchy.getNGram(pos.getLength(), pos.getPosition()),
           entry.getValue());
     }
-    ColorSpreader colorSpreader = new ColorSpreader(canMap);
+    ColorSpreader colorSpreader = new ColorSpreader(canMap, tripleSource, expansionExecutor);
     colorSpreader.spreadColors();
     return colorSpreader.getGraph();
   }
@@ -205,7 +300,7 @@ public class SESSA {
       qaModel.setQuestion(question);
       NGramHierarchy nGramHierarchy = queryProcess.processQuery(question);
       qaModel.setNGramHierarchy(nGramHierarchy);
-      CandidateGenerator canGen = new CandidateGenerator(dictionary);
+      CandidateGenerator canGen = new CandidateGenerator(dictionary, candidateExecutor);
       Map<NGramEntryPosition, Set<Candidate>> canMap = canGen.getCandidateMapping(nGramHierarchy);
       qaModel.setCandidateMap(canMap);
       log.debug("Candidate map content:");
@@ -216,17 +311,42 @@ public class SESSA {
             nGramHierarchy.getNGram(pos.getLength(), pos.getPosition()),
             entry.getValue());
       }
-      ColorSpreader colorSpreader = new ColorSpreader(canMap);
+      ColorSpreader colorSpreader = new ColorSpreader(canMap, tripleSource, expansionExecutor);
       colorSpreader.spreadColors();
       log.debug("{}", colorSpreader.getGraph());
       qaModel.setGraph(colorSpreader.getGraph());
+      qaModel.setUriIndex(colorSpreader.getUriIndex());
       qaModel.setResults(colorSpreader.getResult());
-      PostProcessing postProc = new PostProcessing();
+      PostProcessing postProc = new PostProcessing(tripleSource);
       QAModel postQaModel = postProc.process(qaModel);
       return new QAModel[]{qaModel, postQaModel};
     }
   }
 
+  /**
+   * Shuts down the thread pools of this instance and closes its SPARQL client and SPARQL cache.
+   * Running look ups are finished, but no questions can be answered afterwards.
+   */
+  @Override
+  public void close() {
+    if (candidateExecutor != null) {
+      candidateExecutor.shutdown();
+    }
+    if (expansionExecutor != null) {
+      expansionExecutor.shutdown();
+    }
+    if (sparqlClient != null) {
+      sparqlClient.close();
+    }
+    if (sparqlCache != null) {
+      try {
+        sparqlCache.close();
+      } catch (IOException ioE) {
+        log.error("Could not close SPARQL cache: {}", ioE.getLocalizedMessage());
+      }
+    }
+  }
+
   private FileBasedDictionary initDictionary()
       throws MalformedConfigurationException {
     switch (configuration.getString(DICTIONARY_TYPE)) {
@@ -241,6 +361,17 @@ public class SESSA {
       case "hashmap":
         log.info("Using HashMap-based Dictionary.");
         return new HashMapDictionary();
+      case "fst":
+        log.info("Using FST-based Dictionary.");
+        return new FstDictionary();
+      case "mapped":
+        log.info("Using memory-mapped Dictionary.");
+        MappedDictionary mappedDict = new MappedDictionary();
+        if (configuration.getBoolean(LUCENE_OVERRIDE_KEY)) {
+          log.debug("Application configured to delete dictionary on startup. Deleting...");
+          mappedDict.clear();
+        }
+        return mappedDict;
       default:
         throw new MalformedConfigurationException(
             String.format("Could not determine value of property '%s'", DICTIONARY_TYPE));
@@ -248,40 +379,193 @@ public class SESSA {
   }
 
 
-  private void loadDictionaries(BaseHierarchicalConfiguration configuration) {
+  private FileBasedDictionary initDictionaryCache(FileBasedDictionary dictionary)
+      throws MalformedConfigurationException {
+    int size = configuration.getInt(DICTIONARY_CACHE_SIZE_KEY, 0);
+    if (size < 0) {
+      throw new MalformedConfigurationException(
+          String.format("Value of property '%s' must not be negative. Given value: %d",
+              DICTIONARY_CACHE_SIZE_KEY, size));
+    }
+    if (size == 0) {
+      return dictionary;
+    }
+    log.info("Caching the candidates of up to {} n-grams.", size);
+    return new CachingDictionary(dictionary, size);
+  }
+
+  private LruCache<String, Set<String>> initAnswerCache(
+      BaseHierarchicalConfiguration configuration) throws MalformedConfigurationException {
+    int size = configuration.getInt(ANSWER_CACHE_SIZE_KEY, 0);
+    long timeToLive = configuration.getLong(ANSWER_CACHE_TTL_KEY, 0);
+    if (size < 0 || timeToLive < 0) {
+      throw new MalformedConfigurationException(
+          String.format("Values of properties '%s' and '%s' must not be negative.",
+              ANSWER_CACHE_SIZE_KEY, ANSWER_CACHE_TTL_KEY));
+    }
+    if (size == 0) {
+      log.info("Answer cache is disabled.");
+      return null;
+    }
+    log.info("Caching up to {} answers (time to live: {}sec).", size, timeToLive);
+    return new LruCache<>(size, timeToLive * 1000);
+  }
+
+  private ExecutorService initCandidateExecutor(BaseHierarchicalConfiguration configuration)
+      throws MalformedConfigurationException {
+    int threads = configuration.getInt(CANDIDATE_THREADS_KEY, 1);
+    if (threads < 0) {
+      throw new MalformedConfigurationException(
+          String.format("Value of property '%s' has to be positive or 0. Given value: %d",
+              CANDIDATE_THREADS_KEY, threads));
+    }
+    if (threads == 1) {
+      log.info("Generating candidates sequentially.");
+      return null;
+    }
+    if (threads == 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+    log.info("Generating candidates in parallel with {} threads.", threads);
+    return new ForkJoinPool(threads);
+  }
+
+  private PersistentQueryCache initSparqlCache(
+      BaseHierarchicalConfiguration configuration) throws MalformedConfigurationException {
+    int size = configuration.getInt(SPARQL_CACHE_SIZE_KEY, 0);
+    long timeToLive = configuration.getLong(SPARQL_CACHE_TTL_KEY, 0);
+    if (size < 0 || timeToLive < 0) {
+      throw new MalformedConfigurationException(
+          String.format("Values of properties '%s' and '%s' must not be negative.",
+              SPARQL_CACHE_SIZE_KEY, SPARQL_CACHE_TTL_KEY));
+    }
+    if (size == 0) {
+      log.info("SPARQL cache is disabled.");
+      return null;
+    }
+    String location = configuration.getString(SPARQL_CACHE_LOCATION_KEY);
+    log.info("Caching up to {} SPARQL results in '{}' (time to live: {}sec).", size, location,
+        timeToLive);
+    try {
+      return new PersistentQueryCache(Paths.get(location), size, timeToLive * 1000);
+    } catch (IOException ioE) {
+      throw new MalformedConfigurationException(
+          String.format("Could not open SPARQL cache '%s': %s", location,
+              ioE.getLocalizedMessage()));
+    }
+  }
+
+  private ExecutorService initExpansionExecutor(BaseHierarchicalConfiguration configuration)
+      throws MalformedConfigurationException {
+    int threads = configuration.getInt(EXPANSION_THREADS_KEY, 1);
+    if (threads < 1) {
+      throw new MalformedConfigurationException(
+          String.format("Value of property '%s' has to be positive. Given value: %d",
+              EXPANSION_THREADS_KEY, threads));
+    }
+    if (threads == 1) {
+      log.info("Expanding graph with sequential look ups.");
+      return null;
+    }
+    log.info("Expanding graph with up to {} concurrent look ups.", threads);
+    return new ForkJoinPool(threads);
+  }
+
+  private TripleSourceInterface initTripleSource(BaseHierarchicalConfiguration configuration)
+      throws MalformedConfigurationException {
+    switch (configuration.getString(TRIPLE_SOURCE_KEY, "remote")) {
+      case "remote":
+        log.info("Using DBpedia-SPARQL endpoint as triple source.");
+        int batchSize =
+            configuration.getInt(REMOTE_BATCH_SIZE_KEY, SparqlGraphFiller.DEFAULT_BATCH_SIZE);
+        if (batchSize < 1) {
+          throw new MalformedConfigurationException(
+              String.format("Value of property '%s' has to be positive. Given value: %d",
+                  REMOTE_BATCH_SIZE_KEY, batchSize));
+        }
+        sparqlCache = initSparqlCache(configuration);
+        return new SparqlGraphFiller(null, sparqlCache, batchSize, getSparqlClient());
+      case "local":
+        log.info("Using local triple store as triple source.");
+        LocalTripleStore store = new LocalTripleStore();
+        if (store.isEmpty()) {
+          store.load(getTripleSourceFile(configuration));
+        }
+        return store;
+      case "adjacency":
+        log.info("Using adjacency index as triple source.");
+        Path location = Paths.get(configuration.getString(ADJACENCY_LOCATION_KEY));
+        try {
+          if (!Files.exists(location)) {
+            AdjacencyIndex.build(getTripleSourceFile(configuration), location);
+          }
+          return new AdjacencyIndex(location.toString());
+        } catch (IOException ioE) {
+          throw new MalformedConfigurationException(
+              String.format("Could not open adjacency index '%s': %s", location,
+                  ioE.getLocalizedMessage()));
+        }
+      default:
+        throw new MalformedConfigurationException(
+            String.format("Could not determine value of property '%s'", TRIPLE_SOURCE_KEY));
+    }
+  }
+
+  private SparqlClient getSparqlClient() {
+    if (sparqlClient == null) {
+      sparqlClient = SparqlClient.fromConfiguration(configuration);
+    }
+    return sparqlClient;
+  }
+
+  private String getTripleSourceFile(BaseHierarchicalConfiguration configuration)
+      throws MalformedConfigurationException {
+    String file = configuration.getString(TRIPLE_SOURCE_FILE_KEY);
+    if (file == null) {
+      throw new MalformedConfigurationException(
+          String.format("Triple source is empty and property '%s' is not set.",
+              TRIPLE_SOURCE_FILE_KEY));
+    }
+    return file;
+  }
+
+  private void loadDictionaries(BaseHierarchicalConfiguration configuration)
+      throws MalformedConfigurationException {
     HierarchicalConfiguration subConfig = configuration.configurationAt(FILES_KEY);
+    Map<String, FileHandlerInterface> handlers = new LinkedHashMap<>();
     if (subConfig.containsKey("rdf")) {
       log.info("Found entry for rdf-files in configuration file. Importing...");
-      loadSingleDictionary(new RdfFileHandler(), subConfig.getString("rdf"));
+      collectFiles(handlers, RdfFileHandler::new, subConfig.getString("rdf"));
     }
     if (subConfig.containsKey("tsv")) {
       log.info("Found entry for tsv-files in configuration file. Importing...");
-      loadSingleDictionary(new TsvFileHandler(), subConfig.getString("tsv"));
+      collectFiles(handlers, TsvFileHandler::new, subConfig.getString("tsv"));
     }
     if (subConfig.containsKey("reverse_tsv")) {
       log.info("Found entry for reverse tsv-files in configuration file. Importing...");
-      loadSingleDictionary(new ReverseTsvFileHandler(), subConfig.getString("reverse_tsv"));
+      collectFiles(handlers, ReverseTsvFileHandler::new, subConfig.getString("reverse_tsv"));
+    }
+    int threads = configuration.getInt(IMPORT_THREADS_KEY, 1);
+    if (threads < 0) {
+      throw new MalformedConfigurationException(
+          String.format("Value of property '%s' must not be negative. Given value: %d",
+              IMPORT_THREADS_KEY, threads));
+    }
+    if (threads == 0) {
+      threads = Runtime.getRuntime().availableProcessors();
     }
+    dictionary.putAll(handlers, threads);
+    dictionaryVersion++;
   }
 
 
-  private void loadSingleDictionary(FileHandlerInterface handler,
-      String pathString) {
+  private void collectFiles(Map<String, FileHandlerInterface> handlers,
+      Supplier<FileHandlerInterface> handlerFactory, String pathString) {
     log.debug("Path to files is '{}'", pathString);
     try (Stream<Path> path = Files.walk(Paths.get(pathString))) {
       path
           .filter(Files::isRegularFile)
-          .forEach((Path file) -> {
-            try {
-              log.info("Loading file '{}' to dictionary via {}.",
-                  file.toString(),
-                  handler.getClass().getSimpleName());
-              handler.loadFile(file.toString());
-              loadFileToDictionary(handler);
-            } catch (IOException ioE) {
-              log.error(ioE.getLocalizedMessage());
-            }
-          });
+          .forEach((Path file) -> handlers.put(file.toString(), handlerFactory.get()));
     } catch (IOException ioE) {
       log.warn(
           "Could not load any file in given path '{}'.", pathString);
@@ -302,7 +586,7 @@ public class SESSA {
     }
     int length = filters[0].length < filters[1].length ? filters[0].length : filters[1].length;
     for (int i = 0; i < length; i++) {
-      EnergyFunctionInterface function = getFunction(filters[0][i]);
+      EnergyFunctionInterface function = getFunction(filters[0][i], configuration);
       int limit;
       try {
         limit = Integer.parseInt(filters[1][i]);
@@ -317,15 +601,32 @@ public class SESSA {
     }
   }
 
-  private EnergyFunctionInterface getFunction(String functionName)
-      throws MalformedConfigurationException {
+  /**
+   * Returns the energy function with the given name. Every function is only created once, so that
+   * the filters and the energy function share it and it is applied once per candidate.
+   */
+  private EnergyFunctionInterface getFunction(String functionName,
+      BaseHierarchicalConfiguration configuration) throws MalformedConfigurationException {
+    EnergyFunctionInterface function = energyFunctions.get(functionName);
+    if (function == null) {
+      function = createFunction(functionName, configuration);
+      energyFunctions.put(functionName, function);
+    }
+    return function;
+  }
+
+  private EnergyFunctionInterface createFunction(String functionName,
+      BaseHierarchicalConfiguration configuration) throws MalformedConfigurationException {
     switch (functionName) {
       case "levenshtein":
         log.debug("Add Levenshtein filter.");
         return new LevenshteinDistanceFunction();
       case "pagerank":
         log.debug("Add PageRank filter.");
-        return new PageRankFunction();
+        return new PageRankFunction(getSparqlClient());
+      case "pagerank_table":
+        log.debug("Add PageRank filter with precomputed table.");
+        return new MappedPageRankFunction(getPageRankTable(configuration));
       default:
         throw new MalformedConfigurationException(
             String.format("Could not determine value of property '%s'. Given value: %s",
@@ -334,10 +635,68 @@ public class SESSA {
   }
 
 
+  /**
+   * Opens the PageRank table, which is shared by all functions using it. If the table does not
+   * exist, it is built from the vrank dump or computed from the triple dump given in the
+   * configuration.
+   */
+  private PageRankTable getPageRankTable(BaseHierarchicalConfiguration configuration)
+      throws MalformedConfigurationException {
+    if (pageRankTable == null) {
+      Path location = Paths.get(configuration.getString(PAGERANK_TABLE_LOCATION_KEY));
+      try {
+        if (!Files.exists(location)) {
+          createPageRankTable(configuration, location);
+        }
+        pageRankTable = new PageRankTable(location.toString());
+      } catch (IOException ioE) {
+        throw new MalformedConfigurationException(
+            String.format("Could not open PageRank table '%s': %s", location,
+                ioE.getLocalizedMessage()));
+      }
+    }
+    return pageRankTable;
+  }
+
+  private void createPageRankTable(BaseHierarchicalConfiguration configuration, Path location)
+      throws MalformedConfigurationException, IOException {
+    String source = configuration.getString(PAGERANK_TABLE_SOURCE_KEY, "vrank");
+    switch (source.toLowerCase()) {
+      case "vrank":
+        String file = configuration.getString(PAGERANK_TABLE_FILE_KEY);
+        if (file == null) {
+          throw new MalformedConfigurationException(
+              String.format("PageRank table does not exist and property '%s' is not set.",
+                  PAGERANK_TABLE_FILE_KEY));
+        }
+        PageRankTable.build(file, location);
+        break;
+      case "graph":
+        String tripleFile = configuration.getString(TRIPLE_SOURCE_FILE_KEY);
+        if (tripleFile == null) {
+          throw new MalformedConfigurationException(
+              String.format("PageRank table does not exist and property '%s' is not set.",
+                  TRIPLE_SOURCE_FILE_KEY));
+        }
+        int threads = configuration.getInt(PAGERANK_TABLE_THREADS_KEY, 0);
+        if (threads < 0) {
+          throw new MalformedConfigurationException(
+              String.format("Value of property '%s' has to be positive or 0. Given value: %d",
+                  PAGERANK_TABLE_THREADS_KEY, threads));
+        }
+        new PageRankComputation(threads).compute(tripleFile, location);
+        break;
+      default:
+        throw new MalformedConfigurationException(
+            String.format("Could not determine value of property '%s'. Given value: %s",
+                PAGERANK_TABLE_SOURCE_KEY, source));
+    }
+  }
+
   private void applyEnergyFunction(BaseHierarchicalConfiguration configuration)
       throws MalformedConfigurationException {
     String energyFunctionName = configuration.getString(ENERGY_FUNCTION_KEY);
-    EnergyFunctionInterface lFunction = getFunction(energyFunctionName);
+    EnergyFunctionInterface lFunction = getFunction(energyFunctionName, configuration);
     setEnergyFunction(lFunction);
   }
 }
\ No newline at end of file
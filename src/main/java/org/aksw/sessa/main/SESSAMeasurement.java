@@ -67,6 +67,7 @@ public class SESSAMeasurement {
     log.debug("The questions are: {}", questionsAnswered);
     log.debug("Final F-measure for questions which where at least partially answered correct: {}",
         answerFMeasure / questionsAnswered.size());
+    myMess.sessa.close();
   }
 
 }
@@ -0,0 +1,125 @@
+package org.aksw.sessa.query.models;
+
+/**
+ * Provides the checks to handle sets of colors (see {@link NGramEntryPosition}) as bit sets. The
+ * bit of a color is its index (see {@link NGramEntryPosition#getIndex()}), so the colors of a
+ * question with n words are the bits 0 to n(n+1)/2 - 1, independent of the question. Every color
+ * is described by the mask of the words it covers. Two colors overlap if their word masks
+ * intersect, and they are related if the word mask of one contains the other. Because a question
+ * has at most {@link NGramHierarchy#MAX_WORDS} words, a word mask fits into a long and the word
+ * masks of all colors are computed once, so checking colors does not allocate memory.
+ */
+public final class ColorMasks {
+
+  /**
+   * Contains the number of colors of a question with the maximum number of words.
+   */
+  public static final int MAX_COLORS = NGramHierarchy.MAX_WORDS * (NGramHierarchy.MAX_WORDS + 1)
+      / 2;
+
+  private static final long[] WORD_MASKS = new long[MAX_COLORS];
+
+  static {
+    for (int index = 0; index < MAX_COLORS; index++) {
+      NGramEntryPosition color = NGramEntryPosition.fromIndex(index);
+      WORD_MASKS[index] = (-1L >>> (Long.SIZE - color.getLength())) << color.getPosition();
+    }
+  }
+
+  private ColorMasks() {
+  }
+
+  /**
+   * Returns the mask of the words which are covered by the color with the given index.
+   *
+   * @param index index of the color
+   * @return mask of the covered words
+   * @throws IllegalArgumentException if the color belongs to no question with at most {@link
+   * NGramHierarchy#MAX_WORDS} words
+   */
+  public static long getWordMask(int index) {
+    if (index < 0 || index >= MAX_COLORS) {
+      throw new IllegalArgumentException("Color " + index + " belongs to no question with at most "
+          + NGramHierarchy.MAX_WORDS + " words.");
+    }
+    return WORD_MASKS[index];
+  }
+
+  /**
+   * Returns the mask of the words which are covered by any of the given colors.
+   *
+   * @param bits bit set of colors
+   * @return mask of the covered words
+   */
+  public static long getWordMask(long[] bits) {
+    long mask = 0;
+    for (int index = nextSetBit(bits, 0); index >= 0; index = nextSetBit(bits, index + 1)) {
+      mask |= WORD_MASKS[index];
+    }
+    return mask;
+  }
+
+  /**
+   * Returns the length of the color with the given index, i.e. its explanation.
+   *
+   * @param index index of the color
+   * @return length of the color
+   */
+  public static int getLength(int index) {
+    return Long.bitCount(getWordMask(index));
+  }
+
+  /**
+   * Returns true if the colors with the given word masks are not mergeable, i.e. if they overlap,
+   * but are not related.
+   *
+   * @param wordMask word mask of the first color
+   * @param otherWordMask word mask of the second color
+   * @return true if the colors are conflicting
+   * @see NGramEntryPosition#isMergeable(NGramEntryPosition)
+   */
+  public static boolean isConflicting(long wordMask, long otherWordMask) {
+    long shared = wordMask & otherWordMask;
+    return shared != 0 && shared != wordMask && shared != otherWordMask;
+  }
+
+  /**
+   * Returns the index of the first set bit at or after the given index.
+   *
+   * @param bits bit set
+   * @param fromIndex index from which the bit set is searched
+   * @return index of the next set bit, -1 if there is none
+   */
+  public static int nextSetBit(long[] bits, int fromIndex) {
+    int word = fromIndex / Long.SIZE;
+    if (word >= bits.length) {
+      return -1;
+    }
+    long remaining = bits[word] & (-1L << fromIndex);
+    while (remaining == 0) {
+      if (++word == bits.length) {
+        return -1;
+      }
+      remaining = bits[word];
+    }
+    return word * Long.SIZE + Long.numberOfTrailingZeros(remaining);
+  }
+
+  /**
+   * Returns a bit set which can hold the given index, i.e. the given bit set or a copy which is just
+   * long enough.
+   *
+   * @param bits bit set
+   * @param index index which should be stored
+   * @return bit set which can hold the index
+   */
+  public static long[] ensureCapacity(long[] bits, int index) {
+    int words = index / Long.SIZE + 1;
+    if (bits.length >= words) {
+      return bits;
+    }
+    long[] copy = new long[words];
+    System.arraycopy(bits, 0, copy, 0, bits.length);
+    return copy;
+  }
+}
@@ -48,35 +48,51 @@ public class NGramEntryPosition {
   }
 
   /**
-   * Returns a set of all positional information of descendants of this n-gram entry.
+   * Returns the index of this position among all positions. The positions are numbered by their
+   * last word and then by their first word, so the positions of an n-gram with n words have the
+   * indices 0 to n(n+1)/2 - 1, whatever the length of the n-gram is. The index is used as bit of
+   * this color in the bit sets of the nodes (see {@link ColorMasks}).
    *
-   * @return all positional informtion of descendats of this entry
+   * @return index of this position
    */
-  public Set<NGramEntryPosition> getAllDescendants() {
-    return getAllDescendants(this);
+  public int getIndex() {
+    int lastWord = position + length - 1;
+    return lastWord * (lastWord + 1) / 2 + position;
   }
 
   /**
-   * This method is used for recursive calls to get all decendants for this n-gram position.
+   * Returns the position with the given index (see {@link #getIndex()}).
    *
-   * @param pos position of the ngram entry for which the decendants should be searched for
-   * @return all descendants of the given node
-   * @see #getAllDescendants()
-   */
-  private Set<NGramEntryPosition> getAllDescendants(NGramEntryPosition pos) {
-    if (pos.getLength() == 1) {
-      return new HashSet<>();
-    } else {
-      Set<NGramEntryPosition> descendants = new HashSet<>();
-      NGramEntryPosition child1 = new NGramEntryPosition(pos.getLength() - 1, pos.getPosition());
-      NGramEntryPosition child2 = new NGramEntryPosition(pos.getLength() - 1,
-          pos.getPosition() + 1);
-      descendants.add(child1);
-      descendants.add(child2);
-      descendants.addAll(getAllDescendants(child1));
-      descendants.addAll(getAllDescendants(child2));
-      return descendants;
+   * @param index index of the position
+   * @return position with the given index
+   */
+  public static NGramEntryPosition fromIndex(int index) {
+    int lastWord = (int) ((Math.sqrt(8.0 * index + 1) - 1) / 2);
+    while (lastWord * (lastWord + 1) / 2 > index) {
+      lastWord--;
+    }
+    while ((lastWord + 1) * (lastWord + 2) / 2 <= index) {
+      lastWord++;
+    }
+    int position = index - lastWord * (lastWord + 1) / 2;
+    return new NGramEntryPosition(lastWord - position + 1, position);
+  }
+
+  /**
+   * Returns a set of all positional information of descendants of this n-gram entry. To look up
+   * the descendants repeatedly, use {@link NGramPositionTable#getDescendants(NGramEntryPosition)}.
+   *
+   * @return all positional informtion of descendats of this entry
+   */
+  public Set<NGramEntryPosition> getAllDescendants() {
+    Set<NGramEntryPosition> descendants = new HashSet<>();
+    for (int childLength = length - 1; childLength > 0; childLength--) {
+      for (int childPosition = position; childPosition + childLength <= position + length;
+          childPosition++) {
+        descendants.add(new NGramEntryPosition(childLength, childPosition));
+      }
     }
+    return descendants;
   }
 
   /**
@@ -169,7 +185,10 @@ public class NGramEntryPosition {
    * @return true if this color is an ancestor of the given color, false otherwise
    */
   public boolean isAncestorOf(NGramEntryPosition otherColor) {
-    return this.getAllDescendants().contains(otherColor);
+    return otherColor.getLength() < this.getLength()
+        && this.getPosition() <= otherColor.getPosition()
+        && otherColor.getPosition() + otherColor.getLength()
+        <= this.getPosition() + this.getLength();
   }
 
   /**
@@ -15,6 +15,13 @@ import java.util.Set;
  */
 public class NGramHierarchy {
 
+  /**
+   * Contains the maximum number of words of an n-gram. The colors of the nodes (see {@link
+   * ColorMasks}) are only defined for n-grams up to this length, and the number of positions grows
+   * quadratically with it.
+   */
+  public static final int MAX_WORDS = Long.SIZE;
+
   private List<String> nGram;
 
   /**
@@ -22,10 +29,11 @@ public class NGramHierarchy {
    * orginal n-gram "birthplace bill gates" has to be given as '["birthplace", "bill", "gates"]'.
    *
    * @param nGram already split n-gram
+   * @throws IllegalArgumentException if the n-gram has more than {@link #MAX_WORDS} words
    */
   public NGramHierarchy(String[] nGram) {
     this.nGram = new ArrayList<>();
-    this.nGram.addAll(Arrays.asList(nGram));
+    extendHierarchy(nGram);
   }
 
   /**
@@ -33,6 +41,7 @@ public class NGramHierarchy {
    * one single space.
    *
    * @param nGram n-gram in String-representation
+   * @throws IllegalArgumentException if the n-gram has more than {@link #MAX_WORDS} words
    */
   public NGramHierarchy(String nGram) {
     this(nGram.split(" "));
@@ -157,13 +166,19 @@ public class NGramHierarchy {
    * @see NGramEntryPosition
    */
   public Set<NGramEntryPosition> getAllPositions() {
-    Set<NGramEntryPosition> positions = new HashSet<>();
-    for (int l = nGram.size(); l > 0; l--) {
-      for (int i = 0; i + l <= nGram.size(); i++) {
-        positions.add(new NGramEntryPosition(l, i));
-      }
-    }
-    return positions;
+    return new HashSet<>(getPositionTable().getPositions());
+  }
+
+  /**
+   * Returns the table of all positions of this n-gram hierarchy and their relations. The table is
+   * shared by all hierarchies with the same number of words, so it changes when the hierarchy is
+   * extended.
+   *
+   * @return table of all positions
+   * @see NGramPositionTable
+   */
+  public NGramPositionTable getPositionTable() {
+    return NGramPositionTable.forWords(nGram.size());
   }
 
   /**
@@ -179,8 +194,14 @@ public class NGramHierarchy {
    * Extends the hierarchy by adding additional keywords (as array) at the end.
    *
    * @param extension array of strings which should be added
+   * @throws IllegalArgumentException if the extended n-gram would have more than {@link
+   * #MAX_WORDS} words
    */
   public void extendHierarchy(String[] extension) {
+    if (nGram.size() + extension.length > MAX_WORDS) {
+      throw new IllegalArgumentException("An n-gram may have at most " + MAX_WORDS + " words, got "
+          + (nGram.size() + extension.length) + ".");
+    }
     this.nGram.addAll(Arrays.asList(extension));
   }
 
@@ -188,6 +209,8 @@ public class NGramHierarchy {
    * Extends the hierarchy by adding additional keywords at the end.
    *
    * @param extension array of strings which should be added
+   * @throws IllegalArgumentException if the extended n-gram would have more than {@link
+   * #MAX_WORDS} words
    */
   public void extendHierarchy(String extension) {
     extendHierarchy(extension.split(" "));
@@ -0,0 +1,155 @@
+package org.aksw.sessa.query.models;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * This class holds all positions of an n-gram hierarchy (see {@link NGramHierarchy}) and the
+ * relations between them. The table only depends on the number of words, so there is one shared,
+ * immutable table per number of words up to {@link NGramHierarchy#MAX_WORDS}. Every position is
+ * created once and stored by its index (see {@link NGramEntryPosition#getIndex()}), which is the
+ * same for all numbers of words. The descendants of a position are a view computed in closed
+ * form, so looking them up takes constant time and does not allocate memory.
+ */
+public final class NGramPositionTable {
+
+  private static final NGramEntryPosition[] POSITIONS =
+      new NGramEntryPosition[ColorMasks.MAX_COLORS];
+  private static final List<List<NGramEntryPosition>> DESCENDANTS;
+  private static final NGramPositionTable[] TABLES =
+      new NGramPositionTable[NGramHierarchy.MAX_WORDS + 1];
+
+  static {
+    for (int index = 0; index < POSITIONS.length; index++) {
+      POSITIONS[index] = NGramEntryPosition.fromIndex(index);
+    }
+    DescendantList[] lists = new DescendantList[POSITIONS.length];
+    for (int index = 0; index < POSITIONS.length; index++) {
+      lists[index] = new DescendantList(POSITIONS[index]);
+    }
+    DESCENDANTS = Collections.unmodifiableList(Arrays.asList(lists));
+    for (int words = 0; words < TABLES.length; words++) {
+      TABLES[words] = new NGramPositionTable(words);
+    }
+  }
+
+  private final int words;
+  private final List<NGramEntryPosition> positionList;
+
+  private NGramPositionTable(int words) {
+    this.words = words;
+    positionList = Collections.unmodifiableList(
+        Arrays.asList(POSITIONS).subList(0, words * (words + 1) / 2));
+  }
+
+  /**
+   * Returns the table for an n-gram with the given number of words.
+   *
+   * @param words number of words of the n-gram
+   * @return shared table for the given number of words
+   * @throws IllegalArgumentException if the n-gram has more than {@link NGramHierarchy#MAX_WORDS}
+   * words
+   */
+  public static NGramPositionTable forWords(int words) {
+    if (words < 0 || words > NGramHierarchy.MAX_WORDS) {
+      throw new IllegalArgumentException(
+          "An n-gram may have at most " + NGramHierarchy.MAX_WORDS + " words, got " + words + ".");
+    }
+    return TABLES[words];
+  }
+
+  /**
+   * Returns the number of words of the n-gram.
+   *
+   * @return number of words
+   */
+  public int getWords() {
+    return words;
+  }
+
+  /**
+   * Returns all positions of the n-gram, ordered by their index.
+   *
+   * @return all positions of the n-gram
+   */
+  public List<NGramEntryPosition> getPositions() {
+    return positionList;
+  }
+
+  /**
+   * Returns the stored position with the given length and position in its "row".
+   *
+   * @param length length of the n-gram
+   * @param position position in the "row"
+   * @return stored position
+   * @throws IndexOutOfBoundsException if the n-gram has no such position
+   */
+  public NGramEntryPosition get(int length, int position) {
+    if (length < 1 || position < 0 || position + length > words) {
+      throw new IndexOutOfBoundsException(
+          "No position with length " + length + " at " + position + " in " + words + " words.");
+    }
+    return POSITIONS[new NGramEntryPosition(length, position).getIndex()];
+  }
+
+  /**
+   * Returns all descendants of the given position, i.e. all shorter positions which cover only
+   * words of the given position, ordered by their index.
+   *
+   * @param position position of the n-gram
+   * @return unmodifiable list of the descendants
+   * @see NGramEntryPosition#getAllDescendants()
+   */
+  public List<NGramEntryPosition> getDescendants(NGramEntryPosition position) {
+    return DESCENDANTS.get(indexOf(position));
+  }
+
+  private int indexOf(NGramEntryPosition position) {
+    int index = position.getIndex();
+    if (index >= positionList.size()) {
+      throw new IndexOutOfBoundsException(
+          "Position " + position + " is not part of an n-gram with " + words + " words.");
+    }
+    return index;
+  }
+
+  /**
+   * Lists the descendants of a position. The positions within a position of length l are numbered
+   * like the positions of an n-gram with l words, only shifted by the first word of the position.
+   * So the i-th descendant is the i-th position of an n-gram with l words, shifted by the first
+   * word, where the position itself is skipped.
+   */
+  private static final class DescendantList extends AbstractList<NGramEntryPosition>
+      implements RandomAccess {
+
+    private final int firstWord;
+    private final int ownIndex;
+    private final int size;
+
+    private DescendantList(NGramEntryPosition position) {
+      int length = position.getLength();
+      firstWord = position.getPosition();
+      // the position itself is the first position with the last word of the position
+      ownIndex = (length - 1) * length / 2;
+      size = length * (length + 1) / 2 - 1;
+    }
+
+    @Override
+    public NGramEntryPosition get(int i) {
+      if (i < 0 || i >= size) {
+        throw new IndexOutOfBoundsException("Index " + i + " of " + size + " descendants.");
+      }
+      NGramEntryPosition unshifted = POSITIONS[i < ownIndex ? i : i + 1];
+      int lastWord = unshifted.getPosition() + unshifted.getLength() - 1 + firstWord;
+      return POSITIONS[lastWord * (lastWord + 1) / 2 + unshifted.getPosition() + firstWord];
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
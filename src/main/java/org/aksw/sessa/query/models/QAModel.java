@@ -4,6 +4,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import org.aksw.sessa.candidate.Candidate;
+import org.aksw.sessa.helper.collections.UriIndex;
 import org.aksw.sessa.helper.graph.Graph;
 import org.aksw.sessa.helper.graph.GraphInterface;
 import org.aksw.sessa.helper.graph.Node;
@@ -16,7 +17,11 @@ public class QAModel {
   private String question;
   private String preProcessedQuestion;
   private GraphInterface graph;
-  private Set<Node> results;
+  /**
+   * Contains the IDs of the URIs of this question, which are the contents of the nodes.
+   */
+  private UriIndex uriIndex;
+  private Set<Node<?>> results;
   private NGramHierarchy nGramHierarchy;
   private Map<NGramEntryPosition, Set<Candidate>> candidateMap;
   private int explanationScore;
@@ -26,6 +31,7 @@ public class QAModel {
     question = "";
     preProcessedQuestion = "";
     graph = new Graph();
+    uriIndex = new UriIndex();
     results = new HashSet<>();
     nGramHierarchy = null;
     candidateMap = null;
@@ -37,6 +43,7 @@ public class QAModel {
     question = other.getQuestion();
     preProcessedQuestion = other.getPreProcessedQuestion();
     graph = other.getGraph();
+    uriIndex = other.getUriIndex();
     results = other.getResults();
     nGramHierarchy = other.getNGramHierarchy();
     candidateMap = other.getCandidateMap();
@@ -70,11 +77,19 @@ public class QAModel {
     this.graph = graph;
   }
 
-  public Set<Node> getResults() {
+  public UriIndex getUriIndex() {
+    return uriIndex;
+  }
+
+  public void setUriIndex(UriIndex uriIndex) {
+    this.uriIndex = uriIndex;
+  }
+
+  public Set<Node<?>> getResults() {
     return results;
   }
 
-  public void setResults(Set<Node> results) {
+  public void setResults(Set<Node<?>> results) {
     this.results = results;
     if (results != null && !results.isEmpty()) {
       explanationScore = results.iterator().next().getExplanation();
@@ -5,7 +5,8 @@ import java.util.Set;
 import org.aksw.sessa.helper.graph.GraphInterface;
 import org.aksw.sessa.helper.graph.Node;
 import org.aksw.sessa.importing.config.ConfigurationInitializer;
-import org.aksw.sessa.importing.rdf.DbpediaSparqlQuery;
+import org.aksw.sessa.importing.rdf.SparqlGraphFiller;
+import org.aksw.sessa.importing.rdf.TripleSourceInterface;
 import org.aksw.sessa.query.models.QAModel;
 import org.apache.commons.configuration2.Configuration;
 import org.slf4j.Logger;
@@ -20,11 +21,29 @@ public class PostProcessing {
   private final String MESSAGE_FOUND = "Found post processing case";
   private final int MAX_RESULT_SIZE = 20;
 
+  private final TripleSourceInterface tripleSource;
+
+  /**
+   * Constructs the post processing, which checks triples with the remote triple source.
+   */
+  public PostProcessing() {
+    this(new SparqlGraphFiller());
+  }
+
+  /**
+   * Constructs the post processing, which checks triples with the given triple source.
+   *
+   * @param tripleSource source of the triples, e.g. to check rdf:type relations
+   */
+  public PostProcessing(TripleSourceInterface tripleSource) {
+    this.tripleSource = tripleSource;
+  }
+
 
   public QAModel process(QAModel qAModel) {
     log.debug("Starting post processing...");
     QAModel newQAModel = new QAModel(qAModel);
-    Set<Node> results = qAModel.getResults();
+    Set<Node<?>> results = qAModel.getResults();
     Configuration config = ConfigurationInitializer.getConfiguration();
     double relExplanationLimit = config.getDouble("sessa.relative_explanation_limit");
 
@@ -45,10 +64,10 @@ public class PostProcessing {
 
     // handling specific answer
     if (results.size() == 1) {
-      Node node = results.iterator().next();
+      Node<?> node = results.iterator().next();
 
       // handling rdf:type-answers
-      if (node.getContent().toString().equals(RDF_TYPE_URI)) {
+      if (node.getContent().equals(qAModel.getUriIndex().findId(RDF_TYPE_URI))) {
         log.debug("{}: rdf:type is the only answer.", MESSAGE_FOUND);
         newQAModel = handleRdfTypeAnswer(qAModel);
       }
@@ -60,16 +79,16 @@ public class PostProcessing {
   private QAModel handleRdfTypeAnswer(QAModel qaModel) {
     QAModel postProcessModel = new QAModel(qaModel);
     GraphInterface originalGraph = qaModel.getGraph();
-    Node rdfType = qaModel.getResults().iterator().next();
+    Node<?> rdfType = qaModel.getResults().iterator().next();
     log.debug("Extracting minimal graph that leads to rdf:type");
     GraphInterface path = originalGraph.findPathsToNode(rdfType);
     postProcessModel.setGraph(path);
-    Set<Node> results = new HashSet<>();
+    Set<Node<?>> results = new HashSet<>();
     log.debug("Searching for nodes that are instance of another");
-    for (Node factNode : path.getNeighborsLeadingTo(rdfType)) {
-      for (Node neighbor1 : path.getNeighborsLeadingTo(factNode)) {
-        for (Node neighbor2 : path.getNeighborsLeadingTo(factNode)) {
-          if (neighbor1 != neighbor2 && isRdfTypeOf(neighbor1, neighbor2)) {
+    for (Node<?> factNode : path.getNeighborsLeadingTo(rdfType)) {
+      for (Node<?> neighbor1 : path.getNeighborsLeadingTo(factNode)) {
+        for (Node<?> neighbor2 : path.getNeighborsLeadingTo(factNode)) {
+          if (neighbor1 != neighbor2 && isRdfTypeOf(qaModel, neighbor1, neighbor2)) {
             log.debug("Found node that is instance of another: {}", neighbor2);
             results.add(neighbor2);
           }
@@ -80,12 +99,11 @@ public class PostProcessing {
     return postProcessModel;
   }
 
-  private boolean isRdfTypeOf(Node classNode, Node instanceNode) {
-    DbpediaSparqlQuery dbpQuery = new DbpediaSparqlQuery();
-    return dbpQuery.askQuery(
-        instanceNode.getContent().toString(),
+  private boolean isRdfTypeOf(QAModel qaModel, Node<?> classNode, Node<?> instanceNode) {
+    return tripleSource.containsTriple(
+        qaModel.getUriIndex().getUri((Integer) instanceNode.getContent()),
         RDF_TYPE_URI,
-        classNode.getContent().toString());
+        qaModel.getUriIndex().getUri((Integer) classNode.getContent()));
   }
 
 }
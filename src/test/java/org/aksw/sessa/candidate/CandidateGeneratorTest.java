@@ -1,5 +1,6 @@
 package org.aksw.sessa.candidate;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.core.IsNot.not;
 
@@ -7,6 +8,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import org.aksw.sessa.importing.dictionary.implementation.SimpleMapDictionary;
 import org.aksw.sessa.query.models.NGramEntryPosition;
 import org.aksw.sessa.query.models.NGramHierarchy;
@@ -21,6 +24,8 @@ public class CandidateGeneratorTest {
 
   CandidateGenerator candidateGenerator;
   Map<NGramEntryPosition, Set<Candidate>> candidateMapping;
+  Map<String, Set<String>> candidateEntities;
+  NGramHierarchy runningExample;
 
   HashSet<String> billGates;
   HashSet<String> wife;
@@ -30,7 +35,7 @@ public class CandidateGeneratorTest {
 
   @Before
   public void initialize() {
-    Map<String, Set<String>> candidateEntities = new HashMap<>();
+    candidateEntities = new HashMap<>();
     spouse = new HashSet<>();
     spouse.add("dbo:spouse");
     candidateEntities.put("spouse", spouse);
@@ -58,7 +63,7 @@ public class CandidateGeneratorTest {
 
     candidateGenerator = new CandidateGenerator(new SimpleMapDictionary(candidateEntities));
 
-    NGramHierarchy runningExample = new NGramHierarchy("birthplace bill gates wife");
+    runningExample = new NGramHierarchy("birthplace bill gates wife");
 
     candidateMapping = candidateGenerator.getCandidateMapping(runningExample);
 
@@ -81,4 +86,34 @@ public class CandidateGeneratorTest {
     Assert.assertThat(candidates, not(hasItem(billGates)));
   }
 
+  @Test
+  public void testGetCandidateMapping_ParallelSameAsSequential() {
+    ExecutorService executor = new ForkJoinPool(4);
+    CandidateGenerator parallelGenerator = new CandidateGenerator(
+        new SimpleMapDictionary(candidateEntities), executor);
+    Assert.assertThat(parallelGenerator.getCandidateMapping(runningExample),
+        equalTo(candidateMapping));
+    executor.shutdown();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testGetCandidateMapping_ParallelPropagatesFailure() {
+    ExecutorService executor = new ForkJoinPool(4);
+    CandidateGenerator parallelGenerator = new CandidateGenerator(
+        new SimpleMapDictionary(candidateEntities) {
+          @Override
+          public Set<Candidate> get(String nGram) {
+            if (nGram.equals("wife")) {
+              throw new IllegalArgumentException("Look up failed.");
+            }
+            return super.get(nGram);
+          }
+        }, executor);
+    try {
+      parallelGenerator.getCandidateMapping(runningExample);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
 }
@@ -1,19 +1,35 @@
 package org.aksw.sessa.colorspreading;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.aksw.sessa.candidate.Candidate;
 import org.aksw.sessa.helper.graph.GraphInterface;
 import org.aksw.sessa.helper.graph.Node;
+import org.aksw.sessa.importing.rdf.SparqlGraphFiller;
+import org.aksw.sessa.importing.rdf.StandInSparqlServer;
+import org.aksw.sessa.importing.rdf.implementation.AdjacencyIndex;
+import org.aksw.sessa.importing.rdf.implementation.LocalTripleStore;
+import org.aksw.sessa.importing.rdf.implementation.LocalTripleStoreTest;
 import org.aksw.sessa.query.models.NGramEntryPosition;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +42,8 @@ public class ColorSpreaderTest {
 
   private ColorSpreader colorSpread;
   private Map<NGramEntryPosition, Set<Candidate>> nodeMapping;
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
 
 
   @Before
@@ -63,13 +81,70 @@ public class ColorSpreaderTest {
   @Test
   public void testSpreadColors_billGatesTestCase() {
     colorSpread = new ColorSpreader(nodeMapping);
-    Set<Node> results = colorSpread.spreadColors();
+    Set<Node<?>> results = colorSpread.spreadColors();
     log.debug("{}", colorSpread.getGraph().toString());
-    for (Node result : results) {
-      Assert.assertThat(((String) result.getContent()), containsString("Dallas"));
+    for (Node<?> result : results) {
+      Assert.assertThat(colorSpread.getUriIndex().getUri((Integer) result.getContent()),
+          containsString("Dallas"));
     }
   }
 
+  @Test
+  public void testSpreadColors_billGatesTestCase_LocalTripleStore() throws IOException {
+    try (LocalTripleStore store = new LocalTripleStore(folder.newFolder("store").getPath())) {
+      store.load(LocalTripleStoreTest.TEST_FILE);
+      colorSpread = new ColorSpreader(nodeMapping, store);
+      Set<Node<?>> results = colorSpread.spreadColors();
+      log.debug("{}", colorSpread.getGraph().toString());
+      Assert.assertThat(results, not(empty()));
+      for (Node<?> result : results) {
+        Assert.assertThat(colorSpread.getUriIndex().getUri((Integer) result.getContent()),
+            containsString("Dallas"));
+      }
+    }
+  }
+
+  @Test
+  public void testSpreadColors_ConcurrentExpansionSameAsSequential() throws IOException {
+    String indexFile = folder.newFile().getPath();
+    AdjacencyIndex.build(LocalTripleStoreTest.TEST_FILE, Paths.get(indexFile));
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try (StandInSparqlServer server = new StandInSparqlServer(new AdjacencyIndex(indexFile), 20)) {
+      SparqlGraphFiller filler = new SparqlGraphFiller(server.getEndpoint(), null, 2);
+      ColorSpreader sequential = new ColorSpreader(copyOf(nodeMapping), filler);
+      Set<String> sequentialResults = toUris(sequential, sequential.spreadColors());
+      int sequentialQueries = server.getQueryCount();
+      Assert.assertThat(server.getMaxInFlight(), equalTo(1));
+
+      ColorSpreader concurrent = new ColorSpreader(copyOf(nodeMapping), filler, executor);
+      Set<String> concurrentResults = toUris(concurrent, concurrent.spreadColors());
+      Assert.assertThat(concurrentResults, not(empty()));
+      Assert.assertThat(concurrentResults, equalTo(sequentialResults));
+      Assert.assertThat(concurrent.getGraph().getNodes().size(),
+          equalTo(sequential.getGraph().getNodes().size()));
+      Assert.assertThat(server.getQueryCount(), equalTo(2 * sequentialQueries));
+      Assert.assertThat(server.getMaxInFlight(), greaterThan(1));
+      Assert.assertThat(server.getMaxInFlight(), lessThanOrEqualTo(4));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static Map<NGramEntryPosition, Set<Candidate>> copyOf(
+      Map<NGramEntryPosition, Set<Candidate>> mapping) {
+    Map<NGramEntryPosition, Set<Candidate>> copy = new HashMap<>();
+    mapping.forEach((position, candidates) -> copy.put(position, new HashSet<>(candidates)));
+    return copy;
+  }
+
+  private static Set<String> toUris(ColorSpreader spreader, Set<Node<?>> nodes) {
+    Set<String> uris = new HashSet<>();
+    for (Node<?> node : nodes) {
+      uris.add(spreader.getUriIndex().getUri((Integer) node.getContent()));
+    }
+    return uris;
+  }
+
   /**
    * Test for #35
    */
@@ -0,0 +1,67 @@
+package org.aksw.sessa.helper.cache;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LruCacheTest {
+
+  private long time;
+  private LruCache<String, Integer> cache;
+
+  @Before
+  public void initialize() {
+    time = 0;
+    cache = new LruCache<String, Integer>(2, 100) {
+      @Override
+      protected long currentTime() {
+        return time;
+      }
+    };
+  }
+
+  @Test
+  public void testGet_CountsHitsAndMisses() {
+    cache.put("a", 1);
+    Assert.assertThat(cache.get("a"), equalTo(1));
+    Assert.assertThat(cache.get("b"), nullValue());
+    Assert.assertThat(cache.getHitCount(), equalTo(1L));
+    Assert.assertThat(cache.getMissCount(), equalTo(1L));
+  }
+
+  @Test
+  public void testPut_EvictsLeastRecentlyUsed() {
+    cache.put("a", 1);
+    cache.put("b", 2);
+    cache.get("a");
+    cache.put("c", 3);
+    Assert.assertThat(cache.size(), equalTo(2));
+    Assert.assertThat(cache.get("a"), equalTo(1));
+    Assert.assertThat(cache.get("b"), nullValue());
+    Assert.assertThat(cache.get("c"), equalTo(3));
+  }
+
+  @Test
+  public void testGet_ExpiredEntry() {
+    cache.put("a", 1);
+    time = 100;
+    Assert.assertThat(cache.get("a"), equalTo(1));
+    time = 101;
+    Assert.assertThat(cache.get("a"), nullValue());
+    Assert.assertThat(cache.size(), equalTo(0));
+  }
+
+  @Test
+  public void testRemoveExpired() {
+    cache.put("a", 1);
+    time = 50;
+    cache.put("b", 2);
+    time = 120;
+    cache.removeExpired();
+    Assert.assertThat(cache.size(), equalTo(1));
+    Assert.assertThat(cache.get("b"), equalTo(2));
+  }
+}
@@ -0,0 +1,144 @@
+package org.aksw.sessa.helper.cache;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentQueryCacheTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private long time;
+  private Path file;
+
+  @Before
+  public void initialize() {
+    time = 0;
+    file = folder.getRoot().toPath().resolve("cache");
+  }
+
+  private PersistentQueryCache openCache() throws IOException {
+    return new PersistentQueryCache(file, 2, 100) {
+      @Override
+      protected long currentTime() {
+        return time;
+      }
+    };
+  }
+
+  private static Set<String> results(String result) {
+    return Collections.singleton(result);
+  }
+
+  @Test
+  public void testWarm_KeepsEntriesAfterRestart() throws IOException {
+    try (PersistentQueryCache cache = openCache()) {
+      cache.put("a", results("1"));
+      cache.put("b", Collections.emptySet());
+    }
+    try (PersistentQueryCache cache = openCache()) {
+      Assert.assertThat(cache.size(), equalTo(2));
+      Assert.assertThat(cache.get("a"), equalTo(results("1")));
+      Assert.assertThat(cache.get("b"), equalTo(Collections.emptySet()));
+    }
+  }
+
+  @Test
+  public void testWarm_SkipsExpiredEntries() throws IOException {
+    try (PersistentQueryCache cache = openCache()) {
+      cache.put("a", results("1"));
+      time = 50;
+      cache.put("b", results("2"));
+    }
+    time = 120;
+    try (PersistentQueryCache cache = openCache()) {
+      Assert.assertThat(cache.get("a"), nullValue());
+      Assert.assertThat(cache.get("b"), equalTo(results("2")));
+    }
+  }
+
+  @Test
+  public void testWarm_KeepsLeastRecentlyUsedOrder() throws IOException {
+    try (PersistentQueryCache cache = openCache()) {
+      cache.put("a", results("1"));
+      cache.put("b", results("2"));
+      cache.put("a", results("3"));
+      cache.put("c", results("4"));
+    }
+    try (PersistentQueryCache cache = openCache()) {
+      Assert.assertThat(cache.size(), equalTo(2));
+      Assert.assertThat(cache.get("a"), equalTo(results("3")));
+      Assert.assertThat(cache.get("b"), nullValue());
+      Assert.assertThat(cache.get("c"), equalTo(results("4")));
+    }
+  }
+
+  @Test
+  public void testPut_FileStaysBounded() throws IOException {
+    try (PersistentQueryCache cache = openCache()) {
+      for (int i = 0; i < 10; i++) {
+        cache.put("a" + i, results("result"));
+      }
+      long size = Files.size(file);
+      for (int i = 0; i < 1000; i++) {
+        cache.put("a" + i, results("result"));
+      }
+      Assert.assertThat(Files.size(file), lessThan(2 * size));
+    }
+  }
+
+  @Test
+  public void testWarm_IgnoresIncompleteEntry() throws IOException {
+    try (PersistentQueryCache cache = openCache()) {
+      cache.put("a", results("1"));
+      cache.put("b", results("2"));
+    }
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+      randomAccessFile.setLength(randomAccessFile.length() - 2);
+    }
+    try (PersistentQueryCache cache = openCache()) {
+      Assert.assertThat(cache.get("a"), equalTo(results("1")));
+      Assert.assertThat(cache.get("b"), nullValue());
+      cache.put("c", results("3"));
+    }
+    try (PersistentQueryCache cache = openCache()) {
+      Assert.assertThat(cache.get("a"), equalTo(results("1")));
+      Assert.assertThat(cache.get("c"), equalTo(results("3")));
+    }
+  }
+
+  @Test
+  public void testWarm_KeepsLongStrings() throws IOException {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 30000; i++) {
+      builder.append("\u00e4\u20ac");
+    }
+    String longString = builder.toString();
+    try (PersistentQueryCache cache = openCache()) {
+      cache.put(longString, results(longString));
+      cache.put("a", results("1"));
+    }
+    try (PersistentQueryCache cache = openCache()) {
+      Assert.assertThat(cache.get(longString), equalTo(results(longString)));
+      Assert.assertThat(cache.get("a"), equalTo(results("1")));
+    }
+  }
+
+  @Test
+  public void testNormalize() {
+    Assert.assertThat(PersistentQueryCache.normalize("  SELECT ?o\n WHERE {\t?s ?p ?o } "),
+        equalTo("SELECT ?o WHERE { ?s ?p ?o }"));
+  }
+}
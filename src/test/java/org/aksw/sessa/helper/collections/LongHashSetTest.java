@@ -0,0 +1,38 @@
+package org.aksw.sessa.helper.collections;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LongHashSetTest {
+
+  @Test
+  public void testAdd_Duplicates() {
+    LongHashSet set = new LongHashSet();
+    Assert.assertThat(set.add(42), is(true));
+    Assert.assertThat(set.add(42), is(false));
+    Assert.assertThat(set.add(0), is(true));
+    Assert.assertThat(set.add(0), is(false));
+    Assert.assertThat(set.size(), equalTo(2));
+  }
+
+  @Test
+  public void testAdd_SameAsHashSet() {
+    LongHashSet set = new LongHashSet(4);
+    Set<Long> expected = new HashSet<>();
+    Random random = new Random(7);
+    for (int i = 0; i < 10000; i++) {
+      long value = random.nextInt(5000);
+      Assert.assertThat(set.add(value), equalTo(expected.add(value)));
+    }
+    Assert.assertThat(set.size(), equalTo(expected.size()));
+    for (long value = -10; value < 5010; value++) {
+      Assert.assertThat(set.contains(value), equalTo(expected.contains(value)));
+    }
+  }
+}
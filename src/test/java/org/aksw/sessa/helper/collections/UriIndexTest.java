@@ -0,0 +1,71 @@
+package org.aksw.sessa.helper.collections;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UriIndexTest {
+
+  @Test
+  public void testGetId_SameUriSameId() {
+    UriIndex index = new UriIndex();
+    String uri = "http://dbpedia.org/resource/Bill_Gates";
+    int id = index.getId(uri);
+    Assert.assertThat(index.getId(new String(uri)), equalTo(id));
+    Assert.assertThat(index.getId("http://dbpedia.org/ontology/spouse"), not(equalTo(id)));
+    Assert.assertThat(index.getUri(id), equalTo(uri));
+    Assert.assertThat(index.findId(uri), equalTo(id));
+  }
+
+  @Test
+  public void testGetId_IndependentIndices() {
+    UriIndex index = new UriIndex();
+    UriIndex otherIndex = new UriIndex();
+    index.getId("http://dbpedia.org/ontology/spouse");
+    int id = index.getId("http://dbpedia.org/resource/Bill_Gates");
+    Assert.assertThat(otherIndex.findId("http://dbpedia.org/resource/Bill_Gates"), equalTo(-1));
+    Assert.assertThat(otherIndex.getId("http://dbpedia.org/resource/Bill_Gates"),
+        not(equalTo(id)));
+    Assert.assertThat(otherIndex.size(), equalTo(1));
+  }
+
+  @Test
+  public void testIntern_SharesInstance() {
+    UriIndex index = new UriIndex();
+    String uri = "http://dbpedia.org/resource/Bill_Gates";
+    index.intern(uri);
+    Assert.assertThat(index.intern(new String(uri)), sameInstance(uri));
+  }
+
+  @Test
+  public void testGetId_Concurrent() throws Exception {
+    UriIndex index = new UriIndex();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<int[]>> futures = new ArrayList<>();
+    for (int thread = 0; thread < 4; thread++) {
+      futures.add(executor.submit(() -> {
+        int[] ids = new int[5000];
+        for (int i = 0; i < ids.length; i++) {
+          ids[i] = index.getId("http://example.org/concurrent/" + i);
+        }
+        return ids;
+      }));
+    }
+    int[] expected = futures.get(0).get();
+    for (Future<int[]> future : futures) {
+      Assert.assertThat(future.get(), equalTo(expected));
+    }
+    executor.shutdown();
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertThat(index.getUri(expected[i]), equalTo("http://example.org/concurrent/" + i));
+    }
+  }
+}
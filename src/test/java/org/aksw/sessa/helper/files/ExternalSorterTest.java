@@ -0,0 +1,96 @@
+package org.aksw.sessa.helper.files;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExternalSorterTest {
+
+  private static final ExternalSorter.Codec<Integer> CODEC = new ExternalSorter.Codec<Integer>() {
+    @Override
+    public void write(DataOutput out, Integer record) throws IOException {
+      out.writeInt(record);
+    }
+
+    @Override
+    public Integer read(DataInput in) throws IOException {
+      return in.readInt();
+    }
+  };
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void sorted_InMemory() throws IOException {
+    try (ExternalSorter<Integer> sorter = newSorter(10)) {
+      for (int record : new int[]{5, 3, 5, 1}) {
+        sorter.add(record);
+      }
+      Assert.assertThat(readAll(sorter), equalTo(Arrays.asList(1, 3, 5)));
+      Assert.assertThat(Arrays.asList(folder.getRoot().list()), empty());
+    }
+  }
+
+  @Test
+  public void sorted_MergesRuns() throws IOException {
+    assertSorted(7, 1000);
+  }
+
+  @Test
+  public void sorted_MergesManyRunsInPasses() throws IOException {
+    assertSorted(2, 1000);
+  }
+
+  @Test
+  public void close_DeletesRunFiles() throws IOException {
+    try (ExternalSorter<Integer> sorter = newSorter(2)) {
+      for (int record = 0; record < 10; record++) {
+        sorter.add(record);
+      }
+      Assert.assertThat(folder.getRoot().list().length, equalTo(5));
+    }
+    Assert.assertThat(Arrays.asList(folder.getRoot().list()), empty());
+  }
+
+  private void assertSorted(int runSize, int count) throws IOException {
+    Random random = new Random(42);
+    TreeSet<Integer> expected = new TreeSet<>();
+    try (ExternalSorter<Integer> sorter = newSorter(runSize)) {
+      for (int i = 0; i < count; i++) {
+        int record = random.nextInt(count / 2) - count / 4;
+        expected.add(record);
+        sorter.add(record);
+      }
+      Assert.assertThat(readAll(sorter), equalTo(new ArrayList<>(expected)));
+    }
+    Assert.assertThat(Arrays.asList(folder.getRoot().list()), empty());
+  }
+
+  private ExternalSorter<Integer> newSorter(int runSize) {
+    return new ExternalSorter<>(Comparator.naturalOrder(), CODEC, runSize,
+        folder.getRoot().toPath());
+  }
+
+  private static List<Integer> readAll(ExternalSorter<Integer> sorter) throws IOException {
+    List<Integer> records = new ArrayList<>();
+    ExternalSorter.Cursor<Integer> cursor = sorter.sorted();
+    for (Integer record; (record = cursor.next()) != null; ) {
+      records.add(record);
+    }
+    return records;
+  }
+}
@@ -14,7 +14,7 @@ import org.junit.Test;
 
 public class GraphTest {
 
-  private List<Node> nodes;
+  private List<Node<?>> nodes;
   private Graph graph;
 
   @Before
@@ -45,18 +45,30 @@ public class GraphTest {
 
   @Test
   public void testGetNeighborsLeadingFrom_NotEmptyTests() {
-    Set<Node> neighborOf1 = new HashSet<>();
+    Set<Node<?>> neighborOf1 = new HashSet<>();
     neighborOf1.add(nodes.get(4));
     neighborOf1.add(nodes.get(6));
     neighborOf1.add(nodes.get(9));
     Assert.assertThat(graph.getNeighborsLeadingFrom(nodes.get(1)), equalTo(neighborOf1));
 
-    Set<Node> neighborOf3 = new HashSet<>();
+    Set<Node<?>> neighborOf3 = new HashSet<>();
     neighborOf3.add(nodes.get(8));
     neighborOf3.add(nodes.get(5));
     Assert.assertThat(graph.getNeighborsLeadingFrom(nodes.get(3)), equalTo(neighborOf3));
   }
 
+  @Test
+  public void testGetModificationCount_OnlyChangesCount() {
+    int modificationCount = graph.getModificationCount();
+    graph.addNode(nodes.get(0));
+    graph.addEdge(nodes.get(0), nodes.get(4));
+    Assert.assertThat(graph.getModificationCount(), equalTo(modificationCount));
+    graph.addEdge(nodes.get(0), nodes.get(9));
+    Assert.assertThat(graph.getModificationCount(), equalTo(modificationCount + 1));
+    graph.addNode(new Node<>(10));
+    Assert.assertThat(graph.getModificationCount(), equalTo(modificationCount + 2));
+  }
+
   @Test
   public void testGetNeighborsLeadingFrom_EmptyNeighbours() {
     Assert.assertThat(graph.getNeighborsLeadingFrom(nodes.get(9)), empty());
@@ -64,12 +76,12 @@ public class GraphTest {
 
   @Test
   public void testGetNeighborsLeadingTo_NotEmptyTests() {
-    Set<Node> neighbor = new HashSet<>();
+    Set<Node<?>> neighbor = new HashSet<>();
     neighbor.add(nodes.get(2));
     neighbor.add(nodes.get(3));
     Assert.assertThat(graph.getNeighborsLeadingTo(nodes.get(5)), equalTo(neighbor));
 
-    Set<Node> leadsTo8 = new HashSet<>();
+    Set<Node<?>> leadsTo8 = new HashSet<>();
     leadsTo8.add(nodes.get(3));
     leadsTo8.add(nodes.get(7));
     Assert.assertThat(graph.getNeighborsLeadingTo(nodes.get(8)), equalTo(leadsTo8));
@@ -82,7 +94,7 @@ public class GraphTest {
 
   @Test
   public void testGetAllNeighbors_NotEmptyTests() {
-    Set<Node> allNeighborsOf1 = new HashSet<>();
+    Set<Node<?>> allNeighborsOf1 = new HashSet<>();
     allNeighborsOf1.add(nodes.get(7));
     allNeighborsOf1.add(nodes.get(1));
     allNeighborsOf1.add(nodes.get(0));
@@ -90,12 +102,20 @@ public class GraphTest {
     Assert.assertEquals(allNeighborsOf1, graph.getAllNeighbors(nodes.get(4)));
   }
 
+  @Test
+  public void testGetAllNeighbors_DoesNotChangeEdges() {
+    graph.getAllNeighbors(nodes.get(4));
+    Set<Node<?>> neighborsLeadingFrom4 = new HashSet<>();
+    neighborsLeadingFrom4.add(nodes.get(7));
+    Assert.assertThat(graph.getNeighborsLeadingFrom(nodes.get(4)), equalTo(neighborsLeadingFrom4));
+  }
+
   @Test
   public void testFindPathsToNodes_for8() {
-    Set<Node> nodesToSearchFor = new HashSet<>();
+    Set<Node<?>> nodesToSearchFor = new HashSet<>();
     nodesToSearchFor.add(nodes.get(8));
 
-    Set<Node> referenceNodes = new HashSet<>();
+    Set<Node<?>> referenceNodes = new HashSet<>();
     referenceNodes.add(nodes.get(8));
     referenceNodes.add(nodes.get(7));
     referenceNodes.add(nodes.get(2));
@@ -109,7 +129,7 @@ public class GraphTest {
 
   @Test
   public void testFindPathsToNodes_for6() {
-    Set<Node> nodesToSearchFor = new HashSet<>();
+    Set<Node<?>> nodesToSearchFor = new HashSet<>();
     nodesToSearchFor.add(nodes.get(6));
     GraphInterface paths = graph.findPathsToNodes(nodesToSearchFor);
 
@@ -132,7 +152,7 @@ public class GraphTest {
 
   @Test
   public void testFindPathsToNodes_WithNonExistentNode() {
-    Set<Node> nodesToSearchFor = new HashSet<>();
+    Set<Node<?>> nodesToSearchFor = new HashSet<>();
     nodesToSearchFor.add(new Node<Integer>(20));
     GraphInterface paths = graph.findPathsToNodes(nodesToSearchFor);
     Assert.assertThat(paths.getNodes(), empty());
@@ -0,0 +1,97 @@
+package org.aksw.sessa.helper.graph;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndexedGraphTest {
+
+  private List<Node<?>> nodes;
+  private IndexedGraph graph;
+  private Graph referenceGraph;
+
+  @Before
+  public void initialize() {
+    graph = new IndexedGraph();
+    referenceGraph = new Graph();
+    nodes = new ArrayList<>();
+    for (int i = 0; i <= 9; i++) {
+      Node<Integer> node = new Node<>(i);
+      nodes.add(node);
+      graph.addNode(node);
+      referenceGraph.addNode(node);
+    }
+    int[][] edges = {{0, 4}, {1, 4}, {4, 7}, {2, 7}, {7, 8}, {3, 8}, {2, 5}, {3, 5}, {5, 6},
+        {1, 6}, {2, 9}, {1, 9}};
+    for (int[] edge : edges) {
+      graph.addEdge(nodes.get(edge[0]), nodes.get(edge[1]));
+      referenceGraph.addEdge(nodes.get(edge[0]), nodes.get(edge[1]));
+    }
+  }
+
+  @Test
+  public void testNeighbors_SameAsGraph() {
+    for (Node<?> node : nodes) {
+      Assert.assertThat(graph.getNeighborsLeadingFrom(node),
+          equalTo(referenceGraph.getNeighborsLeadingFrom(node)));
+      Assert.assertThat(graph.getNeighborsLeadingTo(node),
+          equalTo(referenceGraph.getNeighborsLeadingTo(node)));
+      Assert.assertThat(graph.getAllNeighbors(node),
+          equalTo(referenceGraph.getAllNeighbors(node)));
+    }
+    Assert.assertThat(graph.getEdges(), equalTo(referenceGraph.getEdges()));
+  }
+
+  @Test
+  public void testAddEdge_OnlyOnce() {
+    graph.addEdge(nodes.get(0), nodes.get(4));
+    graph.addEdge(nodes.get(4), nodes.get(0));
+    Assert.assertThat(graph.getEdgeCount(), equalTo(13));
+    int index = graph.indexOf(nodes.get(4));
+    Set<Node<?>> neighbors = new HashSet<>();
+    for (int neighbor : graph.getAllNeighborIndices(index)) {
+      Assert.assertThat(neighbors.add(graph.getNode(neighbor)), equalTo(true));
+    }
+    Assert.assertThat(neighbors, containsInAnyOrder(nodes.get(0), nodes.get(1), nodes.get(7)));
+  }
+
+  @Test
+  public void testAddNode_SameContentDifferentId() {
+    Random random = new Random(42);
+    List<Node<?>> duplicates = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      Node<Integer> duplicate = new Node<>(random.nextInt(10));
+      duplicate.newId();
+      duplicates.add(duplicate);
+      graph.addNode(duplicate);
+    }
+    Assert.assertThat(graph.size(), equalTo(1010));
+    for (Node<?> duplicate : duplicates) {
+      Assert.assertThat(graph.getNode(graph.indexOf(duplicate)), equalTo(duplicate));
+    }
+    Assert.assertThat(graph.indexOf(nodes.get(3)), equalTo(3));
+    Assert.assertThat(graph.containsNode(new Node<>(10)), equalTo(false));
+  }
+
+  @Test
+  public void testGetNodes_InIndexOrder() {
+    Assert.assertThat(graph.getNodes(), contains(nodes.toArray()));
+  }
+
+  @Test
+  public void testFindPathsToNodes_SameAsGraph() {
+    for (Node<?> node : nodes) {
+      Assert.assertThat(graph.findPathsToNode(node),
+          equalTo(referenceGraph.findPathsToNode(node)));
+    }
+  }
+}
@@ -4,8 +4,10 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 import org.aksw.sessa.query.models.NGramEntryPosition;
+import org.aksw.sessa.query.models.NGramHierarchy;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -51,7 +53,7 @@ public class NodeTest {
 
   @Test
   public void testEquals_onHashSet() {
-    HashSet<Node> nodes = new HashSet<>();
+    HashSet<Node<?>> nodes = new HashSet<>();
     Node<String> node1 = new Node<>("test");
     Node<String> node2 = new Node<>("test");
 
@@ -131,5 +133,40 @@ public class NodeTest {
     Assert.assertThat(node1.getEnergy(), equalTo(energy));
   }
 
+  @Test
+  public void testColors_SameAsPositions() {
+    // 12 words have 78 positions, so the colors need more than one long
+    Random random = new Random(42);
+    for (int round = 0; round < 1000; round++) {
+      Set<NGramEntryPosition> colors1 = new HashSet<>();
+      Set<NGramEntryPosition> colors2 = new HashSet<>();
+      for (int i = 0; i < 2; i++) {
+        colors1.add(NGramEntryPosition.fromIndex(random.nextInt(78)));
+        colors2.add(NGramEntryPosition.fromIndex(random.nextInt(78)));
+      }
+      Node<Integer> node1 = new Node<>(1, 0, colors1, false);
+      Node<Integer> node2 = new Node<>(2, 0, colors2, false);
+      boolean overlapping = false;
+      boolean mergeable = true;
+      int explanation = 0;
+      for (NGramEntryPosition color1 : colors1) {
+        explanation += color1.getLength();
+        mergeable &= color1.isMergeable(colors2);
+        for (NGramEntryPosition color2 : colors2) {
+          overlapping |= color1.isOverlappingWith(color2);
+        }
+      }
+      Assert.assertThat(node1.getColors(), equalTo(colors1));
+      Assert.assertThat(node1.getExplanation(), is(explanation));
+      Assert.assertThat(node1.isOverlappingWith(node2), is(overlapping));
+      Assert.assertThat(node1.colorsAreMergeable(node2), is(mergeable));
+      Assert.assertThat(node1.colorsAreMergeable(colors2), is(mergeable));
+    }
+  }
 
-}
\ No newline at end of file
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddColor_BeyondMaxWords() {
+    Node<Integer> node = new Node<>(1);
+    node.addColor(new NGramEntryPosition(1, NGramHierarchy.MAX_WORDS));
+  }
+}
@@ -1,5 +1,13 @@
 package org.aksw.sessa.helper.graph;
 
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.aksw.sessa.importing.rdf.TripleSourceInterface;
+import org.aksw.sessa.query.models.NGramEntryPosition;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -8,19 +16,67 @@ import org.junit.Test;
  */
 public class SelfbuildingGraphTest {
 
+  private static final String SPOUSE = "http://dbpedia.org/ontology/spouse";
+  private static final String BILL_GATES = "http://dbpedia.org/resource/Bill_Gates";
+  private static final String MELINDA_GATES = "http://dbpedia.org/resource/Melinda_Gates";
+
   private SelfBuildingGraph graph;
+  private Node<Integer> spouse;
+  private Node<Integer> billGates;
 
 
   @Before
   public void initialize() {
-    graph = new SelfBuildingGraph();
-    graph.addNode(new Node<String>("http://dbpedia.org/ontology/birthPlace"));
-    graph.addNode(new Node<String>("http://dbpedia.org/ontology/spouse"));
-    graph.addNode(new Node<String>("http://dbpedia.org/resource/Bill_Gates"));
+    TripleSourceInterface tripleSource = new TripleSourceInterface() {
+      @Override
+      public Set<String> findMissingTripleElement(String uri1, String uri2) {
+        Set<String> pair = new HashSet<>();
+        pair.add(uri1);
+        pair.add(uri2);
+        if (pair.contains(SPOUSE) && pair.contains(BILL_GATES)) {
+          return Collections.singleton(MELINDA_GATES);
+        }
+        return Collections.emptySet();
+      }
+
+      @Override
+      public boolean containsTriple(String subject, String predicate, String object) {
+        return false;
+      }
+    };
+    graph = new SelfBuildingGraph(tripleSource);
+    spouse = new Node<>(graph.getUriIndex().getId(SPOUSE));
+    spouse.addColor(new NGramEntryPosition(1, 0));
+    billGates = new Node<>(graph.getUriIndex().getId(BILL_GATES));
+    billGates.addColor(new NGramEntryPosition(2, 1));
+    graph.addNode(spouse);
+    graph.addNode(billGates);
+  }
+
+  @Test
+  public void testGetAllNeighbors_DoesNotExpand() {
+    Assert.assertThat(graph.getAllNeighbors(spouse).isEmpty(), equalTo(true));
+    Assert.assertThat(graph.getNodes().size(), equalTo(2));
+    Assert.assertThat(graph.getExpansionCount(), equalTo(0));
+  }
+
+  @Test
+  public void testExpandOnce() {
+    Assert.assertThat(graph.expandOnce(), equalTo(true));
+    // one fact node and the found node
+    Assert.assertThat(graph.getNodes().size(), equalTo(4));
+    Assert.assertThat(graph.getNodes().contains(new Node<>(graph.getUriIndex().getId(MELINDA_GATES))),
+        equalTo(true));
+    Assert.assertThat(graph.getAllNeighbors(spouse).size(), equalTo(1));
+    // the IDs of the fact nodes are counted per graph
+    Assert.assertThat(graph.getNodes().contains(new Node<>(-1)), equalTo(true));
   }
 
   @Test
-  public void testUpdateGraph() {
-    //FIXME: Tests for this probably would not differ from ColorSpreaderTest and GraphTest
+  public void testExpandUntil_StopsAtMaximum() {
+    Assert.assertThat(graph.expandUntil(Integer.MAX_VALUE),
+        equalTo(SelfBuildingGraph.MAX_EXPANSIONS));
+    Assert.assertThat(graph.expandOnce(), equalTo(false));
+    Assert.assertThat(graph.getExpansionCount(), equalTo(SelfBuildingGraph.MAX_EXPANSIONS));
   }
 }
@@ -5,6 +5,14 @@ import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.lucene.search.spell.LuceneLevenshteinDistance;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -56,5 +64,83 @@ public class LevenshteinDistanceFunctionTest {
     Assert.assertThat(score1, equalTo(score2));
   }
 
+  @Test
+  public void testCalculateEnergyScore_SameAsLucene() {
+    EnergyFunctionInterface energyFunction = new LevenshteinDistanceFunction();
+    LuceneLevenshteinDistance lucene = new LuceneLevenshteinDistance();
+    // few letters, so that there are many equal letters and transpositions
+    String letters = "abAB \uD83D\uDE00";
+    Random random = new Random(42);
+    for (int i = 0; i < 10000; i++) {
+      String nGram = randomString(random, letters);
+      String key = randomString(random, letters);
+      Assert.assertThat(nGram + "|" + key,
+          energyFunction.calculateEnergyScore(nGram, null, key),
+          equalTo(lucene.getDistance(nGram.toLowerCase(), key.toLowerCase())));
+    }
+  }
+
+  @Test
+  public void testCalculateEnergyScore_MinScore() {
+    EnergyFunctionInterface energyFunction = new LevenshteinDistanceFunction(0.5f);
+    Assert.assertThat(energyFunction
+            .calculateEnergyScore("stadium", "http://dbpedia.org/resource/Stadium2", "stadium 2"),
+        equalTo(new LevenshteinDistanceFunction()
+            .calculateEnergyScore("stadium", "http://dbpedia.org/resource/Stadium2", "stadium 2")));
+    Assert.assertThat(energyFunction
+            .calculateEnergyScore("stadium", "http://dbpedia.org/resource/Berlin", "berlin"),
+        lessThan(0.5f));
+  }
+
+  @Test
+  public void testGetDistance_MaxDistance() {
+    Assert.assertThat(LevenshteinDistanceFunction.getDistance("Stadium", "stadion", 5),
+        equalTo(2));
+    Assert.assertThat(LevenshteinDistanceFunction.getDistance("stadium", "satdium", 5),
+        equalTo(1));
+    Assert.assertThat(LevenshteinDistanceFunction.getDistance("stadium", "berlin", 3),
+        equalTo(4));
+    Assert.assertThat(LevenshteinDistanceFunction.getDistance("stadium", "stadium of light", 3),
+        equalTo(4));
+  }
 
-}
\ No newline at end of file
+  @Test
+  public void testCalculateEnergyScore_Concurrent() throws Exception {
+    EnergyFunctionInterface energyFunction = new LevenshteinDistanceFunction();
+    List<Callable<Boolean>> tasks = new ArrayList<>();
+    for (int thread = 0; thread < 8; thread++) {
+      String key = "stadium" + thread;
+      float expected = new LuceneLevenshteinDistance().getDistance("stadium", key);
+      tasks.add(() -> {
+        for (int i = 0; i < 10000; i++) {
+          if (energyFunction.calculateEnergyScore("stadium", null, key) != expected) {
+            return false;
+          }
+        }
+        return true;
+      });
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      for (Future<Boolean> result : executor.invokeAll(tasks)) {
+        Assert.assertThat(result.get(), equalTo(true));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static String randomString(Random random, String letters) {
+    StringBuilder builder = new StringBuilder();
+    int length = random.nextInt(8);
+    for (int i = 0; i < length; i++) {
+      int index = random.nextInt(letters.length() - 1);
+      if (Character.isHighSurrogate(letters.charAt(index))) {
+        builder.append(letters, index, index + 2);
+      } else if (!Character.isLowSurrogate(letters.charAt(index))) {
+        builder.append(letters.charAt(index));
+      }
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,78 @@
+package org.aksw.sessa.importing.dictionary.filter;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.aksw.sessa.candidate.Candidate;
+import org.aksw.sessa.importing.dictionary.energy.EnergyFunctionInterface;
+import org.aksw.sessa.importing.dictionary.util.CandidateScoring;
+import org.aksw.sessa.importing.dictionary.util.Filter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CandidateScoringTest {
+
+  private static final String PREFIX = "http://dbpedia.org/resource/";
+
+  private static Set<Candidate> createCandidates(String... keys) {
+    Set<Candidate> candidates = new HashSet<>();
+    for (String key : keys) {
+      candidates.add(new Candidate(PREFIX + key, key));
+    }
+    return candidates;
+  }
+
+  @Test
+  public void testScore_FunctionAppliedOnce() {
+    AtomicInteger calls = new AtomicInteger();
+    EnergyFunctionInterface length = (nGram, uri, key) -> {
+      calls.incrementAndGet();
+      return key.length();
+    };
+    CandidateScoring scoring = new CandidateScoring(
+        Arrays.asList(new Filter(length, 3), new Filter(length, 2)), length);
+    Set<Candidate> result = scoring.score("a", createCandidates("a", "bb", "ccc", "dddd", "eeeee"));
+    Assert.assertThat(calls.get(), equalTo(5));
+    Assert.assertThat(scoring.getFunctionCount(), equalTo(1));
+    Assert.assertThat(result, equalTo(createCandidates("dddd", "eeeee")));
+    for (Candidate candidate : result) {
+      Assert.assertThat(candidate.getEnergy(), equalTo((float) candidate.getKey().length()));
+    }
+  }
+
+  @Test
+  public void testScore_AscendingOrder() {
+    EnergyFunctionInterface length = (nGram, uri, key) -> key.length();
+    CandidateScoring scoring = new CandidateScoring(
+        Collections.singletonList(new Filter(length, false, 2)), (nGram, uri, key) -> 1);
+    Set<Candidate> result = scoring.score("a", createCandidates("a", "bb", "ccc", "dddd"));
+    Assert.assertThat(result, containsInAnyOrder(createCandidates("a", "bb").toArray()));
+  }
+
+  @Test
+  public void testScore_SameAsFilters() {
+    Random random = new Random(42);
+    // both functions give different keys different scores, so that there are no ties
+    EnergyFunctionInterface first = (nGram, uri, key) -> Integer.parseInt(key);
+    EnergyFunctionInterface second = (nGram, uri, key) -> Integer.parseInt(key) * 7919L % 100003;
+    Filter firstFilter = new Filter(first, 20);
+    Filter secondFilter = new Filter(second, 5);
+    CandidateScoring scoring = new CandidateScoring(Arrays.asList(secondFilter, firstFilter),
+        (nGram, uri, key) -> 1);
+    for (int round = 0; round < 10; round++) {
+      String[] keys = new String[50];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = Integer.toString(random.nextInt(100003));
+      }
+      Set<Candidate> expected = secondFilter.filter("n",
+          firstFilter.filter("n", createCandidates(keys)));
+      Assert.assertThat(scoring.score("n", createCandidates(keys)), equalTo(expected));
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package org.aksw.sessa.importing.dictionary.implementation;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.IOException;
+import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
+import org.aksw.sessa.helper.files.handler.TsvFileHandler;
+import org.aksw.sessa.importing.dictionary.util.Filter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingDictionaryTest extends FileBasedDictionaryTest {
+
+  @Before
+  public void init() throws IOException {
+    FileHandlerInterface handler = new TsvFileHandler(TEST_FILE1);
+    dictionary = new CachingDictionary(new HashMapDictionary(handler), 100);
+  }
+
+  @Test
+  public void get_SecondLookUpIsCached() {
+    String nGram = "bill gates";
+    Assert.assertThat(dictionary.get(nGram), equalTo(dictionary.get(nGram)));
+    CachingDictionary cachingDictionary = (CachingDictionary) dictionary;
+    Assert.assertThat(cachingDictionary.getCache().getHitCount(), equalTo(1L));
+    Assert.assertThat(cachingDictionary.getCache().getMissCount(), equalTo(1L));
+  }
+
+  @Test
+  public void addFilter_InvalidatesCache() {
+    String nGram = "bill gates";
+    Assert.assertThat(dictionary.get(nGram).size(), equalTo(1));
+    dictionary.addFilter(new Filter((a, b, c) -> 0, 0));
+    Assert.assertThat(dictionary.get(nGram), empty());
+  }
+}
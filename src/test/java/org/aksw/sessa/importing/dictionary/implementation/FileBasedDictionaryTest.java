@@ -2,8 +2,13 @@ package org.aksw.sessa.importing.dictionary.implementation;
 
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
 import org.aksw.sessa.helper.files.handler.ReverseTsvFileHandler;
 import org.aksw.sessa.importing.dictionary.FileBasedDictionary;
@@ -52,6 +57,17 @@ public abstract class FileBasedDictionaryTest {
     Assert.assertThat(dictionary.get(nGram), empty());
   }
 
+  @Test
+  public void getAll_SameAsGet() {
+    List<String> nGrams = Arrays
+        .asList("bill gates", "bill", "gates", "birthplace", "wife", "the", "DoesNotExist");
+    Map<String, Set<Candidate>> candidateMapping = dictionary.getAll(nGrams);
+    Assert.assertThat(candidateMapping.size(), equalTo(nGrams.size()));
+    for (String nGram : nGrams) {
+      Assert.assertThat(candidateMapping.get(nGram), equalTo(dictionary.get(nGram)));
+    }
+  }
+
   @Test
   public void putAll_NewEntries() throws IOException {
     String nGram = "hitchenko";
@@ -0,0 +1,57 @@
+package org.aksw.sessa.importing.dictionary.implementation;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.IOException;
+import org.aksw.sessa.candidate.Candidate;
+import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
+import org.aksw.sessa.helper.files.handler.TsvFileHandler;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FstDictionaryTest extends FileBasedDictionaryTest {
+
+  @Before
+  public void init() throws IOException {
+    FileHandlerInterface handler = new TsvFileHandler(TEST_FILE1);
+    dictionary = new FstDictionary(handler);
+  }
+
+  @Test
+  public void getExact_SameAsHashMapDictionary() throws IOException {
+    HashMapDictionary hashMapDictionary = new HashMapDictionary(new TsvFileHandler(TEST_FILE1));
+    FstDictionary fstDictionary = (FstDictionary) dictionary;
+    Assert.assertThat(fstDictionary.size(), equalTo(hashMapDictionary.size()));
+    for (String nGram : new String[]{"bill gates", "birthplace", "wife", "DoesNotExist"}) {
+      Assert.assertThat(fstDictionary.getExact(nGram), equalTo(hashMapDictionary.get(nGram)));
+    }
+  }
+
+  @Test
+  public void getByPrefix_FindsCompletions() {
+    String uri = "http://dbpedia.org/resource/Bill_Gates";
+    Candidate candidate = new Candidate(uri, "bill gates");
+    FstDictionary fstDictionary = (FstDictionary) dictionary;
+    Assert.assertThat(fstDictionary.getByPrefix("bill ga"), hasItem(candidate));
+    Assert.assertThat(fstDictionary.getByPrefix("bill gatesx"), not(hasItem(candidate)));
+  }
+
+  @Test
+  public void getFuzzy_FindsMisspelledKey() {
+    String uri = "http://dbpedia.org/ontology/birthPlace";
+    Candidate candidate = new Candidate(uri, "birthplace");
+    FstDictionary fstDictionary = (FstDictionary) dictionary;
+    Assert.assertThat(fstDictionary.getFuzzy("brithplace", 1), hasItem(candidate));
+    Assert.assertThat(fstDictionary.getFuzzy("brthplce", 1), not(hasItem(candidate)));
+    Assert.assertThat(fstDictionary.getFuzzy("brthplce", 2), hasItem(candidate));
+  }
+
+  @Test
+  public void get_ShortNGramOnlyExact() {
+    Assert.assertThat(dictionary.get("wif"), empty());
+  }
+}
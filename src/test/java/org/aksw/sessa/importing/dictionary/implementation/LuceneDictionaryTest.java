@@ -6,8 +6,15 @@ import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
 import org.aksw.sessa.helper.files.handler.RdfFileHandler;
+import org.aksw.sessa.helper.files.handler.ReverseTsvFileHandler;
 import org.aksw.sessa.helper.files.handler.TsvFileHandler;
 import org.aksw.sessa.candidate.Candidate;
 import org.junit.After;
@@ -75,4 +82,79 @@ public class LuceneDictionaryTest extends FileBasedDictionaryTest {
     Assert.assertThat(dictionary.size(), equalTo(size + 1));
   }
 
+  @Test
+  public void bulkLoad_SameAsNormalImport() throws IOException {
+    int size = dictionary.size();
+    LuceneDictionary luceneDictionary = (LuceneDictionary) dictionary;
+    luceneDictionary.clearIndex();
+    luceneDictionary.startBulkLoad();
+    // the second import only contains duplicates
+    luceneDictionary.putAll(new TsvFileHandler(TEST_FILE1));
+    luceneDictionary.putAll(new TsvFileHandler(TEST_FILE1));
+    luceneDictionary.finishBulkLoad();
+    Assert.assertThat(dictionary.size(), equalTo(size));
+    String nGram = "birthplace";
+    String uri = "http://dbpedia.org/ontology/birthPlace";
+    Assert.assertThat(dictionary.get(nGram), hasItem(new Candidate(uri, nGram)));
+  }
+
+  @Test
+  public void putAll_ParallelSameAsBulkLoad() throws IOException {
+    LuceneDictionary luceneDictionary = (LuceneDictionary) dictionary;
+    luceneDictionary.clearIndex();
+    luceneDictionary.startBulkLoad();
+    luceneDictionary.putAll(new TsvFileHandler(TEST_FILE1));
+    luceneDictionary.putAll(new ReverseTsvFileHandler(TEST_FILE2));
+    luceneDictionary.finishBulkLoad();
+    int size = dictionary.size();
+    luceneDictionary.clearIndex();
+    Map<String, FileHandlerInterface> handlers = new LinkedHashMap<>();
+    handlers.put(TEST_FILE1, new TsvFileHandler());
+    handlers.put(TEST_FILE2, new ReverseTsvFileHandler());
+    dictionary.putAll(handlers, 4);
+    Assert.assertThat(dictionary.size(), equalTo(size));
+    String nGram = "hitchenko";
+    String uri = "http://dbpedia.org/resource/Andriy_Hitchenko";
+    Assert.assertThat(dictionary.get(nGram), hasItem(new Candidate(uri, nGram)));
+  }
+
+  @Test
+  public void putAll_ParallelFailsOnUnreadableFile() throws IOException {
+    LuceneDictionary luceneDictionary = (LuceneDictionary) dictionary;
+    luceneDictionary.clearIndex();
+    Map<String, FileHandlerInterface> handlers = new LinkedHashMap<>();
+    handlers.put(TEST_FILE1, new TsvFileHandler());
+    handlers.put("src/test/resources/doesnotexist.tsv", new TsvFileHandler());
+    try {
+      dictionary.putAll(handlers, 4);
+      Assert.fail("The import of an unreadable file did not fail.");
+    } catch (IllegalStateException iSE) {
+      Assert.assertThat(iSE.getCause() instanceof IOException, equalTo(true));
+    }
+    Assert.assertThat(dictionary.size(), equalTo(0));
+  }
+
+  @Test
+  public void get_DuringIncrementalImport() throws Exception {
+    String nGram = "birthplace";
+    Candidate candidate = new Candidate("http://dbpedia.org/ontology/birthPlace", nGram);
+    ((LuceneDictionary) dictionary).setBufferSize(10);
+    AtomicBoolean importing = new AtomicBoolean(true);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<Boolean> lookUps = executor.submit(() -> {
+      boolean alwaysFound = true;
+      while (importing.get()) {
+        alwaysFound &= dictionary.get(nGram).contains(candidate);
+      }
+      return alwaysFound;
+    });
+    dictionary.putAll(new ReverseTsvFileHandler(TEST_FILE2));
+    importing.set(false);
+    executor.shutdown();
+    Assert.assertThat(lookUps.get(), equalTo(true));
+    String newNGram = "hitchenko";
+    String uri = "http://dbpedia.org/resource/Andriy_Hitchenko";
+    Assert.assertThat(dictionary.get(newNGram), hasItem(new Candidate(uri, newNGram)));
+  }
+
 }
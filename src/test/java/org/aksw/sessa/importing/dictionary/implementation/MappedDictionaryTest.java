@@ -0,0 +1,64 @@
+package org.aksw.sessa.importing.dictionary.implementation;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.IOException;
+import org.aksw.sessa.candidate.Candidate;
+import org.aksw.sessa.helper.files.handler.FileHandlerInterface;
+import org.aksw.sessa.helper.files.handler.ReverseTsvFileHandler;
+import org.aksw.sessa.helper.files.handler.TsvFileHandler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedDictionaryTest extends FileBasedDictionaryTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private String location;
+
+  @Before
+  public void init() throws IOException {
+    location = folder.getRoot().toPath().resolve("dictionary").toString();
+    FileHandlerInterface handler = new TsvFileHandler(TEST_FILE1);
+    dictionary = new MappedDictionary(handler, location);
+  }
+
+  @After
+  public void end() {
+    ((MappedDictionary) dictionary).close();
+  }
+
+  @Test
+  public void get_SameAsHashMapDictionary() throws IOException {
+    HashMapDictionary hashMapDictionary = new HashMapDictionary(new TsvFileHandler(TEST_FILE1));
+    Assert.assertThat(dictionary.size(), equalTo(hashMapDictionary.size()));
+    for (String nGram : new String[]{"bill gates", "birthplace", "wife", "DoesNotExist"}) {
+      Assert.assertThat(dictionary.get(nGram), equalTo(hashMapDictionary.get(nGram)));
+    }
+  }
+
+  @Test
+  public void open_ExistingFile() throws IOException {
+    dictionary.putAll(new ReverseTsvFileHandler(TEST_FILE2));
+    int size = dictionary.size();
+    try (MappedDictionary reopened = new MappedDictionary(location)) {
+      Assert.assertThat(reopened.size(), equalTo(size));
+      String nGram = "hitchenko";
+      String uri = "http://dbpedia.org/resource/Andriy_Hitchenko";
+      Assert.assertThat(reopened.get(nGram), hasItem(new Candidate(uri, nGram)));
+    }
+  }
+
+  @Test
+  public void clear_RemovesEntries() {
+    ((MappedDictionary) dictionary).clear();
+    Assert.assertThat(dictionary.size(), equalTo(0));
+    Assert.assertThat(dictionary.get("birthplace"), empty());
+  }
+}
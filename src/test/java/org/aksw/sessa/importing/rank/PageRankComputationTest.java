@@ -0,0 +1,80 @@
+package org.aksw.sessa.importing.rank;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import org.aksw.sessa.importing.rank.PageRankComputation.Graph;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PageRankComputationTest {
+
+  private static final String TEST_FILE = "src/test/resources/testTripleSource.nt";
+  private static final double DELTA = 1e-4;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRank_Cycle() {
+    Graph graph = new Graph(new String[]{"a", "b", "c"}, new int[]{0, 1, 2}, new int[]{1, 2, 0},
+        3);
+    for (float rank : new PageRankComputation(2).rank(graph)) {
+      Assert.assertThat((double) rank, closeTo(1, DELTA));
+    }
+  }
+
+  @Test
+  public void testRank_DanglingResource() {
+    // b has no outgoing edges, its rank is distributed evenly
+    Graph graph = new Graph(new String[]{"a", "b", "c"}, new int[]{0, 2}, new int[]{1, 1}, 2);
+    float[] ranks = new PageRankComputation(2).rank(graph);
+    Assert.assertThat((double) (ranks[0] + ranks[1] + ranks[2]), closeTo(3, DELTA));
+    Assert.assertThat(ranks[1], greaterThan(ranks[0]));
+    Assert.assertThat((double) ranks[0], closeTo(ranks[2], DELTA));
+  }
+
+  @Test
+  public void testRank_ThreadsAgree() {
+    Random random = new Random(42);
+    int size = 1000;
+    int edgeCount = 5000;
+    int[] sources = new int[edgeCount];
+    int[] targets = new int[edgeCount];
+    for (int edge = 0; edge < edgeCount; edge++) {
+      sources[edge] = random.nextInt(size);
+      // skewed targets, so that some resources are ranked much higher
+      targets[edge] = random.nextInt(random.nextInt(size) + 1);
+    }
+    Graph graph = new Graph(new String[size], sources, targets, edgeCount);
+    float[] sequentialRanks = new PageRankComputation(1).rank(graph);
+    float[] parallelRanks = new PageRankComputation(4).rank(graph);
+    for (int resource = 0; resource < size; resource++) {
+      Assert.assertThat((double) parallelRanks[resource],
+          closeTo(sequentialRanks[resource], DELTA));
+    }
+  }
+
+  @Test
+  public void testCompute() throws IOException {
+    File file = new File(folder.getRoot(), "pagerank_table");
+    new PageRankComputation(2).compute(TEST_FILE, file.toPath());
+    PageRankTable table = new PageRankTable(file.getPath());
+    // literals are no resources
+    Assert.assertThat(table.size(), equalTo(5));
+    String[] uris = {"Bill_Gates", "Melinda_Gates", "Seattle", "Dallas"};
+    double sum = table.getRank("http://dbpedia.org/ontology/Person");
+    for (String uri : uris) {
+      float rank = table.getRank("http://dbpedia.org/resource/" + uri);
+      Assert.assertThat(rank, greaterThan(0f));
+      sum += rank;
+    }
+    Assert.assertThat(sum, closeTo(5, DELTA));
+  }
+}
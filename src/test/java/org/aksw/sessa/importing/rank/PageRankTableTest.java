@@ -0,0 +1,70 @@
+package org.aksw.sessa.importing.rank;
+
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.aksw.sessa.importing.dictionary.energy.MappedPageRankFunction;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PageRankTableTest {
+
+  private static final String TEST_FILE = "src/test/resources/testPageRank.ttl";
+  private static final String BILL_GATES = "http://dbpedia.org/resource/Bill_Gates";
+  private static final String MELINDA_GATES = "http://dbpedia.org/resource/Melinda_Gates";
+  private static final String SEATTLE = "http://dbpedia.org/resource/Seattle";
+  private static final String DALLAS = "http://dbpedia.org/resource/Dallas";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private PageRankTable table;
+
+  @Before
+  public void init() throws IOException {
+    File file = new File(folder.getRoot(), "pagerank_table");
+    PageRankTable.build(TEST_FILE, file.toPath());
+    table = new PageRankTable(file.getPath());
+  }
+
+  @Test
+  public void testSize() {
+    Assert.assertThat(table.size(), equalTo(3));
+  }
+
+  @Test
+  public void testGetRank_Uri() {
+    Assert.assertThat(table.getRank(BILL_GATES), equalTo(52.4f));
+    Assert.assertThat(table.getRank(MELINDA_GATES), equalTo(11.2f));
+    Assert.assertThat(table.getRank(SEATTLE), equalTo(213.7f));
+    Assert.assertThat(table.getRank(DALLAS), equalTo(0f));
+    Assert.assertThat(table.getRank("http://dbpedia.org/resource/Bill"), equalTo(0f));
+  }
+
+  @Test
+  public void testWrite_NonAsciiUris() throws IOException {
+    Map<String, Float> ranks = new HashMap<>();
+    ranks.put("http://dbpedia.org/resource/Z\u00fcrich", 3f);
+    ranks.put("http://dbpedia.org/resource/Z\ud83d\ude00", 2f);
+    ranks.put("http://dbpedia.org/resource/Z\uff21", 1f);
+    File file = new File(folder.getRoot(), "written_table");
+    PageRankTable.write(ranks, file.toPath());
+    PageRankTable writtenTable = new PageRankTable(file.getPath());
+    for (Map.Entry<String, Float> entry : ranks.entrySet()) {
+      Assert.assertThat(writtenTable.getRank(entry.getKey()), equalTo(entry.getValue()));
+    }
+  }
+
+  @Test
+  public void testMappedPageRankFunction() {
+    MappedPageRankFunction function = new MappedPageRankFunction(table);
+    Assert.assertThat(function.calculateEnergyScore("seattle", SEATTLE, "Seattle"),
+        equalTo(213.7f));
+    Assert.assertThat(function.calculateEnergyScore("dallas", DALLAS, "Dallas"), equalTo(0f));
+  }
+}
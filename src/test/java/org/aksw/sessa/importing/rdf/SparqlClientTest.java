@@ -0,0 +1,142 @@
+package org.aksw.sessa.importing.rdf;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.aksw.sessa.importing.rdf.implementation.AdjacencyIndex;
+import org.aksw.sessa.importing.rdf.implementation.LocalTripleStoreTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SparqlClientTest {
+
+  private static final String BILL_GATES = "http://dbpedia.org/resource/Bill_Gates";
+  private static final String SPOUSE = "http://dbpedia.org/ontology/spouse";
+  private static final String MELINDA_GATES = "http://dbpedia.org/resource/Melinda_Gates";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private StandInSparqlServer server;
+  private SparqlClient client;
+
+  private AdjacencyIndex tripleSource;
+
+  @Before
+  public void init() throws IOException {
+    Path indexFile = folder.newFile().toPath();
+    AdjacencyIndex.build(LocalTripleStoreTest.TEST_FILE, indexFile);
+    tripleSource = new AdjacencyIndex(indexFile.toString());
+    server = new StandInSparqlServer(tripleSource, 10);
+    client = new SparqlClient(2, 10000, 0, 0);
+  }
+
+  @After
+  public void close() {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  public void testQueries_ReuseConnections() {
+    DbpediaSparqlQuery query = new DbpediaSparqlQuery(server.getEndpoint(), null, client);
+    for (int i = 0; i < 20; i++) {
+      Assert.assertTrue(query.askQuery(BILL_GATES, SPOUSE, MELINDA_GATES));
+      Assert.assertThat(query.executeQuery(
+          "SELECT DISTINCT ?o WHERE { <" + BILL_GATES + "> <" + SPOUSE + "> ?o. }").size(),
+          equalTo(1));
+    }
+    Assert.assertThat(server.getQueryCount(), equalTo(40));
+    Assert.assertThat(server.getConnectionCount(), equalTo(1));
+  }
+
+  @Test
+  public void testQueries_BoundedConcurrency() throws Exception {
+    DbpediaSparqlQuery query = new DbpediaSparqlQuery(server.getEndpoint(), null, client);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<Boolean>> answers = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      answers.add(executor.submit(() -> query.askQuery(BILL_GATES, SPOUSE, MELINDA_GATES)));
+    }
+    for (Future<Boolean> answer : answers) {
+      Assert.assertTrue(answer.get());
+    }
+    executor.shutdown();
+    Assert.assertThat(server.getMaxInFlight(), lessThanOrEqualTo(2));
+    Assert.assertThat(server.getConnectionCount(), lessThanOrEqualTo(2));
+  }
+
+  @Test
+  public void testQueries_RetriedAfterTimeout() throws IOException {
+    try (StandInSparqlServer slowServer = new StandInSparqlServer(tripleSource, 1000);
+        SparqlClient impatientClient = new SparqlClient(1, 100, 2, 10)) {
+      DbpediaSparqlQuery query =
+          new DbpediaSparqlQuery(slowServer.getEndpoint(), null, impatientClient);
+      Assert.assertFalse(query.askQuery(BILL_GATES, SPOUSE, MELINDA_GATES));
+      Assert.assertThat(slowServer.getQueryCount(), equalTo(3));
+    }
+  }
+
+  @Test
+  public void testQueries_RetriedAfterServerError() throws IOException {
+    try (SparqlClient retryingClient = new SparqlClient(1, 10000, 2, 10)) {
+      DbpediaSparqlQuery query =
+          new DbpediaSparqlQuery(server.getEndpoint(), null, retryingClient);
+      server.failNext(503, 2);
+      Assert.assertTrue(query.askQuery(BILL_GATES, SPOUSE, MELINDA_GATES));
+      Assert.assertThat(server.getQueryCount(), equalTo(3));
+    }
+  }
+
+  @Test
+  public void testQueries_NotRetriedAfterClientError() throws IOException {
+    try (SparqlClient retryingClient = new SparqlClient(1, 10000, 2, 10)) {
+      DbpediaSparqlQuery query =
+          new DbpediaSparqlQuery(server.getEndpoint(), null, retryingClient);
+      server.failNext(400, 1);
+      Assert.assertFalse(query.askQuery(BILL_GATES, SPOUSE, MELINDA_GATES));
+      Assert.assertThat(server.getQueryCount(), equalTo(1));
+    }
+  }
+
+  @Test
+  public void testQueries_NotRetriedAfterRefusedConnection() throws IOException {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    try (SparqlClient retryingClient = new SparqlClient(1, 10000, 2, 10000)) {
+      DbpediaSparqlQuery query =
+          new DbpediaSparqlQuery("http://localhost:" + port + "/sparql", null, retryingClient);
+      long start = System.currentTimeMillis();
+      Assert.assertFalse(query.askQuery(BILL_GATES, SPOUSE, MELINDA_GATES));
+      // a retry would have waited for the retry delay
+      Assert.assertThat(System.currentTimeMillis() - start, lessThan(10000L));
+    }
+  }
+
+  @Test
+  public void testIsTransient_UnreachableEndpoint() {
+    Assert.assertFalse(
+        SparqlClient.isTransient(new RuntimeException(new UnknownHostException("dbpedia.org"))));
+    Assert.assertFalse(
+        SparqlClient.isTransient(new RuntimeException(new ConnectException("Connection refused"))));
+    Assert.assertTrue(SparqlClient
+        .isTransient(new RuntimeException(new SocketTimeoutException("Read timed out"))));
+  }
+}
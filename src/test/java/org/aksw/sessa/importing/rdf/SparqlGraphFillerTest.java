@@ -1,8 +1,23 @@
 package org.aksw.sessa.importing.rdf;
 
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import org.aksw.sessa.helper.cache.PersistentQueryCache;
+import org.aksw.sessa.importing.rdf.implementation.AdjacencyIndex;
+import org.aksw.sessa.importing.rdf.implementation.LocalTripleStoreTest;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * Created by Simon Bordewisch on 06.07.17.
@@ -12,6 +27,9 @@ import org.junit.Test;
  */
 public class SparqlGraphFillerTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void testFindMissingTripleElement_billgatesAndSeattle() {
     String bg = "http://dbpedia.org/resource/Bill_Gates";
@@ -23,4 +41,134 @@ public class SparqlGraphFillerTest {
     boolean contains = resultSet.contains("http://dbpedia.org/ontology/birthPlace");
     Assert.assertTrue(contains);
   }
+
+  @Test
+  public void testFindMissingTripleElement_CachedAfterRestart() throws IOException {
+    String bg = "http://dbpedia.org/resource/Bill_Gates";
+    String seattle = "http://dbpedia.org/resource/Seattle";
+    Path indexFile = folder.newFile().toPath();
+    AdjacencyIndex.build(LocalTripleStoreTest.TEST_FILE, indexFile);
+    Path cacheFile = folder.getRoot().toPath().resolve("cache");
+    try (StandInSparqlServer server =
+        new StandInSparqlServer(new AdjacencyIndex(indexFile.toString()), 0)) {
+      try (PersistentQueryCache cache = new PersistentQueryCache(cacheFile, 10, 0)) {
+        SparqlGraphFiller sgf = new SparqlGraphFiller(server.getEndpoint(), cache);
+        Assert.assertThat(sgf.findMissingTripleElement(seattle, bg),
+            containsInAnyOrder("http://dbpedia.org/ontology/birthPlace"));
+        Assert.assertTrue(sgf.containsTriple(bg, "http://dbpedia.org/ontology/birthPlace",
+            seattle));
+      }
+      int queryCount = server.getQueryCount();
+      try (PersistentQueryCache cache = new PersistentQueryCache(cacheFile, 10, 0)) {
+        SparqlGraphFiller sgf = new SparqlGraphFiller(server.getEndpoint(), cache);
+        Assert.assertThat(sgf.findMissingTripleElement(seattle, bg),
+            containsInAnyOrder("http://dbpedia.org/ontology/birthPlace"));
+        Assert.assertTrue(sgf.containsTriple(bg, "http://dbpedia.org/ontology/birthPlace",
+            seattle));
+      }
+      Assert.assertThat(server.getQueryCount(), equalTo(queryCount));
+    }
+  }
+
+  @Test
+  public void testFindMissingTripleElements_OneQueryPerBatch() throws IOException {
+    List<String> uris = Arrays.asList("http://dbpedia.org/resource/Bill_Gates",
+        "http://dbpedia.org/resource/Melinda_Gates", "http://dbpedia.org/resource/Seattle",
+        "http://dbpedia.org/resource/Dallas", "http://dbpedia.org/ontology/spouse",
+        "http://dbpedia.org/ontology/birthPlace");
+    List<String[]> pairs = new ArrayList<>();
+    for (String uri1 : uris) {
+      for (String uri2 : uris) {
+        if (!uri1.equals(uri2)) {
+          pairs.add(new String[]{uri1, uri2});
+        }
+      }
+    }
+    Path indexFile = folder.newFile().toPath();
+    AdjacencyIndex.build(LocalTripleStoreTest.TEST_FILE, indexFile);
+    AdjacencyIndex index = new AdjacencyIndex(indexFile.toString());
+    try (StandInSparqlServer server = new StandInSparqlServer(index, 0)) {
+      SparqlGraphFiller sgf = new SparqlGraphFiller(server.getEndpoint(), null, 8);
+      List<Set<String>> results = sgf.findMissingTripleElements(pairs);
+      Assert.assertThat(server.getQueryCount(), equalTo(4));
+      Assert.assertThat(results.size(), equalTo(pairs.size()));
+      for (int i = 0; i < pairs.size(); i++) {
+        Assert.assertThat(results.get(i),
+            equalTo(index.findMissingTripleElement(pairs.get(i)[0], pairs.get(i)[1])));
+      }
+    }
+  }
+
+  @Test
+  public void testFindMissingTripleElements_SkipsLiterals() throws IOException {
+    String label = "Melinda Gates@en";
+    List<String> terms = Arrays.asList("http://dbpedia.org/resource/Bill_Gates",
+        "http://dbpedia.org/resource/Melinda_Gates", "http://dbpedia.org/ontology/spouse",
+        "http://www.w3.org/2000/01/rdf-schema#label", label);
+    List<String[]> pairs = new ArrayList<>();
+    for (String term1 : terms) {
+      for (String term2 : terms) {
+        if (!term1.equals(term2)) {
+          pairs.add(new String[]{term1, term2});
+        }
+      }
+    }
+    Path indexFile = folder.newFile().toPath();
+    AdjacencyIndex.build(LocalTripleStoreTest.TEST_FILE, indexFile);
+    AdjacencyIndex index = new AdjacencyIndex(indexFile.toString());
+    try (StandInSparqlServer server = new StandInSparqlServer(index, 0)) {
+      SparqlGraphFiller sgf = new SparqlGraphFiller(server.getEndpoint());
+      List<Set<String>> results = sgf.findMissingTripleElements(pairs);
+      Assert.assertThat(server.getQueryCount(), equalTo(1));
+      for (int i = 0; i < pairs.size(); i++) {
+        String[] pair = pairs.get(i);
+        if (pair[0].equals(label) || pair[1].equals(label)) {
+          Assert.assertThat(results.get(i), empty());
+        } else {
+          Assert.assertThat(results.get(i),
+              equalTo(index.findMissingTripleElement(pair[0], pair[1])));
+        }
+      }
+      // the pair of Melinda Gates and rdfs:label finds the literal
+      Assert.assertThat(results.get(6), containsInAnyOrder(label));
+    }
+  }
+
+  @Test
+  public void testFindMissingTripleElements_LimitReached() throws IOException {
+    int crowdingResults = 3 * SparqlGraphFiller.LIMIT_PER_PAIR + 50;
+    TripleSourceInterface tripleSource = new TripleSourceInterface() {
+      @Override
+      public Set<String> findMissingTripleElement(String uri1, String uri2) {
+        Set<String> results = new LinkedHashSet<>();
+        if (uri1.endsWith("crowding")) {
+          for (int i = 0; i < crowdingResults; i++) {
+            results.add("http://example.org/crowded/" + i);
+          }
+        } else {
+          results.add(uri1 + "/" + uri2.substring(uri2.lastIndexOf('/') + 1));
+        }
+        return results;
+      }
+
+      @Override
+      public boolean containsTriple(String subject, String predicate, String object) {
+        return false;
+      }
+    };
+    List<String[]> pairs = Arrays.asList(
+        new String[]{"http://example.org/crowding", "http://example.org/a"},
+        new String[]{"http://example.org/b", "http://example.org/c"},
+        new String[]{"http://example.org/d", "http://example.org/e"});
+    try (StandInSparqlServer server = new StandInSparqlServer(tripleSource, 0)) {
+      SparqlGraphFiller sgf = new SparqlGraphFiller(server.getEndpoint());
+      List<Set<String>> results = sgf.findMissingTripleElements(pairs);
+      // the results of the first pair fill the whole first batch, the other pairs are looked up
+      // with a second batch
+      Assert.assertThat(server.getQueryCount(), equalTo(2));
+      Assert.assertThat(results.get(0).size(), equalTo(SparqlGraphFiller.LIMIT_PER_PAIR));
+      Assert.assertThat(results.get(1), containsInAnyOrder("http://example.org/b/c"));
+      Assert.assertThat(results.get(2), containsInAnyOrder("http://example.org/d/e"));
+    }
+  }
 }
@@ -0,0 +1,185 @@
+package org.aksw.sessa.importing.rdf;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for a SPARQL endpoint, which answers the queries of {@link SparqlGraphFiller}
+ * (i.e. the queries for one or several pairs and ASK-queries for one triple) with the given triple
+ * source after a fixed delay. Like a real endpoint, it rejects queries with a term in angle
+ * brackets which is not an IRI (e.g. a literal) and answers found literals as literals. It counts
+ * how many queries are answered at the same time and over how many connections they were sent. It
+ * can be told to fail the next queries with a given HTTP status.
+ */
+public class StandInSparqlServer implements AutoCloseable {
+
+  private static final Pattern URI_PATTERN = Pattern.compile("<([^>]+)>");
+  private static final Pattern INVALID_IRI_PATTERN = Pattern.compile("[\\s\"{}|^`\\\\]");
+  private static final Pattern LIMIT_PATTERN = Pattern.compile("LIMIT (\\d+)");
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final TripleSourceInterface tripleSource;
+  private final long delay;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final AtomicInteger queryCount = new AtomicInteger();
+  private final AtomicInteger failures = new AtomicInteger();
+  private volatile int failureStatus;
+  private final Set<InetSocketAddress> clientAddresses = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Starts the server on a free port.
+   *
+   * @param tripleSource source of the answers
+   * @param delay delay of every answer in milliseconds
+   */
+  public StandInSparqlServer(TripleSourceInterface tripleSource, long delay) throws IOException {
+    this.tripleSource = tripleSource;
+    this.delay = delay;
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/sparql", this::handle);
+    executor = Executors.newCachedThreadPool();
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  public String getEndpoint() {
+    return "http://localhost:" + server.getAddress().getPort() + "/sparql";
+  }
+
+  /**
+   * Answers the next queries with the given HTTP status instead of their results.
+   *
+   * @param status HTTP status of the failures
+   * @param count number of queries which fail
+   */
+  public void failNext(int status, int count) {
+    failureStatus = status;
+    failures.set(count);
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight.get();
+  }
+
+  public int getQueryCount() {
+    return queryCount.get();
+  }
+
+  public int getConnectionCount() {
+    return clientAddresses.size();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    int current = inFlight.incrementAndGet();
+    maxInFlight.accumulateAndGet(current, Math::max);
+    queryCount.incrementAndGet();
+    clientAddresses.add(exchange.getRemoteAddress());
+    try {
+      Thread.sleep(delay);
+      if (failures.getAndUpdate(count -> Math.max(count - 1, 0)) > 0) {
+        exchange.sendResponseHeaders(failureStatus, -1);
+        return;
+      }
+      String query = readQuery(exchange);
+      List<String> uris = new ArrayList<>();
+      Matcher matcher = URI_PATTERN.matcher(query);
+      boolean ask = query.contains("ASK");
+      boolean batch = query.contains("VALUES");
+      while (matcher.find()) {
+        if (INVALID_IRI_PATTERN.matcher(matcher.group(1)).find()) {
+          exchange.sendResponseHeaders(400, -1);
+          return;
+        }
+        if (ask || batch || !uris.contains(matcher.group(1))) {
+          uris.add(matcher.group(1));
+        }
+      }
+      Matcher limitMatcher = LIMIT_PATTERN.matcher(query);
+      int limit = limitMatcher.find() ? Integer.parseInt(limitMatcher.group(1)) : Integer.MAX_VALUE;
+      List<String> bindings = new ArrayList<>();
+      if (batch) {
+        for (int i = 0; i + 1 < uris.size(); i += 2) {
+          for (String result : findTerms(uris.get(i), uris.get(i + 1))) {
+            bindings.add("{\"a\":" + termValue(uris.get(i)) + ",\"b\":"
+                + termValue(uris.get(i + 1)) + ",\"o\":" + termValue(result) + "}");
+          }
+        }
+      } else if (!ask && uris.size() == 2) {
+        for (String result : findTerms(uris.get(0), uris.get(1))) {
+          bindings.add("{\"o\":" + termValue(result) + "}");
+        }
+      }
+      String json = "{\"head\":{\"vars\":[" + (batch ? "\"a\",\"b\"," : "") + "\"o\"]},"
+          + "\"results\":{\"bindings\":["
+          + String.join(",", bindings.subList(0, Math.min(limit, bindings.size()))) + "]}}";
+      if (ask) {
+        boolean answer = uris.size() == 3
+            && tripleSource.containsTriple(uris.get(0), uris.get(1), uris.get(2));
+        json = "{\"head\":{},\"boolean\":" + answer + "}";
+      }
+      byte[] response = json.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", "application/sparql-results+json");
+      exchange.sendResponseHeaders(200, response.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(response);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      exchange.sendResponseHeaders(503, -1);
+    } finally {
+      inFlight.decrementAndGet();
+      exchange.close();
+    }
+  }
+
+  private List<String> findTerms(String uri1, String uri2) {
+    return new ArrayList<>(tripleSource.findMissingTripleElement(uri1, uri2));
+  }
+
+  private static String termValue(String term) {
+    if (SparqlGraphFiller.isIri(term)) {
+      return "{\"type\":\"uri\",\"value\":\"" + term + "\"}";
+    }
+    return "{\"type\":\"literal\",\"value\":\""
+        + term.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+  }
+
+  private static String readQuery(HttpExchange exchange) throws IOException {
+    String parameters = exchange.getRequestURI().getRawQuery();
+    if ("POST".equals(exchange.getRequestMethod())) {
+      ByteArrayOutputStream body = new ByteArrayOutputStream();
+      try (InputStream in = exchange.getRequestBody()) {
+        byte[] buffer = new byte[4096];
+        for (int read; (read = in.read(buffer)) > 0; ) {
+          body.write(buffer, 0, read);
+        }
+      }
+      parameters = body.toString(StandardCharsets.UTF_8.name());
+    }
+    return parameters == null ? "" : URLDecoder.decode(parameters, StandardCharsets.UTF_8.name());
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
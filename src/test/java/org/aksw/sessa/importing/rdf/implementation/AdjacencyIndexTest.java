@@ -0,0 +1,73 @@
+package org.aksw.sessa.importing.rdf.implementation;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AdjacencyIndexTest {
+
+  private static final String BILL_GATES = "http://dbpedia.org/resource/Bill_Gates";
+  private static final String MELINDA_GATES = "http://dbpedia.org/resource/Melinda_Gates";
+  private static final String SPOUSE = "http://dbpedia.org/ontology/spouse";
+  private static final String BIRTH_PLACE = "http://dbpedia.org/ontology/birthPlace";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private AdjacencyIndex index;
+
+  @Before
+  public void init() throws IOException {
+    File file = new File(folder.getRoot(), "adjacency_index");
+    AdjacencyIndex.build(LocalTripleStoreTest.TEST_FILE, file.toPath());
+    index = new AdjacencyIndex(file.getPath());
+  }
+
+  @Test
+  public void testSize() {
+    Assert.assertThat(index.size(), equalTo(6));
+  }
+
+  @Test
+  public void testFindMissingTripleElement() {
+    Assert.assertThat(index.findMissingTripleElement(MELINDA_GATES, BIRTH_PLACE),
+        containsInAnyOrder("http://dbpedia.org/resource/Dallas"));
+    Assert.assertThat(index.findMissingTripleElement(MELINDA_GATES, BILL_GATES),
+        containsInAnyOrder(SPOUSE));
+    Assert.assertThat(index.findMissingTripleElement(BILL_GATES, "http://example.org/unknown"),
+        empty());
+  }
+
+  @Test
+  public void testFindMissingTripleElement_SameAsLocalTripleStore() throws IOException {
+    List<String> uris = Arrays.asList(BILL_GATES, MELINDA_GATES, SPOUSE, BIRTH_PLACE,
+        "http://dbpedia.org/resource/Seattle", "http://dbpedia.org/resource/Dallas",
+        "http://dbpedia.org/ontology/Person", "http://www.w3.org/2000/01/rdf-schema#label",
+        "http://www.w3.org/1999/02/22-rdf-syntax-ns#type");
+    try (LocalTripleStore store = new LocalTripleStore(folder.newFolder("store").getPath())) {
+      store.load(LocalTripleStoreTest.TEST_FILE);
+      for (String uri1 : uris) {
+        for (String uri2 : uris) {
+          Assert.assertThat(uri1 + " " + uri2, index.findMissingTripleElement(uri1, uri2),
+              equalTo(store.findMissingTripleElement(uri1, uri2)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testContainsTriple() {
+    Assert.assertTrue(index.containsTriple(BILL_GATES, SPOUSE, MELINDA_GATES));
+    Assert.assertFalse(index.containsTriple(BILL_GATES, BIRTH_PLACE, MELINDA_GATES));
+    Assert.assertFalse(index.containsTriple(MELINDA_GATES, BILL_GATES, SPOUSE));
+  }
+}
@@ -0,0 +1,70 @@
+package org.aksw.sessa.importing.rdf.implementation;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LocalTripleStoreTest {
+
+  public static final String TEST_FILE = "src/test/resources/testTripleSource.nt";
+  private static final String BILL_GATES = "http://dbpedia.org/resource/Bill_Gates";
+  private static final String MELINDA_GATES = "http://dbpedia.org/resource/Melinda_Gates";
+  private static final String SPOUSE = "http://dbpedia.org/ontology/spouse";
+  private static final String BIRTH_PLACE = "http://dbpedia.org/ontology/birthPlace";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private LocalTripleStore store;
+
+  @Before
+  public void init() throws IOException {
+    store = new LocalTripleStore(folder.newFolder("store").getPath());
+    Assert.assertTrue(store.isEmpty());
+    store.load(TEST_FILE);
+  }
+
+  @After
+  public void close() {
+    store.close();
+  }
+
+  @Test
+  public void testFindMissingTripleElement_SubjectAndPredicate() {
+    Assert.assertThat(store.findMissingTripleElement(MELINDA_GATES, BIRTH_PLACE),
+        containsInAnyOrder("http://dbpedia.org/resource/Dallas"));
+  }
+
+  @Test
+  public void testFindMissingTripleElement_SubjectAndObject() {
+    // both directions of the spouse relation are found, regardless of the order of the URIs
+    Assert.assertThat(store.findMissingTripleElement(BILL_GATES, MELINDA_GATES),
+        containsInAnyOrder(SPOUSE));
+    Assert.assertThat(store.findMissingTripleElement(MELINDA_GATES, BILL_GATES),
+        containsInAnyOrder(SPOUSE));
+  }
+
+  @Test
+  public void testFindMissingTripleElement_PredicateAndObject() {
+    Assert.assertThat(store.findMissingTripleElement("http://dbpedia.org/resource/Seattle",
+        BIRTH_PLACE), containsInAnyOrder(BILL_GATES));
+  }
+
+  @Test
+  public void testFindMissingTripleElement_NoTriple() {
+    String dallas = "http://dbpedia.org/resource/Dallas";
+    Assert.assertThat(store.findMissingTripleElement(BILL_GATES, dallas), empty());
+  }
+
+  @Test
+  public void testContainsTriple() {
+    Assert.assertTrue(store.containsTriple(BILL_GATES, SPOUSE, MELINDA_GATES));
+    Assert.assertFalse(store.containsTriple(BILL_GATES, BIRTH_PLACE, MELINDA_GATES));
+  }
+}
@@ -15,7 +15,10 @@ import org.aksw.sessa.helper.files.handler.ReverseTsvFileHandler;
 import org.aksw.sessa.helper.files.handler.TsvFileHandler;
 import org.aksw.sessa.helper.graph.GraphInterface;
 import org.aksw.sessa.helper.graph.Node;
+import org.aksw.sessa.helper.graph.SelfBuildingGraph;
+import org.aksw.sessa.query.models.NGramHierarchy;
 import org.aksw.sessa.query.models.QAModel;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -41,6 +44,11 @@ public class SESSATest {
     sessa.loadFileToDictionary(handler2);
   }
 
+  @After
+  public void close() {
+    sessa.close();
+  }
+
   @Test
   public void testAnswer_onEmpty() {
     question = "";
@@ -48,6 +56,16 @@ public class SESSATest {
     Assert.assertThat(answer, is(nullValue()));
   }
 
+  @Test
+  public void testAnswer_onTooManyWords() {
+    StringBuilder longQuestion = new StringBuilder("bill");
+    for (int i = 0; i < NGramHierarchy.MAX_WORDS; i++) {
+      longQuestion.append(" gates");
+    }
+    answer = sessa.answer(longQuestion.toString());
+    Assert.assertThat(answer.isEmpty(), is(true));
+  }
+
   @Test
   public void testAnswer_onRunningExample() {
     question = "birthplace bill gates wife";
@@ -115,12 +133,14 @@ public class SESSATest {
   public void testAnswer_WhichShouldGiveRdfType_BeforePreProcessing() {
     question = "musical music by elton john";
     QAModel[] qaModels = sessa.getQAModels(question);
-    Node<String> node = new Node<>("http://www.w3.org/1999/02/22-rdf-syntax-ns#type");
+    Node<Integer> node = new Node<>(qaModels[0].getUriIndex()
+        .findId("http://www.w3.org/1999/02/22-rdf-syntax-ns#type"));
     GraphInterface graph = qaModels[0].getGraph();
     GraphInterface path = graph.findPathsToNodes(qaModels[0].getResults());
     log.debug("\n{}", path.asDOTFormat());
     Assert.assertThat(qaModels[0].getResults(), hasItem(node));
-    node = new Node<>("http://dbpedia.org/resource/The_Lion_King_(musical)");
+    node = new Node<>(qaModels[1].getUriIndex()
+        .findId("http://dbpedia.org/resource/The_Lion_King_(musical)"));
     path = qaModels[1].getGraph().findPathsToNodes(qaModels[1].getResults());
     log.debug("\n{}", path.asDOTFormat());
     Assert.assertThat(qaModels[1].getResults(), hasItem(node));
@@ -129,13 +149,15 @@ public class SESSATest {
   @Test
   public void testGetGraphFor_TestColors() {
     question = "music by elton john current production minskoff theatre";
-    GraphInterface graph = sessa.getGraphFor(question);
-    HashMap<String, Node> nodes = new HashMap<>();
-    for (Node node : graph.getNodes()) {
-      nodes.put(node.getContent().toString(), node);
+    SelfBuildingGraph graph = (SelfBuildingGraph) sessa.getGraphFor(question);
+    HashMap<String, Node<?>> nodes = new HashMap<>();
+    for (Node<?> node : graph.getNodes()) {
+      if (!node.isFactNode()) {
+        nodes.put(graph.getUriIndex().getUri((Integer) node.getContent()), node);
+      }
     }
     String answer = "http://dbpedia.org/resource/The_Lion_King_(musical)";
-    Node answerNode = nodes.get(answer);
+    Node<?> answerNode = nodes.get(answer);
     System.out.println(graph);
     Assert.assertThat(answerNode.getExplanation(), equalTo(question.split(" ").length));
   }
@@ -219,4 +219,29 @@ public class NGramEntryPositionTest {
     Assert.assertThat(pos1.isMergeable(set), is(false));
   }
 
+  @Test
+  public void testGetIndex_NumbersAllPositions() {
+    int words = 12;
+    Set<Integer> indices = new HashSet<>();
+    for (int length = 1; length <= words; length++) {
+      for (int position = 0; position + length <= words; position++) {
+        NGramEntryPosition pos = new NGramEntryPosition(length, position);
+        Assert.assertThat(pos.getIndex() < words * (words + 1) / 2, is(true));
+        Assert.assertThat(indices.add(pos.getIndex()), is(true));
+        Assert.assertThat(NGramEntryPosition.fromIndex(pos.getIndex()), equalTo(pos));
+      }
+    }
+  }
+
+  @Test
+  public void testIsAncestorOf_SameAsDescendants() {
+    for (int index1 = 0; index1 < 45; index1++) {
+      NGramEntryPosition pos1 = NGramEntryPosition.fromIndex(index1);
+      for (int index2 = 0; index2 < 45; index2++) {
+        NGramEntryPosition pos2 = NGramEntryPosition.fromIndex(index2);
+        Assert.assertThat(pos1.isAncestorOf(pos2),
+            is(pos1.getAllDescendants().contains(pos2)));
+      }
+    }
+  }
 }
@@ -4,7 +4,9 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.junit.Assert;
 import org.junit.Before;
@@ -168,4 +170,55 @@ public class NGramHierarchyTest {
   public void testGetPosition_forOutOfBounds(){
     Assert.assertThat(hierarchy.getPosition("wife outofbounce"), is(nullValue()));
   }
+
+  @Test
+  public void testGetPositionTable_Descendants() {
+    NGramPositionTable table = hierarchy.getPositionTable();
+    Assert.assertThat(new HashSet<>(table.getPositions()), equalTo(hierarchy.getAllPositions()));
+    for (NGramEntryPosition position : table.getPositions()) {
+      Assert.assertThat(new HashSet<>(table.getDescendants(position)),
+          equalTo(position.getAllDescendants()));
+    }
+    NGramEntryPosition billGates = new NGramEntryPosition(2, 1);
+    Assert.assertThat(table.getDescendants(billGates),
+        equalTo(Arrays.asList(new NGramEntryPosition(1, 1), new NGramEntryPosition(1, 2))));
+  }
+
+  @Test
+  public void testGetPositionTable_DescendantsForMaxWords() {
+    NGramPositionTable table = NGramPositionTable.forWords(NGramHierarchy.MAX_WORDS);
+    for (NGramEntryPosition position : table.getPositions()) {
+      List<NGramEntryPosition> descendants = table.getDescendants(position);
+      Assert.assertThat(new HashSet<>(descendants), equalTo(position.getAllDescendants()));
+      for (int i = 1; i < descendants.size(); i++) {
+        Assert.assertThat(
+            descendants.get(i - 1).getIndex() < descendants.get(i).getIndex(), is(true));
+      }
+    }
+  }
+
+  @Test
+  public void testGetPositionTable_ReplacedAfterExtension() {
+    NGramPositionTable table = hierarchy.getPositionTable();
+    Assert.assertThat(hierarchy.getPositionTable() == table, is(true));
+    Assert.assertThat(new NGramHierarchy("a b c d").getPositionTable() == table, is(true));
+    Assert.assertThat(table.get(2, 1) == table.get(2, 1), is(true));
+    hierarchy.extendHierarchy("melinda");
+    Assert.assertThat(hierarchy.getPositionTable().getPositions().size(), is(15));
+  }
+
+  @Test
+  public void testExtendHierarchy_MaxWords() {
+    String[] words = new String[NGramHierarchy.MAX_WORDS - hierarchy.getNGramLength()];
+    Arrays.fill(words, "word");
+    hierarchy.extendHierarchy(words);
+    NGramPositionTable table = hierarchy.getPositionTable();
+    Assert.assertThat(table.getPositions().size(), is(ColorMasks.MAX_COLORS));
+    try {
+      hierarchy.extendHierarchy("word");
+      Assert.fail("The hierarchy should not accept more than the maximum number of words.");
+    } catch (IllegalArgumentException e) {
+      Assert.assertThat(hierarchy.getNGramLength(), is(NGramHierarchy.MAX_WORDS));
+    }
+  }
 }
@@ -20,7 +20,7 @@ public class QAModelTest {
   @Test
   public void testGetExplanationScore(){
     QAModel qaModel = new QAModel();
-    Set<Node> results = new HashSet<>();
+    Set<Node<?>> results = new HashSet<>();
     NGramEntryPosition threeExplanationColor = new NGramEntryPosition(3, 1);
     Node<Integer> node = new Node<Integer>(1);
     node.addColor(threeExplanationColor);